@@ -0,0 +1,96 @@
+package resty.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import resty.Resty;
+import resty.benchmark.stub.StubServer;
+import resty.cache.DiskCacheStore;
+import resty.cache.ResponseCache;
+import resty.entity.RestEntity;
+import resty.response.RestResponse;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Measures the latency of GET requests served by the response cache without contacting the server,
+ * either from memory or from the memory-mapped disk store, with several threads looking up at the same time.
+ * The memory tier of the disk setup is too small to keep any response, so that every lookup reads the disk store.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class CacheLookupBenchmark {
+
+    @Param({"MEMORY", "DISK"})
+    public String tier;
+
+    @Param({"1024", "65536"})
+    public int payloadSize;
+
+    @Setup
+    public void setup() throws Exception {
+        server = StubServer.start(payloadSize, 0, "max-age=86400");
+        directory = Files.createTempDirectory("resty-cache");
+        ResponseCache cache;
+        if ("DISK".equals(tier)) {
+            diskStore = new DiskCacheStore(directory, 4L * ENTRIES * (payloadSize + 1024));
+            cache = new ResponseCache(1, diskStore);
+        } else {
+            cache = new ResponseCache(4L * ENTRIES * (payloadSize + 1024));
+        }
+        resty = Resty.builder().responseCache(cache).build();
+        url = server.httpUrl("/retrieve");
+        for (int i = 0; i < ENTRIES; i++) {
+            resty.get(url, RestEntity.withParameter("id", i));
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        resty.close();
+        server.close();
+        if (diskStore != null) {
+            diskStore.close();
+        }
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public RestResponse lookup() {
+        return resty.get(url, RestEntity.withParameter("id", ThreadLocalRandom.current().nextInt(ENTRIES)));
+    }
+
+    private StubServer server;
+
+    private Path directory;
+
+    private DiskCacheStore diskStore;
+
+    private Resty resty;
+
+    private String url;
+
+    private static final int ENTRIES = 256;
+}
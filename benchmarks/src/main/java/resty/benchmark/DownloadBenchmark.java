@@ -0,0 +1,95 @@
+package resty.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import resty.Resty;
+import resty.benchmark.stub.StubServer;
+import resty.download.DownloadPolicy;
+import resty.download.DownloadResult;
+import resty.engine.RestEngineType;
+import resty.response.RestResponse;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Measures how long it takes to save a large response body to a file, either reading it as a whole
+ * and writing it afterwards, or writing it to the file as it is received, with and without a checksum.
+ * Run it with the GC profiler to compare the bytes allocated for each body.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DownloadBenchmark {
+
+    @Param({"JERSEY", "JDK_HTTP_CLIENT"})
+    public String engine;
+
+    @Param({"16777216"})
+    public int payloadSize;
+
+    @Setup
+    public void setup() throws Exception {
+        server = StubServer.start(payloadSize, 0);
+        directory = Files.createTempDirectory("resty-download");
+        resty = Resty.builder().engineType(RestEngineType.valueOf(engine)).build();
+        url = server.httpUrl("/download");
+        target = directory.resolve("body.bin");
+        checksumPolicy = DownloadPolicy.builder().checksumAlgorithm("SHA-256").build();
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        resty.close();
+        server.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public Path getAndWrite() throws Exception {
+        RestResponse response = resty.get(url);
+        return Files.write(target, response.getBody().getBytes(UTF_8));
+    }
+
+    @Benchmark
+    public DownloadResult download() {
+        return resty.download(url, target);
+    }
+
+    @Benchmark
+    public DownloadResult downloadWithChecksum() {
+        return resty.download(url, target, checksumPolicy);
+    }
+
+    private StubServer server;
+
+    private Path directory;
+
+    private Resty resty;
+
+    private String url;
+
+    private Path target;
+
+    private DownloadPolicy checksumPolicy;
+}
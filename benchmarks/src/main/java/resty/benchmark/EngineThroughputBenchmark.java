@@ -0,0 +1,76 @@
+package resty.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import resty.Resty;
+import resty.benchmark.stub.StubServer;
+import resty.engine.RestEngineType;
+import resty.response.RestResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the throughput of the engines when many requests to the same server are in flight at the same time.
+ * The stub answers after a small latency over plain HTTP, which the JDK HTTP client upgrades to HTTP/2 (h2c)
+ * and multiplexes over a single connection, while the Jersey engine needs a pooled connection for each request
+ * and holds a thread for each of them. Each invocation starts a wave of non-blocking requests and waits for all.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EngineThroughputBenchmark {
+
+    @Param({"JERSEY", "JDK_HTTP_CLIENT"})
+    public RestEngineType engineType;
+
+    @Param({"16", "128"})
+    public int concurrency;
+
+    @Setup
+    public void setup() throws Exception {
+        server = StubServer.start(1024, 5);
+        resty = Resty.builder().engineType(engineType).build();
+        url = server.httpUrl("/retrieve");
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        resty.close();
+        server.close();
+    }
+
+    @Benchmark
+    public RestResponse[] concurrentRequests() {
+        List<CompletableFuture<RestResponse>> futures = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            futures.add(resty.futureGet(url));
+        }
+        RestResponse[] responses = new RestResponse[concurrency];
+        for (int i = 0; i < concurrency; i++) {
+            responses[i] = futures.get(i).join();
+        }
+        return responses;
+    }
+
+    private StubServer server;
+
+    private Resty resty;
+
+    private String url;
+}
@@ -0,0 +1,248 @@
+package resty.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import resty.benchmark.stub.StubServer;
+import resty.connection.SslContexts;
+import resty.engine.JerseyEngine;
+import resty.engine.RestEngineConfig;
+import resty.entity.RestEntities;
+import resty.entity.RestEntity;
+import resty.entity.RestEntityType;
+import resty.entity.TypedRestEntity;
+import resty.json.JsonMapper;
+import resty.request.RequestTemplate;
+import resty.request.RestRequest;
+import resty.response.RestResponse;
+import resty.response.StreamingRestResponse;
+
+import java.io.ByteArrayInputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Measures the time and the allocations of the in-process paths run for every request: creating the entities
+ * and splitting them into headers and parameters, either given one by one or held by a container, building a response
+ * and converting its body, also when a large JSON array is converted as a whole or one element at a time,
+ * and a whole request performed by the Jersey engine against a local stub, which includes building the invocation
+ * and its target, also when its entities are held by a container or the request is bound from a template.
+ * Building the engine and its client is measured too, since it is done by every new client.
+ * Allocations per operation are reported when run with the GC profiler, which the main method enables:
+ * {@code java -cp target/benchmarks.jar resty.benchmark.HotPathBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HotPathBenchmark {
+
+    @Setup
+    public void setup() throws Exception {
+        server = StubServer.start(256, 0);
+        config = RestEngineConfig.builder()
+                .sslContext(SslContexts.defaultContext())
+                .maxConnections(20)
+                .maxConnectionsPerRoute(10)
+                .keepAliveTimeout(30000)
+                .connectionTimeToLive(-1)
+                .connectionTimeout(5000)
+                .readTimeout(5000)
+                .jsonMapper(JsonMapper.getDefault())
+                .build();
+        engine = new JerseyEngine(config);
+        entities = new RestEntity[]{
+                RestEntity.withHeader("Accept", "application/json"),
+                RestEntity.withParameter("id", 42),
+                RestEntity.withHeader("X-Request-Id", "3f2b8c"),
+                RestEntity.withParameter("expand", true),
+                RestEntity.withHeader("Authorization", "Bearer token"),
+                RestEntity.withParameter("lang", "en"),
+        };
+        request = RestRequest.get(server.httpUrl("/retrieve"), entities);
+        containerBuilder = RestEntities.builder();
+        containerRequest = RestRequest.get(server.httpUrl("/retrieve"), RestEntities.of(entities));
+        template = RequestTemplate.builder().uri(server.httpUrl("/retrieve")).entities(entities).build();
+        Payload payload = new Payload();
+        payload.id = 42;
+        payload.name = "reference";
+        payload.tags = Arrays.asList("first", "second", "third");
+        payload.scores = new double[]{0.5, 0.25, 0.125};
+        body = new String(JsonMapper.getDefault().write(payload), UTF_8);
+        arrayBody = JsonMapper.getDefault().write(Collections.nCopies(ARRAY_ELEMENTS, payload));
+        headers = new HashMap<>();
+        headers.put("Content-Type", Collections.singletonList("application/json"));
+        headers.put("Content-Length", Collections.singletonList(String.valueOf(body.length())));
+        headers.put("Date", Collections.singletonList("Sat, 17 Oct 2026 10:00:00 GMT"));
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        engine.close();
+        server.close();
+    }
+
+    @Benchmark
+    public TypedRestEntity buildFromEntities() {
+        return TypedRestEntity.buildFromEntities(entities);
+    }
+
+    @Benchmark
+    public RestEntities containerOf() {
+        return RestEntities.of(entities);
+    }
+
+    @Benchmark
+    public TypedRestEntity perCallEntities() {
+        return TypedRestEntity.buildFromEntities(new RestEntity[]{
+                RestEntity.withHeader("Accept", "application/json"),
+                RestEntity.withParameter("id", id),
+                RestEntity.withHeader("X-Request-Id", "3f2b8c"),
+                RestEntity.withParameter("expand", true),
+                RestEntity.withHeader("Authorization", "Bearer token"),
+                RestEntity.withParameter("lang", "en"),
+        });
+    }
+
+    @Benchmark
+    public RestEntities perCallContainer() {
+        return containerBuilder.reset()
+                .header("Accept", "application/json")
+                .parameter("id", id)
+                .header("X-Request-Id", "3f2b8c")
+                .parameter("expand", true)
+                .header("Authorization", "Bearer token")
+                .parameter("lang", "en")
+                .build();
+    }
+
+    @Benchmark
+    public List<RestEntity> getByType() {
+        return RestEntity.getByType(entities, RestEntityType.HEADER);
+    }
+
+    @Benchmark
+    public RestResponse buildResponse() {
+        return new RestResponse(200, body, headers, JsonMapper.getDefault());
+    }
+
+    @Benchmark
+    public Payload getBody() {
+        return new RestResponse(200, body, headers, JsonMapper.getDefault()).getBody(Payload.class);
+    }
+
+    @Benchmark
+    public long getBodyList() {
+        List<Payload> payloads = new RestResponse(200, new String(arrayBody, UTF_8), headers, JsonMapper.getDefault())
+                .getBody(new TypeReference<List<Payload>>() {});
+        long sum = 0;
+        for (Payload element : payloads) {
+            sum += element.id;
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long getElements() {
+        StreamingRestResponse response = new StreamingRestResponse(200, headers,
+                new ByteArrayInputStream(arrayBody), JsonMapper.getDefault());
+        long sum = 0;
+        for (Iterator<Payload> elements = response.getElements(Payload.class); elements.hasNext(); ) {
+            sum += elements.next().id;
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public RestResponse request() {
+        return engine.execute(request);
+    }
+
+    @Benchmark
+    public RestResponse containerRequest() {
+        return engine.execute(containerRequest);
+    }
+
+    @Benchmark
+    public RestResponse templateRequest() {
+        return engine.execute(template.bind());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Warmup(iterations = 20)
+    @Measurement(iterations = 50)
+    public void newEngine() {
+        new JerseyEngine(config).close();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(HotPathBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+
+    private StubServer server;
+
+    private RestEngineConfig config;
+
+    private JerseyEngine engine;
+
+    private RestEntity[] entities;
+
+    private RestRequest request;
+
+    private RequestTemplate template;
+
+    private RestEntities.Builder containerBuilder;
+
+    private RestRequest containerRequest;
+
+    private int id = 42;
+
+    private String body;
+
+    private Map<String, List<String>> headers;
+
+    private byte[] arrayBody;
+
+    private static final int ARRAY_ELEMENTS = 1000;
+
+    /**
+     * Body of the responses, converted from JSON.
+     */
+    public static class Payload {
+
+        public long id;
+
+        public String name;
+
+        public List<String> tags;
+
+        public double[] scores;
+    }
+}
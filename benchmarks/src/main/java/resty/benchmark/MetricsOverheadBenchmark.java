@@ -0,0 +1,95 @@
+package resty.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import resty.engine.RestEngine;
+import resty.metrics.LatencyHistogram;
+import resty.metrics.MetricsEngine;
+import resty.metrics.RequestMetrics;
+import resty.request.RestRequest;
+import resty.response.RestResponse;
+import resty.response.StreamingRestResponse;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the overhead of recording requests in the metrics, with several threads recording at the same time.
+ * Requests are answered by an engine that does nothing, so that only the recording is measured:
+ * {@code NONE} performs them without metrics, {@code METRICS} records them, and {@code record} only
+ * records a latency in a histogram.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class MetricsOverheadBenchmark {
+
+    @Param({"NONE", "METRICS"})
+    public String recording;
+
+    @Setup
+    public void setup() {
+        RestEngine noop = new NoopEngine();
+        engine = "METRICS".equals(recording) ? new MetricsEngine(noop, new RequestMetrics()) : noop;
+        request = RestRequest.get("http://localhost:8080/retrieve");
+        histogram = new LatencyHistogram();
+    }
+
+    @Benchmark
+    public RestResponse execute() {
+        return engine.execute(request);
+    }
+
+    @Benchmark
+    public void record() {
+        histogram.record(ThreadLocalRandom.current().nextInt(1, 100000));
+    }
+
+    private RestEngine engine;
+
+    private RestRequest request;
+
+    private LatencyHistogram histogram;
+
+    private static final RestResponse RESPONSE = new RestResponse(200, "{}");
+
+    /**
+     * Engine answering every request with the same response without doing anything.
+     */
+    private static class NoopEngine implements RestEngine {
+
+        @Override
+        public RestResponse execute(RestRequest request) {
+            return RESPONSE;
+        }
+
+        @Override
+        public StreamingRestResponse stream(RestRequest request) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CompletableFuture<RestResponse> executeAsync(RestRequest request) {
+            return CompletableFuture.completedFuture(RESPONSE);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
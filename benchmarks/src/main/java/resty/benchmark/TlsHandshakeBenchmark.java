@@ -0,0 +1,129 @@
+package resty.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import resty.Resty;
+import resty.benchmark.stub.StubServer;
+import resty.connection.SslContexts;
+import resty.response.RestResponse;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.X509TrustManager;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.SecureRandom;
+import java.security.cert.X509Certificate;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+/**
+ * Measures the cost of the TLS handshake against a local HTTPS stub.
+ * Every invocation opens a new connection and makes a single request on it:
+ * with a new SSL context per connection, as the client used to do, every handshake is a full one,
+ * while the shared context resumes the TLS session and performs an abbreviated handshake.
+ * The pooled client shows the cost once connections are also kept alive.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TlsHandshakeBenchmark {
+
+    @Setup
+    public void setup() throws Exception {
+        server = StubServer.start(64, 0);
+        sharedContext = SslContexts.trustAllContext();
+        resty = Resty.builder().activeDevMode(true).build();
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        resty.close();
+        server.close();
+    }
+
+    @Benchmark
+    public boolean newContextPerConnection() throws Exception {
+        return request(newTrustAllContext());
+    }
+
+    @Benchmark
+    public boolean sharedContext() throws Exception {
+        return request(sharedContext);
+    }
+
+    @Benchmark
+    public RestResponse pooledClient() {
+        return resty.get(server.httpsUrl("/retrieve"));
+    }
+
+    /**
+     * Opens a new connection to the stub, makes a request on it and reads the whole response.
+     * Reading the response also processes the session tickets sent by the server after the handshake.
+     *
+     * @param sslContext the context used to open the connection.
+     * @return whether the session of the connection has been resumed.
+     */
+    private boolean request(SSLContext sslContext) throws IOException {
+        try (SSLSocket socket = (SSLSocket) sslContext.getSocketFactory()
+                .createSocket("localhost", server.getHttpsPort())) {
+            long creationTime = System.currentTimeMillis();
+            socket.startHandshake();
+            OutputStream out = socket.getOutputStream();
+            out.write(REQUEST);
+            out.flush();
+            InputStream in = socket.getInputStream();
+            byte[] buffer = new byte[1024];
+            while (in.read(buffer) != -1) {
+                // drain the response
+            }
+            return socket.getSession().getCreationTime() < creationTime;
+        }
+    }
+
+    /**
+     * Creates a new SSL context trusting all the certificates, as the client used to do for every request.
+     *
+     * @return the created context.
+     */
+    private static SSLContext newTrustAllContext() throws Exception {
+        SSLContext sslContext = SSLContext.getInstance("TLS");
+        sslContext.init(null, new TrustManager[]{new X509TrustManager() {
+            @Override
+            public void checkClientTrusted(X509Certificate[] chain, String authType) {
+            }
+            @Override
+            public void checkServerTrusted(X509Certificate[] chain, String authType) {
+            }
+            @Override
+            public X509Certificate[] getAcceptedIssuers() {
+                return new X509Certificate[0];
+            }
+        }}, new SecureRandom());
+        return sslContext;
+    }
+
+    private static final byte[] REQUEST =
+            "GET /retrieve HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n\r\n".getBytes(US_ASCII);
+
+    private StubServer server;
+
+    private SSLContext sharedContext;
+
+    private Resty resty;
+}
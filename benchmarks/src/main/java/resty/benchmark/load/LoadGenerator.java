@@ -0,0 +1,287 @@
+package resty.benchmark.load;
+
+import resty.Resty;
+import resty.batch.BatchItem;
+import resty.benchmark.stub.StubServer;
+import resty.engine.RestEngineType;
+import resty.metrics.HistogramSnapshot;
+import resty.metrics.LatencyHistogram;
+import resty.request.RestRequest;
+import resty.response.RestResponse;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives requests against a local stub server at a fixed rate and reports the throughput and the latency percentiles.
+ * The load is open-loop: requests are due at fixed times whatever the latency of the previous ones, and latencies
+ * are measured from the time each request was due, so that a slow client or server delaying the following requests
+ * is accounted for instead of hiding its own impact (coordinated omission). Latencies measured from the time
+ * requests were actually sent are reported too, to show the difference.
+ * <p>
+ * Options are given as {@code name=value} arguments, for example
+ * {@code java -cp target/benchmarks.jar resty.benchmark.load.LoadGenerator mode=async rate=2000 duration=30}:
+ * <ul>
+ *     <li>{@code mode}: {@code sync} requests sent by a pool of threads, {@code async} non-blocking requests sent
+ *     by a single thread, or {@code batch} requests sent by batches (default sync)</li>
+ *     <li>{@code rate}: the number of requests per second (default 1000)</li>
+ *     <li>{@code duration}: the duration of the measurement in seconds, after a warmup of a third of it (default 10)</li>
+ *     <li>{@code threads}: the number of threads sending blocking requests or batches (default 64)</li>
+ *     <li>{@code batchSize}: the number of requests of each batch (default 16)</li>
+ *     <li>{@code engine}: the engine performing the requests (default JERSEY)</li>
+ *     <li>{@code https}: whether to send the requests over HTTPS (default false)</li>
+ *     <li>{@code latency}: the time in milliseconds the stub waits before answering (default 1)</li>
+ *     <li>{@code payload}: the size in bytes of the response bodies (default 1024)</li>
+ *     <li>{@code errorRate}: the fraction of the requests the stub fails with a 503 status (default 0)</li>
+ * </ul>
+ */
+public class LoadGenerator {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        String mode = options.getOrDefault("mode", "sync");
+        int rate = Integer.parseInt(options.getOrDefault("rate", "1000"));
+        int duration = Integer.parseInt(options.getOrDefault("duration", "10"));
+        int threads = Integer.parseInt(options.getOrDefault("threads", "64"));
+        int batchSize = "batch".equals(mode) ? Integer.parseInt(options.getOrDefault("batchSize", "16")) : 1;
+        RestEngineType engineType = RestEngineType.valueOf(options.getOrDefault("engine", "JERSEY"));
+        boolean https = Boolean.parseBoolean(options.getOrDefault("https", "false"));
+        try (StubServer server = StubServer.start(
+                Integer.parseInt(options.getOrDefault("payload", "1024")),
+                Long.parseLong(options.getOrDefault("latency", "1")), null,
+                Double.parseDouble(options.getOrDefault("errorRate", "0")));
+             Resty resty = Resty.builder().engineType(engineType).activeDevMode(true)
+                     .maxConnections(threads * batchSize).maxConnectionsPerRoute(threads * batchSize).build()) {
+            String url = https ? server.httpsUrl("/load") : server.httpUrl("/load");
+            LoadGenerator generator = new LoadGenerator(resty, url, mode, rate, threads, batchSize);
+            System.out.printf("Warming up %s requests at %d/s for %d s%n", mode, rate, Math.max(1, duration / 3));
+            generator.run(Math.max(1, duration / 3));
+            generator = new LoadGenerator(resty, url, mode, rate, threads, batchSize);
+            System.out.printf("Measuring %s requests at %d/s for %d s%n", mode, rate, duration);
+            generator.run(duration);
+            generator.report(System.out);
+        }
+    }
+
+    /**
+     * Builds a generator sending requests at the given rate.
+     *
+     * @param resty the client sending the requests.
+     * @param url the URL of the requests.
+     * @param mode how the requests are sent: sync, async or batch.
+     * @param rate the number of requests per second.
+     * @param threads the number of threads sending blocking requests or batches.
+     * @param batchSize the number of requests of each batch.
+     */
+    LoadGenerator(Resty resty, String url, String mode, int rate, int threads, int batchSize) {
+        this.resty = resty;
+        this.request = RestRequest.get(url);
+        this.mode = mode;
+        this.interval = TimeUnit.SECONDS.toNanos(batchSize) / rate;
+        this.threads = threads;
+        this.batchSize = batchSize;
+        this.next = new AtomicLong();
+        this.corrected = new LatencyHistogram();
+        this.uncorrected = new LatencyHistogram();
+        this.errors = new LongAdder();
+    }
+
+    /**
+     * Sends requests for the given duration and waits for all of them to complete.
+     *
+     * @param duration the duration in seconds.
+     */
+    void run(int duration) throws InterruptedException {
+        start = System.nanoTime();
+        end = start + TimeUnit.SECONDS.toNanos(duration);
+        if ("async".equals(mode)) {
+            runAsync();
+        } else {
+            ExecutorService senders = Executors.newFixedThreadPool(threads);
+            for (int i = 0; i < threads; i++) {
+                senders.execute("batch".equals(mode) ? this::sendBatches : this::sendRequests);
+            }
+            senders.shutdown();
+            senders.awaitTermination(duration + TIMEOUT, TimeUnit.SECONDS);
+        }
+        elapsed = System.nanoTime() - start;
+    }
+
+    /**
+     * Prints the throughput and the latency percentiles of the requests sent so far.
+     *
+     * @param out the stream to print to.
+     */
+    void report(PrintStream out) {
+        HistogramSnapshot correctedLatency = corrected.snapshot();
+        HistogramSnapshot uncorrectedLatency = uncorrected.snapshot();
+        out.printf(Locale.ROOT, "Requests: %d, errors: %d, throughput: %.1f/s%n", correctedLatency.getCount(),
+                errors.sum(), correctedLatency.getCount() * 1e9 / elapsed);
+        out.printf("%-12s %10s %10s %10s %10s %10s%n", "latency (ms)", "p50", "p99", "p99.9", "max", "mean");
+        print(out, "corrected", correctedLatency);
+        print(out, "uncorrected", uncorrectedLatency);
+    }
+
+    /**
+     * Sends blocking requests, each at its due time or as soon as the thread is available if it is late.
+     */
+    private void sendRequests() {
+        for (long due = nextDue(); due < end; due = nextDue()) {
+            awaitDue(due);
+            long sent = System.nanoTime();
+            try {
+                record(resty.execute(request), due, sent);
+            } catch (RuntimeException e) {
+                record(null, due, sent);
+            }
+        }
+    }
+
+    /**
+     * Sends batches of requests, each at its due time or as soon as the thread is available if it is late.
+     */
+    private void sendBatches() {
+        List<RestRequest> batch = new ArrayList<>();
+        for (int i = 0; i < batchSize; i++) {
+            batch.add(request);
+        }
+        for (long due = nextDue(); due < end; due = nextDue()) {
+            awaitDue(due);
+            long sent = System.nanoTime();
+            long batchDue = due;
+            try {
+                resty.executeAll(batch, batchSize, 0, (BatchItem item) -> record(item.getResponse(), batchDue, sent));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Sends non-blocking requests from the current thread, each at its due time, without waiting for the previous ones.
+     */
+    private void runAsync() throws InterruptedException {
+        LongAdder pending = new LongAdder();
+        for (long due = nextDue(); due < end; due = nextDue()) {
+            awaitDue(due);
+            long sent = System.nanoTime();
+            long requestDue = due;
+            pending.increment();
+            resty.futureExecute(request).whenComplete((response, throwable) -> {
+                record(response, requestDue, sent);
+                pending.decrement();
+            });
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT);
+        while (pending.sum() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+
+    /**
+     * Provides the time the next request or batch is due.
+     *
+     * @return the due time in nanoseconds.
+     */
+    private long nextDue() {
+        return start + next.getAndIncrement() * interval;
+    }
+
+    /**
+     * Waits until the given due time, if it has not passed yet.
+     *
+     * @param due the due time in nanoseconds.
+     */
+    private static void awaitDue(long due) {
+        for (long wait = due - System.nanoTime(); wait > 0; wait = due - System.nanoTime()) {
+            LockSupport.parkNanos(wait);
+        }
+    }
+
+    /**
+     * Records the latency of a completed request.
+     *
+     * @param response the response of the request, or null if it failed.
+     * @param due the time the request was due.
+     * @param sent the time the request was actually sent.
+     */
+    private void record(RestResponse response, long due, long sent) {
+        long now = System.nanoTime();
+        corrected.record(TimeUnit.NANOSECONDS.toMicros(now - due));
+        uncorrected.record(TimeUnit.NANOSECONDS.toMicros(now - sent));
+        if (response == null || response.getStatus() >= SERVER_ERROR) {
+            errors.increment();
+        }
+    }
+
+    /**
+     * Prints a line of latency percentiles.
+     *
+     * @param out the stream to print to.
+     * @param name the name of the line.
+     * @param latency the latencies to print.
+     */
+    private static void print(PrintStream out, String name, HistogramSnapshot latency) {
+        out.printf(Locale.ROOT, "%-12s %10.2f %10.2f %10.2f %10.2f %10.2f%n", name, latency.getMedian() / 1e3,
+                latency.getP99() / 1e3, latency.getP999() / 1e3, latency.getMax() / 1e3, latency.getMean() / 1e3);
+    }
+
+    /**
+     * Parses the given {@code name=value} arguments.
+     *
+     * @param args the arguments to parse.
+     * @return the value of each option.
+     */
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Option must be given as name=value: " + arg);
+            }
+            options.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+        return options;
+    }
+
+    private final Resty resty;
+
+    private final RestRequest request;
+
+    private final String mode;
+
+    private final long interval;
+
+    private final int threads;
+
+    private final int batchSize;
+
+    private final AtomicLong next;
+
+    private final LatencyHistogram corrected;
+
+    private final LatencyHistogram uncorrected;
+
+    private final LongAdder errors;
+
+    private long start;
+
+    private long end;
+
+    private long elapsed;
+
+    private static final long TIMEOUT = 30;
+
+    private static final int SERVER_ERROR = 500;
+}
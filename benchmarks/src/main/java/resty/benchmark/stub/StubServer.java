@@ -0,0 +1,201 @@
+package resty.benchmark.stub;
+
+import org.eclipse.jetty.http2.server.HTTP2CServerConnectionFactory;
+import org.eclipse.jetty.server.HttpConfiguration;
+import org.eclipse.jetty.server.HttpConnectionFactory;
+import org.eclipse.jetty.server.Request;
+import org.eclipse.jetty.server.SecureRequestCustomizer;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.server.handler.AbstractHandler;
+import org.eclipse.jetty.util.ssl.SslContextFactory;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static java.lang.String.format;
+
+/**
+ * Local HTTP and HTTPS server answering the requests made by benchmarks,
+ * so that measurements do not depend on remote services.
+ * Plain HTTP connections can be upgraded to cleartext HTTP/2 (h2c).
+ */
+public class StubServer implements AutoCloseable {
+
+    /**
+     * Password of the keystore holding the self-signed certificate of the server.
+     */
+    public static final String KEYSTORE_PASSWORD = "changeit";
+
+    /**
+     * Starts a server answering every request with a body of the given size after the given latency.
+     *
+     * @param payloadSize the size in bytes of the response bodies.
+     * @param latency the time in milliseconds to wait before answering.
+     * @return the started server.
+     */
+    public static StubServer start(int payloadSize, long latency) throws Exception {
+        return start(payloadSize, latency, null);
+    }
+
+    /**
+     * Starts a server answering every request with a body of the given size after the given latency,
+     * along with the given caching directives.
+     *
+     * @param payloadSize the size in bytes of the response bodies.
+     * @param latency the time in milliseconds to wait before answering.
+     * @param cacheControl the Cache-Control header of the responses, if any.
+     * @return the started server.
+     */
+    public static StubServer start(int payloadSize, long latency, String cacheControl) throws Exception {
+        return start(payloadSize, latency, cacheControl, 0);
+    }
+
+    /**
+     * Starts a server answering every request with a body of the given size after the given latency,
+     * along with the given caching directives, and failing the given fraction of the requests.
+     *
+     * @param payloadSize the size in bytes of the response bodies.
+     * @param latency the time in milliseconds to wait before answering.
+     * @param cacheControl the Cache-Control header of the responses, if any.
+     * @param errorRate the fraction of the requests answered with a 503 status, between 0 and 1.
+     * @return the started server.
+     */
+    public static StubServer start(int payloadSize, long latency, String cacheControl, double errorRate)
+            throws Exception {
+        StubServer stubServer = new StubServer(payloadSize, latency, cacheControl, errorRate);
+        stubServer.server.start();
+        return stubServer;
+    }
+
+    private StubServer(int payloadSize, long latency, String cacheControl, double errorRate) {
+        this.payload = generatePayload(payloadSize);
+        this.latency = latency;
+        this.cacheControl = cacheControl;
+        this.errorRate = errorRate;
+        this.server = new Server();
+
+        HttpConfiguration httpConfiguration = new HttpConfiguration();
+        httpConnector = new ServerConnector(server,
+                new HttpConnectionFactory(httpConfiguration), new HTTP2CServerConnectionFactory(httpConfiguration));
+        httpConnector.setHost("localhost");
+        httpConnector.setPort(0);
+
+        SslContextFactory.Server sslContextFactory = new SslContextFactory.Server();
+        sslContextFactory.setKeyStorePath(StubServer.class.getResource("/stub-keystore.p12").toExternalForm());
+        sslContextFactory.setKeyStoreType("PKCS12");
+        sslContextFactory.setKeyStorePassword(KEYSTORE_PASSWORD);
+        HttpConfiguration httpsConfiguration = new HttpConfiguration(httpConfiguration);
+        httpsConfiguration.addCustomizer(new SecureRequestCustomizer());
+        httpsConnector = new ServerConnector(server, sslContextFactory, new HttpConnectionFactory(httpsConfiguration));
+        httpsConnector.setHost("localhost");
+        httpsConnector.setPort(0);
+
+        server.addConnector(httpConnector);
+        server.addConnector(httpsConnector);
+        server.setHandler(new StubHandler());
+    }
+
+    /**
+     * Provides the plain HTTP URL of the given path on the server.
+     *
+     * @param path the path to resolve.
+     * @return the URL of the path.
+     */
+    public String httpUrl(String path) {
+        return format("http://localhost:%d%s", httpConnector.getLocalPort(), path);
+    }
+
+    /**
+     * Provides the HTTPS URL of the given path on the server.
+     *
+     * @param path the path to resolve.
+     * @return the URL of the path.
+     */
+    public String httpsUrl(String path) {
+        return format("https://localhost:%d%s", httpsConnector.getLocalPort(), path);
+    }
+
+    /**
+     * Provides the port accepting HTTPS connections.
+     *
+     * @return the HTTPS port.
+     */
+    public int getHttpsPort() {
+        return httpsConnector.getLocalPort();
+    }
+
+    /**
+     * Stops the server and closes its connectors.
+     */
+    @Override
+    public void close() {
+        try {
+            server.stop();
+        } catch (Exception e) {
+            throw new IllegalStateException("Cannot stop stub server", e);
+        }
+    }
+
+    /**
+     * Generates a JSON string of the given size.
+     *
+     * @param size the size in bytes of the payload.
+     * @return the generated payload.
+     */
+    private static byte[] generatePayload(int size) {
+        byte[] payload = new byte[Math.max(size, 2)];
+        Arrays.fill(payload, (byte) 'x');
+        payload[0] = '"';
+        payload[payload.length - 1] = '"';
+        return payload;
+    }
+
+    /**
+     * Answers every request with the payload of the server, or with an error for the configured fraction of them.
+     */
+    private class StubHandler extends AbstractHandler {
+
+        @Override
+        public void handle(String target, Request baseRequest, HttpServletRequest request,
+                           HttpServletResponse response) throws IOException {
+            if (latency > 0) {
+                try {
+                    Thread.sleep(latency);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+                response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+                baseRequest.setHandled(true);
+                return;
+            }
+            response.setStatus(HttpServletResponse.SC_OK);
+            response.setContentType("application/json");
+            if (cacheControl != null) {
+                response.setHeader("Cache-Control", cacheControl);
+            }
+            response.setContentLength(payload.length);
+            response.getOutputStream().write(payload);
+            baseRequest.setHandled(true);
+        }
+    }
+
+    private final Server server;
+
+    private final ServerConnector httpConnector;
+
+    private final ServerConnector httpsConnector;
+
+    private final byte[] payload;
+
+    private final long latency;
+
+    private final String cacheControl;
+
+    private final double errorRate;
+}
@@ -1,13 +1,26 @@
 package resty;
 
+import resty.batch.BatchItem;
+import resty.batch.BatchResponse;
+import resty.download.DownloadPolicy;
+import resty.download.DownloadResult;
 import resty.entity.RestEntity;
+import resty.request.RestMethod;
+import resty.request.RestRequest;
 import resty.response.AsyncRestResponse;
 import resty.response.RestResponse;
+import resty.response.StreamingRestResponse;
+import resty.upload.UploadBody;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 /**
  * Provides methods for required HTTP methods in order to make requests.
  */
-public interface RestClient {
+public interface RestClient extends AutoCloseable {
 
     /**
      * Performs a request for the GET HTTP method.
@@ -52,6 +65,52 @@ public interface RestClient {
     AsyncRestResponse asyncGet(
             String endpoint, int connectionTimeout, int readTimeout, RestEntity... entities);
 
+    /**
+     * Performs a request for the GET HTTP method whose response body is read as a stream.
+     * It uses default values for both connectionTimeout and readTimeout properties.
+     * The response must be closed once its body has been read.
+     *
+     * @param endpoint the endpoint of the service to which make the request.
+     * @param entities headers and parameters for the request.
+     * @return the streaming response given back to the performed request.
+     */
+    StreamingRestResponse streamGet(String endpoint, RestEntity... entities);
+
+    /**
+     * Performs a request for the GET HTTP method whose response body is read as a stream.
+     * The response must be closed once its body has been read.
+     *
+     * @param endpoint the endpoint of the service to which make the request.
+     * @param connectionTimeout is the value for the connection timeout property.
+     * @param readTimeout is the value for the read timeout property.
+     * @param entities headers and parameters for the request.
+     * @return the streaming response given back to the performed request.
+     */
+    StreamingRestResponse streamGet(
+            String endpoint, int connectionTimeout, int readTimeout, RestEntity... entities);
+
+    /**
+     * Performs a non-blocking request for the GET HTTP method.
+     * It uses default values for both connectionTimeout and readTimeout properties.
+     *
+     * @param endpoint the endpoint of the service to which make the request.
+     * @param entities headers and parameters for the request.
+     * @return the future completed with the response given back to the performed request.
+     */
+    CompletableFuture<RestResponse> futureGet(String endpoint, RestEntity... entities);
+
+    /**
+     * Performs a non-blocking request for the GET HTTP method.
+     *
+     * @param endpoint the endpoint of the service to which make the request.
+     * @param connectionTimeout is the value for the connection timeout property.
+     * @param readTimeout is the value for the read timeout property.
+     * @param entities headers and parameters for the request.
+     * @return the future completed with the response given back to the performed request.
+     */
+    CompletableFuture<RestResponse> futureGet(
+            String endpoint, int connectionTimeout, int readTimeout, RestEntity... entities);
+
     /**
      * Performs a request for the POST HTTP method.
      * It uses default values for both connectionTimeout and readTimeout properties.
@@ -104,6 +163,60 @@ public interface RestClient {
     <Body> AsyncRestResponse asyncPost(String endpoint, Body body, String mediaType,
                                        int connectionTimeout, int readTimeout, RestEntity... entities);
 
+    /**
+     * Performs a request for the POST HTTP method whose response body is read as a stream.
+     * It uses default values for both connectionTimeout and readTimeout properties.
+     * It also uses a default value (application/json) for the media type.
+     * The response must be closed once its body has been read.
+     *
+     * @param endpoint the endpoint of the service to which make the request.
+     * @param body the body associated to the request.
+     * @param entities headers and parameters for the request.
+     * @return the streaming response given back to the performed request.
+     */
+    <Body> StreamingRestResponse streamPost(String endpoint, Body body, RestEntity... entities);
+
+    /**
+     * Performs a request for the POST HTTP method whose response body is read as a stream.
+     * The response must be closed once its body has been read.
+     *
+     * @param endpoint the endpoint of the service to which make the request.
+     * @param body the body associated to the request.
+     * @param mediaType the media type for the request to be performed.
+     * @param connectionTimeout is the value for the connection timeout property.
+     * @param readTimeout is the value for the read timeout property.
+     * @param entities headers and parameters for the request.
+     * @return the streaming response given back to the performed request.
+     */
+    <Body> StreamingRestResponse streamPost(String endpoint, Body body, String mediaType,
+                                            int connectionTimeout, int readTimeout, RestEntity... entities);
+
+    /**
+     * Performs a non-blocking request for the POST HTTP method.
+     * It uses default values for both connectionTimeout and readTimeout properties.
+     * It also uses a default value (application/json) for the media type.
+     *
+     * @param endpoint the endpoint of the service to which make the request.
+     * @param body the body associated to the request.
+     * @param entities headers and parameters for the request.
+     * @return the future completed with the response given back to the performed request.
+     */
+    <Body> CompletableFuture<RestResponse> futurePost(String endpoint, Body body, RestEntity... entities);
+
+    /**
+     * Performs a non-blocking request for the POST HTTP method.
+     *
+     * @param endpoint the endpoint of the service to which make the request.
+     * @param body the body associated to the request.
+     * @param mediaType the media type for the request to be performed.
+     * @param connectionTimeout is the value for the connection timeout property.
+     * @param readTimeout is the value for the read timeout property.
+     * @param entities headers and parameters for the request.
+     * @return the future completed with the response given back to the performed request.
+     */
+    <Body> CompletableFuture<RestResponse> futurePost(String endpoint, Body body, String mediaType,
+                                                      int connectionTimeout, int readTimeout, RestEntity... entities);
+
     /**
      * Performs a request for the PUT HTTP method.
      * It uses default values for both connectionTimeout and readTimeout properties.
@@ -156,6 +269,60 @@ public interface RestClient {
     <Body> AsyncRestResponse asyncPut(String endpoint, Body body, String mediaType,
                                       int connectionTimeout, int readTimeout, RestEntity... entities);
 
+    /**
+     * Performs a request for the PUT HTTP method whose response body is read as a stream.
+     * It uses default values for both connectionTimeout and readTimeout properties.
+     * It also uses a default value (application/json) for the media type.
+     * The response must be closed once its body has been read.
+     *
+     * @param endpoint the endpoint of the service to which make the request.
+     * @param body the body associated to the request.
+     * @param entities headers and parameters for the request.
+     * @return the streaming response given back to the performed request.
+     */
+    <Body> StreamingRestResponse streamPut(String endpoint, Body body, RestEntity... entities);
+
+    /**
+     * Performs a request for the PUT HTTP method whose response body is read as a stream.
+     * The response must be closed once its body has been read.
+     *
+     * @param endpoint the endpoint of the service to which make the request.
+     * @param body the body associated to the request.
+     * @param mediaType the media type for the request to be performed.
+     * @param connectionTimeout is the value for the connection timeout property.
+     * @param readTimeout is the value for the read timeout property.
+     * @param entities headers and parameters for the request.
+     * @return the streaming response given back to the performed request.
+     */
+    <Body> StreamingRestResponse streamPut(String endpoint, Body body, String mediaType,
+                                           int connectionTimeout, int readTimeout, RestEntity... entities);
+
+    /**
+     * Performs a non-blocking request for the PUT HTTP method.
+     * It uses default values for both connectionTimeout and readTimeout properties.
+     * It also uses a default value (application/json) for the media type.
+     *
+     * @param endpoint the endpoint of the service to which make the request.
+     * @param body the body associated to the request.
+     * @param entities headers and parameters for the request.
+     * @return the future completed with the response given back to the performed request.
+     */
+    <Body> CompletableFuture<RestResponse> futurePut(String endpoint, Body body, RestEntity... entities);
+
+    /**
+     * Performs a non-blocking request for the PUT HTTP method.
+     *
+     * @param endpoint the endpoint of the service to which make the request.
+     * @param body the body associated to the request.
+     * @param mediaType the media type for the request to be performed.
+     * @param connectionTimeout is the value for the connection timeout property.
+     * @param readTimeout is the value for the read timeout property.
+     * @param entities headers and parameters for the request.
+     * @return the future completed with the response given back to the performed request.
+     */
+    <Body> CompletableFuture<RestResponse> futurePut(String endpoint, Body body, String mediaType,
+                                                     int connectionTimeout, int readTimeout, RestEntity... entities);
+
     /**
      * Performs a request for the PATCH HTTP method.
      * It uses default values for both connectionTimeout and readTimeout properties.
@@ -208,6 +375,60 @@ public interface RestClient {
     <Body> AsyncRestResponse asyncPatch(String endpoint, Body body, String mediaType,
                                         int connectionTimeout, int readTimeout, RestEntity... entities);
 
+    /**
+     * Performs a request for the PATCH HTTP method whose response body is read as a stream.
+     * It uses default values for both connectionTimeout and readTimeout properties.
+     * It also uses a default value (application/json) for the media type.
+     * The response must be closed once its body has been read.
+     *
+     * @param endpoint the endpoint of the service to which make the request.
+     * @param body the body associated to the request.
+     * @param entities headers and parameters for the request.
+     * @return the streaming response given back to the performed request.
+     */
+    <Body> StreamingRestResponse streamPatch(String endpoint, Body body, RestEntity... entities);
+
+    /**
+     * Performs a request for the PATCH HTTP method whose response body is read as a stream.
+     * The response must be closed once its body has been read.
+     *
+     * @param endpoint the endpoint of the service to which make the request.
+     * @param body the body associated to the request.
+     * @param mediaType the media type for the request to be performed.
+     * @param connectionTimeout is the value for the connection timeout property.
+     * @param readTimeout is the value for the read timeout property.
+     * @param entities headers and parameters for the request.
+     * @return the streaming response given back to the performed request.
+     */
+    <Body> StreamingRestResponse streamPatch(String endpoint, Body body, String mediaType,
+                                             int connectionTimeout, int readTimeout, RestEntity... entities);
+
+    /**
+     * Performs a non-blocking request for the PATCH HTTP method.
+     * It uses default values for both connectionTimeout and readTimeout properties.
+     * It also uses a default value (application/json) for the media type.
+     *
+     * @param endpoint the endpoint of the service to which make the request.
+     * @param body the body associated to the request.
+     * @param entities headers and parameters for the request.
+     * @return the future completed with the response given back to the performed request.
+     */
+    <Body> CompletableFuture<RestResponse> futurePatch(String endpoint, Body body, RestEntity... entities);
+
+    /**
+     * Performs a non-blocking request for the PATCH HTTP method.
+     *
+     * @param endpoint the endpoint of the service to which make the request.
+     * @param body the body associated to the request.
+     * @param mediaType the media type for the request to be performed.
+     * @param connectionTimeout is the value for the connection timeout property.
+     * @param readTimeout is the value for the read timeout property.
+     * @param entities headers and parameters for the request.
+     * @return the future completed with the response given back to the performed request.
+     */
+    <Body> CompletableFuture<RestResponse> futurePatch(String endpoint, Body body, String mediaType,
+                                                       int connectionTimeout, int readTimeout, RestEntity... entities);
+
     /**
      * Performs a request for the DELETE HTTP method.
      * It uses default values for both connectionTimeout and readTimeout properties.
@@ -250,6 +471,196 @@ public interface RestClient {
     AsyncRestResponse asyncDelete(
             String endpoint, int connectionTimeout, int readTimeout, RestEntity... entities);
 
+    /**
+     * Performs a request for the DELETE HTTP method whose response body is read as a stream.
+     * It uses default values for both connectionTimeout and readTimeout properties.
+     * The response must be closed once its body has been read.
+     *
+     * @param endpoint the endpoint of the service to which make the request.
+     * @param entities headers and parameters for the request.
+     * @return the streaming response given back to the performed request.
+     */
+    StreamingRestResponse streamDelete(String endpoint, RestEntity... entities);
+
+    /**
+     * Performs a request for the DELETE HTTP method whose response body is read as a stream.
+     * The response must be closed once its body has been read.
+     *
+     * @param endpoint the endpoint of the service to which make the request.
+     * @param connectionTimeout is the value for the connection timeout property.
+     * @param readTimeout is the value for the read timeout property.
+     * @param entities headers and parameters for the request.
+     * @return the streaming response given back to the performed request.
+     */
+    StreamingRestResponse streamDelete(
+            String endpoint, int connectionTimeout, int readTimeout, RestEntity... entities);
+
+    /**
+     * Performs a non-blocking request for the DELETE HTTP method.
+     * It uses default values for both connectionTimeout and readTimeout properties.
+     *
+     * @param endpoint the endpoint of the service to which make the request.
+     * @param entities headers and parameters for the request.
+     * @return the future completed with the response given back to the performed request.
+     */
+    CompletableFuture<RestResponse> futureDelete(String endpoint, RestEntity... entities);
+
+    /**
+     * Performs a non-blocking request for the DELETE HTTP method.
+     *
+     * @param endpoint the endpoint of the service to which make the request.
+     * @param connectionTimeout is the value for the connection timeout property.
+     * @param readTimeout is the value for the read timeout property.
+     * @param entities headers and parameters for the request.
+     * @return the future completed with the response given back to the performed request.
+     */
+    CompletableFuture<RestResponse> futureDelete(
+            String endpoint, int connectionTimeout, int readTimeout, RestEntity... entities);
+
+    /**
+     * Performs the given request.
+     * Timeouts of the request that are not positive are replaced with the default values.
+     *
+     * @param request the request to perform.
+     * @return the response given back to the performed request.
+     */
+    RestResponse execute(RestRequest request);
+
+    /**
+     * Performs the given request without blocking.
+     * Timeouts of the request that are not positive are replaced with the default values.
+     *
+     * @param request the request to perform.
+     * @return the future completed with the response given back to the performed request.
+     */
+    CompletableFuture<RestResponse> futureExecute(RestRequest request);
+
+    /**
+     * Performs a batch of requests for the GET HTTP method, with at most the given number of requests in flight.
+     *
+     * @param endpoints the endpoints of the services to which make the requests.
+     * @param parallelism the maximum number of requests in flight at the same time.
+     * @param entities headers and parameters for all the requests.
+     * @return the outcome of the requests, in the same order of the endpoints.
+     */
+    BatchResponse getAll(List<String> endpoints, int parallelism, RestEntity... entities) throws InterruptedException;
+
+    /**
+     * Performs a batch of requests, with at most the given number of requests in flight.
+     * The failure of a request does not abort the others, and it is reported by the corresponding item.
+     *
+     * @param requests the requests to perform.
+     * @param parallelism the maximum number of requests in flight at the same time.
+     * @return the outcome of the requests, in the same order of the requests.
+     */
+    BatchResponse executeAll(List<RestRequest> requests, int parallelism) throws InterruptedException;
+
+    /**
+     * Performs a batch of requests, with at most the given number of requests in flight.
+     * The failure of a request does not abort the others, and it is reported by the corresponding item.
+     * Requests that have not completed when the deadline expires are cancelled and reported as failed.
+     *
+     * @param requests the requests to perform.
+     * @param parallelism the maximum number of requests in flight at the same time.
+     * @param timeout the time in milliseconds to wait for all the requests.
+     * @return the outcome of the requests, in the same order of the requests.
+     */
+    BatchResponse executeAll(List<RestRequest> requests, int parallelism, long timeout) throws InterruptedException;
+
+    /**
+     * Performs a batch of requests, with at most the given number of requests in flight.
+     * The failure of a request does not abort the others, and it is reported by the corresponding item.
+     * Requests that have not completed when the deadline expires are cancelled and reported as failed.
+     * The given consumer is notified of each item as soon as its request completes.
+     *
+     * @param requests the requests to perform.
+     * @param parallelism the maximum number of requests in flight at the same time.
+     * @param timeout the time in milliseconds to wait for all the requests.
+     * @param onCompletion the consumer notified of each item, in order of completion.
+     * @return the outcome of the requests, in the same order of the requests.
+     */
+    BatchResponse executeAll(List<RestRequest> requests, int parallelism, long timeout,
+                             Consumer<BatchItem> onCompletion) throws InterruptedException;
+
+    /**
+     * Performs a request for the GET HTTP method whose response body is written to the given file as it is received.
+     * The file is replaced only once the whole body has been written, and it is left untouched if the response fails.
+     * It uses default values for both connectionTimeout and readTimeout properties.
+     *
+     * @param endpoint the endpoint of the service to which make the request.
+     * @param target the file to write the response body to.
+     * @param entities headers and parameters for the request.
+     * @return the outcome of the download.
+     */
+    DownloadResult download(String endpoint, Path target, RestEntity... entities);
+
+    /**
+     * Performs a request for the GET HTTP method whose response body is written to the given file as it is received.
+     * The file is replaced only once the whole body has been written and verified against the checksum of the policy,
+     * if any, and it is left untouched if the response fails.
+     * It uses default values for both connectionTimeout and readTimeout properties.
+     *
+     * @param endpoint the endpoint of the service to which make the request.
+     * @param target the file to write the response body to.
+     * @param policy how the response body is written.
+     * @param entities headers and parameters for the request.
+     * @return the outcome of the download.
+     */
+    DownloadResult download(String endpoint, Path target, DownloadPolicy policy, RestEntity... entities);
+
+    /**
+     * Performs the given request whose response body is written to the given file as it is received.
+     * The file is replaced only once the whole body has been written and verified against the checksum of the policy,
+     * if any, and it is left untouched if the response fails.
+     *
+     * @param request the request to perform.
+     * @param target the file to write the response body to.
+     * @param policy how the response body is written.
+     * @return the outcome of the download.
+     */
+    DownloadResult download(RestRequest request, Path target, DownloadPolicy policy);
+
+    /**
+     * Performs a request for the POST HTTP method whose body is read from its source while it is sent,
+     * so that it is never held in memory. The body is sent with its own media type.
+     * It uses default values for both connectionTimeout and readTimeout properties.
+     *
+     * @param endpoint the endpoint of the service to which make the request.
+     * @param body the body to send, such as a file, a stream or a multipart body.
+     * @param entities headers and parameters for the request.
+     * @return the response given back to the performed request.
+     */
+    RestResponse upload(String endpoint, UploadBody body, RestEntity... entities);
+
+    /**
+     * Performs a request for the given HTTP method whose body is read from its source while it is sent,
+     * so that it is never held in memory. The body is sent with its own media type.
+     * It uses default values for both connectionTimeout and readTimeout properties.
+     *
+     * @param method the HTTP method of the request, which must have a body.
+     * @param endpoint the endpoint of the service to which make the request.
+     * @param body the body to send, such as a file, a stream or a multipart body.
+     * @param entities headers and parameters for the request.
+     * @return the response given back to the performed request.
+     */
+    RestResponse upload(RestMethod method, String endpoint, UploadBody body, RestEntity... entities);
+
+    /**
+     * Performs a request for the given HTTP method whose body is read from its source while it is sent,
+     * so that it is never held in memory. The body is sent with its own media type.
+     * With the HTTP client of the JDK, the read timeout includes the time to send the body.
+     *
+     * @param method the HTTP method of the request, which must have a body.
+     * @param endpoint the endpoint of the service to which make the request.
+     * @param body the body to send, such as a file, a stream or a multipart body.
+     * @param connectionTimeout is the value for the connection timeout property.
+     * @param readTimeout is the value for the read timeout property.
+     * @param entities headers and parameters for the request.
+     * @return the response given back to the performed request.
+     */
+    RestResponse upload(RestMethod method, String endpoint, UploadBody body, int connectionTimeout, int readTimeout,
+                        RestEntity... entities);
+
     /**
      * Provides the default value for the connection timeout property of the REST client.
      *
@@ -263,4 +674,10 @@ public interface RestClient {
      * @return the default value for the read timeout property of the REST client
      */
     int getDefaultReadTimeout();
+
+    /**
+     * Releases the resources held by the REST client, such as its pooled connections.
+     */
+    @Override
+    void close();
 }
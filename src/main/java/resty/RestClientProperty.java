@@ -7,7 +7,14 @@ public enum RestClientProperty {
     DEV_MODE_ACTIVE("true"),
     TLS("TLS"),
     CONNECTION_TIMEOUT("5000"),
-    READ_TIMEOUT("5000");
+    READ_TIMEOUT("5000"),
+    MAX_CONNECTIONS("200"),
+    MAX_CONNECTIONS_PER_ROUTE("20"),
+    KEEP_ALIVE_TIMEOUT("30000"),
+    CONNECTION_TIME_TO_LIVE("-1"),
+    VALIDATE_AFTER_INACTIVITY("2000"),
+    IDLE_CONNECTION_EVICTION_INTERVAL("5000"),
+    ASYNC_POOL_SIZE("64");
 
     /**
      * Provides a property for the client.
@@ -1,37 +1,145 @@
 package resty;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.Builder;
 import lombok.extern.slf4j.Slf4j;
-import org.glassfish.jersey.client.ClientProperties;
+import resty.batch.BatchExecution;
+import resty.batch.BatchItem;
+import resty.batch.BatchResponse;
+import resty.cache.CachingEngine;
+import resty.cache.ResponseCache;
+import resty.circuit.CircuitBreakerRegistry;
+import resty.circuit.CircuitBreakingEngine;
+import resty.coalescing.CoalescingEngine;
+import resty.coalescing.RequestCoalescer;
+import resty.compression.ContentCompressor;
+import resty.concurrent.AsyncExecutors;
+import resty.download.DownloadPolicy;
+import resty.download.DownloadResult;
+import resty.download.FileDownloader;
+import resty.connection.SslContexts;
+import resty.engine.RestEngine;
+import resty.engine.RestEngineConfig;
+import resty.engine.RestEngineType;
 import resty.entity.RestEntity;
-import resty.entity.TypedRestEntity;
+import resty.hedging.HedgingEngine;
+import resty.hedging.RequestHedger;
+import resty.json.JsonMapper;
+import resty.metrics.MetricsEngine;
+import resty.metrics.RequestMetrics;
+import resty.ratelimit.RateLimiter;
+import resty.ratelimit.RateLimitingEngine;
+import resty.request.RestMethod;
+import resty.request.RestRequest;
 import resty.response.AsyncRestResponse;
 import resty.response.RestResponse;
+import resty.response.StreamingRestResponse;
+import resty.retry.RetryPolicy;
+import resty.retry.RetryingEngine;
+import resty.timing.RequestTimingListener;
+import resty.upload.UploadBody;
 
 import javax.net.ssl.SSLContext;
-import javax.net.ssl.TrustManager;
-import javax.net.ssl.X509TrustManager;
-import javax.ws.rs.client.*;
-import javax.ws.rs.core.Response;
-import java.security.KeyManagementException;
-import java.security.NoSuchAlgorithmException;
+import java.nio.file.Path;
 import java.util.List;
-import java.util.concurrent.Future;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
-import static javax.ws.rs.client.ClientBuilder.newClient;
 import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
-import static org.glassfish.jersey.client.HttpUrlConnectorProvider.SET_METHOD_WORKAROUND;
 import static resty.RestClientProperty.*;
-import static resty.entity.TypedRestEntity.buildFromEntities;
 
 /**
  * Provides methods for required HTTP methods in order to make requests.
+ * All the requests are performed by the same engine, which keeps its connections alive
+ * and releases them when the instance is closed.
  */
-@Builder
 @Slf4j
 public class Resty implements RestClient {
 
-    private boolean activeDevMode;
+    /**
+     * Builds the REST client and the engine performing its requests.
+     * Values that are not positive are replaced with the defaults provided by {@link RestClientProperty}.
+     *
+     * @param activeDevMode whether to trust all the certificates and hostnames.
+     * @param engineType the engine performing the requests, Jersey if none is given.
+     * @param maxConnections the maximum number of connections in the pool.
+     * @param maxConnectionsPerRoute the maximum number of connections for each route.
+     * @param keepAliveTimeout the time in milliseconds a connection can stay idle before being evicted.
+     * @param connectionTimeToLive the maximum lifetime in milliseconds of a connection.
+     * @param sslContext the SSL context to use for secure connections instead of the shared ones.
+     * @param tlsSessionCacheSize the maximum number of TLS sessions kept for resumption.
+     * @param tlsSessionTimeout the time in seconds a TLS session can be resumed for.
+     * @param objectMapper the object mapper to use for request and response bodies instead of the default one.
+     * @param completionExecutor the executor reading the responses of non-blocking requests and completing them.
+     * @param asyncExecutor the executor dispatching non-blocking requests, which is not shut down by the client.
+     * @param virtualThreads whether to dispatch each non-blocking request on a new virtual thread,
+     *                       or on a bounded pool if they are not available, when no async executor is given.
+     * @param responseCache the cache keeping the responses of GET requests, if any.
+     * @param requestCoalescer the coalescer collapsing identical GET requests in flight, if any.
+     * @param retryPolicy the policy retrying failed requests, which can be overridden by each request, if any.
+     * @param requestHedger the hedger sending a second request for slow GET requests, if any.
+     * @param circuitBreakers the circuit breakers failing fast the requests to unhealthy hosts, if any.
+     * @param rateLimiter the limiter capping the rate of requests for each host and route, if any.
+     * @param requestMetrics the metrics recording the latency and outcome of each request sent to a server, if any.
+     * @param requestTiming whether to time the phases of each request and attach the timing to its response.
+     * @param timingListener the listener notified of the timing of each request, which enables the timing, if any.
+     * @param contentCompressor the compressor of request bodies and decoder of encoded responses, if any.
+     */
+    @Builder
+    private Resty(boolean activeDevMode, RestEngineType engineType,
+                  int maxConnections, int maxConnectionsPerRoute, long keepAliveTimeout, long connectionTimeToLive,
+                  SSLContext sslContext, int tlsSessionCacheSize, int tlsSessionTimeout,
+                  ObjectMapper objectMapper, Executor completionExecutor,
+                  ExecutorService asyncExecutor, boolean virtualThreads, ResponseCache responseCache,
+                  RequestCoalescer requestCoalescer, RetryPolicy retryPolicy,
+                  RequestHedger requestHedger, CircuitBreakerRegistry circuitBreakers,
+                  RateLimiter rateLimiter, RequestMetrics requestMetrics,
+                  boolean requestTiming, RequestTimingListener timingListener,
+                  ContentCompressor contentCompressor) {
+        this.activeDevMode = activeDevMode;
+        this.ownedAsyncExecutor = asyncExecutor == null && virtualThreads
+                ? AsyncExecutors.virtualThreadPerTask(Integer.parseInt(ASYNC_POOL_SIZE.toValue())) : null;
+        RestEngineConfig engineConfig = RestEngineConfig.builder()
+                .activeDevMode(activeDevMode)
+                .sslContext(selectSslContext(sslContext, tlsSessionCacheSize, tlsSessionTimeout))
+                .maxConnections((int) valueOrDefault(maxConnections, MAX_CONNECTIONS))
+                .maxConnectionsPerRoute((int) valueOrDefault(maxConnectionsPerRoute, MAX_CONNECTIONS_PER_ROUTE))
+                .keepAliveTimeout(valueOrDefault(keepAliveTimeout, KEEP_ALIVE_TIMEOUT))
+                .connectionTimeToLive(valueOrDefault(connectionTimeToLive, CONNECTION_TIME_TO_LIVE))
+                .connectionTimeout(getDefaultConnectionTimeout())
+                .readTimeout(getDefaultReadTimeout())
+                .jsonMapper(objectMapper != null ? new JsonMapper(objectMapper) : JsonMapper.getDefault())
+                .completionExecutor(completionExecutor)
+                .asyncExecutor(asyncExecutor != null ? asyncExecutor : ownedAsyncExecutor)
+                .requestTiming(requestTiming || timingListener != null)
+                .timingListener(timingListener)
+                .compressor(contentCompressor)
+                .build();
+        RestEngineType selectedEngineType = engineType != null ? engineType : RestEngineType.JERSEY;
+        log.debug("Using {} engine", selectedEngineType);
+        RestEngine selectedEngine = selectedEngineType.newEngine(engineConfig);
+        if (requestMetrics != null) {
+            selectedEngine = new MetricsEngine(selectedEngine, requestMetrics);
+        }
+        if (circuitBreakers != null) {
+            selectedEngine = new CircuitBreakingEngine(selectedEngine, circuitBreakers);
+        }
+        if (rateLimiter != null) {
+            selectedEngine = new RateLimitingEngine(selectedEngine, rateLimiter);
+        }
+        selectedEngine = new RetryingEngine(selectedEngine, retryPolicy);
+        if (requestHedger != null) {
+            selectedEngine = new HedgingEngine(selectedEngine, requestHedger);
+        }
+        if (requestCoalescer != null) {
+            selectedEngine = new CoalescingEngine(selectedEngine, requestCoalescer);
+        }
+        this.engine = responseCache != null
+                ? new CachingEngine(selectedEngine, responseCache, engineConfig.getJsonMapper()) : selectedEngine;
+    }
 
     /**
      * Performs a request for the GET HTTP method.
@@ -59,15 +167,9 @@ public class Resty implements RestClient {
     @Override
     public RestResponse get(String endpoint, int connectionTimeout, int readTimeout, RestEntity... entities) {
         log.debug("Building request for GET method");
-        Client client = generateClient(connectionTimeout, readTimeout);
-        if (client == null) {
-            throw new RuntimeException("Cannot generate client");
-        }
-        Invocation.Builder invocationBuilder = generateInvocationBuilder(client, endpoint, entities);
+        RestRequest request = toRestRequest(RestMethod.GET, endpoint, connectionTimeout, readTimeout, entities);
         log.debug("Making GET request");
-        Response response = invocationBuilder.get(Response.class);
-        RestResponse restResponse = new RestResponse(response.getStatus(), response.readEntity(String.class));
-        client.close();
+        RestResponse restResponse = engine.execute(request);
         log.debug("GET request completed");
         return restResponse;
     }
@@ -99,15 +201,81 @@ public class Resty implements RestClient {
     public AsyncRestResponse asyncGet(
             String endpoint, int connectionTimeout, int readTimeout, RestEntity... entities) {
         log.debug("Building request for async GET method");
-        Client client = generateClient(connectionTimeout, readTimeout);
-        if (client == null) {
-            throw new RuntimeException("Cannot generate client");
-        }
-        Invocation.Builder invocationBuilder = generateInvocationBuilder(client, endpoint, entities);
+        RestRequest request = toRestRequest(RestMethod.GET, endpoint, connectionTimeout, readTimeout, entities);
         log.debug("Making async GET request");
-        Future<Response> futureResponse = invocationBuilder.async().get(Response.class);
+        CompletableFuture<RestResponse> futureResponse = engine.executeAsync(request);
         log.debug("Async GET request made");
-        return new AsyncRestResponse(client, futureResponse);
+        return new AsyncRestResponse(futureResponse);
+    }
+
+    /**
+     * Performs a request for the GET HTTP method whose response body is read as a stream.
+     * It uses default values for both connectionTimeout and readTimeout properties.
+     * The response must be closed once its body has been read.
+     *
+     * @param endpoint the endpoint of the service to which make the request.
+     * @param entities headers and parameters for the request.
+     * @return the streaming response given back to the performed request.
+     */
+    @Override
+    public StreamingRestResponse streamGet(String endpoint, RestEntity... entities) {
+        log.debug("Using default values for timeout");
+        return streamGet(endpoint, getDefaultConnectionTimeout(), getDefaultReadTimeout(), entities);
+    }
+
+    /**
+     * Performs a request for the GET HTTP method whose response body is read as a stream.
+     * The response must be closed once its body has been read.
+     *
+     * @param endpoint the endpoint of the service to which make the request.
+     * @param connectionTimeout is the value for the connection timeout property.
+     * @param readTimeout is the value for the read timeout property.
+     * @param entities headers and parameters for the request.
+     * @return the streaming response given back to the performed request.
+     */
+    @Override
+    public StreamingRestResponse streamGet(
+            String endpoint, int connectionTimeout, int readTimeout, RestEntity... entities) {
+        log.debug("Building request for streaming GET method");
+        RestRequest request = toRestRequest(RestMethod.GET, endpoint, connectionTimeout, readTimeout, entities);
+        log.debug("Making streaming GET request");
+        StreamingRestResponse streamingResponse = engine.stream(request);
+        log.debug("Streaming GET request completed");
+        return streamingResponse;
+    }
+
+    /**
+     * Performs a non-blocking request for the GET HTTP method.
+     * It uses default values for both connectionTimeout and readTimeout properties.
+     *
+     * @param endpoint the endpoint of the service to which make the request.
+     * @param entities headers and parameters for the request.
+     * @return the future completed with the response given back to the performed request.
+     */
+    @Override
+    public CompletableFuture<RestResponse> futureGet(String endpoint, RestEntity... entities) {
+        log.debug("Using default values for timeout");
+        return futureGet(endpoint, getDefaultConnectionTimeout(), getDefaultReadTimeout(), entities);
+    }
+
+    /**
+     * Performs a non-blocking request for the GET HTTP method.
+     *
+     * @param endpoint the endpoint of the service to which make the request.
+     * @param connectionTimeout is the value for the connection timeout property.
+     * @param readTimeout is the value for the read timeout property.
+     * @param entities headers and parameters for the request.
+     * @return the future completed with the response given back to the performed request.
+     */
+    @Override
+    public CompletableFuture<RestResponse> futureGet(
+            String endpoint, int connectionTimeout, int readTimeout, RestEntity... entities) {
+        log.debug("Building request for non-blocking GET method");
+        RestRequest request = toRestRequest(RestMethod.GET, endpoint, connectionTimeout, readTimeout, entities);
+        log.debug("Making non-blocking GET request");
+        CompletableFuture<RestResponse> futureResponse = engine.executeAsync(request);
+        log.debug("Non-blocking GET request made");
+        return futureResponse;
     }
 
     /**
@@ -141,15 +309,10 @@ public class Resty implements RestClient {
     public <Body> RestResponse post(String endpoint, Body body, String mediaType,
                                     int connectionTimeout, int readTimeout, RestEntity... entities) {
         log.debug("Building request for POST method");
-        Client client = generateClient(connectionTimeout, readTimeout);
-        if (client == null) {
-            throw new RuntimeException("Cannot generate client");
-        }
-        Invocation.Builder invocationBuilder = generateInvocationBuilder(client, endpoint, entities);
+        RestRequest request = toRestRequest(
+                RestMethod.POST, endpoint, body, mediaType, connectionTimeout, readTimeout, entities);
         log.debug("Making POST request");
-        Response response = invocationBuilder.post(Entity.entity(body, mediaType), Response.class);
-        RestResponse restResponse = new RestResponse(response.getStatus(), response.readEntity(String.class));
-        client.close();
+        RestResponse restResponse = engine.execute(request);
         log.debug("POST request completed");
         return restResponse;
     }
@@ -185,15 +348,92 @@ public class Resty implements RestClient {
     public <Body> AsyncRestResponse asyncPost(String endpoint, Body body, String mediaType,
                                               int connectionTimeout, int readTimeout, RestEntity... entities) {
         log.debug("Building request for async POST method");
-        Client client = generateClient(connectionTimeout, readTimeout);
-        if (client == null) {
-            throw new RuntimeException("Cannot generate client");
-        }
-        Invocation.Builder invocationBuilder = generateInvocationBuilder(client, endpoint, entities);
+        RestRequest request = toRestRequest(
+                RestMethod.POST, endpoint, body, mediaType, connectionTimeout, readTimeout, entities);
         log.debug("Making async POST request");
-        Future<Response> futureResponse = invocationBuilder.async().post(Entity.entity(body, mediaType), Response.class);
+        CompletableFuture<RestResponse> futureResponse = engine.executeAsync(request);
         log.debug("Async POST request made");
-        return new AsyncRestResponse(client, futureResponse);
+        return new AsyncRestResponse(futureResponse);
+    }
+
+    /**
+     * Performs a request for the POST HTTP method whose response body is read as a stream.
+     * It uses default values for both connectionTimeout and readTimeout properties.
+     * It also uses a default value (application/json) for the media type.
+     * The response must be closed once its body has been read.
+     *
+     * @param endpoint the endpoint of the service to which make the request.
+     * @param body the body associated to the request.
+     * @param entities headers and parameters for the request.
+     * @return the streaming response given back to the performed request.
+     */
+    @Override
+    public <Body> StreamingRestResponse streamPost(String endpoint, Body body, RestEntity... entities) {
+        log.debug("Using default value for timeouts and application/json for media type");
+        return streamPost(endpoint, body, APPLICATION_JSON, getDefaultConnectionTimeout(), getDefaultReadTimeout(), entities);
+    }
+
+    /**
+     * Performs a request for the POST HTTP method whose response body is read as a stream.
+     * The response must be closed once its body has been read.
+     *
+     * @param endpoint the endpoint of the service to which make the request.
+     * @param body the body associated to the request.
+     * @param mediaType the media type for the request to be performed.
+     * @param connectionTimeout is the value for the connection timeout property.
+     * @param readTimeout is the value for the read timeout property.
+     * @param entities headers and parameters for the request.
+     * @return the streaming response given back to the performed request.
+     */
+    @Override
+    public <Body> StreamingRestResponse streamPost(String endpoint, Body body, String mediaType,
+                                                   int connectionTimeout, int readTimeout, RestEntity... entities) {
+        log.debug("Building request for streaming POST method");
+        RestRequest request = toRestRequest(
+                RestMethod.POST, endpoint, body, mediaType, connectionTimeout, readTimeout, entities);
+        log.debug("Making streaming POST request");
+        StreamingRestResponse streamingResponse = engine.stream(request);
+        log.debug("Streaming POST request completed");
+        return streamingResponse;
+    }
+
+    /**
+     * Performs a non-blocking request for the POST HTTP method.
+     * It uses default values for both connectionTimeout and readTimeout properties.
+     * It also uses a default value (application/json) for the media type.
+     *
+     * @param endpoint the endpoint of the service to which make the request.
+     * @param body the body associated to the request.
+     * @param entities headers and parameters for the request.
+     * @return the future completed with the response given back to the performed request.
+     */
+    @Override
+    public <Body> CompletableFuture<RestResponse> futurePost(String endpoint, Body body, RestEntity... entities) {
+        log.debug("Using default value for timeouts and application/json for media type");
+        return futurePost(endpoint, body, APPLICATION_JSON, getDefaultConnectionTimeout(), getDefaultReadTimeout(), entities);
+    }
+
+    /**
+     * Performs a non-blocking request for the POST HTTP method.
+     *
+     * @param endpoint the endpoint of the service to which make the request.
+     * @param body the body associated to the request.
+     * @param mediaType the media type for the request to be performed.
+     * @param connectionTimeout is the value for the connection timeout property.
+     * @param readTimeout is the value for the read timeout property.
+     * @param entities headers and parameters for the request.
+     * @return the future completed with the response given back to the performed request.
+     */
+    @Override
+    public <Body> CompletableFuture<RestResponse> futurePost(
+            String endpoint, Body body, String mediaType, int connectionTimeout, int readTimeout, RestEntity... entities) {
+        log.debug("Building request for non-blocking POST method");
+        RestRequest request = toRestRequest(
+                RestMethod.POST, endpoint, body, mediaType, connectionTimeout, readTimeout, entities);
+        log.debug("Making non-blocking POST request");
+        CompletableFuture<RestResponse> futureResponse = engine.executeAsync(request);
+        log.debug("Non-blocking POST request made");
+        return futureResponse;
     }
 
     /**
@@ -227,15 +467,10 @@ public class Resty implements RestClient {
     public <Body> RestResponse put(String endpoint, Body body, String mediaType,
                                    int connectionTimeout, int readTimeout, RestEntity... entities) {
         log.info("Building request for PUT method");
-        Client client = generateClient(connectionTimeout, readTimeout);
-        if (client == null) {
-            throw new RuntimeException("Cannot generate client");
-        }
-        Invocation.Builder invocationBuilder = generateInvocationBuilder(client, endpoint, entities);
+        RestRequest request = toRestRequest(
+                RestMethod.PUT, endpoint, body, mediaType, connectionTimeout, readTimeout, entities);
         log.info("Making PUT request");
-        Response response = invocationBuilder.put(Entity.entity(body, mediaType), Response.class);
-        RestResponse restResponse = new RestResponse(response.getStatus(), response.readEntity(String.class));
-        client.close();
+        RestResponse restResponse = engine.execute(request);
         log.info("PUT request completed");
         return restResponse;
     }
@@ -271,15 +506,92 @@ public class Resty implements RestClient {
     public <Body> AsyncRestResponse asyncPut(String endpoint, Body body, String mediaType,
                                              int connectionTimeout, int readTimeout, RestEntity... entities) {
         log.debug("Building request for async PUT method");
-        Client client = generateClient(connectionTimeout, readTimeout);
-        if (client == null) {
-            throw new RuntimeException("Cannot generate client");
-        }
-        Invocation.Builder invocationBuilder = generateInvocationBuilder(client, endpoint, entities);
+        RestRequest request = toRestRequest(
+                RestMethod.PUT, endpoint, body, mediaType, connectionTimeout, readTimeout, entities);
         log.debug("Making async PUT request");
-        Future<Response> futureResponse = invocationBuilder.async().put(Entity.entity(body, mediaType), Response.class);
+        CompletableFuture<RestResponse> futureResponse = engine.executeAsync(request);
         log.debug("Async PUT request made");
-        return new AsyncRestResponse(client, futureResponse);
+        return new AsyncRestResponse(futureResponse);
+    }
+
+    /**
+     * Performs a request for the PUT HTTP method whose response body is read as a stream.
+     * It uses default values for both connectionTimeout and readTimeout properties.
+     * It also uses a default value (application/json) for the media type.
+     * The response must be closed once its body has been read.
+     *
+     * @param endpoint the endpoint of the service to which make the request.
+     * @param body the body associated to the request.
+     * @param entities headers and parameters for the request.
+     * @return the streaming response given back to the performed request.
+     */
+    @Override
+    public <Body> StreamingRestResponse streamPut(String endpoint, Body body, RestEntity... entities) {
+        log.debug("Using default value for timeouts and application/json for media type");
+        return streamPut(endpoint, body, APPLICATION_JSON, getDefaultConnectionTimeout(), getDefaultReadTimeout(), entities);
+    }
+
+    /**
+     * Performs a request for the PUT HTTP method whose response body is read as a stream.
+     * The response must be closed once its body has been read.
+     *
+     * @param endpoint the endpoint of the service to which make the request.
+     * @param body the body associated to the request.
+     * @param mediaType the media type for the request to be performed.
+     * @param connectionTimeout is the value for the connection timeout property.
+     * @param readTimeout is the value for the read timeout property.
+     * @param entities headers and parameters for the request.
+     * @return the streaming response given back to the performed request.
+     */
+    @Override
+    public <Body> StreamingRestResponse streamPut(String endpoint, Body body, String mediaType,
+                                                  int connectionTimeout, int readTimeout, RestEntity... entities) {
+        log.debug("Building request for streaming PUT method");
+        RestRequest request = toRestRequest(
+                RestMethod.PUT, endpoint, body, mediaType, connectionTimeout, readTimeout, entities);
+        log.debug("Making streaming PUT request");
+        StreamingRestResponse streamingResponse = engine.stream(request);
+        log.debug("Streaming PUT request completed");
+        return streamingResponse;
+    }
+
+    /**
+     * Performs a non-blocking request for the PUT HTTP method.
+     * It uses default values for both connectionTimeout and readTimeout properties.
+     * It also uses a default value (application/json) for the media type.
+     *
+     * @param endpoint the endpoint of the service to which make the request.
+     * @param body the body associated to the request.
+     * @param entities headers and parameters for the request.
+     * @return the future completed with the response given back to the performed request.
+     */
+    @Override
+    public <Body> CompletableFuture<RestResponse> futurePut(String endpoint, Body body, RestEntity... entities) {
+        log.debug("Using default value for timeouts and application/json for media type");
+        return futurePut(endpoint, body, APPLICATION_JSON, getDefaultConnectionTimeout(), getDefaultReadTimeout(), entities);
+    }
+
+    /**
+     * Performs a non-blocking request for the PUT HTTP method.
+     *
+     * @param endpoint the endpoint of the service to which make the request.
+     * @param body the body associated to the request.
+     * @param mediaType the media type for the request to be performed.
+     * @param connectionTimeout is the value for the connection timeout property.
+     * @param readTimeout is the value for the read timeout property.
+     * @param entities headers and parameters for the request.
+     * @return the future completed with the response given back to the performed request.
+     */
+    @Override
+    public <Body> CompletableFuture<RestResponse> futurePut(
+            String endpoint, Body body, String mediaType, int connectionTimeout, int readTimeout, RestEntity... entities) {
+        log.debug("Building request for non-blocking PUT method");
+        RestRequest request = toRestRequest(
+                RestMethod.PUT, endpoint, body, mediaType, connectionTimeout, readTimeout, entities);
+        log.debug("Making non-blocking PUT request");
+        CompletableFuture<RestResponse> futureResponse = engine.executeAsync(request);
+        log.debug("Non-blocking PUT request made");
+        return futureResponse;
     }
 
     /**
@@ -313,15 +625,10 @@ public class Resty implements RestClient {
     public <Body> RestResponse patch(String endpoint, Body body, String mediaType,
                                      int connectionTimeout, int readTimeout, RestEntity... entities) {
         log.info("Building request for PATCH method");
-        Client client = generateClient(connectionTimeout, readTimeout);
-        if (client == null) {
-            throw new RuntimeException("Cannot generate client");
-        }
-        Invocation.Builder invocationBuilder = generateInvocationBuilder(client, endpoint, entities);
+        RestRequest request = toRestRequest(
+                RestMethod.PATCH, endpoint, body, mediaType, connectionTimeout, readTimeout, entities);
         log.info("Making PATCH request");
-        Response response = invocationBuilder.method("PATCH", Entity.entity(body, mediaType), Response.class);
-        RestResponse restResponse = new RestResponse(response.getStatus(), response.readEntity(String.class));
-        client.close();
+        RestResponse restResponse = engine.execute(request);
         log.info("PATCH request completed");
 
         return restResponse;
@@ -358,16 +665,92 @@ public class Resty implements RestClient {
     public <Body> AsyncRestResponse asyncPatch(String endpoint, Body body, String mediaType,
                                              int connectionTimeout, int readTimeout, RestEntity... entities) {
         log.debug("Building request for async PATCH method");
-        Client client = generateClient(connectionTimeout, readTimeout);
-        if (client == null) {
-            throw new RuntimeException("Cannot generate client");
-        }
-        Invocation.Builder invocationBuilder = generateInvocationBuilder(client, endpoint, entities);
+        RestRequest request = toRestRequest(
+                RestMethod.PATCH, endpoint, body, mediaType, connectionTimeout, readTimeout, entities);
         log.debug("Making async PATCH request");
-        Future<Response> futureResponse = invocationBuilder.async()
-                .method("PATCH", Entity.entity(body, mediaType), Response.class);
+        CompletableFuture<RestResponse> futureResponse = engine.executeAsync(request);
         log.debug("Async PATCH request made");
-        return new AsyncRestResponse(client, futureResponse);
+        return new AsyncRestResponse(futureResponse);
+    }
+
+    /**
+     * Performs a request for the PATCH HTTP method whose response body is read as a stream.
+     * It uses default values for both connectionTimeout and readTimeout properties.
+     * It also uses a default value (application/json) for the media type.
+     * The response must be closed once its body has been read.
+     *
+     * @param endpoint the endpoint of the service to which make the request.
+     * @param body the body associated to the request.
+     * @param entities headers and parameters for the request.
+     * @return the streaming response given back to the performed request.
+     */
+    @Override
+    public <Body> StreamingRestResponse streamPatch(String endpoint, Body body, RestEntity... entities) {
+        log.debug("Using default value for timeouts and application/json for media type");
+        return streamPatch(endpoint, body, APPLICATION_JSON, getDefaultConnectionTimeout(), getDefaultReadTimeout(), entities);
+    }
+
+    /**
+     * Performs a request for the PATCH HTTP method whose response body is read as a stream.
+     * The response must be closed once its body has been read.
+     *
+     * @param endpoint the endpoint of the service to which make the request.
+     * @param body the body associated to the request.
+     * @param mediaType the media type for the request to be performed.
+     * @param connectionTimeout is the value for the connection timeout property.
+     * @param readTimeout is the value for the read timeout property.
+     * @param entities headers and parameters for the request.
+     * @return the streaming response given back to the performed request.
+     */
+    @Override
+    public <Body> StreamingRestResponse streamPatch(String endpoint, Body body, String mediaType,
+                                                    int connectionTimeout, int readTimeout, RestEntity... entities) {
+        log.debug("Building request for streaming PATCH method");
+        RestRequest request = toRestRequest(
+                RestMethod.PATCH, endpoint, body, mediaType, connectionTimeout, readTimeout, entities);
+        log.debug("Making streaming PATCH request");
+        StreamingRestResponse streamingResponse = engine.stream(request);
+        log.debug("Streaming PATCH request completed");
+        return streamingResponse;
+    }
+
+    /**
+     * Performs a non-blocking request for the PATCH HTTP method.
+     * It uses default values for both connectionTimeout and readTimeout properties.
+     * It also uses a default value (application/json) for the media type.
+     *
+     * @param endpoint the endpoint of the service to which make the request.
+     * @param body the body associated to the request.
+     * @param entities headers and parameters for the request.
+     * @return the future completed with the response given back to the performed request.
+     */
+    @Override
+    public <Body> CompletableFuture<RestResponse> futurePatch(String endpoint, Body body, RestEntity... entities) {
+        log.debug("Using default value for timeouts and application/json for media type");
+        return futurePatch(endpoint, body, APPLICATION_JSON, getDefaultConnectionTimeout(), getDefaultReadTimeout(), entities);
+    }
+
+    /**
+     * Performs a non-blocking request for the PATCH HTTP method.
+     *
+     * @param endpoint the endpoint of the service to which make the request.
+     * @param body the body associated to the request.
+     * @param mediaType the media type for the request to be performed.
+     * @param connectionTimeout is the value for the connection timeout property.
+     * @param readTimeout is the value for the read timeout property.
+     * @param entities headers and parameters for the request.
+     * @return the future completed with the response given back to the performed request.
+     */
+    @Override
+    public <Body> CompletableFuture<RestResponse> futurePatch(
+            String endpoint, Body body, String mediaType, int connectionTimeout, int readTimeout, RestEntity... entities) {
+        log.debug("Building request for non-blocking PATCH method");
+        RestRequest request = toRestRequest(
+                RestMethod.PATCH, endpoint, body, mediaType, connectionTimeout, readTimeout, entities);
+        log.debug("Making non-blocking PATCH request");
+        CompletableFuture<RestResponse> futureResponse = engine.executeAsync(request);
+        log.debug("Non-blocking PATCH request made");
+        return futureResponse;
     }
 
     /**
@@ -396,15 +779,9 @@ public class Resty implements RestClient {
     @Override
     public RestResponse delete(String endpoint, int connectionTimeout, int readTimeout, RestEntity... entities) {
         log.info("Building request for DELETE method");
-        Client client = generateClient(connectionTimeout, readTimeout);
-        if (client == null) {
-            throw new RuntimeException("Cannot generate client");
-        }
-        Invocation.Builder invocationBuilder = generateInvocationBuilder(client, endpoint, entities);
+        RestRequest request = toRestRequest(RestMethod.DELETE, endpoint, connectionTimeout, readTimeout, entities);
         log.info("Making DELETE request");
-        Response response = invocationBuilder.delete(Response.class);
-        RestResponse restResponse = new RestResponse(response.getStatus(), response.readEntity(String.class));
-        client.close();
+        RestResponse restResponse = engine.execute(request);
         log.info("DELETE request completed");
 
         return restResponse;
@@ -437,15 +814,302 @@ public class Resty implements RestClient {
     public AsyncRestResponse asyncDelete(
             String endpoint, int connectionTimeout, int readTimeout, RestEntity... entities) {
         log.debug("Building request for async DELETE method");
-        Client client = generateClient(connectionTimeout, readTimeout);
-        if (client == null) {
-            throw new RuntimeException("Cannot generate client");
-        }
-        Invocation.Builder invocationBuilder = generateInvocationBuilder(client, endpoint, entities);
+        RestRequest request = toRestRequest(RestMethod.DELETE, endpoint, connectionTimeout, readTimeout, entities);
         log.debug("Making async DELETE request");
-        Future<Response> futureResponse = invocationBuilder.async().delete(Response.class);
+        CompletableFuture<RestResponse> futureResponse = engine.executeAsync(request);
         log.debug("Async DELETE request made");
-        return new AsyncRestResponse(client, futureResponse);
+        return new AsyncRestResponse(futureResponse);
+    }
+
+    /**
+     * Performs a request for the DELETE HTTP method whose response body is read as a stream.
+     * It uses default values for both connectionTimeout and readTimeout properties.
+     * The response must be closed once its body has been read.
+     *
+     * @param endpoint the endpoint of the service to which make the request.
+     * @param entities headers and parameters for the request.
+     * @return the streaming response given back to the performed request.
+     */
+    @Override
+    public StreamingRestResponse streamDelete(String endpoint, RestEntity... entities) {
+        log.debug("Using default values for timeout");
+        return streamDelete(endpoint, getDefaultConnectionTimeout(), getDefaultReadTimeout(), entities);
+    }
+
+    /**
+     * Performs a request for the DELETE HTTP method whose response body is read as a stream.
+     * The response must be closed once its body has been read.
+     *
+     * @param endpoint the endpoint of the service to which make the request.
+     * @param connectionTimeout is the value for the connection timeout property.
+     * @param readTimeout is the value for the read timeout property.
+     * @param entities headers and parameters for the request.
+     * @return the streaming response given back to the performed request.
+     */
+    @Override
+    public StreamingRestResponse streamDelete(
+            String endpoint, int connectionTimeout, int readTimeout, RestEntity... entities) {
+        log.debug("Building request for streaming DELETE method");
+        RestRequest request = toRestRequest(RestMethod.DELETE, endpoint, connectionTimeout, readTimeout, entities);
+        log.debug("Making streaming DELETE request");
+        StreamingRestResponse streamingResponse = engine.stream(request);
+        log.debug("Streaming DELETE request completed");
+        return streamingResponse;
+    }
+
+    /**
+     * Performs a non-blocking request for the DELETE HTTP method.
+     * It uses default values for both connectionTimeout and readTimeout properties.
+     *
+     * @param endpoint the endpoint of the service to which make the request.
+     * @param entities headers and parameters for the request.
+     * @return the future completed with the response given back to the performed request.
+     */
+    @Override
+    public CompletableFuture<RestResponse> futureDelete(String endpoint, RestEntity... entities) {
+        log.debug("Using default values for timeout");
+        return futureDelete(endpoint, getDefaultConnectionTimeout(), getDefaultReadTimeout(), entities);
+    }
+
+    /**
+     * Performs a non-blocking request for the DELETE HTTP method.
+     *
+     * @param endpoint the endpoint of the service to which make the request.
+     * @param connectionTimeout is the value for the connection timeout property.
+     * @param readTimeout is the value for the read timeout property.
+     * @param entities headers and parameters for the request.
+     * @return the future completed with the response given back to the performed request.
+     */
+    @Override
+    public CompletableFuture<RestResponse> futureDelete(
+            String endpoint, int connectionTimeout, int readTimeout, RestEntity... entities) {
+        log.debug("Building request for non-blocking DELETE method");
+        RestRequest request = toRestRequest(RestMethod.DELETE, endpoint, connectionTimeout, readTimeout, entities);
+        log.debug("Making non-blocking DELETE request");
+        CompletableFuture<RestResponse> futureResponse = engine.executeAsync(request);
+        log.debug("Non-blocking DELETE request made");
+        return futureResponse;
+    }
+
+    /**
+     * Performs the given request.
+     * Timeouts of the request that are not positive are replaced with the default values.
+     *
+     * @param request the request to perform.
+     * @return the response given back to the performed request.
+     */
+    @Override
+    public RestResponse execute(RestRequest request) {
+        log.debug("Making {} request", request.getMethod().toValue());
+        RestResponse restResponse = engine.execute(withDefaultTimeouts(request));
+        log.debug("{} request completed", request.getMethod().toValue());
+        return restResponse;
+    }
+
+    /**
+     * Performs the given request without blocking.
+     * Timeouts of the request that are not positive are replaced with the default values.
+     *
+     * @param request the request to perform.
+     * @return the future completed with the response given back to the performed request.
+     */
+    @Override
+    public CompletableFuture<RestResponse> futureExecute(RestRequest request) {
+        log.debug("Making non-blocking {} request", request.getMethod().toValue());
+        CompletableFuture<RestResponse> futureResponse = engine.executeAsync(withDefaultTimeouts(request));
+        log.debug("Non-blocking {} request made", request.getMethod().toValue());
+        return futureResponse;
+    }
+
+    /**
+     * Performs a batch of requests for the GET HTTP method, with at most the given number of requests in flight.
+     *
+     * @param endpoints the endpoints of the services to which make the requests.
+     * @param parallelism the maximum number of requests in flight at the same time.
+     * @param entities headers and parameters for all the requests.
+     * @return the outcome of the requests, in the same order of the endpoints.
+     */
+    @Override
+    public BatchResponse getAll(List<String> endpoints, int parallelism, RestEntity... entities)
+            throws InterruptedException {
+        List<RestRequest> requests = endpoints.stream()
+                .map(endpoint -> RestRequest.get(endpoint, entities))
+                .collect(Collectors.toList());
+        return executeAll(requests, parallelism);
+    }
+
+    /**
+     * Performs a batch of requests, with at most the given number of requests in flight.
+     * The failure of a request does not abort the others, and it is reported by the corresponding item.
+     *
+     * @param requests the requests to perform.
+     * @param parallelism the maximum number of requests in flight at the same time.
+     * @return the outcome of the requests, in the same order of the requests.
+     */
+    @Override
+    public BatchResponse executeAll(List<RestRequest> requests, int parallelism) throws InterruptedException {
+        return executeAll(requests, parallelism, 0, null);
+    }
+
+    /**
+     * Performs a batch of requests, with at most the given number of requests in flight.
+     * The failure of a request does not abort the others, and it is reported by the corresponding item.
+     * Requests that have not completed when the deadline expires are cancelled and reported as failed.
+     *
+     * @param requests the requests to perform.
+     * @param parallelism the maximum number of requests in flight at the same time.
+     * @param timeout the time in milliseconds to wait for all the requests.
+     * @return the outcome of the requests, in the same order of the requests.
+     */
+    @Override
+    public BatchResponse executeAll(List<RestRequest> requests, int parallelism, long timeout)
+            throws InterruptedException {
+        return executeAll(requests, parallelism, timeout, null);
+    }
+
+    /**
+     * Performs a batch of requests, with at most the given number of requests in flight.
+     * The failure of a request does not abort the others, and it is reported by the corresponding item.
+     * Requests that have not completed when the deadline expires are cancelled and reported as failed.
+     * The given consumer is notified of each item as soon as its request completes.
+     *
+     * @param requests the requests to perform.
+     * @param parallelism the maximum number of requests in flight at the same time.
+     * @param timeout the time in milliseconds to wait for all the requests.
+     * @param onCompletion the consumer notified of each item, in order of completion.
+     * @return the outcome of the requests, in the same order of the requests.
+     */
+    @Override
+    public BatchResponse executeAll(List<RestRequest> requests, int parallelism, long timeout,
+                                    Consumer<BatchItem> onCompletion) throws InterruptedException {
+        log.debug("Building batch of requests");
+        return new BatchExecution(requests, parallelism, this::futureExecute, onCompletion).execute(timeout);
+    }
+
+    /**
+     * Performs a request for the GET HTTP method whose response body is written to the given file as it is received.
+     * The file is replaced only once the whole body has been written, and it is left untouched if the response fails.
+     * It uses default values for both connectionTimeout and readTimeout properties.
+     *
+     * @param endpoint the endpoint of the service to which make the request.
+     * @param target the file to write the response body to.
+     * @param entities headers and parameters for the request.
+     * @return the outcome of the download.
+     */
+    @Override
+    public DownloadResult download(String endpoint, Path target, RestEntity... entities) {
+        return download(endpoint, target, DownloadPolicy.defaults(), entities);
+    }
+
+    /**
+     * Performs a request for the GET HTTP method whose response body is written to the given file as it is received.
+     * The file is replaced only once the whole body has been written and verified against the checksum of the policy,
+     * if any, and it is left untouched if the response fails.
+     * It uses default values for both connectionTimeout and readTimeout properties.
+     *
+     * @param endpoint the endpoint of the service to which make the request.
+     * @param target the file to write the response body to.
+     * @param policy how the response body is written.
+     * @param entities headers and parameters for the request.
+     * @return the outcome of the download.
+     */
+    @Override
+    public DownloadResult download(String endpoint, Path target, DownloadPolicy policy, RestEntity... entities) {
+        log.debug("Using default values for timeout");
+        return download(toRestRequest(RestMethod.GET, endpoint, getDefaultConnectionTimeout(), getDefaultReadTimeout(),
+                entities), target, policy);
+    }
+
+    /**
+     * Performs the given request whose response body is written to the given file as it is received.
+     * The file is replaced only once the whole body has been written and verified against the checksum of the policy,
+     * if any, and it is left untouched if the response fails.
+     * Timeouts of the request that are not positive are replaced with the default values.
+     *
+     * @param request the request to perform.
+     * @param target the file to write the response body to.
+     * @param policy how the response body is written.
+     * @return the outcome of the download.
+     */
+    @Override
+    public DownloadResult download(RestRequest request, Path target, DownloadPolicy policy) {
+        log.debug("Making {} request for download", request.getMethod().toValue());
+        DownloadResult result = FileDownloader.download(engine.stream(withDefaultTimeouts(request)), target, policy);
+        log.debug("Download of {} request completed", request.getMethod().toValue());
+        return result;
+    }
+
+    /**
+     * Performs a request for the POST HTTP method whose body is read from its source while it is sent,
+     * so that it is never held in memory. The body is sent with its own media type.
+     * It uses default values for both connectionTimeout and readTimeout properties.
+     *
+     * @param endpoint the endpoint of the service to which make the request.
+     * @param body the body to send, such as a file, a stream or a multipart body.
+     * @param entities headers and parameters for the request.
+     * @return the response given back to the performed request.
+     */
+    @Override
+    public RestResponse upload(String endpoint, UploadBody body, RestEntity... entities) {
+        return upload(RestMethod.POST, endpoint, body, entities);
+    }
+
+    /**
+     * Performs a request for the given HTTP method whose body is read from its source while it is sent,
+     * so that it is never held in memory. The body is sent with its own media type.
+     * It uses default values for both connectionTimeout and readTimeout properties.
+     *
+     * @param method the HTTP method of the request, which must have a body.
+     * @param endpoint the endpoint of the service to which make the request.
+     * @param body the body to send, such as a file, a stream or a multipart body.
+     * @param entities headers and parameters for the request.
+     * @return the response given back to the performed request.
+     */
+    @Override
+    public RestResponse upload(RestMethod method, String endpoint, UploadBody body, RestEntity... entities) {
+        log.debug("Using default values for timeout");
+        return upload(method, endpoint, body, getDefaultConnectionTimeout(), getDefaultReadTimeout(), entities);
+    }
+
+    /**
+     * Performs a request for the given HTTP method whose body is read from its source while it is sent,
+     * so that it is never held in memory. The body is sent with its own media type.
+     * With the HTTP client of the JDK, the read timeout includes the time to send the body.
+     *
+     * @param method the HTTP method of the request, which must have a body.
+     * @param endpoint the endpoint of the service to which make the request.
+     * @param body the body to send, such as a file, a stream or a multipart body.
+     * @param connectionTimeout is the value for the connection timeout property.
+     * @param readTimeout is the value for the read timeout property.
+     * @param entities headers and parameters for the request.
+     * @return the response given back to the performed request.
+     */
+    @Override
+    public RestResponse upload(RestMethod method, String endpoint, UploadBody body, int connectionTimeout,
+                               int readTimeout, RestEntity... entities) {
+        if (!method.hasBody()) {
+            throw new IllegalArgumentException("Cannot upload a body with the " + method.toValue() + " method");
+        }
+        log.debug("Building request for {} upload", method.toValue());
+        RestRequest request = toRestRequest(method, endpoint, body, body.getMediaType(),
+                connectionTimeout, readTimeout, entities);
+        log.debug("Making {} upload request", method.toValue());
+        RestResponse restResponse = engine.execute(request);
+        log.debug("{} upload request completed", method.toValue());
+        return restResponse;
+    }
+
+    /**
+     * Closes the engine and all the connections it keeps, along with the async executor created by the client.
+     * The instance cannot be used for requests anymore once it has been closed.
+     */
+    @Override
+    public void close() {
+        log.debug("Closing client");
+        engine.close();
+        if (ownedAsyncExecutor != null) {
+            ownedAsyncExecutor.shutdown();
+        }
     }
 
     /**
@@ -469,104 +1133,136 @@ public class Resty implements RestClient {
     }
 
     /**
-     * Sets the headers for the REST request.
+     * Builds a request without body to be performed by the engine.
+     *
+     * @param method the HTTP method of the request.
+     * @param endpoint the endpoint of the service to which make the request.
+     * @param connectionTimeout is the value for the connection timeout property.
+     * @param readTimeout is the value for the read timeout property.
+     * @param entities headers and parameters for the request.
+     * @return the built request.
+     */
+    private RestRequest toRestRequest(RestMethod method, String endpoint,
+                                      int connectionTimeout, int readTimeout, RestEntity[] entities) {
+        return RestRequest.builder()
+                .method(method)
+                .endpoint(endpoint)
+                .connectionTimeout(connectionTimeout)
+                .readTimeout(readTimeout)
+                .entities(entities)
+                .build();
+    }
+
+    /**
+     * Builds a request with a body to be performed by the engine.
+     *
+     * @param method the HTTP method of the request.
+     * @param endpoint the endpoint of the service to which make the request.
+     * @param body the body associated to the request.
+     * @param mediaType the media type for the request to be performed.
+     * @param connectionTimeout is the value for the connection timeout property.
+     * @param readTimeout is the value for the read timeout property.
+     * @param entities headers and parameters for the request.
+     * @return the built request.
+     */
+    private RestRequest toRestRequest(RestMethod method, String endpoint, Object body, String mediaType,
+                                      int connectionTimeout, int readTimeout, RestEntity[] entities) {
+        return RestRequest.builder()
+                .method(method)
+                .endpoint(endpoint)
+                .body(body)
+                .mediaType(mediaType)
+                .connectionTimeout(connectionTimeout)
+                .readTimeout(readTimeout)
+                .entities(entities)
+                .build();
+    }
+
+    /**
+     * Provides the given request with its timeouts that are not positive replaced with the default values.
      *
-     * @param invocationBuilder the invocation builder to which headers have to be associated to.
-     * @param headers headers for the request.
+     * @param request the request to check.
+     * @return the request with the timeouts to apply.
      */
-    private void setHeaders(Invocation.Builder invocationBuilder, List<RestEntity> headers) {
-        log.debug("Setting headers for request");
-        headers.forEach(h -> invocationBuilder.header(h.getName(), h.getValue()));
+    private RestRequest withDefaultTimeouts(RestRequest request) {
+        if (request.getConnectionTimeout() > 0 && request.getReadTimeout() > 0) {
+            return request;
+        }
+        return request.toBuilder()
+                .connectionTimeout(connectionTimeoutOf(request))
+                .readTimeout(readTimeoutOf(request))
+                .build();
     }
 
     /**
-     * Sets the query parameters for the REST request.
+     * Provides the SSL context for the secure connections, configured with the given settings of the TLS sessions.
+     * A context given by the user takes precedence, and it is configured as it is. Otherwise the shared trust-all
+     * context is used when dev mode is active and the default one when it is not, unless settings of the sessions
+     * are given: a context of the same kind is then created for the client, so that the shared ones are left
+     * untouched for the other clients of the JVM.
      *
-     * @param webTarget the web target to which parameters have to be associated to.
-     * @param parameters parameters for the request.
-     * @return the web target with parameters associated to it.
+     * @param sslContext the context given by the user, if any.
+     * @param sessionCacheSize the maximum number of sessions kept for resumption.
+     * @param sessionTimeout the time in seconds a session can be resumed for.
+     * @return the SSL context to use.
      */
-    private WebTarget setParameters(WebTarget webTarget, List<RestEntity> parameters) {
-        log.debug("Setting query parameters for request");
-        for (RestEntity p : parameters) {
-            webTarget = webTarget.queryParam(p.getName(), p.getValue());
+    private SSLContext selectSslContext(SSLContext sslContext, int sessionCacheSize, int sessionTimeout) {
+        if (sslContext != null) {
+            log.debug("Using given SSL context");
+            return SslContexts.configureSessions(sslContext, sessionCacheSize, sessionTimeout);
         }
-        return webTarget;
+        log.debug("Dev mode is " + (activeDevMode ? "active" : "not active"));
+        if (sessionCacheSize <= 0 && sessionTimeout <= 0) {
+            return activeDevMode ? SslContexts.trustAllContext() : SslContexts.defaultContext();
+        }
+        log.debug("Creating SSL context for the settings of the TLS sessions");
+        SSLContext ownContext = activeDevMode ? SslContexts.newTrustAllContext() : SslContexts.newDefaultContext();
+        return SslContexts.configureSessions(ownContext, sessionCacheSize, sessionTimeout);
     }
 
     /**
-     * Generates a new invocation builder to actually make REST requests.
+     * Provides the connection timeout of the given request, or the default one if it is not positive.
      *
-     * @param client the client created and that is going to be used for requests.
-     * @param endpoint the endpoint of the service to which make the request.
-     * @param entities headers and parameters for the request.
-     * @return the instantiated invocation builder.
+     * @param request the request to check.
+     * @return the connection timeout for the request.
      */
-    private Invocation.Builder generateInvocationBuilder(Client client, String endpoint, RestEntity[] entities) {
-        TypedRestEntity typedRestEntity = buildFromEntities(entities);
-        List<RestEntity> headers = typedRestEntity.getHeaders();
-        WebTarget webTarget = generateWebTarget(client, endpoint, typedRestEntity);
-        Invocation.Builder invocationBuilder = webTarget.request();
-        setHeaders(invocationBuilder, headers);
-        return invocationBuilder;
+    private int connectionTimeoutOf(RestRequest request) {
+        return request.getConnectionTimeout() > 0 ? request.getConnectionTimeout() : getDefaultConnectionTimeout();
     }
 
     /**
-     * Generates a new web target to use for instantiating a new invocation build for REST requests.
-     * It sets the query parameters for the request.
+     * Provides the read timeout of the given request, or the default one if it is not positive.
      *
-     * @param client the client created and that is going to be used for requests.
-     * @param endpoint the endpoint of the service to which make the request.
-     * @param typedRestEntity it contains the query parameters to set for the request.
-     * @return the created web target.
+     * @param request the request to check.
+     * @return the read timeout for the request.
      */
-    private WebTarget generateWebTarget(Client client, String endpoint, TypedRestEntity typedRestEntity) {
-        List<RestEntity> parameters = typedRestEntity.getParameters();
-        WebTarget webTarget = client.target(endpoint).property(SET_METHOD_WORKAROUND, true);
-        webTarget = setParameters(webTarget, parameters);
-        return webTarget;
+    private int readTimeoutOf(RestRequest request) {
+        return request.getReadTimeout() > 0 ? request.getReadTimeout() : getDefaultReadTimeout();
     }
 
     /**
-     * Generates a new client for REST requests.
-     * Returns null if for some reason it is not allowed to create the client.
+     * Provides the given value when it is positive, otherwise the default value of the given property.
      *
-     * @param connectionTimeout is the value for the connection timeout property.
-     * @param readTimeout is the value for the read timeout property.
-     * @return the created client.
-     */
-    private Client generateClient(int connectionTimeout, int readTimeout) {
-        log.debug("Generating client");
-        Client client = null;
-        if (activeDevMode) {
-            log.debug("Dev mode is active");
-            try {
-                SSLContext sslcontext = SSLContext.getInstance(TLS.toValue());
-                sslcontext.init(null, new TrustManager[]{new X509TrustManager() {
-                    @Override
-                    public void checkClientTrusted(java.security.cert.X509Certificate[] arg0, String arg1) {
-                    }
-                    @Override
-                    public void checkServerTrusted(java.security.cert.X509Certificate[] arg0, String arg1) {
-                    }
-                    @Override
-                    public java.security.cert.X509Certificate[] getAcceptedIssuers() {
-                        return null;
-                    }
-                }}, new java.security.SecureRandom());
-                client = ClientBuilder.newBuilder().sslContext(sslcontext).hostnameVerifier((s1, s2) -> true).build();
-            } catch (NoSuchAlgorithmException | KeyManagementException e) {
-                log.debug("Cannot generate client due to: " + e.getMessage());
-            }
-        } else {
-            log.debug("Dev mode is not active");
-            client = newClient();
-        }
-        if (client != null) {
-            client.property(ClientProperties.CONNECT_TIMEOUT, connectionTimeout);
-            client.property(ClientProperties.READ_TIMEOUT, readTimeout);
-            log.debug("Client generated");
-        }
-        return client;
+     * @param value the value to check.
+     * @param property the property providing the default value.
+     * @return the given value or the default one.
+     */
+    private static long valueOrDefault(long value, RestClientProperty property) {
+        return value > 0 ? value : Long.parseLong(property.toValue());
     }
+
+    /**
+     * Whether the client trusts all the certificates and hostnames, which is useful for development.
+     */
+    private final boolean activeDevMode;
+
+    /**
+     * The executor dispatching non-blocking requests created by the client, if any.
+     */
+    private final ExecutorService ownedAsyncExecutor;
+
+    /**
+     * The engine performing the requests.
+     */
+    private final RestEngine engine;
 }
@@ -0,0 +1,217 @@
+package resty.batch;
+
+import lombok.extern.slf4j.Slf4j;
+import resty.request.RestRequest;
+import resty.response.RestResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Performs a batch of requests with a bounded number of requests in flight at the same time.
+ * A new request is started as soon as one of the requests in flight completes, and the failure of a request
+ * does not abort the others. Requests still in flight when the deadline expires are cancelled.
+ */
+@Slf4j
+public class BatchExecution {
+
+    /**
+     * Builds the execution of a batch of requests.
+     *
+     * @param requests the requests to perform.
+     * @param parallelism the maximum number of requests in flight at the same time.
+     * @param performer the function starting a request and providing the future completed with its response.
+     * @param onCompletion the consumer notified of each item as soon as its request completes, if any.
+     */
+    public BatchExecution(List<RestRequest> requests, int parallelism,
+                          Function<RestRequest, CompletableFuture<RestResponse>> performer,
+                          Consumer<BatchItem> onCompletion) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Parallelism must be positive");
+        }
+        this.requests = requests;
+        this.parallelism = parallelism;
+        this.performer = performer;
+        this.onCompletion = onCompletion;
+        this.futures = new AtomicReferenceArray<>(requests.size());
+        this.items = new AtomicReferenceArray<>(requests.size());
+        this.next = new AtomicInteger();
+        this.freeSlots = new AtomicInteger();
+        this.remaining = new CountDownLatch(requests.size());
+    }
+
+    /**
+     * Performs the requests and waits for them to complete or for the deadline to expire.
+     *
+     * @param timeout the time in milliseconds to wait for all the requests, not positive to wait indefinitely.
+     * @return the outcome of the requests, in the same order of the requests.
+     */
+    public BatchResponse execute(long timeout) throws InterruptedException {
+        log.debug("Performing batch of {} requests with parallelism {}", requests.size(), parallelism);
+        for (int i = 0; i < Math.min(parallelism, requests.size()); i++) {
+            startNext();
+        }
+        boolean completed = true;
+        if (timeout > 0) {
+            completed = remaining.await(timeout, MILLISECONDS);
+        } else {
+            remaining.await();
+        }
+        if (!completed) {
+            expire();
+        }
+        List<BatchItem> batchItems = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            batchItems.add(items.get(i));
+        }
+        log.debug("Batch of {} requests completed", requests.size());
+        return new BatchResponse(batchItems);
+    }
+
+    /**
+     * Starts the next request of the batch, if any and if the deadline has not expired.
+     * Futures already completed run their callbacks on the calling thread, so a request completing while another one
+     * is being started only frees a slot, which is then used by the thread already starting requests: requests are
+     * started in a loop rather than recursively, whatever the number of them completing synchronously.
+     */
+    private void startNext() {
+        if (freeSlots.getAndIncrement() > 0) {
+            return;
+        }
+        do {
+            startOne();
+        } while (freeSlots.decrementAndGet() > 0);
+    }
+
+    /**
+     * Starts the next request of the batch, if any and if the deadline has not expired.
+     * Requests that cannot even be started are recorded as failed and the following one is started in their place.
+     */
+    private void startOne() {
+        while (!expired) {
+            int index = next.getAndIncrement();
+            if (index >= requests.size()) {
+                return;
+            }
+            RestRequest request = requests.get(index);
+            CompletableFuture<RestResponse> future;
+            try {
+                future = performer.apply(request);
+            } catch (RuntimeException e) {
+                complete(new BatchItem(index, request, null, e));
+                continue;
+            }
+            futures.set(index, future);
+            future.whenComplete((response, throwable) -> {
+                complete(new BatchItem(index, request, response, unwrap(throwable)));
+                startNext();
+            });
+            return;
+        }
+    }
+
+    /**
+     * Marks the requests that did not complete in time as failed and cancels the ones in flight.
+     */
+    private void expire() {
+        log.debug("Batch deadline expired");
+        expired = true;
+        for (int i = 0; i < requests.size(); i++) {
+            complete(new BatchItem(i, requests.get(i), null, new TimeoutException("Batch deadline expired")));
+            CompletableFuture<RestResponse> future = futures.get(i);
+            if (future != null) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Records the given item, unless an item has already been recorded for the same request.
+     *
+     * @param item the item to record.
+     */
+    private void complete(BatchItem item) {
+        if (!items.compareAndSet(item.getIndex(), null, item)) {
+            return;
+        }
+        remaining.countDown();
+        if (onCompletion != null) {
+            try {
+                onCompletion.accept(item);
+            } catch (RuntimeException e) {
+                log.debug("Cannot notify completion of batch item due to: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Provides the actual cause of a failure of a future.
+     *
+     * @param throwable the failure of a future.
+     * @return the actual cause of the failure.
+     */
+    private static Throwable unwrap(Throwable throwable) {
+        return throwable instanceof CompletionException && throwable.getCause() != null
+                ? throwable.getCause() : throwable;
+    }
+
+    /**
+     * The requests to perform.
+     */
+    private final List<RestRequest> requests;
+
+    /**
+     * The maximum number of requests in flight at the same time.
+     */
+    private final int parallelism;
+
+    /**
+     * The function starting a request and providing the future completed with its response.
+     */
+    private final Function<RestRequest, CompletableFuture<RestResponse>> performer;
+
+    /**
+     * The consumer notified of each item as soon as its request completes, if any.
+     */
+    private final Consumer<BatchItem> onCompletion;
+
+    /**
+     * The futures of the requests started so far.
+     */
+    private final AtomicReferenceArray<CompletableFuture<RestResponse>> futures;
+
+    /**
+     * The items of the requests completed so far.
+     */
+    private final AtomicReferenceArray<BatchItem> items;
+
+    /**
+     * The index of the next request to start.
+     */
+    private final AtomicInteger next;
+
+    /**
+     * The number of slots freed and not used yet to start a request, when a thread is starting requests.
+     */
+    private final AtomicInteger freeSlots;
+
+    /**
+     * The number of requests not completed yet.
+     */
+    private final CountDownLatch remaining;
+
+    /**
+     * Whether the deadline has expired.
+     */
+    private volatile boolean expired;
+}
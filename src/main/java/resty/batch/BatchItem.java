@@ -0,0 +1,55 @@
+package resty.batch;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import resty.request.RestRequest;
+import resty.response.RestResponse;
+
+/**
+ * Models the outcome of a single request of a batch.
+ * Either the response or the failure is available, depending on whether the request could be performed.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class BatchItem {
+
+    /**
+     * Checks whether the request has been performed and its response succeeded.
+     *
+     * @return true if the response succeeded, false otherwise.
+     */
+    public boolean isSuccess() {
+        return response != null && response.isSuccess();
+    }
+
+    /**
+     * Checks whether the request could not be performed.
+     *
+     * @return true if the request failed, false otherwise.
+     */
+    public boolean isFailed() {
+        return failure != null;
+    }
+
+    /**
+     * Position of the request in the batch.
+     */
+    private final int index;
+
+    /**
+     * The request performed.
+     */
+    private final RestRequest request;
+
+    /**
+     * The response given back to the request, null if the request failed.
+     */
+    private final RestResponse response;
+
+    /**
+     * The reason why the request failed, null if it has been performed.
+     */
+    private final Throwable failure;
+}
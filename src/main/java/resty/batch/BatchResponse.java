@@ -0,0 +1,42 @@
+package resty.batch;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Models the outcome of a batch of requests, with an item for each request in the same order of the requests.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class BatchResponse {
+
+    /**
+     * Checks whether all the requests have been performed and their responses succeeded.
+     *
+     * @return true if all the responses succeeded, false otherwise.
+     */
+    public boolean isSuccess() {
+        return items.stream().allMatch(BatchItem::isSuccess);
+    }
+
+    /**
+     * Provides the items of the requests that could not be performed.
+     *
+     * @return the failed items.
+     */
+    public List<BatchItem> getFailures() {
+        return items.stream()
+                .filter(BatchItem::isFailed)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Items of the requests, in the same order of the requests.
+     */
+    private final List<BatchItem> items;
+}
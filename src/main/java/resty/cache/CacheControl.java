@@ -0,0 +1,73 @@
+package resty.cache;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Models the directives of the Cache-Control header of a response.
+ */
+class CacheControl {
+
+    /**
+     * Parses the directives of the given values of the Cache-Control header.
+     * Directives are case-insensitive, and quotes around their values are removed.
+     *
+     * @param values the values of the header, if any.
+     * @return the parsed directives.
+     */
+    static CacheControl parse(List<String> values) {
+        Map<String, String> directives = new HashMap<>();
+        if (values != null) {
+            for (String value : values) {
+                for (String directive : value.split(",")) {
+                    int separator = directive.indexOf('=');
+                    String name = (separator < 0 ? directive : directive.substring(0, separator)).trim();
+                    if (!name.isEmpty()) {
+                        String argument = separator < 0 ? "" : directive.substring(separator + 1).trim();
+                        directives.put(name.toLowerCase(Locale.ROOT), argument.replace("\"", ""));
+                    }
+                }
+            }
+        }
+        return new CacheControl(directives);
+    }
+
+    private CacheControl(Map<String, String> directives) {
+        this.directives = directives;
+    }
+
+    /**
+     * Checks whether the given directive is present.
+     *
+     * @param name the name of the directive.
+     * @return true if the directive is present, false otherwise.
+     */
+    boolean has(String name) {
+        return directives.containsKey(name);
+    }
+
+    /**
+     * Provides the number of seconds given as argument of the given directive.
+     *
+     * @param name the name of the directive.
+     * @return the number of seconds, or -1 if the directive is missing or its argument is not valid.
+     */
+    long seconds(String name) {
+        String argument = directives.get(name);
+        if (argument == null) {
+            return -1;
+        }
+        try {
+            return Math.max(0, Long.parseLong(argument));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * The directives along with their arguments, empty for directives without argument.
+     */
+    private final Map<String, String> directives;
+}
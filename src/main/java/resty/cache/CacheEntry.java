@@ -0,0 +1,396 @@
+package resty.cache;
+
+import lombok.Getter;
+import resty.json.JsonMapper;
+import resty.response.RestResponse;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Models a response kept by the cache, along with the information needed to decide whether it can be served.
+ * Times are in milliseconds.
+ */
+@Getter
+class CacheEntry {
+
+    /**
+     * Builds the entry for the given response, if it can be stored.
+     * Only successful responses that are not marked as no-store are stored,
+     * and only if they are fresh for some time or they carry a validator to revalidate them.
+     *
+     * @param endpoint the endpoint the response has been given back by.
+     * @param response the response to store.
+     * @param now the time the response has been received.
+     * @return the entry for the response, or null if it cannot be stored.
+     */
+    static CacheEntry of(String endpoint, RestResponse response, long now) {
+        if (response.getStatus() != OK) {
+            return null;
+        }
+        CacheControl cacheControl = CacheControl.parse(response.getHeaders().get(CACHE_CONTROL));
+        if (cacheControl.has(NO_STORE)) {
+            return null;
+        }
+        long freshness = freshnessOf(response, cacheControl, now);
+        boolean validated = response.getHeader(ETAG) != null || response.getHeader(LAST_MODIFIED) != null;
+        if (freshness <= 0 && !validated) {
+            return null;
+        }
+        long age = Math.max(0, parseSeconds(response.getHeader(AGE))) * 1000;
+        long staleWhileRevalidate = Math.max(0, cacheControl.seconds(STALE_WHILE_REVALIDATE)) * 1000;
+        return new CacheEntry(endpoint, response, now, age, freshness, staleWhileRevalidate,
+                cacheControl.has(MUST_REVALIDATE));
+    }
+
+    private CacheEntry(String endpoint, RestResponse response, long storedAt, long age,
+                       long freshness, long staleWhileRevalidate, boolean mustRevalidate) {
+        this.endpoint = endpoint;
+        this.response = response;
+        this.storedAt = storedAt;
+        this.age = age;
+        this.freshness = freshness;
+        this.staleWhileRevalidate = staleWhileRevalidate;
+        this.mustRevalidate = mustRevalidate;
+        this.size = sizeOf(endpoint, response);
+        this.revalidating = new AtomicBoolean();
+    }
+
+    /**
+     * Reads an entry written by {@link #writeTo(DataOutput)}.
+     *
+     * @param input the input to read the entry from.
+     * @return the read entry.
+     * @throws IOException if the entry cannot be read.
+     */
+    static CacheEntry readFrom(DataInput input) throws IOException {
+        String endpoint = readString(input);
+        long storedAt = input.readLong();
+        long age = input.readLong();
+        long freshness = input.readLong();
+        long staleWhileRevalidate = input.readLong();
+        boolean mustRevalidate = input.readBoolean();
+        int status = input.readInt();
+        Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        int headerCount = input.readInt();
+        for (int i = 0; i < headerCount; i++) {
+            String name = readString(input);
+            int valueCount = input.readInt();
+            List<String> values = new ArrayList<>(valueCount);
+            for (int j = 0; j < valueCount; j++) {
+                values.add(readString(input));
+            }
+            headers.put(name, values);
+        }
+        String body = readString(input);
+        RestResponse response = new RestResponse(status, body, headers, JsonMapper.getDefault());
+        return new CacheEntry(endpoint, response, storedAt, age, freshness, staleWhileRevalidate, mustRevalidate);
+    }
+
+    /**
+     * Writes the entry, so that it can be read back by {@link #readFrom(DataInput)}.
+     *
+     * @param output the output to write the entry to.
+     * @throws IOException if the entry cannot be written.
+     */
+    void writeTo(DataOutput output) throws IOException {
+        writeString(output, endpoint);
+        output.writeLong(storedAt);
+        output.writeLong(age);
+        output.writeLong(freshness);
+        output.writeLong(staleWhileRevalidate);
+        output.writeBoolean(mustRevalidate);
+        output.writeInt(response.getStatus());
+        Map<String, List<String>> headers = response.getHeaders();
+        output.writeInt(headers.size());
+        for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+            writeString(output, header.getKey());
+            output.writeInt(header.getValue().size());
+            for (String value : header.getValue()) {
+                writeString(output, value);
+            }
+        }
+        writeString(output, response.getBody());
+    }
+
+    /**
+     * Builds the entry replacing this one once the server confirmed it is still valid with a not modified response,
+     * whose headers update the stored ones.
+     *
+     * @param notModified the not modified response given back by the server.
+     * @param now the time the response has been received.
+     * @return the updated entry, or null if it cannot be stored anymore.
+     */
+    CacheEntry revalidate(RestResponse notModified, long now) {
+        Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        headers.putAll(response.getHeaders());
+        notModified.getHeaders().forEach((name, values) -> {
+            if (!CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                headers.put(name, values);
+            }
+        });
+        RestResponse updated =
+                new RestResponse(response.getStatus(), response.getBody(), headers, JsonMapper.getDefault());
+        return of(endpoint, updated, now);
+    }
+
+    /**
+     * Checks whether the entry can be served without contacting the server.
+     *
+     * @param now the current time.
+     * @return true if the entry is fresh, false otherwise.
+     */
+    boolean isFresh(long now) {
+        return currentAge(now) < freshness;
+    }
+
+    /**
+     * Checks whether the entry can be served while it is revalidated in background.
+     *
+     * @param now the current time.
+     * @return true if the entry is stale but still usable, false otherwise.
+     */
+    boolean isUsableWhileRevalidating(long now) {
+        return !mustRevalidate && currentAge(now) < freshness + staleWhileRevalidate;
+    }
+
+    /**
+     * Marks the entry as being revalidated, unless it is already.
+     *
+     * @return true if the caller has to revalidate the entry, false if it is already being revalidated.
+     */
+    boolean startRevalidation() {
+        return revalidating.compareAndSet(false, true);
+    }
+
+    /**
+     * Marks the entry as no longer being revalidated.
+     */
+    void endRevalidation() {
+        revalidating.set(false);
+    }
+
+    /**
+     * Provides the entity tag of the response, if any.
+     *
+     * @return the entity tag of the response.
+     */
+    String getETag() {
+        return response.getHeader(ETAG);
+    }
+
+    /**
+     * Provides the last modification date of the response, if any.
+     *
+     * @return the last modification date of the response.
+     */
+    String getLastModified() {
+        return response.getHeader(LAST_MODIFIED);
+    }
+
+    /**
+     * Provides the age of the entry at the given time.
+     *
+     * @param now the current time.
+     * @return the age of the entry.
+     */
+    private long currentAge(long now) {
+        return age + Math.max(0, now - storedAt);
+    }
+
+    /**
+     * Provides the time the given response is fresh for, based on max-age or on the Expires header.
+     * Responses marked as no-cache are never fresh, so that they are always revalidated.
+     *
+     * @param response the response to check.
+     * @param cacheControl the directives of the response.
+     * @param now the time the response has been received.
+     * @return the freshness lifetime of the response.
+     */
+    private static long freshnessOf(RestResponse response, CacheControl cacheControl, long now) {
+        if (cacheControl.has(NO_CACHE)) {
+            return 0;
+        }
+        long maxAge = cacheControl.seconds(MAX_AGE);
+        if (maxAge >= 0) {
+            return maxAge * 1000;
+        }
+        String expires = response.getHeader(EXPIRES);
+        if (expires == null) {
+            return 0;
+        }
+        long expiration = parseDate(expires, 0);
+        long date = parseDate(response.getHeader(DATE), now);
+        return Math.max(0, expiration - date);
+    }
+
+    /**
+     * Parses the given HTTP date.
+     *
+     * @param value the date to parse, if any.
+     * @param defaultValue the value to provide if the date is missing or not valid.
+     * @return the date in milliseconds since the epoch.
+     */
+    private static long parseDate(String value, long defaultValue) {
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Parses the given number of seconds.
+     *
+     * @param value the number to parse, if any.
+     * @return the number of seconds, or -1 if it is missing or not valid.
+     */
+    private static long parseSeconds(String value) {
+        if (value == null) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Reads a string written by {@link #writeString(DataOutput, String)}.
+     *
+     * @param input the input to read the string from.
+     * @return the read string, which may be null.
+     * @throws IOException if the string cannot be read.
+     */
+    private static String readString(DataInput input) throws IOException {
+        int length = input.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        input.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes the given string as its UTF-8 length and bytes, since bodies may exceed the limit of modified UTF-8.
+     *
+     * @param output the output to write the string to.
+     * @param value the string to write, which may be null.
+     * @throws IOException if the string cannot be written.
+     */
+    private static void writeString(DataOutput output, String value) throws IOException {
+        if (value == null) {
+            output.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    /**
+     * Estimates the memory taken by the given response, counting two bytes for each character.
+     *
+     * @param endpoint the endpoint the response has been given back by.
+     * @param response the response to measure.
+     * @return the estimated size in bytes.
+     */
+    private static long sizeOf(String endpoint, RestResponse response) {
+        long characters = endpoint.length() + (response.getBody() != null ? response.getBody().length() : 0);
+        for (Map.Entry<String, List<String>> header : response.getHeaders().entrySet()) {
+            characters += header.getKey().length();
+            for (String value : header.getValue()) {
+                characters += value.length();
+            }
+        }
+        return ENTRY_OVERHEAD + 2 * characters;
+    }
+
+    /**
+     * The endpoint the response has been given back by.
+     */
+    private final String endpoint;
+
+    /**
+     * The stored response.
+     */
+    private final RestResponse response;
+
+    /**
+     * The time the response has been stored.
+     */
+    private final long storedAt;
+
+    /**
+     * The age of the response when it has been stored.
+     */
+    private final long age;
+
+    /**
+     * The time the response is fresh for.
+     */
+    private final long freshness;
+
+    /**
+     * The time the response can be served after it became stale, while it is revalidated.
+     */
+    private final long staleWhileRevalidate;
+
+    /**
+     * Whether the response must not be served once it is stale.
+     */
+    private final boolean mustRevalidate;
+
+    /**
+     * The estimated memory taken by the entry in bytes.
+     */
+    private final long size;
+
+    /**
+     * Whether the entry is being revalidated in background.
+     */
+    private final AtomicBoolean revalidating;
+
+    private static final int OK = 200;
+
+    private static final long ENTRY_OVERHEAD = 256;
+
+    private static final String CACHE_CONTROL = "Cache-Control";
+
+    private static final String ETAG = "ETag";
+
+    private static final String LAST_MODIFIED = "Last-Modified";
+
+    private static final String EXPIRES = "Expires";
+
+    private static final String DATE = "Date";
+
+    private static final String AGE = "Age";
+
+    private static final String CONTENT_LENGTH = "Content-Length";
+
+    private static final String NO_STORE = "no-store";
+
+    private static final String NO_CACHE = "no-cache";
+
+    private static final String MAX_AGE = "max-age";
+
+    private static final String MUST_REVALIDATE = "must-revalidate";
+
+    private static final String STALE_WHILE_REVALIDATE = "stale-while-revalidate";
+}
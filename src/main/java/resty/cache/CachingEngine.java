@@ -0,0 +1,326 @@
+package resty.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import resty.engine.RestEngine;
+import resty.entity.RestEntities;
+import resty.entity.RestEntity;
+import resty.json.JsonMapper;
+import resty.request.RequestKey;
+import resty.request.RestMethod;
+import resty.request.RestRequest;
+import resty.response.RestResponse;
+import resty.response.StreamingRestResponse;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+
+/**
+ * Serves the responses of GET requests from a cache, following the caching headers given back by the servers.
+ * Fresh responses are served without contacting the server, while stale ones are revalidated by means of
+ * If-None-Match and If-Modified-Since conditional requests, so that a not modified response is served from the cache.
+ * Responses allowing stale-while-revalidate are served stale while they are revalidated in background.
+ * Successful requests for other methods invalidate the responses of their endpoint.
+ * <p>
+ * Requests are identified by their endpoint, parameters and headers, so that responses varying on
+ * request headers are never mixed up. Streaming requests are not cached.
+ */
+@Slf4j
+public class CachingEngine implements RestEngine {
+
+    /**
+     * Builds an engine caching the responses of the given one.
+     *
+     * @param delegate the engine actually performing the requests.
+     * @param cache the cache keeping the responses.
+     * @param jsonMapper the mapper used to convert the bodies of the responses served from the cache.
+     */
+    public CachingEngine(RestEngine delegate, ResponseCache cache, JsonMapper jsonMapper) {
+        this.delegate = delegate;
+        this.cache = cache;
+        this.jsonMapper = jsonMapper;
+    }
+
+    /**
+     * Performs the given request, serving its response from the cache when possible.
+     *
+     * @param request the request to perform.
+     * @return the response given back to the performed request.
+     */
+    @Override
+    public RestResponse execute(RestRequest request) {
+        if (request.getMethod() != RestMethod.GET) {
+            return invalidate(request, delegate.execute(request));
+        }
+        if (bypassesCache(request)) {
+            return delegate.execute(request);
+        }
+        String key = RequestKey.of(request);
+        CacheEntry entry = cache.get(key);
+        RestResponse cached = serve(key, request, entry);
+        if (cached != null) {
+            return cached;
+        }
+        return store(key, request, entry, delegate.execute(conditional(request, entry)), false);
+    }
+
+    /**
+     * Performs the given request without reading the response body, which is never cached.
+     *
+     * @param request the request to perform.
+     * @return the streaming response given back to the performed request.
+     */
+    @Override
+    public StreamingRestResponse stream(RestRequest request) {
+        StreamingRestResponse response = delegate.stream(request);
+        if (request.getMethod() != RestMethod.GET && response.isSuccess()) {
+            cache.invalidate(request.getEndpoint());
+        }
+        return response;
+    }
+
+    /**
+     * Performs the given request without blocking, serving its response from the cache when possible.
+     *
+     * @param request the request to perform.
+     * @return the future completed with the response given back to the performed request.
+     */
+    @Override
+    public CompletableFuture<RestResponse> executeAsync(RestRequest request) {
+        if (request.getMethod() != RestMethod.GET) {
+            return delegate.executeAsync(request).thenApply(response -> invalidate(request, response));
+        }
+        if (bypassesCache(request)) {
+            return delegate.executeAsync(request);
+        }
+        String key = RequestKey.of(request);
+        CacheEntry entry = cache.get(key);
+        RestResponse cached = serve(key, request, entry);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        return delegate.executeAsync(conditional(request, entry))
+                .thenApply(response -> store(key, request, entry, response, false));
+    }
+
+    /**
+     * Closes the engine actually performing the requests.
+     */
+    @Override
+    public void close() {
+        delegate.close();
+    }
+
+    /**
+     * Provides the response of the given entry if it can be served without waiting for the server.
+     * Stale entries that can be served while revalidated are revalidated in background.
+     *
+     * @param key the key of the request.
+     * @param request the request to perform.
+     * @param entry the entry for the request, if any.
+     * @return the response to serve, or null if the request has to be performed.
+     */
+    private RestResponse serve(String key, RestRequest request, CacheEntry entry) {
+        if (entry == null || forcesRevalidation(request)) {
+            return null;
+        }
+        long now = cache.now();
+        if (entry.isFresh(now)) {
+            log.debug("Serving fresh response of {} from cache", request.getEndpoint());
+            cache.recordHit();
+            return copyOf(entry);
+        }
+        if (entry.isUsableWhileRevalidating(now)) {
+            log.debug("Serving stale response of {} from cache while revalidating it", request.getEndpoint());
+            cache.recordHit();
+            revalidateInBackground(key, request, entry);
+            return copyOf(entry);
+        }
+        return null;
+    }
+
+    /**
+     * Revalidates the given entry without blocking, unless it is already being revalidated.
+     *
+     * @param key the key of the request.
+     * @param request the request to perform.
+     * @param entry the entry to revalidate.
+     */
+    private void revalidateInBackground(String key, RestRequest request, CacheEntry entry) {
+        if (!entry.startRevalidation()) {
+            return;
+        }
+        CompletableFuture<RestResponse> revalidation;
+        try {
+            revalidation = delegate.executeAsync(conditional(request, entry));
+        } catch (RuntimeException e) {
+            entry.endRevalidation();
+            log.debug("Cannot revalidate response of " + request.getEndpoint() + " due to: " + e.getMessage());
+            return;
+        }
+        revalidation.whenComplete((response, throwable) -> {
+            entry.endRevalidation();
+            if (response != null) {
+                store(key, request, entry, response, true);
+            } else {
+                log.debug("Cannot revalidate response of " + request.getEndpoint() + " due to: "
+                        + throwable.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Updates the cache with the response given back by the server and provides the response to serve.
+     * A not modified response refreshes the entry that has been revalidated, which is served instead.
+     * Responses to background revalidations are not recorded, since their request has been recorded as a hit.
+     *
+     * @param key the key of the request.
+     * @param request the performed request.
+     * @param entry the entry that has been revalidated, if any.
+     * @param response the response given back by the server.
+     * @param background whether the response is given back to a background revalidation.
+     * @return the response to serve.
+     */
+    private RestResponse store(String key, RestRequest request, CacheEntry entry, RestResponse response,
+                               boolean background) {
+        long now = cache.now();
+        if (entry != null && response.getStatus() == NOT_MODIFIED) {
+            log.debug("Response of {} not modified", request.getEndpoint());
+            if (!background) {
+                cache.recordRevalidation();
+            }
+            CacheEntry revalidated = entry.revalidate(response, now);
+            if (revalidated == null) {
+                cache.remove(key);
+                return copyOf(entry);
+            }
+            cache.put(key, revalidated);
+            return copyOf(revalidated);
+        }
+        if (!background) {
+            cache.recordMiss();
+        }
+        CacheEntry stored = CacheEntry.of(request.getEndpoint(), response, now);
+        if (stored != null) {
+            cache.put(key, stored);
+        } else if (entry != null) {
+            cache.remove(key);
+        }
+        return response;
+    }
+
+    /**
+     * Invalidates the responses of the endpoint of the given request if the request succeeded.
+     *
+     * @param request the performed request, whose method is not GET.
+     * @param response the response given back by the server.
+     * @return the given response.
+     */
+    private RestResponse invalidate(RestRequest request, RestResponse response) {
+        if (response.isSuccess()) {
+            cache.invalidate(request.getEndpoint());
+        }
+        return response;
+    }
+
+    /**
+     * Provides the conditional request revalidating the given entry, or the given request if there's no entry.
+     *
+     * @param request the request to perform.
+     * @param entry the entry to revalidate, if any.
+     * @return the request to perform.
+     */
+    private static RestRequest conditional(RestRequest request, CacheEntry entry) {
+        if (entry == null) {
+            return request;
+        }
+        List<RestEntity> entities = new ArrayList<>();
+        if (request.getEntities() != null) {
+            entities.addAll(Arrays.asList(request.getEntities()));
+        }
+        if (entry.getETag() != null) {
+            entities.add(RestEntity.withHeader(IF_NONE_MATCH, entry.getETag()));
+        }
+        if (entry.getLastModified() != null) {
+            entities.add(RestEntity.withHeader(IF_MODIFIED_SINCE, entry.getLastModified()));
+        }
+        return request.toBuilder().entities(entities.toArray(new RestEntity[0])).build();
+    }
+
+    /**
+     * Provides the response of the given entry to serve, which is not shared with other callers.
+     *
+     * @param entry the entry to serve.
+     * @return the response to serve.
+     */
+    private RestResponse copyOf(CacheEntry entry) {
+        RestResponse response = entry.getResponse();
+        return new RestResponse(response.getStatus(), response.getBody(), response.getHeaders(), jsonMapper);
+    }
+
+    /**
+     * Checks whether the given request must not use the cache at all.
+     *
+     * @param request the request to check.
+     * @return true if the request asks for no-store, false otherwise.
+     */
+    private static boolean bypassesCache(RestRequest request) {
+        return requestCacheControl(request).has(NO_STORE);
+    }
+
+    /**
+     * Checks whether the given request must be revalidated with the server even if it is fresh.
+     *
+     * @param request the request to check.
+     * @return true if the request asks for no-cache, false otherwise.
+     */
+    private static boolean forcesRevalidation(RestRequest request) {
+        return requestCacheControl(request).has(NO_CACHE);
+    }
+
+    /**
+     * Provides the cache directives given by the headers of the given request.
+     *
+     * @param request the request to check.
+     * @return the directives of the request.
+     */
+    private static CacheControl requestCacheControl(RestRequest request) {
+        List<String> values = new ArrayList<>();
+        RestEntities entities = RestEntities.of(request.getEntities());
+        for (int i = 0; i < entities.getHeaderCount(); i++) {
+            if (entities.getHeaderName(i).equalsIgnoreCase(CACHE_CONTROL)) {
+                values.add(entities.getHeaderValue(i));
+            }
+        }
+        return CacheControl.parse(values);
+    }
+
+    /**
+     * The engine actually performing the requests.
+     */
+    private final RestEngine delegate;
+
+    /**
+     * The cache keeping the responses.
+     */
+    private final ResponseCache cache;
+
+    /**
+     * The mapper used to convert the bodies of the responses served from the cache.
+     */
+    private final JsonMapper jsonMapper;
+
+    private static final int NOT_MODIFIED = 304;
+
+    private static final String CACHE_CONTROL = "Cache-Control";
+
+    private static final String IF_NONE_MATCH = "If-None-Match";
+
+    private static final String IF_MODIFIED_SINCE = "If-Modified-Since";
+
+    private static final String NO_STORE = "no-store";
+
+    private static final String NO_CACHE = "no-cache";
+}
@@ -0,0 +1,543 @@
+package resty.cache;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Keeps the responses of the cache on disk, so that a restarted process can serve and revalidate them
+ * instead of fetching them again. It is meant to be the second tier of a {@link ResponseCache}.
+ * <p>
+ * Responses are appended to a few memory-mapped segment files of the same size, and an index in memory,
+ * rebuilt from the segments when the store is opened, locates the latest record of each request.
+ * Once the last segment is full a new one is started, and the oldest one is deleted along with its responses
+ * when the segments exceed the size of the store. Records are written before being published in the index,
+ * so that lookups never wait for writes and never see partial records.
+ * The store must be closed to flush the segments to disk.
+ */
+@Slf4j
+public class DiskCacheStore implements AutoCloseable {
+
+    /**
+     * Opens the store kept in the given directory, loading the responses it already holds.
+     *
+     * @param directory the directory keeping the segment files, which is created if missing.
+     * @param maxBytes the maximum size in bytes taken by the segment files.
+     * @throws IOException if the segment files cannot be opened.
+     */
+    public DiskCacheStore(Path directory, long maxBytes) throws IOException {
+        long segmentSize = maxBytes / SEGMENT_COUNT;
+        if (segmentSize < MIN_SEGMENT_SIZE || segmentSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Maximum size must be between " + (SEGMENT_COUNT * MIN_SEGMENT_SIZE)
+                    + " and " + (SEGMENT_COUNT * (long) Integer.MAX_VALUE) + " bytes");
+        }
+        this.directory = Files.createDirectories(directory);
+        this.segmentSize = (int) segmentSize;
+        this.segments = new ArrayDeque<>();
+        this.index = new ConcurrentHashMap<>();
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+        this.evictions = new LongAdder();
+        load();
+    }
+
+    /**
+     * Provides the number of lookups that found a response on disk.
+     *
+     * @return the number of hits.
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Provides the number of lookups that found no response on disk.
+     *
+     * @return the number of misses.
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Provides the number of responses dropped along with the oldest segments.
+     *
+     * @return the number of evictions.
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * Provides the number of responses on disk.
+     *
+     * @return the number of responses.
+     */
+    public int getEntryCount() {
+        return index.size();
+    }
+
+    /**
+     * Provides the size taken by the records on disk, including the ones replaced by newer records.
+     *
+     * @return the size in bytes.
+     */
+    public synchronized long getSize() {
+        long size = 0;
+        for (Segment segment : segments) {
+            size += segment.position;
+        }
+        return size;
+    }
+
+    /**
+     * Flushes the segments to disk and releases their files.
+     */
+    @Override
+    public synchronized void close() {
+        for (Segment segment : segments) {
+            segment.close();
+        }
+        segments.clear();
+        index.clear();
+        closed = true;
+    }
+
+    /**
+     * Provides the entry for the given key, if it is on disk.
+     * It can be called by any number of threads at the same time, even while an entry is stored.
+     *
+     * @param key the key of the request.
+     * @return the entry, or null if there's none or it cannot be read.
+     */
+    CacheEntry get(String key) {
+        Location location = index.get(key);
+        if (location == null) {
+            misses.increment();
+            return null;
+        }
+        byte[] data = new byte[location.length];
+        ByteBuffer buffer = location.segment.buffer.duplicate();
+        ((Buffer) buffer).position(location.offset);
+        buffer.get(data);
+        try {
+            CacheEntry entry = CacheEntry.readFrom(new DataInputStream(new ByteArrayInputStream(data)));
+            hits.increment();
+            return entry;
+        } catch (IOException e) {
+            log.debug("Cannot read response of " + location.endpoint + " from disk due to: " + e.getMessage());
+            misses.increment();
+            return null;
+        }
+    }
+
+    /**
+     * Stores the given entry, replacing the one for the same key.
+     * Entries larger than a segment are not stored.
+     *
+     * @param key the key of the request.
+     * @param entry the entry to store.
+     */
+    void put(String key, CacheEntry entry) {
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        try {
+            entry.writeTo(new DataOutputStream(data));
+        } catch (IOException e) {
+            log.debug("Cannot write response of " + entry.getEndpoint() + " to disk due to: " + e.getMessage());
+            return;
+        }
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        if (RECORD_HEADER + keyBytes.length + data.size() > segmentSize) {
+            log.debug("Response of {} is too large to be stored on disk", entry.getEndpoint());
+            remove(key);
+            return;
+        }
+        synchronized (this) {
+            Location location = append(keyBytes, data.toByteArray(), entry.getEndpoint());
+            if (location != null) {
+                index.put(key, location);
+            }
+        }
+    }
+
+    /**
+     * Removes the entry for the given key, if any.
+     *
+     * @param key the key of the request.
+     */
+    synchronized void remove(String key) {
+        if (index.remove(key) != null) {
+            append(key.getBytes(StandardCharsets.UTF_8), null, null);
+        }
+    }
+
+    /**
+     * Removes all the entries for the given endpoint, whatever their parameters and headers.
+     *
+     * @param endpoint the endpoint whose responses are no longer valid.
+     */
+    synchronized void invalidate(String endpoint) {
+        List<String> keys = new ArrayList<>();
+        for (Map.Entry<String, Location> entry : index.entrySet()) {
+            if (entry.getValue().endpoint.equals(endpoint)) {
+                keys.add(entry.getKey());
+            }
+        }
+        keys.forEach(this::remove);
+    }
+
+    /**
+     * Removes all the entries, deleting the segment files.
+     */
+    synchronized void clear() {
+        index.clear();
+        while (!segments.isEmpty()) {
+            delete(segments.removeFirst());
+        }
+    }
+
+    /**
+     * Appends a record to the last segment, starting a new one if it is full.
+     * The record is written before its header, so that a record without a valid header is never loaded.
+     *
+     * @param key the key of the request.
+     * @param data the serialized entry, or null to record the removal of the key.
+     * @param endpoint the endpoint of the entry, if any.
+     * @return the location of the entry, or null if it cannot be written.
+     */
+    private Location append(byte[] key, byte[] data, String endpoint) {
+        if (closed) {
+            return null;
+        }
+        int dataLength = data != null ? data.length : TOMBSTONE;
+        int recordLength = RECORD_HEADER + key.length + Math.max(0, dataLength);
+        try {
+            Segment segment = segments.peekLast();
+            if (segment == null || segment.position + recordLength > segment.buffer.capacity()) {
+                segment = startSegment(segment != null ? segment.id + 1 : 0);
+            }
+            int offset = segment.position;
+            CRC32 checksum = new CRC32();
+            checksum.update(key);
+            ByteBuffer buffer = segment.buffer.duplicate();
+            ((Buffer) buffer).position(offset + RECORD_HEADER);
+            buffer.put(key);
+            if (data != null) {
+                checksum.update(data);
+                buffer.put(data);
+            }
+            ((Buffer) buffer).position(offset + Integer.BYTES);
+            buffer.putInt(key.length).putInt(dataLength).putInt((int) checksum.getValue());
+            buffer.putInt(offset, MAGIC);
+            segment.position += recordLength;
+            return new Location(segment, offset + RECORD_HEADER + key.length, Math.max(0, dataLength), endpoint);
+        } catch (IOException e) {
+            log.debug("Cannot append record to disk due to: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Starts a new segment, deleting the oldest ones along with their entries if the segments exceed the store size.
+     *
+     * @param id the identifier of the segment.
+     * @return the started segment.
+     * @throws IOException if the segment file cannot be created.
+     */
+    private Segment startSegment(long id) throws IOException {
+        Segment segment = Segment.open(directory.resolve(String.format(SEGMENT_FILE_FORMAT, id)), id, segmentSize);
+        segments.addLast(segment);
+        while (segments.size() > SEGMENT_COUNT) {
+            evict(segments.removeFirst());
+        }
+        return segment;
+    }
+
+    /**
+     * Drops the entries of the given segment and deletes it.
+     * Lookups that already located an entry in the segment can still read it, since the mapping stays valid.
+     *
+     * @param segment the oldest segment.
+     */
+    private void evict(Segment segment) {
+        log.debug("Evicting segment {} from disk cache", segment.id);
+        index.values().removeIf(location -> {
+            if (location.segment == segment) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        });
+        delete(segment);
+    }
+
+    /**
+     * Closes and deletes the given segment.
+     *
+     * @param segment the segment to delete.
+     */
+    private void delete(Segment segment) {
+        segment.close();
+        try {
+            Files.deleteIfExists(segment.path);
+        } catch (IOException e) {
+            log.debug("Cannot delete segment " + segment.path + " due to: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Loads the segments found in the directory from the oldest to the newest, indexing their records.
+     * Reading a segment stops at the first record that is not complete, where writing resumes.
+     *
+     * @throws IOException if a segment file cannot be opened.
+     */
+    private void load() throws IOException {
+        List<Long> ids = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                Matcher matcher = SEGMENT_FILE.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    ids.add(Long.parseLong(matcher.group(1)));
+                }
+            }
+        }
+        ids.sort(null);
+        for (long id : ids) {
+            Path path = directory.resolve(String.format(SEGMENT_FILE_FORMAT, id));
+            Segment segment = Segment.open(path, id, (int) Math.min(Files.size(path), Integer.MAX_VALUE));
+            segments.addLast(segment);
+            scan(segment);
+        }
+        while (segments.size() > SEGMENT_COUNT) {
+            evict(segments.removeFirst());
+        }
+        log.debug("Loaded {} responses from disk cache in {}", index.size(), directory);
+    }
+
+    /**
+     * Indexes the complete records of the given segment and moves its position after them.
+     *
+     * @param segment the segment to read.
+     */
+    private void scan(Segment segment) {
+        ByteBuffer buffer = segment.buffer.duplicate();
+        int position = 0;
+        while (position + RECORD_HEADER <= buffer.capacity() && buffer.getInt(position) == MAGIC) {
+            int keyLength = buffer.getInt(position + Integer.BYTES);
+            int dataLength = buffer.getInt(position + 2 * Integer.BYTES);
+            int recordLength = RECORD_HEADER + keyLength + Math.max(0, dataLength);
+            if (keyLength < 0 || dataLength < TOMBSTONE || recordLength > buffer.capacity() - position) {
+                break;
+            }
+            byte[] key = new byte[keyLength];
+            byte[] data = new byte[Math.max(0, dataLength)];
+            ((Buffer) buffer).position(position + RECORD_HEADER);
+            buffer.get(key).get(data);
+            CRC32 checksum = new CRC32();
+            checksum.update(key);
+            checksum.update(data);
+            if ((int) checksum.getValue() != buffer.getInt(position + 3 * Integer.BYTES)) {
+                break;
+            }
+            String name = new String(key, StandardCharsets.UTF_8);
+            if (dataLength == TOMBSTONE) {
+                index.remove(name);
+            } else {
+                String endpoint = endpointOf(data);
+                if (endpoint != null) {
+                    index.put(name, new Location(segment, position + RECORD_HEADER + keyLength, dataLength, endpoint));
+                }
+            }
+            position += recordLength;
+        }
+        segment.position = position;
+    }
+
+    /**
+     * Reads the endpoint of the given serialized entry, which comes first.
+     *
+     * @param data the serialized entry.
+     * @return the endpoint, or null if it cannot be read.
+     */
+    private static String endpointOf(byte[] data) {
+        try {
+            DataInputStream input = new DataInputStream(new ByteArrayInputStream(data));
+            byte[] endpoint = new byte[input.readInt()];
+            input.readFully(endpoint);
+            return new String(endpoint, StandardCharsets.UTF_8);
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Models a memory-mapped segment file.
+     */
+    private static class Segment {
+
+        /**
+         * Opens the given segment file, creating it if missing, and maps it in memory.
+         *
+         * @param path the path of the segment file.
+         * @param id the identifier of the segment.
+         * @param size the size in bytes of the segment file to map.
+         * @return the opened segment.
+         * @throws IOException if the segment file cannot be opened.
+         */
+        static Segment open(Path path, long id, int size) throws IOException {
+            try (FileChannel channel = FileChannel.open(path, CREATE, READ, WRITE)) {
+                return new Segment(path, id, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+            }
+        }
+
+        private Segment(Path path, long id, MappedByteBuffer buffer) {
+            this.path = path;
+            this.id = id;
+            this.buffer = buffer;
+        }
+
+        /**
+         * Flushes the segment to disk.
+         */
+        void close() {
+            try {
+                buffer.force();
+            } catch (RuntimeException e) {
+                log.debug("Cannot flush segment " + path + " due to: " + e.getMessage());
+            }
+        }
+
+        /**
+         * The path of the segment file.
+         */
+        private final Path path;
+
+        /**
+         * The identifier of the segment, increasing with the age of the segment.
+         */
+        private final long id;
+
+        /**
+         * The mapped content of the segment file.
+         */
+        private final MappedByteBuffer buffer;
+
+        /**
+         * The position the next record is written at.
+         */
+        private int position;
+    }
+
+    /**
+     * Models the location of the latest serialized entry of a request.
+     */
+    private static class Location {
+
+        private Location(Segment segment, int offset, int length, String endpoint) {
+            this.segment = segment;
+            this.offset = offset;
+            this.length = length;
+            this.endpoint = endpoint;
+        }
+
+        /**
+         * The segment holding the entry.
+         */
+        private final Segment segment;
+
+        /**
+         * The position of the serialized entry in the segment.
+         */
+        private final int offset;
+
+        /**
+         * The length in bytes of the serialized entry.
+         */
+        private final int length;
+
+        /**
+         * The endpoint of the entry, used to invalidate it.
+         */
+        private final String endpoint;
+    }
+
+    /**
+     * The directory keeping the segment files.
+     */
+    private final Path directory;
+
+    /**
+     * The size in bytes of each segment file.
+     */
+    private final int segmentSize;
+
+    /**
+     * The segments from the oldest to the newest, which is the one records are appended to.
+     */
+    private final Deque<Segment> segments;
+
+    /**
+     * The location of the latest entry of each request.
+     */
+    private final Map<String, Location> index;
+
+    /**
+     * The number of lookups that found a response.
+     */
+    private final LongAdder hits;
+
+    /**
+     * The number of lookups that found no response.
+     */
+    private final LongAdder misses;
+
+    /**
+     * The number of responses dropped along with the oldest segments.
+     */
+    private final LongAdder evictions;
+
+    /**
+     * Whether the store has been closed.
+     */
+    private boolean closed;
+
+    private static final int SEGMENT_COUNT = 4;
+
+    private static final long MIN_SEGMENT_SIZE = 64 * 1024;
+
+    private static final int MAGIC = 0x52455354;
+
+    private static final int RECORD_HEADER = 4 * Integer.BYTES;
+
+    private static final int TOMBSTONE = -1;
+
+    private static final String SEGMENT_FILE_FORMAT = "segment-%d.dat";
+
+    private static final Pattern SEGMENT_FILE = Pattern.compile("segment-(\\d+)\\.dat");
+}
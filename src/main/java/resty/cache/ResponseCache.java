@@ -0,0 +1,328 @@
+package resty.cache;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Clock;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps the responses of GET requests in memory, so that they can be served without contacting the server
+ * while they are fresh, and revalidated with conditional requests once they are stale.
+ * The cache is bounded by the estimated memory taken by the responses, and the least recently used ones
+ * are evicted first. It can be shared by several clients.
+ * <p>
+ * A {@link DiskCacheStore} can be given as a second tier, which keeps every stored response on disk and serves
+ * the ones missing in memory, so that they survive restarts.
+ */
+@Slf4j
+public class ResponseCache {
+
+    /**
+     * Builds a cache bounded by the given size.
+     *
+     * @param maxBytes the maximum estimated memory in bytes taken by the responses.
+     */
+    public ResponseCache(long maxBytes) {
+        this(maxBytes, Clock.systemUTC());
+    }
+
+    /**
+     * Builds a cache bounded by the given size.
+     *
+     * @param maxBytes the maximum estimated memory in bytes taken by the responses.
+     * @param clock the clock used to compute the age of the responses.
+     */
+    public ResponseCache(long maxBytes, Clock clock) {
+        this(maxBytes, clock, null);
+    }
+
+    /**
+     * Builds a cache bounded by the given size, backed by the given disk store.
+     *
+     * @param maxBytes the maximum estimated memory in bytes taken by the responses.
+     * @param diskStore the store keeping the responses on disk.
+     */
+    public ResponseCache(long maxBytes, DiskCacheStore diskStore) {
+        this(maxBytes, Clock.systemUTC(), diskStore);
+    }
+
+    /**
+     * Builds a cache bounded by the given size, backed by the given disk store.
+     *
+     * @param maxBytes the maximum estimated memory in bytes taken by the responses.
+     * @param clock the clock used to compute the age of the responses.
+     * @param diskStore the store keeping the responses on disk, if any.
+     */
+    public ResponseCache(long maxBytes, Clock clock, DiskCacheStore diskStore) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("Maximum size must be positive");
+        }
+        this.maxBytes = maxBytes;
+        this.clock = clock;
+        this.diskStore = diskStore;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+        this.revalidations = new LongAdder();
+        this.evictions = new LongAdder();
+    }
+
+    /**
+     * Provides the number of requests served by the cache without contacting the server.
+     *
+     * @return the number of hits.
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Provides the number of requests whose response has been given back by the server.
+     *
+     * @return the number of misses.
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Provides the number of conditional requests to which the server answered that the response is not modified.
+     *
+     * @return the number of revalidations.
+     */
+    public long getRevalidationCount() {
+        return revalidations.sum();
+    }
+
+    /**
+     * Provides the number of responses evicted to keep the cache within its size.
+     *
+     * @return the number of evictions.
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * Provides the ratio between the requests served without contacting the server and all the requests.
+     *
+     * @return the hit ratio, 0 if there has been no request.
+     */
+    public double getHitRatio() {
+        long hitCount = getHitCount();
+        long total = hitCount + getMissCount() + getRevalidationCount();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    /**
+     * Provides the number of responses in memory.
+     *
+     * @return the number of responses.
+     */
+    public synchronized int getEntryCount() {
+        return entries.size();
+    }
+
+    /**
+     * Provides the estimated memory taken by the responses in memory.
+     *
+     * @return the size in bytes.
+     */
+    public synchronized long getSize() {
+        return size;
+    }
+
+    /**
+     * Removes all the responses from the cache, including the ones on disk.
+     */
+    public void clear() {
+        synchronized (this) {
+            entries.clear();
+            size = 0;
+        }
+        if (diskStore != null) {
+            diskStore.clear();
+        }
+    }
+
+    /**
+     * Provides the current time in milliseconds.
+     *
+     * @return the current time.
+     */
+    long now() {
+        return clock.millis();
+    }
+
+    /**
+     * Provides the entry for the given key, marking it as the most recently used.
+     * Entries missing in memory are looked up on disk, without holding the lock of the cache,
+     * and kept in memory when found.
+     *
+     * @param key the key of the request.
+     * @return the entry, or null if there's none.
+     */
+    CacheEntry get(String key) {
+        CacheEntry entry;
+        synchronized (this) {
+            entry = entries.get(key);
+        }
+        if (entry == null && diskStore != null) {
+            entry = diskStore.get(key);
+            if (entry != null) {
+                putInMemory(key, entry);
+            }
+        }
+        return entry;
+    }
+
+    /**
+     * Stores the given entry in memory and on disk.
+     *
+     * @param key the key of the request.
+     * @param entry the entry to store.
+     */
+    void put(String key, CacheEntry entry) {
+        putInMemory(key, entry);
+        if (diskStore != null) {
+            diskStore.put(key, entry);
+        }
+    }
+
+    /**
+     * Removes the entry for the given key, if any.
+     *
+     * @param key the key of the request.
+     */
+    void remove(String key) {
+        removeFromMemory(key);
+        if (diskStore != null) {
+            diskStore.remove(key);
+        }
+    }
+
+    /**
+     * Removes all the entries for the given endpoint, whatever their parameters and headers.
+     *
+     * @param endpoint the endpoint whose responses are no longer valid.
+     */
+    void invalidate(String endpoint) {
+        synchronized (this) {
+            Iterator<Map.Entry<String, CacheEntry>> iterator = entries.entrySet().iterator();
+            while (iterator.hasNext()) {
+                CacheEntry entry = iterator.next().getValue();
+                if (entry.getEndpoint().equals(endpoint)) {
+                    size -= entry.getSize();
+                    iterator.remove();
+                }
+            }
+        }
+        if (diskStore != null) {
+            diskStore.invalidate(endpoint);
+        }
+    }
+
+    /**
+     * Stores the given entry in memory, evicting the least recently used ones if the cache exceeds its size.
+     * Entries larger than the whole cache are not stored.
+     *
+     * @param key the key of the request.
+     * @param entry the entry to store.
+     */
+    private synchronized void putInMemory(String key, CacheEntry entry) {
+        removeFromMemory(key);
+        if (entry.getSize() > maxBytes) {
+            log.debug("Response of {} is too large to be cached in memory", entry.getEndpoint());
+            return;
+        }
+        entries.put(key, entry);
+        size += entry.getSize();
+        Iterator<CacheEntry> iterator = entries.values().iterator();
+        while (size > maxBytes && iterator.hasNext()) {
+            size -= iterator.next().getSize();
+            iterator.remove();
+            evictions.increment();
+        }
+    }
+
+    /**
+     * Removes the entry for the given key from memory, if any.
+     *
+     * @param key the key of the request.
+     */
+    private synchronized void removeFromMemory(String key) {
+        CacheEntry removed = entries.remove(key);
+        if (removed != null) {
+            size -= removed.getSize();
+        }
+    }
+
+    /**
+     * Records a request served without contacting the server.
+     */
+    void recordHit() {
+        hits.increment();
+    }
+
+    /**
+     * Records a request whose response has been given back by the server.
+     */
+    void recordMiss() {
+        misses.increment();
+    }
+
+    /**
+     * Records a conditional request to which the server answered that the response is not modified.
+     */
+    void recordRevalidation() {
+        revalidations.increment();
+    }
+
+    /**
+     * The maximum estimated memory in bytes taken by the responses.
+     */
+    private final long maxBytes;
+
+    /**
+     * The clock used to compute the age of the responses.
+     */
+    private final Clock clock;
+
+    /**
+     * The store keeping the responses on disk, if any.
+     */
+    private final DiskCacheStore diskStore;
+
+    /**
+     * The entries of the cache by request, from the least to the most recently used.
+     */
+    private final LinkedHashMap<String, CacheEntry> entries;
+
+    /**
+     * The estimated memory in bytes taken by the responses.
+     */
+    private long size;
+
+    /**
+     * The number of requests served without contacting the server.
+     */
+    private final LongAdder hits;
+
+    /**
+     * The number of requests whose response has been given back by the server.
+     */
+    private final LongAdder misses;
+
+    /**
+     * The number of conditional requests answered as not modified.
+     */
+    private final LongAdder revalidations;
+
+    /**
+     * The number of evicted responses.
+     */
+    private final LongAdder evictions;
+}
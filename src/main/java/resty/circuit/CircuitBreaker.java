@@ -0,0 +1,303 @@
+package resty.circuit;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Tracks the outcome of the calls to a host and decides whether new calls are let through.
+ * The state of the circuit is an immutable phase swapped atomically on each transition, along with a fresh window
+ * of outcomes, so that neither deciding nor recording takes a lock and outcomes of calls started in a previous phase
+ * are ignored.
+ */
+@Slf4j
+class CircuitBreaker {
+
+    /**
+     * Builds a closed circuit for the given host.
+     *
+     * @param host the host the calls are made to.
+     * @param config the configuration of the circuit.
+     * @param registry the registry notifying the state transitions.
+     */
+    CircuitBreaker(String host, CircuitBreakerConfig config, CircuitBreakerRegistry registry) {
+        this.host = host;
+        this.config = config;
+        this.registry = registry;
+        this.openDuration = TimeUnit.MILLISECONDS.toNanos(config.getOpenDuration());
+        this.phase = new AtomicReference<>(new Phase(CircuitState.CLOSED, 0, config.getWindowSize(), 0));
+    }
+
+    /**
+     * Provides the current state of the circuit.
+     *
+     * @return the state of the circuit.
+     */
+    CircuitState getState() {
+        return phase.get().state;
+    }
+
+    /**
+     * Asks to let a call through, moving an open circuit to half open once it has been open long enough.
+     *
+     * @param now the current time in nanoseconds.
+     * @return the phase the call belongs to, to be given back with its outcome, or null if the call is rejected.
+     */
+    Phase tryAcquire(long now) {
+        while (true) {
+            Phase current = phase.get();
+            switch (current.state) {
+                case CLOSED:
+                    return current;
+                case HALF_OPEN:
+                    return current.tryTakePermit() ? current : null;
+                default:
+                    if (now - current.openedAt < openDuration) {
+                        return null;
+                    }
+                    transition(current, new Phase(CircuitState.HALF_OPEN, 0,
+                            config.getHalfOpenCalls(), config.getHalfOpenCalls()));
+            }
+        }
+    }
+
+    /**
+     * Records the outcome of a call, opening or closing the circuit if needed.
+     *
+     * @param acquired the phase the call belongs to.
+     * @param failed whether the call failed.
+     * @param slow whether the call was slow.
+     * @param now the current time in nanoseconds.
+     */
+    void onComplete(Phase acquired, boolean failed, boolean slow, long now) {
+        if (phase.get() != acquired) {
+            return;
+        }
+        Window window = acquired.window;
+        window.record(RECORDED | (failed ? FAILED : 0) | (slow ? SLOW : 0));
+        if (acquired.state == CircuitState.CLOSED) {
+            if (window.calls() >= config.getMinCalls() && isUnhealthy(window)) {
+                transition(acquired, new Phase(CircuitState.OPEN, now, 1, 0));
+            }
+        } else if (acquired.state == CircuitState.HALF_OPEN && window.calls() >= config.getHalfOpenCalls()) {
+            transition(acquired, isUnhealthy(window)
+                    ? new Phase(CircuitState.OPEN, now, 1, 0)
+                    : new Phase(CircuitState.CLOSED, 0, config.getWindowSize(), 0));
+        }
+    }
+
+    /**
+     * Records that a call let through has been cancelled before its outcome was known,
+     * giving back its permit if it was a probing call.
+     *
+     * @param acquired the phase the call belongs to.
+     */
+    void onCancel(Phase acquired) {
+        if (acquired.state == CircuitState.HALF_OPEN) {
+            acquired.permits.incrementAndGet();
+        }
+    }
+
+    /**
+     * Checks whether the calls in the given window are failing or slow too often.
+     *
+     * @param window the window to check.
+     * @return true if a rate reached its threshold, false otherwise.
+     */
+    private boolean isUnhealthy(Window window) {
+        int calls = window.calls();
+        return calls > 0 && ((double) window.failures() / calls >= config.getFailureRateThreshold()
+                || (double) window.slowCalls() / calls >= config.getSlowCallRateThreshold());
+    }
+
+    /**
+     * Moves the circuit from the given phase to the next one, unless another thread already did.
+     *
+     * @param from the current phase.
+     * @param to the next phase.
+     */
+    private void transition(Phase from, Phase to) {
+        if (phase.compareAndSet(from, to)) {
+            log.debug("Circuit of {} moved from {} to {}", host, from.state.toValue(), to.state.toValue());
+            registry.notifyTransition(host, from.state, to.state);
+        }
+    }
+
+    /**
+     * Models a phase of the circuit, which never changes state.
+     */
+    static final class Phase {
+
+        private Phase(CircuitState state, long openedAt, int windowSize, int permits) {
+            this.state = state;
+            this.openedAt = openedAt;
+            this.window = new Window(Math.max(1, windowSize));
+            this.permits = new AtomicInteger(permits);
+        }
+
+        /**
+         * Takes one of the probing calls still allowed, never bringing their number below zero
+         * so that a rejected call has nothing to give back.
+         *
+         * @return true if a probing call was allowed, false otherwise.
+         */
+        private boolean tryTakePermit() {
+            int available;
+            do {
+                available = permits.get();
+                if (available <= 0) {
+                    return false;
+                }
+            } while (!permits.compareAndSet(available, available - 1));
+            return true;
+        }
+
+        /**
+         * The state of the circuit in this phase.
+         */
+        private final CircuitState state;
+
+        /**
+         * The time in nanoseconds the circuit opened at, for open phases.
+         */
+        private final long openedAt;
+
+        /**
+         * The outcomes of the calls made in this phase.
+         */
+        private final Window window;
+
+        /**
+         * The probing calls still allowed, for half open phases.
+         */
+        private final AtomicInteger permits;
+    }
+
+    /**
+     * Keeps the outcomes of the latest calls in a ring, along with the number of failed and slow calls among them.
+     * Counters are updated with the difference between the recorded outcome and the one it replaces.
+     */
+    private static final class Window {
+
+        private Window(int size) {
+            this.outcomes = new AtomicIntegerArray(size);
+            this.next = new AtomicLong();
+            this.calls = new AtomicInteger();
+            this.failures = new AtomicInteger();
+            this.slowCalls = new AtomicInteger();
+        }
+
+        /**
+         * Records the given outcome, replacing the oldest one if the window is full.
+         *
+         * @param outcome the outcome of the call.
+         */
+        void record(int outcome) {
+            int slot = (int) (next.getAndIncrement() % outcomes.length());
+            int replaced = outcomes.getAndSet(slot, outcome);
+            if (replaced == 0) {
+                calls.incrementAndGet();
+            }
+            failures.addAndGet(bit(outcome, FAILED) - bit(replaced, FAILED));
+            slowCalls.addAndGet(bit(outcome, SLOW) - bit(replaced, SLOW));
+        }
+
+        /**
+         * Provides the number of outcomes in the window.
+         *
+         * @return the number of calls.
+         */
+        int calls() {
+            return calls.get();
+        }
+
+        /**
+         * Provides the number of failed calls in the window.
+         *
+         * @return the number of failed calls.
+         */
+        int failures() {
+            return failures.get();
+        }
+
+        /**
+         * Provides the number of slow calls in the window.
+         *
+         * @return the number of slow calls.
+         */
+        int slowCalls() {
+            return slowCalls.get();
+        }
+
+        /**
+         * Checks whether the given outcome has the given flag.
+         *
+         * @param outcome the outcome of a call.
+         * @param flag the flag to check.
+         * @return 1 if the outcome has the flag, 0 otherwise.
+         */
+        private static int bit(int outcome, int flag) {
+            return (outcome & flag) != 0 ? 1 : 0;
+        }
+
+        /**
+         * The outcomes of the latest calls, 0 for slots never used.
+         */
+        private final AtomicIntegerArray outcomes;
+
+        /**
+         * The number of outcomes ever recorded, pointing to the next slot.
+         */
+        private final AtomicLong next;
+
+        /**
+         * The number of outcomes in the window.
+         */
+        private final AtomicInteger calls;
+
+        /**
+         * The number of failed calls in the window.
+         */
+        private final AtomicInteger failures;
+
+        /**
+         * The number of slow calls in the window.
+         */
+        private final AtomicInteger slowCalls;
+    }
+
+    /**
+     * The host the calls are made to.
+     */
+    private final String host;
+
+    /**
+     * The configuration of the circuit.
+     */
+    private final CircuitBreakerConfig config;
+
+    /**
+     * The registry notifying the state transitions.
+     */
+    private final CircuitBreakerRegistry registry;
+
+    /**
+     * The time in nanoseconds the circuit stays open.
+     */
+    private final long openDuration;
+
+    /**
+     * The current phase of the circuit.
+     */
+    private final AtomicReference<Phase> phase;
+
+    private static final int RECORDED = 1;
+
+    private static final int FAILED = 2;
+
+    private static final int SLOW = 4;
+}
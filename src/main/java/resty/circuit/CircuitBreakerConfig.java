@@ -0,0 +1,59 @@
+package resty.circuit;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Models when the circuit of a host opens and how it is probed before closing again.
+ * The circuit opens when, among the latest calls to the host, the rate of failed calls or the rate of slow calls
+ * reaches its threshold. After a while it lets a few probing calls through, and closes again if they are healthy.
+ */
+@Getter
+@ToString
+@Builder(toBuilder = true)
+public class CircuitBreakerConfig {
+
+    /**
+     * The number of latest calls the rates are computed on.
+     */
+    @Builder.Default
+    private final int windowSize = 100;
+
+    /**
+     * The minimum number of calls in the window before the circuit can open.
+     */
+    @Builder.Default
+    private final int minCalls = 20;
+
+    /**
+     * The rate of failed calls opening the circuit, between 0 and 1.
+     * Calls failing with an exception or with a server error status are failed.
+     */
+    @Builder.Default
+    private final double failureRateThreshold = 0.5;
+
+    /**
+     * The rate of slow calls opening the circuit, between 0 and 1.
+     */
+    @Builder.Default
+    private final double slowCallRateThreshold = 1;
+
+    /**
+     * The time in milliseconds after which a call is slow.
+     */
+    @Builder.Default
+    private final long slowCallDuration = 5000;
+
+    /**
+     * The time in milliseconds the circuit stays open before letting probing calls through.
+     */
+    @Builder.Default
+    private final long openDuration = 30000;
+
+    /**
+     * The number of probing calls let through while the circuit is half open.
+     */
+    @Builder.Default
+    private final int halfOpenCalls = 5;
+}
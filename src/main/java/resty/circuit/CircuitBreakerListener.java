@@ -0,0 +1,18 @@
+package resty.circuit;
+
+/**
+ * Listener notified when the circuit breaker of a host changes state.
+ * It is called by the thread completing the request that caused the transition, so it must not block.
+ */
+@FunctionalInterface
+public interface CircuitBreakerListener {
+
+    /**
+     * Notifies a state transition.
+     *
+     * @param host the host whose circuit changed state.
+     * @param from the previous state.
+     * @param to the new state.
+     */
+    void onStateTransition(String host, CircuitState from, CircuitState to);
+}
@@ -0,0 +1,129 @@
+package resty.circuit;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps a circuit breaker for each host, created on its first call, all following the same configuration.
+ * It can be shared by several clients, so that they all stop calling a host that is down.
+ */
+@Slf4j
+public class CircuitBreakerRegistry {
+
+    /**
+     * Builds a registry with the default configuration.
+     */
+    public CircuitBreakerRegistry() {
+        this(CircuitBreakerConfig.builder().build());
+    }
+
+    /**
+     * Builds a registry with the given configuration.
+     *
+     * @param config the configuration of the circuits.
+     */
+    public CircuitBreakerRegistry(CircuitBreakerConfig config) {
+        this.config = config;
+        this.breakers = new ConcurrentHashMap<>();
+        this.listeners = new CopyOnWriteArrayList<>();
+        this.rejections = new LongAdder();
+    }
+
+    /**
+     * Adds a listener notified of the state transitions of all the circuits.
+     *
+     * @param listener the listener to add.
+     */
+    public void addListener(CircuitBreakerListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Provides the state of the circuit of the given host.
+     *
+     * @param host the host, along with its port if any.
+     * @return the state of the circuit, closed if the host has never been called.
+     */
+    public CircuitState getState(String host) {
+        CircuitBreaker breaker = breakers.get(host);
+        return breaker != null ? breaker.getState() : CircuitState.CLOSED;
+    }
+
+    /**
+     * Provides the number of calls rejected because their circuit was open.
+     *
+     * @return the number of rejected calls.
+     */
+    public long getRejectedCount() {
+        return rejections.sum();
+    }
+
+    /**
+     * Provides the circuit breaker of the given host, creating it on its first call.
+     *
+     * @param host the host, along with its port if any.
+     * @return the circuit breaker of the host.
+     */
+    CircuitBreaker breakerFor(String host) {
+        CircuitBreaker breaker = breakers.get(host);
+        return breaker != null ? breaker : breakers.computeIfAbsent(host, key -> new CircuitBreaker(key, config, this));
+    }
+
+    /**
+     * Provides the configuration of the circuits.
+     *
+     * @return the configuration of the circuits.
+     */
+    CircuitBreakerConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * Records a call rejected because its circuit was open.
+     */
+    void recordRejection() {
+        rejections.increment();
+    }
+
+    /**
+     * Notifies the listeners of a state transition, without letting their failures affect the calls.
+     *
+     * @param host the host whose circuit changed state.
+     * @param from the previous state.
+     * @param to the new state.
+     */
+    void notifyTransition(String host, CircuitState from, CircuitState to) {
+        for (CircuitBreakerListener listener : listeners) {
+            try {
+                listener.onStateTransition(host, from, to);
+            } catch (RuntimeException e) {
+                log.debug("Circuit breaker listener failed due to: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * The configuration of the circuits.
+     */
+    private final CircuitBreakerConfig config;
+
+    /**
+     * The circuit breaker of each host.
+     */
+    private final ConcurrentMap<String, CircuitBreaker> breakers;
+
+    /**
+     * The listeners notified of the state transitions.
+     */
+    private final List<CircuitBreakerListener> listeners;
+
+    /**
+     * The number of rejected calls.
+     */
+    private final LongAdder rejections;
+}
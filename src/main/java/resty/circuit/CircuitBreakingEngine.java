@@ -0,0 +1,178 @@
+package resty.circuit;
+
+import resty.engine.RestEngine;
+import resty.request.Endpoints;
+import resty.request.RestRequest;
+import resty.response.RestResponse;
+import resty.response.StreamingRestResponse;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Guards the requests performed by another engine with the circuit breaker of their host.
+ * While the circuit of a host is open its requests fail fast with a {@link CircuitOpenException},
+ * instead of waiting for the timeouts of a host that is down.
+ * Requests failing with an exception or with a server error status count as failures.
+ */
+public class CircuitBreakingEngine implements RestEngine {
+
+    /**
+     * Builds an engine guarding the requests performed by the given one.
+     *
+     * @param delegate the engine actually performing the requests.
+     * @param registry the registry keeping the circuit breaker of each host.
+     */
+    public CircuitBreakingEngine(RestEngine delegate, CircuitBreakerRegistry registry) {
+        this.delegate = delegate;
+        this.registry = registry;
+        this.slowCallDuration = TimeUnit.MILLISECONDS.toNanos(registry.getConfig().getSlowCallDuration());
+    }
+
+    /**
+     * Performs the given request, unless the circuit of its host is open.
+     *
+     * @param request the request to perform.
+     * @return the response given back to the performed request.
+     */
+    @Override
+    public RestResponse execute(RestRequest request) {
+        CircuitBreaker breaker = registry.breakerFor(Endpoints.hostOf(request.getEndpoint()));
+        long start = System.nanoTime();
+        CircuitBreaker.Phase phase = acquire(breaker, request, start);
+        RestResponse response;
+        try {
+            response = delegate.execute(request);
+        } catch (RuntimeException e) {
+            complete(breaker, phase, true, start);
+            throw e;
+        }
+        complete(breaker, phase, isServerError(response.getStatus()), start);
+        return response;
+    }
+
+    /**
+     * Performs the given request without reading the response body, unless the circuit of its host is open.
+     *
+     * @param request the request to perform.
+     * @return the streaming response given back to the performed request.
+     */
+    @Override
+    public StreamingRestResponse stream(RestRequest request) {
+        CircuitBreaker breaker = registry.breakerFor(Endpoints.hostOf(request.getEndpoint()));
+        long start = System.nanoTime();
+        CircuitBreaker.Phase phase = acquire(breaker, request, start);
+        StreamingRestResponse response;
+        try {
+            response = delegate.stream(request);
+        } catch (RuntimeException e) {
+            complete(breaker, phase, true, start);
+            throw e;
+        }
+        complete(breaker, phase, isServerError(response.getStatus()), start);
+        return response;
+    }
+
+    /**
+     * Performs the given request without blocking, unless the circuit of its host is open.
+     * Requests rejected by the circuit are given back as futures failed with a {@link CircuitOpenException}.
+     *
+     * @param request the request to perform.
+     * @return the future completed with the response given back to the performed request.
+     */
+    @Override
+    public CompletableFuture<RestResponse> executeAsync(RestRequest request) {
+        CircuitBreaker breaker = registry.breakerFor(Endpoints.hostOf(request.getEndpoint()));
+        long start = System.nanoTime();
+        CircuitBreaker.Phase phase;
+        try {
+            phase = acquire(breaker, request, start);
+        } catch (CircuitOpenException e) {
+            CompletableFuture<RestResponse> rejected = new CompletableFuture<>();
+            rejected.completeExceptionally(e);
+            return rejected;
+        }
+        CompletableFuture<RestResponse> futureResponse;
+        try {
+            futureResponse = delegate.executeAsync(request);
+        } catch (RuntimeException e) {
+            complete(breaker, phase, true, start);
+            throw e;
+        }
+        futureResponse.whenComplete((response, throwable) -> {
+            if (throwable instanceof CancellationException) {
+                breaker.onCancel(phase);
+            } else {
+                complete(breaker, phase, throwable != null || isServerError(response.getStatus()), start);
+            }
+        });
+        return futureResponse;
+    }
+
+    /**
+     * Closes the engine actually performing the requests.
+     */
+    @Override
+    public void close() {
+        delegate.close();
+    }
+
+    /**
+     * Asks the circuit of the host of the given request to let it through.
+     *
+     * @param breaker the circuit breaker of the host.
+     * @param request the request to perform.
+     * @param now the current time in nanoseconds.
+     * @return the phase the request belongs to.
+     * @throws CircuitOpenException if the circuit rejects the request.
+     */
+    private CircuitBreaker.Phase acquire(CircuitBreaker breaker, RestRequest request, long now) {
+        CircuitBreaker.Phase phase = breaker.tryAcquire(now);
+        if (phase == null) {
+            registry.recordRejection();
+            throw new CircuitOpenException(Endpoints.hostOf(request.getEndpoint()), breaker.getState());
+        }
+        return phase;
+    }
+
+    /**
+     * Records the outcome of a request in the circuit of its host.
+     *
+     * @param breaker the circuit breaker of the host.
+     * @param phase the phase the request belongs to.
+     * @param failed whether the request failed.
+     * @param start the time in nanoseconds the request started at.
+     */
+    private void complete(CircuitBreaker breaker, CircuitBreaker.Phase phase, boolean failed, long start) {
+        long now = System.nanoTime();
+        breaker.onComplete(phase, failed, now - start >= slowCallDuration, now);
+    }
+
+    /**
+     * Checks whether the given status is a server error, which means the host is not healthy.
+     *
+     * @param status the status of the response.
+     * @return true if the status is a server error, false otherwise.
+     */
+    private static boolean isServerError(int status) {
+        return status >= MIN_SERVER_ERROR;
+    }
+
+    /**
+     * The engine actually performing the requests.
+     */
+    private final RestEngine delegate;
+
+    /**
+     * The registry keeping the circuit breaker of each host.
+     */
+    private final CircuitBreakerRegistry registry;
+
+    /**
+     * The time in nanoseconds after which a request is slow.
+     */
+    private final long slowCallDuration;
+
+    private static final int MIN_SERVER_ERROR = 500;
+}
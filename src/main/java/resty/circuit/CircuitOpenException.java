@@ -0,0 +1,35 @@
+package resty.circuit;
+
+import lombok.Getter;
+
+/**
+ * Signals that a request has not been performed because the circuit of its host is open,
+ * so that callers fail fast instead of waiting for a host that is down.
+ */
+@Getter
+public class CircuitOpenException extends RuntimeException {
+
+    /**
+     * Builds the exception for the given host.
+     *
+     * @param host the host whose circuit is open.
+     * @param state the state of the circuit.
+     */
+    public CircuitOpenException(String host, CircuitState state) {
+        super("Circuit of " + host + " is " + state.toValue());
+        this.host = host;
+        this.state = state;
+    }
+
+    /**
+     * The host whose circuit is open.
+     */
+    private final String host;
+
+    /**
+     * The state of the circuit.
+     */
+    private final CircuitState state;
+
+    private static final long serialVersionUID = 1L;
+}
@@ -0,0 +1,33 @@
+package resty.circuit;
+
+/**
+ * Possible states of the circuit breaker of a host.
+ */
+public enum CircuitState {
+    CLOSED("closed"),
+    OPEN("open"),
+    HALF_OPEN("half-open");
+
+    /**
+     * Provides a state based on a string value.
+     *
+     * @param value the value for the state.
+     */
+    CircuitState(String value) {
+        this.value = value;
+    }
+
+    /**
+     * Provides the value of a state as a string.
+     *
+     * @return the value of a state as a string.
+     */
+    public String toValue() {
+        return value;
+    }
+
+    /**
+     * Value of the state as a string.
+     */
+    private final String value;
+}
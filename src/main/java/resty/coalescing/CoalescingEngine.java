@@ -0,0 +1,146 @@
+package resty.coalescing;
+
+import lombok.extern.slf4j.Slf4j;
+import resty.engine.RestEngine;
+import resty.request.RequestKey;
+import resty.request.RestMethod;
+import resty.request.RestRequest;
+import resty.response.RestResponse;
+import resty.response.StreamingRestResponse;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Collapses identical GET requests made at the same time into a single call to the server,
+ * whose response, or failure, is given back to all of them. Each caller joining a call in flight gets its own copy
+ * of the response, so that the bodies converted by the callers are never shared.
+ * Requests are identical when they have the same endpoint, parameters and headers, and a request joining
+ * a call in flight waits for it regardless of its own timeouts. Other methods and streaming requests
+ * are always performed.
+ */
+@Slf4j
+public class CoalescingEngine implements RestEngine {
+
+    /**
+     * Builds an engine collapsing the identical requests performed by the given one.
+     *
+     * @param delegate the engine actually performing the requests.
+     * @param coalescer the coalescer keeping track of the requests in flight.
+     */
+    public CoalescingEngine(RestEngine delegate, RequestCoalescer coalescer) {
+        this.delegate = delegate;
+        this.coalescer = coalescer;
+    }
+
+    /**
+     * Performs the given request, or waits for an identical one in flight.
+     *
+     * @param request the request to perform.
+     * @return the response given back to the performed request.
+     */
+    @Override
+    public RestResponse execute(RestRequest request) {
+        if (request.getMethod() != RestMethod.GET) {
+            return delegate.execute(request);
+        }
+        String key = RequestKey.of(request);
+        CompletableFuture<RestResponse> call = new CompletableFuture<>();
+        CompletableFuture<RestResponse> existing = coalescer.join(key, call);
+        if (existing != null) {
+            log.debug("Joining request in flight for {}", request.getEndpoint());
+            return await(existing).copy();
+        }
+        try {
+            RestResponse response = delegate.execute(request);
+            call.complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            coalescer.leave(key, call);
+        }
+    }
+
+    /**
+     * Performs the given request without reading the response body, which is never shared.
+     *
+     * @param request the request to perform.
+     * @return the streaming response given back to the performed request.
+     */
+    @Override
+    public StreamingRestResponse stream(RestRequest request) {
+        return delegate.stream(request);
+    }
+
+    /**
+     * Performs the given request without blocking, or joins an identical one in flight.
+     * Each caller gets its own future, so that cancelling it does not affect the others.
+     *
+     * @param request the request to perform.
+     * @return the future completed with the response given back to the performed request.
+     */
+    @Override
+    public CompletableFuture<RestResponse> executeAsync(RestRequest request) {
+        if (request.getMethod() != RestMethod.GET) {
+            return delegate.executeAsync(request);
+        }
+        String key = RequestKey.of(request);
+        CompletableFuture<RestResponse> call = new CompletableFuture<>();
+        CompletableFuture<RestResponse> existing = coalescer.join(key, call);
+        if (existing != null) {
+            log.debug("Joining request in flight for {}", request.getEndpoint());
+            return existing.thenApply(RestResponse::copy);
+        }
+        try {
+            delegate.executeAsync(request).whenComplete((response, throwable) -> {
+                coalescer.leave(key, call);
+                if (throwable != null) {
+                    call.completeExceptionally(throwable);
+                } else {
+                    call.complete(response);
+                }
+            });
+        } catch (RuntimeException e) {
+            coalescer.leave(key, call);
+            call.completeExceptionally(e);
+        }
+        return call.thenApply(response -> response);
+    }
+
+    /**
+     * Closes the engine actually performing the requests.
+     */
+    @Override
+    public void close() {
+        delegate.close();
+    }
+
+    /**
+     * Waits for the given call in flight and provides its response, or throws its failure.
+     *
+     * @param call the call to wait for.
+     * @return the response given back to the call.
+     */
+    private static RestResponse await(CompletableFuture<RestResponse> call) {
+        try {
+            return call.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * The engine actually performing the requests.
+     */
+    private final RestEngine delegate;
+
+    /**
+     * The coalescer keeping track of the requests in flight.
+     */
+    private final RequestCoalescer coalescer;
+}
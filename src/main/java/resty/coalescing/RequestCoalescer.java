@@ -0,0 +1,93 @@
+package resty.coalescing;
+
+import resty.response.RestResponse;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps track of the GET requests in flight, so that identical requests made at the same time
+ * share a single call to the server instead of performing one each. It can be shared by several clients.
+ */
+public class RequestCoalescer {
+
+    /**
+     * Builds a coalescer without requests in flight.
+     */
+    public RequestCoalescer() {
+        this.inFlight = new ConcurrentHashMap<>();
+        this.executed = new LongAdder();
+        this.collapsed = new LongAdder();
+    }
+
+    /**
+     * Provides the number of requests actually performed.
+     *
+     * @return the number of performed requests.
+     */
+    public long getExecutedCount() {
+        return executed.sum();
+    }
+
+    /**
+     * Provides the number of requests that joined an identical request in flight instead of being performed.
+     *
+     * @return the number of collapsed requests.
+     */
+    public long getCollapsedCount() {
+        return collapsed.sum();
+    }
+
+    /**
+     * Provides the number of distinct requests currently in flight.
+     *
+     * @return the number of requests in flight.
+     */
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    /**
+     * Registers the given future as the call for the given key, unless an identical call is already in flight.
+     *
+     * @param key the key of the request.
+     * @param call the future to be completed by the caller if it has to perform the request.
+     * @return the future of the call in flight, or null if the caller has to perform the request.
+     */
+    CompletableFuture<RestResponse> join(String key, CompletableFuture<RestResponse> call) {
+        CompletableFuture<RestResponse> existing = inFlight.putIfAbsent(key, call);
+        if (existing != null) {
+            collapsed.increment();
+            return existing;
+        }
+        executed.increment();
+        return null;
+    }
+
+    /**
+     * Unregisters the given call once it has completed, so that later requests are performed again.
+     *
+     * @param key the key of the request.
+     * @param call the completed call.
+     */
+    void leave(String key, CompletableFuture<RestResponse> call) {
+        inFlight.remove(key, call);
+    }
+
+    /**
+     * The calls in flight by request.
+     */
+    private final ConcurrentMap<String, CompletableFuture<RestResponse>> inFlight;
+
+    /**
+     * The number of requests actually performed.
+     */
+    private final LongAdder executed;
+
+    /**
+     * The number of requests that joined an identical request in flight.
+     */
+    private final LongAdder collapsed;
+}
@@ -0,0 +1,36 @@
+package resty.compression;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.zip.Deflater;
+
+/**
+ * Models how request bodies are compressed.
+ * Only bodies at least as large as a threshold are compressed, since compressing small ones costs more time
+ * than it saves on the network, and a body is sent as it is when compressing it does not make it smaller.
+ */
+@Getter
+@ToString
+@Builder(toBuilder = true)
+public class CompressionPolicy {
+
+    /**
+     * The minimum size in bytes of a request body to compress it, negative to never compress request bodies.
+     */
+    @Builder.Default
+    private final int minSize = 1024;
+
+    /**
+     * The coding used to compress request bodies.
+     */
+    @Builder.Default
+    private final ContentCoding coding = ContentCoding.GZIP;
+
+    /**
+     * The compression level of request bodies, from 1 (fastest) to 9 (smallest), or -1 for the default one.
+     */
+    @Builder.Default
+    private final int level = Deflater.DEFAULT_COMPRESSION;
+}
@@ -0,0 +1,127 @@
+package resty.compression;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PushbackInputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Possible content codings of request and response bodies, along with their streaming codecs.
+ */
+public enum ContentCoding {
+    GZIP("gzip"),
+    DEFLATE("deflate");
+
+    /**
+     * Provides a coding based on a string value.
+     *
+     * @param value the value for the coding.
+     */
+    ContentCoding(String value) {
+        this.value = value;
+    }
+
+    /**
+     * Provides the value of a coding as a string.
+     *
+     * @return the value of a coding as a string.
+     */
+    public String toValue() {
+        return value;
+    }
+
+    /**
+     * Provides the coding given by a Content-Encoding header.
+     *
+     * @param contentEncoding the value of the header, if any.
+     * @return the coding of the header, or null if it is missing, identity or not supported.
+     */
+    public static ContentCoding fromValue(String contentEncoding) {
+        if (contentEncoding == null) {
+            return null;
+        }
+        String coding = contentEncoding.trim();
+        if (coding.equalsIgnoreCase(GZIP.value) || coding.equalsIgnoreCase("x-gzip")) {
+            return GZIP;
+        }
+        return coding.equalsIgnoreCase(DEFLATE.value) ? DEFLATE : null;
+    }
+
+    /**
+     * Wraps the given stream so that the bytes written to it are encoded.
+     *
+     * @param out the stream receiving the encoded bytes.
+     * @param level the compression level, from 1 to 9, or -1 for the default one.
+     * @return the stream encoding the bytes written to it.
+     * @throws IOException if the stream cannot be written.
+     */
+    OutputStream encoder(OutputStream out, int level) throws IOException {
+        if (this == GZIP) {
+            return new GZIPOutputStream(out, BUFFER_SIZE) {
+                {
+                    def.setLevel(level);
+                }
+            };
+        }
+        return new DeflaterOutputStream(out, new Deflater(level), BUFFER_SIZE) {
+            @Override
+            public void close() throws IOException {
+                super.close();
+                def.end();
+            }
+        };
+    }
+
+    /**
+     * Wraps the given stream so that the bytes read from it are decoded as they are read.
+     * Deflate bodies are expected in the zlib format, but raw deflate data, sent by some servers, is accepted too.
+     *
+     * @param in the stream of the encoded bytes.
+     * @return the stream of the decoded bytes.
+     * @throws IOException if the stream cannot be read.
+     */
+    InputStream decoder(InputStream in) throws IOException {
+        if (this == GZIP) {
+            return new GZIPInputStream(in, BUFFER_SIZE);
+        }
+        PushbackInputStream pushback = new PushbackInputStream(in, 2);
+        byte[] header = new byte[2];
+        int read = pushback.read(header);
+        if (read > 0) {
+            pushback.unread(header, 0, read);
+        }
+        Inflater inflater = new Inflater(read == 2 && !isZlibHeader(header[0], header[1]));
+        return new InflaterInputStream(pushback, inflater, BUFFER_SIZE) {
+            @Override
+            public void close() throws IOException {
+                super.close();
+                inflater.end();
+            }
+        };
+    }
+
+    /**
+     * Checks whether the given bytes start a zlib stream, whose compression method is deflate
+     * and whose header checksum is valid.
+     *
+     * @param cmf the compression method and flags byte.
+     * @param flg the flags byte.
+     * @return true if the bytes are a zlib header, false otherwise.
+     */
+    private static boolean isZlibHeader(byte cmf, byte flg) {
+        return (cmf & 0x0f) == 8 && ((cmf & 0xff) << 8 | flg & 0xff) % 31 == 0;
+    }
+
+    /**
+     * Value of the coding as a string.
+     */
+    private final String value;
+
+    private static final int BUFFER_SIZE = 8192;
+}
@@ -0,0 +1,244 @@
+package resty.compression;
+
+import resty.entity.RestEntities;
+import resty.request.RestRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compresses request bodies and decompresses response bodies, so that fewer bytes cross the network.
+ * Responses are asked to be encoded with gzip or deflate, and encoded responses are decoded as they are read.
+ * Request bodies are compressed according to a policy. The sizes of the compressed and decompressed bodies
+ * are recorded, so that the compression ratios can be monitored. It can be shared by several clients.
+ */
+public class ContentCompressor {
+
+    /**
+     * Builds a compressor with the default policy.
+     */
+    public ContentCompressor() {
+        this(CompressionPolicy.builder().build());
+    }
+
+    /**
+     * Builds a compressor with the given policy.
+     *
+     * @param policy the policy compressing request bodies.
+     */
+    public ContentCompressor(CompressionPolicy policy) {
+        this.policy = policy;
+        this.compressedRequests = new LongAdder();
+        this.incompressibleRequests = new LongAdder();
+        this.requestBytes = new LongAdder();
+        this.compressedRequestBytes = new LongAdder();
+        this.decompressedResponses = new LongAdder();
+        this.responseBytes = new LongAdder();
+        this.compressedResponseBytes = new LongAdder();
+    }
+
+    /**
+     * Provides the policy compressing request bodies.
+     *
+     * @return the policy compressing request bodies.
+     */
+    public CompressionPolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Provides the number of request bodies sent compressed.
+     *
+     * @return the number of compressed request bodies.
+     */
+    public long getCompressedRequestCount() {
+        return compressedRequests.sum();
+    }
+
+    /**
+     * Provides the number of request bodies large enough to be compressed, but sent as they are
+     * since compressing them did not make them smaller.
+     *
+     * @return the number of incompressible request bodies.
+     */
+    public long getIncompressibleRequestCount() {
+        return incompressibleRequests.sum();
+    }
+
+    /**
+     * Provides the number of response bodies received compressed.
+     *
+     * @return the number of decompressed response bodies.
+     */
+    public long getDecompressedResponseCount() {
+        return decompressedResponses.sum();
+    }
+
+    /**
+     * Provides the ratio between the original and the compressed size of the request bodies sent compressed.
+     *
+     * @return the compression ratio of the request bodies, 0 if none has been compressed.
+     */
+    public double getRequestCompressionRatio() {
+        return ratio(requestBytes.sum(), compressedRequestBytes.sum());
+    }
+
+    /**
+     * Provides the ratio between the decompressed and the compressed size of the response bodies received compressed.
+     *
+     * @return the compression ratio of the response bodies, 0 if none has been decompressed.
+     */
+    public double getResponseCompressionRatio() {
+        return ratio(responseBytes.sum(), compressedResponseBytes.sum());
+    }
+
+    /**
+     * Provides the number of bytes saved on the network by compressing request and response bodies.
+     *
+     * @return the number of saved bytes.
+     */
+    public long getSavedBytes() {
+        return requestBytes.sum() - compressedRequestBytes.sum() + responseBytes.sum() - compressedResponseBytes.sum();
+    }
+
+    /**
+     * Provides the value of the Accept-Encoding header of the requests, listing the supported codings.
+     *
+     * @return the value of the Accept-Encoding header.
+     */
+    public String getAcceptEncoding() {
+        return ACCEPT_ENCODING;
+    }
+
+    /**
+     * Provides the value of the Content-Encoding header of the compressed request bodies.
+     *
+     * @return the value of the Content-Encoding header.
+     */
+    public String getContentEncoding() {
+        return policy.getCoding().toValue();
+    }
+
+    /**
+     * Compresses the body of the given request, if it is large enough and not already encoded.
+     * Used by the engines before sending a request.
+     *
+     * @param request the request to send.
+     * @param body the content of the request body.
+     * @return the compressed content, or null if the body has to be sent as it is.
+     */
+    public byte[] compress(RestRequest request, byte[] body) {
+        if (policy.getMinSize() < 0 || body.length < policy.getMinSize() || hasContentEncoding(request)) {
+            return null;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(MIN_BUFFER_SIZE, body.length / 4));
+        try (OutputStream encoder = policy.getCoding().encoder(out, policy.getLevel())) {
+            encoder.write(body);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        if (out.size() >= body.length) {
+            incompressibleRequests.increment();
+            return null;
+        }
+        compressedRequests.increment();
+        requestBytes.add(body.length);
+        compressedRequestBytes.add(out.size());
+        return out.toByteArray();
+    }
+
+    /**
+     * Provides the stream of the given response body, decoded while it is read if it is encoded.
+     * Used by the engines when a response is received.
+     *
+     * @param contentEncoding the value of the Content-Encoding header of the response, if any.
+     * @param body the stream of the response body as received.
+     * @return the stream of the decoded body, or the given one if the body is not encoded.
+     */
+    public InputStream decompress(String contentEncoding, InputStream body) {
+        ContentCoding coding = ContentCoding.fromValue(contentEncoding);
+        return coding != null ? new DecodingInputStream(body, coding, this) : body;
+    }
+
+    /**
+     * Records the sizes of a response body that has been decompressed.
+     *
+     * @param compressedSize the size of the body as received.
+     * @param size the size of the decompressed body.
+     */
+    void recordResponse(long compressedSize, long size) {
+        decompressedResponses.increment();
+        compressedResponseBytes.add(compressedSize);
+        responseBytes.add(size);
+    }
+
+    /**
+     * Checks whether the given request already has a Content-Encoding header, which means its body is encoded.
+     *
+     * @param request the request to send.
+     * @return true if the request has a Content-Encoding header, false otherwise.
+     */
+    private static boolean hasContentEncoding(RestRequest request) {
+        return RestEntities.of(request.getEntities()).getHeader(CONTENT_ENCODING) != null;
+    }
+
+    /**
+     * Computes the ratio between the given sizes.
+     *
+     * @param size the original size.
+     * @param compressedSize the compressed size.
+     * @return the ratio between the sizes, 0 if the compressed size is 0.
+     */
+    private static double ratio(long size, long compressedSize) {
+        return compressedSize > 0 ? (double) size / compressedSize : 0;
+    }
+
+    /**
+     * The policy compressing request bodies.
+     */
+    private final CompressionPolicy policy;
+
+    /**
+     * The number of request bodies sent compressed.
+     */
+    private final LongAdder compressedRequests;
+
+    /**
+     * The number of request bodies not made smaller by compression.
+     */
+    private final LongAdder incompressibleRequests;
+
+    /**
+     * The original size of the request bodies sent compressed.
+     */
+    private final LongAdder requestBytes;
+
+    /**
+     * The compressed size of the request bodies sent compressed.
+     */
+    private final LongAdder compressedRequestBytes;
+
+    /**
+     * The number of response bodies decompressed.
+     */
+    private final LongAdder decompressedResponses;
+
+    /**
+     * The decompressed size of the response bodies received compressed.
+     */
+    private final LongAdder responseBytes;
+
+    /**
+     * The size of the response bodies received compressed.
+     */
+    private final LongAdder compressedResponseBytes;
+
+    private static final String ACCEPT_ENCODING = "gzip, deflate";
+
+    private static final String CONTENT_ENCODING = "Content-Encoding";
+
+    private static final int MIN_BUFFER_SIZE = 64;
+}
@@ -0,0 +1,201 @@
+package resty.compression;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+
+/**
+ * Decodes an encoded body while it is read, without holding it in memory.
+ * The decoder is created on the first read, so that the stream can be created as soon as the response headers
+ * are received, and an empty body is read as such. The sizes of the body are recorded once it has been read
+ * up to its end or closed.
+ */
+class DecodingInputStream extends InputStream {
+
+    /**
+     * Builds a stream decoding the given one.
+     *
+     * @param in the stream of the encoded body.
+     * @param coding the coding of the body.
+     * @param compressor the compressor recording the sizes of the body.
+     */
+    DecodingInputStream(InputStream in, ContentCoding coding, ContentCompressor compressor) {
+        this.encoded = new CountingInputStream(in);
+        this.coding = coding;
+        this.compressor = compressor;
+    }
+
+    /**
+     * Reads the next decoded byte.
+     *
+     * @return the next byte, or -1 at the end of the body.
+     * @throws IOException if the body cannot be read or decoded.
+     */
+    @Override
+    public int read() throws IOException {
+        byte[] single = new byte[1];
+        return read(single, 0, 1) < 0 ? -1 : single[0] & 0xff;
+    }
+
+    /**
+     * Reads decoded bytes into the given buffer.
+     *
+     * @param buffer the buffer receiving the bytes.
+     * @param offset the offset in the buffer of the first byte.
+     * @param length the maximum number of bytes to read.
+     * @return the number of bytes read, or -1 at the end of the body.
+     * @throws IOException if the body cannot be read or decoded.
+     */
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        if (decoded == null) {
+            decoded = openDecoder();
+        }
+        int read = decoded.read(buffer, offset, length);
+        if (read < 0) {
+            record();
+        } else {
+            decodedBytes += read;
+        }
+        return read;
+    }
+
+    /**
+     * Provides the number of decoded bytes that can be read without blocking.
+     *
+     * @return the number of bytes available.
+     * @throws IOException if the body cannot be read.
+     */
+    @Override
+    public int available() throws IOException {
+        return decoded != null ? decoded.available() : 0;
+    }
+
+    /**
+     * Closes the stream of the encoded body, along with the decoder.
+     *
+     * @throws IOException if the stream cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        record();
+        if (decoded != null) {
+            decoded.close();
+        } else {
+            encoded.close();
+        }
+    }
+
+    /**
+     * Creates the decoder of the body, unless it is empty.
+     *
+     * @return the stream of the decoded body.
+     * @throws IOException if the body cannot be read.
+     */
+    private InputStream openDecoder() throws IOException {
+        PushbackInputStream pushback = new PushbackInputStream(encoded, 1);
+        int first = pushback.read();
+        if (first < 0) {
+            return pushback;
+        }
+        pushback.unread(first);
+        return coding.decoder(pushback);
+    }
+
+    /**
+     * Records the sizes of the body, only once.
+     */
+    private void record() {
+        if (!recorded) {
+            recorded = true;
+            compressor.recordResponse(encoded.count, decodedBytes);
+        }
+    }
+
+    /**
+     * Counts the bytes read from a stream.
+     */
+    private static class CountingInputStream extends FilterInputStream {
+
+        /**
+         * Builds a stream counting the bytes read from the given one.
+         *
+         * @param in the stream to read.
+         */
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        /**
+         * Reads the next byte.
+         *
+         * @return the next byte, or -1 at the end of the stream.
+         * @throws IOException if the stream cannot be read.
+         */
+        @Override
+        public int read() throws IOException {
+            int read = super.read();
+            if (read >= 0) {
+                count++;
+            }
+            return read;
+        }
+
+        /**
+         * Reads bytes into the given buffer.
+         *
+         * @param buffer the buffer receiving the bytes.
+         * @param offset the offset in the buffer of the first byte.
+         * @param length the maximum number of bytes to read.
+         * @return the number of bytes read, or -1 at the end of the stream.
+         * @throws IOException if the stream cannot be read.
+         */
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+
+        /**
+         * The number of bytes read so far.
+         */
+        private long count;
+    }
+
+    /**
+     * The stream of the encoded body.
+     */
+    private final CountingInputStream encoded;
+
+    /**
+     * The coding of the body.
+     */
+    private final ContentCoding coding;
+
+    /**
+     * The compressor recording the sizes of the body.
+     */
+    private final ContentCompressor compressor;
+
+    /**
+     * The stream of the decoded body, created on the first read.
+     */
+    private InputStream decoded;
+
+    /**
+     * The number of decoded bytes read so far.
+     */
+    private long decodedBytes;
+
+    /**
+     * Whether the sizes of the body have been recorded.
+     */
+    private boolean recorded;
+}
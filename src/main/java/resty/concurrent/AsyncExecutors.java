@@ -0,0 +1,79 @@
+package resty.concurrent;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Provides the executors dispatching the non-blocking requests of a REST client.
+ */
+@Slf4j
+public final class AsyncExecutors {
+
+    private AsyncExecutors() {
+    }
+
+    /**
+     * Provides an executor running each task on a new virtual thread, so that blocking requests in flight
+     * cost little memory and do not need to be queued. Virtual threads are available since Java 21,
+     * so a bounded pool of platform threads is provided on earlier versions.
+     *
+     * @param fallbackThreads the number of threads of the pool provided when virtual threads are not available.
+     * @return the executor dispatching the requests.
+     */
+    public static ExecutorService virtualThreadPerTask(int fallbackThreads) {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            ExecutorService executor = (ExecutorService) factory.invoke(null);
+            log.debug("Dispatching async requests on virtual threads");
+            return executor;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            log.debug("Virtual threads are not available, dispatching async requests on a bounded pool");
+            return bounded(fallbackThreads);
+        }
+    }
+
+    /**
+     * Provides an executor running tasks on a fixed number of daemon threads.
+     * Tasks submitted while all the threads are busy wait in the queue of the executor.
+     *
+     * @param threads the number of threads of the pool.
+     * @return the executor dispatching the requests.
+     */
+    public static ExecutorService bounded(int threads) {
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, THREAD_NAME_PREFIX + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Provides an executor running delayed tasks on a single daemon thread.
+     * Tasks must not block, since they delay all the others.
+     *
+     * @return the executor running the delayed tasks.
+     */
+    public static ScheduledExecutorService scheduler() {
+        return Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, SCHEDULER_THREAD_NAME);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Prefix of the names of the threads of bounded pools.
+     */
+    public static final String THREAD_NAME_PREFIX = "resty-async-";
+
+    /**
+     * Name of the threads running delayed tasks.
+     */
+    public static final String SCHEDULER_THREAD_NAME = "resty-scheduler";
+}
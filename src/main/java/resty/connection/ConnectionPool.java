@@ -0,0 +1,115 @@
+package resty.connection;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.SSLContext;
+import java.io.Closeable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Models a pool of keep-alive connections shared by all the requests made by a REST client.
+ * Connections idle for longer than the keep-alive timeout are evicted in background.
+ * The phases of the requests performed with a {@link resty.timing.RequestTimer} attached to their thread are timed.
+ * Writing the request and waiting for its response are only timed when the pool is built for timed requests,
+ * since their connections then replace the default ones, which log the headers and the content sent and received.
+ */
+@Slf4j
+public class ConnectionPool implements Closeable {
+
+    /**
+     * Builds a pool of connections.
+     *
+     * @param sslContext the SSL context to use for secure connections.
+     * @param hostnameVerifier the verifier to use for hostnames of secure connections.
+     * @param maxConnections the maximum number of connections in the pool.
+     * @param maxConnectionsPerRoute the maximum number of connections for each route.
+     * @param keepAliveTimeout the time in milliseconds a connection can stay idle before being evicted.
+     * @param connectionTimeToLive the maximum lifetime in milliseconds of a connection, negative for no limit.
+     * @param validateAfterInactivity the time in milliseconds after which idle connections are validated before use.
+     * @param evictionInterval the time in milliseconds between two runs of the eviction of idle connections.
+     * @param requestTiming whether the requests performed with the pool are timed.
+     */
+    public ConnectionPool(SSLContext sslContext, HostnameVerifier hostnameVerifier,
+                          int maxConnections, int maxConnectionsPerRoute, long keepAliveTimeout,
+                          long connectionTimeToLive, int validateAfterInactivity, long evictionInterval,
+                          boolean requestTiming) {
+        this.keepAliveTimeout = keepAliveTimeout;
+        this.connectionManager =
+                generateConnectionManager(sslContext, hostnameVerifier, connectionTimeToLive, requestTiming);
+        this.connectionManager.setMaxTotal(maxConnections);
+        this.connectionManager.setDefaultMaxPerRoute(maxConnectionsPerRoute);
+        this.connectionManager.setValidateAfterInactivity(validateAfterInactivity);
+        this.evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "resty-connection-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.evictor.scheduleWithFixedDelay(this::evictConnections, evictionInterval, evictionInterval, MILLISECONDS);
+        log.debug("Connection pool created with {} connections ({} per route)", maxConnections, maxConnectionsPerRoute);
+    }
+
+    /**
+     * Closes expired connections and the ones that have been idle for longer than the keep-alive timeout.
+     */
+    public void evictConnections() {
+        connectionManager.closeExpiredConnections();
+        connectionManager.closeIdleConnections(keepAliveTimeout, MILLISECONDS);
+    }
+
+    /**
+     * Stops the eviction of idle connections and closes all the connections in the pool.
+     */
+    @Override
+    public void close() {
+        evictor.shutdownNow();
+        connectionManager.close();
+        log.debug("Connection pool closed");
+    }
+
+    /**
+     * Generates the connection manager handling both plain and secure connections.
+     *
+     * @param sslContext the SSL context to use for secure connections.
+     * @param hostnameVerifier the verifier to use for hostnames of secure connections.
+     * @param connectionTimeToLive the maximum lifetime in milliseconds of a connection, negative for no limit.
+     * @param requestTiming whether the requests performed with the pool are timed.
+     * @return the generated connection manager.
+     */
+    private PoolingHttpClientConnectionManager generateConnectionManager(
+            SSLContext sslContext, HostnameVerifier hostnameVerifier, long connectionTimeToLive,
+            boolean requestTiming) {
+        Registry<ConnectionSocketFactory> registry = RegistryBuilder.<ConnectionSocketFactory>create()
+                .register("http", ConnectionTiming.plainSocketFactory())
+                .register("https", ConnectionTiming.sslSocketFactory(sslContext, hostnameVerifier))
+                .build();
+        return new PoolingHttpClientConnectionManager(registry,
+                requestTiming ? ConnectionTiming.connectionFactory() : null, null,
+                ConnectionTiming.dnsResolver(), connectionTimeToLive, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * The manager actually pooling the connections.
+     */
+    @Getter
+    private final PoolingHttpClientConnectionManager connectionManager;
+
+    /**
+     * The scheduler running the eviction of idle connections.
+     */
+    private final ScheduledExecutorService evictor;
+
+    /**
+     * The time in milliseconds a connection can stay idle before being evicted.
+     */
+    private final long keepAliveTimeout;
+}
@@ -0,0 +1,260 @@
+package resty.connection;
+
+import org.apache.http.HttpException;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.config.ConnectionConfig;
+import org.apache.http.config.MessageConstraints;
+import org.apache.http.conn.DnsResolver;
+import org.apache.http.conn.HttpConnectionFactory;
+import org.apache.http.conn.ManagedHttpClientConnection;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.conn.DefaultHttpResponseParserFactory;
+import org.apache.http.impl.conn.DefaultManagedHttpClientConnection;
+import org.apache.http.impl.conn.SystemDefaultDnsResolver;
+import org.apache.http.impl.io.DefaultHttpRequestWriterFactory;
+import org.apache.http.io.HttpMessageParser;
+import org.apache.http.io.HttpMessageWriter;
+import org.apache.http.io.SessionInputBuffer;
+import org.apache.http.io.SessionOutputBuffer;
+import org.apache.http.protocol.HttpContext;
+import resty.timing.RequestTimer;
+
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.SSLContext;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Provides the parts of the transport of the pool of connections that mark the phases of the requests
+ * in the {@link RequestTimer} attached to the thread performing them, if any.
+ * Without a timer they only cost a lookup of the current thread.
+ */
+final class ConnectionTiming {
+
+    private ConnectionTiming() {
+    }
+
+    /**
+     * Provides the resolver of hosts marking the time spent resolving them.
+     *
+     * @return the resolver of hosts.
+     */
+    static DnsResolver dnsResolver() {
+        return host -> {
+            RequestTimer timer = RequestTimer.current();
+            if (timer == null) {
+                return SystemDefaultDnsResolver.INSTANCE.resolve(host);
+            }
+            timer.dnsStarted();
+            try {
+                return SystemDefaultDnsResolver.INSTANCE.resolve(host);
+            } finally {
+                timer.dnsEnded();
+            }
+        };
+    }
+
+    /**
+     * Provides the factory of plain sockets marking the time spent connecting them.
+     *
+     * @return the factory of plain sockets.
+     */
+    static ConnectionSocketFactory plainSocketFactory() {
+        return new TimedPlainSocketFactory();
+    }
+
+    /**
+     * Provides the factory of secure sockets marking the time spent connecting them and performing the handshake.
+     *
+     * @param sslContext the SSL context to use for secure connections.
+     * @param hostnameVerifier the verifier to use for hostnames of secure connections.
+     * @return the factory of secure sockets.
+     */
+    static ConnectionSocketFactory sslSocketFactory(SSLContext sslContext, HostnameVerifier hostnameVerifier) {
+        return new TimedSslSocketFactory(sslContext, hostnameVerifier);
+    }
+
+    /**
+     * Provides the factory of connections marking the time spent writing requests and waiting for their response.
+     *
+     * @return the factory of connections.
+     */
+    static HttpConnectionFactory<HttpRoute, ManagedHttpClientConnection> connectionFactory() {
+        return new TimedConnectionFactory();
+    }
+
+    /**
+     * Factory of plain sockets marking the time spent connecting them.
+     */
+    private static class TimedPlainSocketFactory extends PlainConnectionSocketFactory {
+
+        @Override
+        public Socket connectSocket(int connectTimeout, Socket socket, HttpHost host, InetSocketAddress remoteAddress,
+                                    InetSocketAddress localAddress, HttpContext context) throws IOException {
+            RequestTimer timer = RequestTimer.current();
+            if (timer != null) {
+                timer.connectStarted();
+            }
+            try {
+                return super.connectSocket(connectTimeout, socket, host, remoteAddress, localAddress, context);
+            } finally {
+                if (timer != null) {
+                    timer.connectEnded();
+                }
+            }
+        }
+    }
+
+    /**
+     * Factory of secure sockets marking the time spent connecting them and performing the handshake,
+     * which is done when the connected socket is layered.
+     */
+    private static class TimedSslSocketFactory extends SSLConnectionSocketFactory {
+
+        TimedSslSocketFactory(SSLContext sslContext, HostnameVerifier hostnameVerifier) {
+            super(sslContext, hostnameVerifier);
+        }
+
+        @Override
+        public Socket connectSocket(int connectTimeout, Socket socket, HttpHost host, InetSocketAddress remoteAddress,
+                                    InetSocketAddress localAddress, HttpContext context) throws IOException {
+            RequestTimer timer = RequestTimer.current();
+            if (timer != null) {
+                timer.connectStarted();
+            }
+            return super.connectSocket(connectTimeout, socket, host, remoteAddress, localAddress, context);
+        }
+
+        @Override
+        public Socket createLayeredSocket(Socket socket, String target, int port, HttpContext context)
+                throws IOException {
+            RequestTimer timer = RequestTimer.current();
+            if (timer == null) {
+                return super.createLayeredSocket(socket, target, port, context);
+            }
+            timer.connectEnded();
+            timer.tlsStarted();
+            try {
+                return super.createLayeredSocket(socket, target, port, context);
+            } finally {
+                timer.tlsEnded();
+            }
+        }
+    }
+
+    /**
+     * Factory of connections marking the time requests are flushed, built the same way as the default connections
+     * of the pool, without their logging of the headers and of the wire.
+     */
+    private static class TimedConnectionFactory
+            implements HttpConnectionFactory<HttpRoute, ManagedHttpClientConnection> {
+
+        @Override
+        public ManagedHttpClientConnection create(HttpRoute route, ConnectionConfig config) {
+            ConnectionConfig connectionConfig = config != null ? config : ConnectionConfig.DEFAULT;
+            CharsetDecoder decoder = null;
+            CharsetEncoder encoder = null;
+            Charset charset = connectionConfig.getCharset();
+            if (charset != null) {
+                decoder = charset.newDecoder()
+                        .onMalformedInput(actionOrReport(connectionConfig.getMalformedInputAction()))
+                        .onUnmappableCharacter(actionOrReport(connectionConfig.getUnmappableInputAction()));
+                encoder = charset.newEncoder()
+                        .onMalformedInput(actionOrReport(connectionConfig.getMalformedInputAction()))
+                        .onUnmappableCharacter(actionOrReport(connectionConfig.getUnmappableInputAction()));
+            }
+            return new TimedConnection("http-outgoing-" + COUNTER.getAndIncrement(), connectionConfig.getBufferSize(),
+                    connectionConfig.getFragmentSizeHint(), decoder, encoder, connectionConfig.getMessageConstraints());
+        }
+
+        /**
+         * Provides the given action for invalid characters, or the one reporting them if none is given.
+         *
+         * @param action the configured action, if any.
+         * @return the action to take.
+         */
+        private static CodingErrorAction actionOrReport(CodingErrorAction action) {
+            return action != null ? action : CodingErrorAction.REPORT;
+        }
+
+        private static final AtomicLong COUNTER = new AtomicLong();
+    }
+
+    /**
+     * Connection marking the end of the writing of each request when it is flushed, right before its last bytes
+     * are sent: the server cannot start answering before, so that the time to first byte covers the whole time
+     * taken by the server, even when the thread performing the request is descheduled once the request is sent.
+     */
+    private static class TimedConnection extends DefaultManagedHttpClientConnection {
+
+        TimedConnection(String id, int bufferSize, int fragmentSizeHint, CharsetDecoder decoder,
+                        CharsetEncoder encoder, MessageConstraints constraints) {
+            super(id, bufferSize, fragmentSizeHint, decoder, encoder, constraints, null, null,
+                    buffer -> new TimedWriter(buffer), (buffer, messageConstraints) -> new TimedParser(buffer,
+                            messageConstraints));
+        }
+
+        @Override
+        public void flush() throws IOException {
+            RequestTimer timer = RequestTimer.current();
+            if (timer != null) {
+                timer.writeEnded();
+            }
+            super.flush();
+        }
+    }
+
+    /**
+     * Writer of requests marking the time their writing starts.
+     */
+    private static class TimedWriter implements HttpMessageWriter<HttpRequest> {
+
+        TimedWriter(SessionOutputBuffer buffer) {
+            this.delegate = DefaultHttpRequestWriterFactory.INSTANCE.create(buffer);
+        }
+
+        @Override
+        public void write(HttpRequest request) throws IOException, HttpException {
+            RequestTimer timer = RequestTimer.current();
+            if (timer != null) {
+                timer.writeStarted();
+            }
+            delegate.write(request);
+        }
+
+        private final HttpMessageWriter<HttpRequest> delegate;
+    }
+
+    /**
+     * Parser of responses marking the time the response headers have been received.
+     */
+    private static class TimedParser implements HttpMessageParser<HttpResponse> {
+
+        TimedParser(SessionInputBuffer buffer, MessageConstraints constraints) {
+            this.delegate = DefaultHttpResponseParserFactory.INSTANCE.create(buffer, constraints);
+        }
+
+        @Override
+        public HttpResponse parse() throws IOException, HttpException {
+            HttpResponse response = delegate.parse();
+            RequestTimer timer = RequestTimer.current();
+            if (timer != null) {
+                timer.headersReceived();
+            }
+            return response;
+        }
+
+        private final HttpMessageParser<HttpResponse> delegate;
+    }
+}
@@ -0,0 +1,164 @@
+package resty.connection;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.net.ssl.KeyManager;
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSessionContext;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.X509TrustManager;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.security.GeneralSecurityException;
+import java.security.KeyManagementException;
+import java.security.KeyStore;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.security.cert.X509Certificate;
+
+import static resty.RestClientProperty.TLS;
+
+/**
+ * Provides the SSL contexts used for secure connections.
+ * Contexts are created once and shared, so that their TLS sessions can be resumed by later connections
+ * to the same host instead of performing a full handshake each time. The settings of the sessions cache are global
+ * to a context, so a client changing them gets a context of its own instead of altering the shared ones.
+ */
+@Slf4j
+public final class SslContexts {
+
+    /**
+     * Provides the default SSL context of the JVM.
+     *
+     * @return the default SSL context.
+     */
+    public static SSLContext defaultContext() {
+        try {
+            return SSLContext.getDefault();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Cannot create default SSL context", e);
+        }
+    }
+
+    /**
+     * Provides the SSL context that trusts all the certificates, which is useful for development.
+     *
+     * @return the shared SSL context trusting all the certificates.
+     */
+    public static SSLContext trustAllContext() {
+        return TrustAllHolder.CONTEXT;
+    }
+
+    /**
+     * Creates a new SSL context set up as the default one of the JVM, whose TLS sessions are not shared
+     * with any other context. It trusts the certificates of the default trust store and presents those of the key store
+     * given by the {@code javax.net.ssl.keyStore} system properties, if any.
+     *
+     * @return the created SSL context.
+     */
+    public static SSLContext newDefaultContext() {
+        try {
+            SSLContext sslContext = SSLContext.getInstance(TLS.toValue());
+            sslContext.init(defaultKeyManagers(), null, null);
+            return sslContext;
+        } catch (GeneralSecurityException | IOException e) {
+            throw new IllegalStateException("Cannot create SSL context", e);
+        }
+    }
+
+    /**
+     * Configures the cache of the client TLS sessions of the given context.
+     * It changes the settings for every client using the context, so it must not be given a shared context.
+     * Values that are not positive leave the corresponding setting of the context untouched.
+     *
+     * @param sslContext the context to configure.
+     * @param sessionCacheSize the maximum number of sessions kept for resumption.
+     * @param sessionTimeout the time in seconds a session can be resumed for.
+     * @return the configured context.
+     */
+    public static SSLContext configureSessions(SSLContext sslContext, int sessionCacheSize, int sessionTimeout) {
+        SSLSessionContext sessionContext = sslContext.getClientSessionContext();
+        if (sessionContext == null) {
+            return sslContext;
+        }
+        if (sessionCacheSize > 0) {
+            sessionContext.setSessionCacheSize(sessionCacheSize);
+        }
+        if (sessionTimeout > 0) {
+            sessionContext.setSessionTimeout(sessionTimeout);
+        }
+        log.debug("TLS sessions cache: {} sessions, {} seconds",
+                sessionContext.getSessionCacheSize(), sessionContext.getSessionTimeout());
+        return sslContext;
+    }
+
+    /**
+     * Creates a new SSL context that trusts all the certificates, whose TLS sessions are not shared
+     * with any other context.
+     *
+     * @return the created SSL context.
+     */
+    public static SSLContext newTrustAllContext() {
+        try {
+            SSLContext sslContext = SSLContext.getInstance(TLS.toValue());
+            sslContext.init(null, new TrustManager[]{new X509TrustManager() {
+                @Override
+                public void checkClientTrusted(X509Certificate[] chain, String authType) {
+                }
+                @Override
+                public void checkServerTrusted(X509Certificate[] chain, String authType) {
+                }
+                @Override
+                public X509Certificate[] getAcceptedIssuers() {
+                    return new X509Certificate[0];
+                }
+            }}, new SecureRandom());
+            return sslContext;
+        } catch (NoSuchAlgorithmException | KeyManagementException e) {
+            throw new IllegalStateException("Cannot create trust-all SSL context", e);
+        }
+    }
+
+    /**
+     * Provides the key managers of the key store given by the {@code javax.net.ssl.keyStore} system properties,
+     * as the default SSL context of the JVM does.
+     *
+     * @return the key managers, or null if no key store is given.
+     */
+    static KeyManager[] defaultKeyManagers() throws GeneralSecurityException, IOException {
+        String path = System.getProperty("javax.net.ssl.keyStore", "");
+        if (path.isEmpty()) {
+            return null;
+        }
+        String type = System.getProperty("javax.net.ssl.keyStoreType", KeyStore.getDefaultType());
+        String provider = System.getProperty("javax.net.ssl.keyStoreProvider", "");
+        String password = System.getProperty("javax.net.ssl.keyStorePassword");
+        char[] secret = password != null ? password.toCharArray() : null;
+        KeyStore keyStore = provider.isEmpty() ? KeyStore.getInstance(type) : KeyStore.getInstance(type, provider);
+        if (NO_KEY_STORE_FILE.equals(path)) {
+            keyStore.load(null, secret);
+        } else {
+            try (InputStream in = Files.newInputStream(Paths.get(path))) {
+                keyStore.load(in, secret);
+            }
+        }
+        KeyManagerFactory factory = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+        factory.init(keyStore, secret);
+        return factory.getKeyManagers();
+    }
+
+    private SslContexts() {
+    }
+
+    /**
+     * Lazily creates the context trusting all the certificates the first time it is required.
+     */
+    private static final class TrustAllHolder {
+        private static final SSLContext CONTEXT = newTrustAllContext();
+    }
+
+    private static final String NO_KEY_STORE_FILE = "NONE";
+}
@@ -0,0 +1,45 @@
+package resty.download;
+
+import lombok.Getter;
+
+import java.nio.file.Path;
+
+/**
+ * Signals that a downloaded body does not match its expected checksum.
+ * The body is discarded and the target file is left untouched.
+ */
+@Getter
+public class ChecksumMismatchException extends RuntimeException {
+
+    /**
+     * Builds the exception for the given file.
+     *
+     * @param target the file the body was downloaded to.
+     * @param expected the expected checksum.
+     * @param actual the checksum of the downloaded body.
+     */
+    public ChecksumMismatchException(Path target, String expected, String actual) {
+        super("Checksum of " + target + " is " + actual + " instead of " + expected);
+        this.target = target;
+        this.expected = expected;
+        this.actual = actual;
+    }
+
+    /**
+     * The file the body was downloaded to, which is not kept when the exception is serialized
+     * since paths are not serializable.
+     */
+    private final transient Path target;
+
+    /**
+     * The expected checksum.
+     */
+    private final String expected;
+
+    /**
+     * The checksum of the downloaded body.
+     */
+    private final String actual;
+
+    private static final long serialVersionUID = 1L;
+}
@@ -0,0 +1,17 @@
+package resty.download;
+
+/**
+ * Listens to the progress of a download, each time a chunk of the body has been written to the file.
+ * Listeners are called by the thread performing the download.
+ */
+@FunctionalInterface
+public interface DownloadListener {
+
+    /**
+     * Called when a chunk of the body has been written to the file.
+     *
+     * @param transferred the number of bytes written so far.
+     * @param total the size of the body given by its Content-Length header, or -1 if it is unknown.
+     */
+    void onProgress(long transferred, long total);
+}
@@ -0,0 +1,59 @@
+package resty.download;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Models how a response body is downloaded to a file.
+ * The body is written through a direct buffer of the given size, optionally digested to verify its checksum,
+ * and the listener, if any, is notified after each chunk.
+ */
+@Getter
+@ToString
+@Builder(toBuilder = true)
+public class DownloadPolicy {
+
+    /**
+     * Provides the policy used when none is given: no checksum and no listener.
+     *
+     * @return the default policy.
+     */
+    public static DownloadPolicy defaults() {
+        return builder().build();
+    }
+
+    /**
+     * Provides the algorithm of the checksum to compute.
+     * SHA-256 is used when an expected checksum is given without algorithm.
+     *
+     * @return the algorithm of the checksum, or null if no checksum is computed.
+     */
+    public String getChecksumAlgorithm() {
+        return checksumAlgorithm == null && expectedChecksum != null ? DEFAULT_CHECKSUM_ALGORITHM : checksumAlgorithm;
+    }
+
+    /**
+     * The size in bytes of the buffer, which is also the amount of bytes written to the file at once.
+     */
+    @Builder.Default
+    private final int bufferSize = 256 * 1024;
+
+    /**
+     * The algorithm of the checksum to compute, such as SHA-256 or MD5, null to compute none.
+     */
+    private final String checksumAlgorithm;
+
+    /**
+     * The expected checksum of the body, as hexadecimal digits, null to not verify it.
+     */
+    private final String expectedChecksum;
+
+    /**
+     * The listener notified of the progress, if any.
+     */
+    @ToString.Exclude
+    private final DownloadListener listener;
+
+    private static final String DEFAULT_CHECKSUM_ALGORITHM = "SHA-256";
+}
@@ -0,0 +1,54 @@
+package resty.download;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Models the outcome of a download.
+ * The body is written to the file only when the response succeeds, otherwise the file is left untouched.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class DownloadResult {
+
+    /**
+     * Checks whether the response succeeded and its body has been written to the file.
+     *
+     * @return true if the body has been written, false otherwise.
+     */
+    public boolean isSuccess() {
+        return target != null;
+    }
+
+    /**
+     * Response status.
+     */
+    private final int status;
+
+    /**
+     * Response headers.
+     */
+    @ToString.Exclude
+    private final Map<String, List<String>> headers;
+
+    /**
+     * The file holding the body, null if the response failed.
+     */
+    private final Path target;
+
+    /**
+     * The number of bytes written to the file.
+     */
+    private final long size;
+
+    /**
+     * The checksum of the body as hexadecimal digits, null if none has been computed.
+     */
+    private final String checksum;
+}
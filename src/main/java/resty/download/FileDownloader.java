@@ -0,0 +1,217 @@
+package resty.download;
+
+import lombok.extern.slf4j.Slf4j;
+import resty.response.StreamingRestResponse;
+
+import javax.ws.rs.ProcessingException;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static java.nio.file.StandardOpenOption.CREATE_NEW;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Writes response bodies to files as they are received, so that they are never held in memory.
+ * The body goes through a single direct buffer into a file channel, and it is written to a temporary file
+ * in the same directory, which is renamed to the target only once the whole body has been written, flushed to disk
+ * and verified. A failed download leaves the target untouched and removes the temporary file.
+ */
+@Slf4j
+public final class FileDownloader {
+
+    private FileDownloader() {
+    }
+
+    /**
+     * Writes the body of the given response to the given file, replacing it if it exists.
+     * The body of a failed response is discarded. The response is closed in any case.
+     *
+     * @param response the response whose body to write.
+     * @param target the file to write the body to, whose missing parent directories are created.
+     * @param policy how the body is written.
+     * @return the outcome of the download.
+     */
+    public static DownloadResult download(StreamingRestResponse response, Path target, DownloadPolicy policy) {
+        Path absoluteTarget = target.toAbsolutePath();
+        Path temporary = null;
+        try (StreamingRestResponse received = response) {
+            if (!received.isSuccess()) {
+                log.debug("Not downloading body of failed response with status " + received.getStatus());
+                return new DownloadResult(received.getStatus(), received.getHeaders(), null, 0, null);
+            }
+            MessageDigest digest = digestOf(policy.getChecksumAlgorithm());
+            Files.createDirectories(absoluteTarget.getParent());
+            temporary = temporaryOf(absoluteTarget);
+            long size;
+            try (FileChannel file = FileChannel.open(temporary, CREATE_NEW, WRITE);
+                 ReadableByteChannel body = received.getChannel()) {
+                size = transfer(body, file, digest, contentLength(received), policy);
+                file.force(false);
+            }
+            String checksum = digest == null ? null : toHex(digest.digest());
+            if (policy.getExpectedChecksum() != null && !policy.getExpectedChecksum().equalsIgnoreCase(checksum)) {
+                throw new ChecksumMismatchException(target, policy.getExpectedChecksum(), checksum);
+            }
+            move(temporary, absoluteTarget);
+            temporary = null;
+            log.debug("Downloaded " + size + " bytes to " + target);
+            return new DownloadResult(received.getStatus(), received.getHeaders(), target, size, checksum);
+        } catch (IOException e) {
+            throw new ProcessingException("Cannot download response body to " + target, e);
+        } finally {
+            if (temporary != null) {
+                deleteQuietly(temporary);
+            }
+        }
+    }
+
+    /**
+     * Copies the given body to the given file through a direct buffer, which is filled before being written,
+     * so that the file is written in large chunks whatever the size of the reads from the network.
+     *
+     * @param body the channel of the body.
+     * @param file the channel of the file.
+     * @param digest the digest of the body, if a checksum is computed.
+     * @param total the size of the body, or -1 if it is unknown.
+     * @param policy how the body is written.
+     * @return the number of bytes written.
+     */
+    private static long transfer(ReadableByteChannel body, FileChannel file, MessageDigest digest, long total,
+                                 DownloadPolicy policy) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(policy.getBufferSize());
+        DownloadListener listener = policy.getListener();
+        long transferred = 0;
+        boolean ended = false;
+        while (!ended) {
+            ((Buffer) buffer).clear();
+            while (buffer.hasRemaining() && !ended) {
+                ended = body.read(buffer) < 0;
+            }
+            ((Buffer) buffer).flip();
+            if (!buffer.hasRemaining()) {
+                break;
+            }
+            if (digest != null) {
+                digest.update(buffer);
+                ((Buffer) buffer).rewind();
+            }
+            while (buffer.hasRemaining()) {
+                transferred += file.write(buffer);
+            }
+            if (listener != null) {
+                listener.onProgress(transferred, total);
+            }
+        }
+        if (total >= 0 && transferred != total) {
+            throw new IOException("Received " + transferred + " bytes instead of " + total);
+        }
+        return transferred;
+    }
+
+    /**
+     * Provides the digest computing the checksum with the given algorithm.
+     *
+     * @param algorithm the algorithm of the checksum, if any.
+     * @return the digest, or null if no algorithm is given.
+     */
+    private static MessageDigest digestOf(String algorithm) {
+        if (algorithm == null) {
+            return null;
+        }
+        try {
+            return MessageDigest.getInstance(algorithm);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalArgumentException("Checksum algorithm " + algorithm + " is not supported", e);
+        }
+    }
+
+    /**
+     * Provides the size of the body given by the Content-Length header of the given response.
+     *
+     * @param response the response whose body is downloaded.
+     * @return the size of the body, or -1 if it is unknown.
+     */
+    private static long contentLength(StreamingRestResponse response) {
+        String contentLength = response.getHeader(CONTENT_LENGTH);
+        if (contentLength == null) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(contentLength.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Provides a temporary file next to the given target, so that it can be renamed to it atomically.
+     * It is hidden and randomly named, so that concurrent downloads to the same target do not clash.
+     *
+     * @param target the file to write the body to.
+     * @return the temporary file, which does not exist yet.
+     */
+    private static Path temporaryOf(Path target) {
+        String name = "." + target.getFileName() + "." + Long.toHexString(ThreadLocalRandom.current().nextLong())
+                + PART_SUFFIX;
+        return target.resolveSibling(name);
+    }
+
+    /**
+     * Renames the given temporary file to the given target, atomically if the file system allows it.
+     *
+     * @param temporary the file holding the body.
+     * @param target the file to replace.
+     */
+    private static void move(Path temporary, Path target) throws IOException {
+        try {
+            Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            log.debug("Cannot rename " + temporary + " atomically due to: " + e.getMessage());
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Deletes the given file, ignoring failures.
+     *
+     * @param file the file to delete.
+     */
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.debug("Cannot delete " + file + " due to: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Provides the given bytes as lowercase hexadecimal digits.
+     *
+     * @param bytes the bytes to convert.
+     * @return the hexadecimal digits.
+     */
+    private static String toHex(byte[] bytes) {
+        char[] digits = new char[2 * bytes.length];
+        for (int i = 0; i < bytes.length; i++) {
+            digits[2 * i] = HEX_DIGITS[(bytes[i] >> 4) & 0xf];
+            digits[2 * i + 1] = HEX_DIGITS[bytes[i] & 0xf];
+        }
+        return new String(digits);
+    }
+
+    private static final String CONTENT_LENGTH = "Content-Length";
+
+    private static final String PART_SUFFIX = ".part";
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+}
@@ -0,0 +1,63 @@
+package resty.engine;
+
+import resty.compression.ContentCompressor;
+
+import javax.ws.rs.client.ClientRequestContext;
+import javax.ws.rs.client.ClientRequestFilter;
+import javax.ws.rs.client.ClientResponseContext;
+import javax.ws.rs.client.ClientResponseFilter;
+import javax.ws.rs.core.HttpHeaders;
+import java.io.InputStream;
+
+/**
+ * Asks for encoded responses and decodes them as their body is read, recording their sizes in the compressor.
+ * The decoded responses lose their Content-Encoding and Content-Length headers, which no longer apply to their body.
+ */
+class CompressionFilter implements ClientRequestFilter, ClientResponseFilter {
+
+    /**
+     * Builds a filter decoding responses with the given compressor.
+     *
+     * @param compressor the compressor decoding the responses.
+     */
+    CompressionFilter(ContentCompressor compressor) {
+        this.compressor = compressor;
+    }
+
+    /**
+     * Adds the Accept-Encoding header to the request, unless it has already one.
+     *
+     * @param requestContext the context of the request.
+     */
+    @Override
+    public void filter(ClientRequestContext requestContext) {
+        if (!requestContext.getHeaders().containsKey(HttpHeaders.ACCEPT_ENCODING)) {
+            requestContext.getHeaders().putSingle(HttpHeaders.ACCEPT_ENCODING, compressor.getAcceptEncoding());
+        }
+    }
+
+    /**
+     * Decodes the body of the response while it is read, if it is encoded.
+     *
+     * @param requestContext the context of the request.
+     * @param responseContext the context of the response.
+     */
+    @Override
+    public void filter(ClientRequestContext requestContext, ClientResponseContext responseContext) {
+        String contentEncoding = responseContext.getHeaderString(HttpHeaders.CONTENT_ENCODING);
+        if (contentEncoding == null || !responseContext.hasEntity()) {
+            return;
+        }
+        InputStream body = compressor.decompress(contentEncoding, responseContext.getEntityStream());
+        if (body != responseContext.getEntityStream()) {
+            responseContext.setEntityStream(body);
+            responseContext.getHeaders().remove(HttpHeaders.CONTENT_ENCODING);
+            responseContext.getHeaders().remove(HttpHeaders.CONTENT_LENGTH);
+        }
+    }
+
+    /**
+     * The compressor decoding the responses.
+     */
+    private final ContentCompressor compressor;
+}
@@ -0,0 +1,498 @@
+package resty.engine;
+
+import lombok.extern.slf4j.Slf4j;
+import resty.compression.ContentCoding;
+import resty.compression.ContentCompressor;
+import resty.entity.RestEntities;
+import resty.json.JsonMapper;
+import resty.request.Endpoints;
+import resty.request.RestRequest;
+import resty.response.RestResponse;
+import resty.response.StreamingRestResponse;
+import resty.timing.RequestTimer;
+import resty.timing.RequestTiming;
+import resty.timing.RequestTimingListener;
+import resty.upload.UploadBody;
+
+import javax.ws.rs.ProcessingException;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.Charset;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Performs requests by means of the HTTP client of the JDK, which requires Java 11 or later.
+ * The client negotiates HTTP/2 when the server supports it, so that concurrent requests to the same server
+ * are multiplexed over a single connection, and it falls back to HTTP/1.1 otherwise.
+ * Non-blocking requests use the asynchronous I/O of the client, without holding a thread while in flight.
+ * <p>
+ * The client manages its own connections, so the settings of the pool are ignored, and the connection timeout
+ * is the default one for all the requests. The read timeout of a request bounds the time to receive its response.
+ * The client does not expose its connections, so timed requests only measure the time to the response headers
+ * and the time reading the body.
+ * Encoded responses are not decoded by the client, so compression is only used when a compressor is given,
+ * which asks for encoded responses, decodes them and compresses large request bodies.
+ * In dev mode all the certificates are trusted, while hostname verification can only be disabled for the whole JVM
+ * by means of the jdk.internal.httpclient.disableHostnameVerification system property.
+ */
+@Slf4j
+public class JdkHttpClientEngine implements RestEngine {
+
+    /**
+     * Builds the engine and the client it uses.
+     *
+     * @param config the configuration of the engine.
+     */
+    public JdkHttpClientEngine(RestEngineConfig config) {
+        this.jsonMapper = config.getJsonMapper();
+        this.completionExecutor = config.getAsyncExecutor() != null ? config.getCompletionExecutor() : null;
+        this.client = generateClient(config);
+        this.requestTiming = config.isRequestTiming();
+        this.timingListener = config.getTimingListener();
+        this.compressor = config.getCompressor();
+    }
+
+    /**
+     * Performs the given request and reads the whole response body.
+     *
+     * @param request the request to perform.
+     * @return the response given back to the performed request.
+     */
+    @Override
+    public RestResponse execute(RestRequest request) {
+        RequestTimer timer = startTimer();
+        return toRestResponse(request,
+                send(toHttpRequest(request), timed(stringBodyHandler(), timer)), timer);
+    }
+
+    /**
+     * Performs the given request without reading the response body.
+     * The connection used for the request is released once the body stream is closed.
+     *
+     * @param request the request to perform.
+     * @return the streaming response given back to the performed request.
+     */
+    @Override
+    public StreamingRestResponse stream(RestRequest request) {
+        RequestTimer timer = startTimer();
+        HttpResponse<InputStream> response =
+                send(toHttpRequest(request), timed(HttpResponse.BodyHandlers.ofInputStream(), timer));
+        if (timer != null) {
+            timer.complete(request, response.statusCode(), timingListener);
+        }
+        if (!isDecoded(response)) {
+            return new StreamingRestResponse(response.statusCode(), response.headers().map(), response.body(),
+                    jsonMapper);
+        }
+        return new StreamingRestResponse(response.statusCode(), decodedHeaders(response.headers()),
+                compressor.decompress(contentEncoding(response.headers()), response.body()), jsonMapper);
+    }
+
+    /**
+     * Performs the given request without blocking any thread while it is in flight.
+     * The response is read by the executor of the client, which is the async executor if any,
+     * otherwise the completion executor. When both are given, the future is completed by the latter.
+     * Transport failures complete the future with a {@link ProcessingException}, as they are thrown by the other methods.
+     *
+     * @param request the request to perform.
+     * @return the future completed with the response given back to the performed request.
+     */
+    @Override
+    public CompletableFuture<RestResponse> executeAsync(RestRequest request) {
+        RequestTimer timer = startTimer();
+        CompletableFuture<HttpResponse<String>> exchange =
+                client.sendAsync(toHttpRequest(request), timed(stringBodyHandler(), timer));
+        CompletableFuture<HttpResponse<String>> received = exchange.handle((response, throwable) -> {
+            if (throwable != null) {
+                throw asyncFailure(throwable);
+            }
+            return response;
+        });
+        CompletableFuture<RestResponse> futureResponse = completionExecutor != null
+                ? received.thenApplyAsync(response -> toRestResponse(request, response, timer), completionExecutor)
+                : received.thenApply(response -> toRestResponse(request, response, timer));
+        futureResponse.whenComplete((restResponse, throwable) -> {
+            if (futureResponse.isCancelled()) {
+                exchange.cancel(true);
+            }
+        });
+        return futureResponse;
+    }
+
+    /**
+     * Closes the client, which is possible since Java 21.
+     * On earlier versions its connections are released once the client is no longer referenced.
+     */
+    @Override
+    public void close() {
+        if (client instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) client).close();
+            } catch (Exception e) {
+                log.debug("Cannot close client due to: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Sends the given request and waits for its response.
+     *
+     * @param httpRequest the request to send.
+     * @param bodyHandler the handler of the response body.
+     * @return the response given back by the called service.
+     */
+    private <T> HttpResponse<T> send(HttpRequest httpRequest, HttpResponse.BodyHandler<T> bodyHandler) {
+        try {
+            return client.send(httpRequest, bodyHandler);
+        } catch (IOException e) {
+            throw new ProcessingException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ProcessingException(e);
+        }
+    }
+
+    /**
+     * Provides the failure completing an asynchronous request, wrapping transport failures
+     * in a {@link ProcessingException} as {@link #send(HttpRequest, HttpResponse.BodyHandler)} does.
+     *
+     * @param throwable the failure of the exchange.
+     * @return the failure to complete the future with.
+     */
+    private static CompletionException asyncFailure(Throwable throwable) {
+        Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null
+                ? throwable.getCause() : throwable;
+        return new CompletionException(cause instanceof IOException ? new ProcessingException(cause) : cause);
+    }
+
+    /**
+     * Provides the response based on data given back by the called service.
+     *
+     * @param request the performed request.
+     * @param response the response given back by the called service.
+     * @param timer the timer of the request, if it is timed.
+     * @return the response based on data given back by the called service.
+     */
+    private RestResponse toRestResponse(RestRequest request, HttpResponse<String> response, RequestTimer timer) {
+        RequestTiming timing = null;
+        if (timer != null) {
+            timer.bodyRead();
+            timing = timer.complete(request, response.statusCode(), timingListener);
+        }
+        Map<String, List<String>> headers = isDecoded(response)
+                ? decodedHeaders(response.headers()) : response.headers().map();
+        return new RestResponse(response.statusCode(), response.body(), headers, jsonMapper, timing);
+    }
+
+    /**
+     * Provides the handler reading the response body as a string, decoding it if it is encoded and a compressor is given.
+     * Encoded bodies are received as they are, and decoded while they are converted to a string.
+     *
+     * @return the handler of the response body.
+     */
+    private HttpResponse.BodyHandler<String> stringBodyHandler() {
+        if (compressor == null) {
+            return HttpResponse.BodyHandlers.ofString();
+        }
+        return responseInfo -> {
+            String contentEncoding = contentEncoding(responseInfo.headers());
+            if (ContentCoding.fromValue(contentEncoding) == null) {
+                return HttpResponse.BodyHandlers.ofString().apply(responseInfo);
+            }
+            Charset charset = charsetOf(responseInfo.headers());
+            return HttpResponse.BodySubscribers.mapping(HttpResponse.BodySubscribers.ofByteArray(),
+                    body -> decode(contentEncoding, body, charset));
+        };
+    }
+
+    /**
+     * Decodes the given encoded body into a string.
+     *
+     * @param contentEncoding the value of the Content-Encoding header of the response.
+     * @param body the encoded body.
+     * @param charset the charset of the decoded body.
+     * @return the decoded body.
+     */
+    private String decode(String contentEncoding, byte[] body, Charset charset) {
+        ByteArrayOutputStream decoded = new ByteArrayOutputStream(body.length * 4);
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try (InputStream in = compressor.decompress(contentEncoding, new ByteArrayInputStream(body))) {
+            for (int read = in.read(buffer); read >= 0; read = in.read(buffer)) {
+                decoded.write(buffer, 0, read);
+            }
+        } catch (IOException e) {
+            throw new ProcessingException("Cannot decode response body", e);
+        }
+        return new String(decoded.toByteArray(), charset);
+    }
+
+    /**
+     * Checks whether the body of the given response is decoded by the compressor.
+     *
+     * @param response the response given back by the called service.
+     * @return true if the body is decoded, false otherwise.
+     */
+    private boolean isDecoded(HttpResponse<?> response) {
+        return compressor != null && ContentCoding.fromValue(contentEncoding(response.headers())) != null;
+    }
+
+    /**
+     * Provides the headers of a decoded response, without the Content-Encoding and Content-Length headers
+     * which no longer apply to its body.
+     *
+     * @param headers the headers of the response as received.
+     * @return the headers of the decoded response.
+     */
+    private static Map<String, List<String>> decodedHeaders(HttpHeaders headers) {
+        Map<String, List<String>> decodedHeaders = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        decodedHeaders.putAll(headers.map());
+        decodedHeaders.remove(CONTENT_ENCODING);
+        decodedHeaders.remove(CONTENT_LENGTH);
+        return decodedHeaders;
+    }
+
+    /**
+     * Provides the value of the Content-Encoding header of a response.
+     *
+     * @param headers the headers of the response.
+     * @return the value of the header, or null if it is missing.
+     */
+    private static String contentEncoding(HttpHeaders headers) {
+        return headers.firstValue(CONTENT_ENCODING).orElse(null);
+    }
+
+    /**
+     * Provides the charset given by the Content-Type header of a response, UTF-8 if none is given.
+     *
+     * @param headers the headers of the response.
+     * @return the charset of the response body.
+     */
+    private static Charset charsetOf(HttpHeaders headers) {
+        String contentType = headers.firstValue("Content-Type").orElse("");
+        int index = contentType.toLowerCase(Locale.ROOT).indexOf(CHARSET_PARAMETER);
+        if (index < 0) {
+            return UTF_8;
+        }
+        String charset = contentType.substring(index + CHARSET_PARAMETER.length()).split(";")[0].trim();
+        try {
+            return Charset.forName(charset.replace("\"", ""));
+        } catch (IllegalArgumentException e) {
+            return UTF_8;
+        }
+    }
+
+    /**
+     * Starts timing a request, if requests are timed.
+     *
+     * @return the timer of the request, or null if requests are not timed.
+     */
+    private RequestTimer startTimer() {
+        return requestTiming ? new RequestTimer() : null;
+    }
+
+    /**
+     * Provides the handler of the response body marking when the response headers are received.
+     *
+     * @param bodyHandler the handler of the response body.
+     * @param timer the timer of the request, if it is timed.
+     * @return the given handler if the request is not timed, the marking one otherwise.
+     */
+    private static <T> HttpResponse.BodyHandler<T> timed(HttpResponse.BodyHandler<T> bodyHandler, RequestTimer timer) {
+        if (timer == null) {
+            return bodyHandler;
+        }
+        return responseInfo -> {
+            timer.headersReceived();
+            return bodyHandler.apply(responseInfo);
+        };
+    }
+
+    /**
+     * Generates the request to send for the given REST request.
+     *
+     * @param request the REST request to perform.
+     * @return the request to send.
+     */
+    private HttpRequest toHttpRequest(RestRequest request) {
+        RestEntities entities = RestEntities.of(request.getEntities());
+        HttpRequest.Builder requestBuilder = HttpRequest.newBuilder(toUri(request, entities))
+                .timeout(Duration.ofMillis(request.getReadTimeout()));
+        HttpRequest.BodyPublisher bodyPublisher = HttpRequest.BodyPublishers.noBody();
+        if (compressor != null) {
+            requestBuilder.header("Accept-Encoding", compressor.getAcceptEncoding());
+        }
+        if (request.getMethod().hasBody() && request.getBody() instanceof UploadBody) {
+            UploadBody upload = (UploadBody) request.getBody();
+            requestBuilder.header("Content-Type",
+                    upload.getMediaType() != null ? upload.getMediaType() : request.getMediaType());
+            bodyPublisher = toBodyPublisher(upload);
+        } else if (request.getMethod().hasBody()) {
+            requestBuilder.header("Content-Type", request.getMediaType());
+            byte[] body = toBytes(request.getBody());
+            byte[] compressed = compressor != null ? compressor.compress(request, body) : null;
+            if (compressed != null) {
+                requestBuilder.header(CONTENT_ENCODING, compressor.getContentEncoding());
+                body = compressed;
+            }
+            bodyPublisher = HttpRequest.BodyPublishers.ofByteArray(body);
+        }
+        log.debug("Setting headers for request");
+        for (int i = 0; i < entities.getHeaderCount(); i++) {
+            requestBuilder.setHeader(entities.getHeaderName(i), entities.getHeaderValue(i));
+        }
+        return requestBuilder.method(request.getMethod().toValue(), bodyPublisher).build();
+    }
+
+    /**
+     * Provides the URI of the given request along with its query parameters.
+     * The URI is parsed from the endpoint, unless the request already has one.
+     *
+     * @param request the request to perform.
+     * @param entities it contains the query parameters to set for the request.
+     * @return the URI of the request.
+     */
+    private static URI toUri(RestRequest request, RestEntities entities) {
+        if (entities.getParameterCount() == 0) {
+            return request.getUri() != null ? request.getUri() : URI.create(request.getEndpoint());
+        }
+        String endpoint = request.getUri() != null ? request.getUri().toString() : request.getEndpoint();
+        log.debug("Setting query parameters for request");
+        StringBuilder uri = new StringBuilder(endpoint).append(endpoint.contains("?") ? '&' : '?');
+        for (int i = 0; i < entities.getParameterCount(); i++) {
+            if (i > 0) {
+                uri.append('&');
+            }
+            uri.append(Endpoints.encode(entities.getParameterName(i))).append('=')
+                    .append(Endpoints.encode(entities.getParameterValue(i)));
+        }
+        return URI.create(uri.toString());
+    }
+
+    /**
+     * Provides the publisher streaming the given upload body as it is sent.
+     * Files are sent straight from their channel, and bodies of known length are sent with a Content-Length header.
+     *
+     * @param upload the body of the request.
+     * @return the publisher of the body.
+     */
+    private static HttpRequest.BodyPublisher toBodyPublisher(UploadBody upload) {
+        if (upload.getFile() != null) {
+            try {
+                return HttpRequest.BodyPublishers.ofFile(upload.getFile());
+            } catch (FileNotFoundException e) {
+                throw new ProcessingException("Cannot read request body", e);
+            }
+        }
+        HttpRequest.BodyPublisher publisher = HttpRequest.BodyPublishers.ofInputStream(() -> {
+            try {
+                return upload.openStream();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return upload.isChunked() ? publisher : HttpRequest.BodyPublishers.fromPublisher(publisher, upload.getLength());
+    }
+
+    /**
+     * Provides the content of the given request body.
+     * Strings and byte arrays are sent as they are, while other objects are converted to JSON.
+     *
+     * @param body the body of the request.
+     * @return the content of the body.
+     */
+    private byte[] toBytes(Object body) {
+        if (body == null) {
+            return new byte[0];
+        }
+        if (body instanceof byte[]) {
+            return (byte[]) body;
+        }
+        if (body instanceof String) {
+            return ((String) body).getBytes(UTF_8);
+        }
+        try {
+            return jsonMapper.write(body);
+        } catch (IOException e) {
+            throw new ProcessingException("Cannot convert request body", e);
+        }
+    }
+
+    /**
+     * Generates the client shared by all the REST requests.
+     *
+     * @param config the configuration of the engine.
+     * @return the created client.
+     */
+    private static HttpClient generateClient(RestEngineConfig config) {
+        log.debug("Generating client");
+        HttpClient.Builder clientBuilder = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(Duration.ofMillis(config.getConnectionTimeout()))
+                .sslContext(config.getSslContext());
+        if (config.getAsyncExecutor() != null) {
+            clientBuilder.executor(config.getAsyncExecutor());
+        } else if (config.getCompletionExecutor() != null) {
+            clientBuilder.executor(config.getCompletionExecutor());
+        }
+        HttpClient client = clientBuilder.build();
+        log.debug("Client generated");
+        return client;
+    }
+
+    /**
+     * The mapper used to convert request and response bodies.
+     */
+    private final JsonMapper jsonMapper;
+
+    /**
+     * The executor completing non-blocking requests when it differs from the executor of the client, if any.
+     */
+    private final Executor completionExecutor;
+
+    /**
+     * The client shared by all the requests.
+     */
+    private final HttpClient client;
+
+    /**
+     * Whether each request is timed.
+     */
+    private final boolean requestTiming;
+
+    /**
+     * The listener notified of the timing of each request, if any.
+     */
+    private final RequestTimingListener timingListener;
+
+    /**
+     * The compressor of request bodies and decoder of response bodies, if any.
+     */
+    private final ContentCompressor compressor;
+
+    private static final String CONTENT_ENCODING = "Content-Encoding";
+
+    private static final String CONTENT_LENGTH = "Content-Length";
+
+    private static final String CHARSET_PARAMETER = "charset=";
+
+    private static final int BUFFER_SIZE = 8192;
+}
@@ -0,0 +1,473 @@
+package resty.engine;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.conn.ssl.NoopHostnameVerifier;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.glassfish.jersey.apache.connector.ApacheClientProperties;
+import org.glassfish.jersey.apache.connector.ApacheConnectorProvider;
+import org.glassfish.jersey.client.ClientConfig;
+import org.glassfish.jersey.client.ClientProperties;
+import resty.compression.ContentCompressor;
+import resty.connection.ConnectionPool;
+import resty.entity.RestEntities;
+import resty.json.JsonMapper;
+import resty.json.ObjectMapperResolver;
+import resty.request.RestRequest;
+import resty.response.RestResponse;
+import resty.response.StreamingRestResponse;
+import resty.timing.RequestTimer;
+import resty.timing.RequestTiming;
+import resty.timing.RequestTimingListener;
+import resty.upload.UploadBody;
+
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.client.Invocation;
+import javax.ws.rs.client.InvocationCallback;
+import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Variant;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static resty.RestClientProperty.IDLE_CONNECTION_EVICTION_INTERVAL;
+import static resty.RestClientProperty.VALIDATE_AFTER_INACTIVITY;
+
+/**
+ * Performs requests by means of a Jersey client backed by a pool of keep-alive HTTP/1.1 connections.
+ * Responses encoded with gzip or deflate are decoded by the Apache client, unless a compressor is given,
+ * in which case they are decoded by the compressor, which also compresses large request bodies.
+ */
+@Slf4j
+public class JerseyEngine implements RestEngine {
+
+    /**
+     * Builds the engine, along with the client and the pool of connections it uses.
+     *
+     * @param config the configuration of the engine.
+     */
+    public JerseyEngine(RestEngineConfig config) {
+        this.jsonMapper = config.getJsonMapper();
+        this.completionExecutor = config.getCompletionExecutor();
+        this.requestTiming = config.isRequestTiming();
+        this.timingListener = config.getTimingListener();
+        this.compressor = config.getCompressor();
+        this.connectionPool = new ConnectionPool(
+                config.getSslContext(),
+                config.isActiveDevMode()
+                        ? NoopHostnameVerifier.INSTANCE : SSLConnectionSocketFactory.getDefaultHostnameVerifier(),
+                config.getMaxConnections(),
+                config.getMaxConnectionsPerRoute(),
+                config.getKeepAliveTimeout(),
+                config.getConnectionTimeToLive(),
+                Integer.parseInt(VALIDATE_AFTER_INACTIVITY.toValue()),
+                Long.parseLong(IDLE_CONNECTION_EVICTION_INTERVAL.toValue()),
+                config.isRequestTiming());
+        this.client = generateClient(config);
+    }
+
+    /**
+     * Performs the given request and reads the whole response body.
+     *
+     * @param request the request to perform.
+     * @return the response given back to the performed request.
+     */
+    @Override
+    public RestResponse execute(RestRequest request) {
+        RequestTimer timer = startTimer();
+        Invocation.Builder invocationBuilder = generateInvocationBuilder(request, timer);
+        try {
+            return toRestResponse(request,
+                    invocationBuilder.method(request.getMethod().toValue(), toEntity(request), Response.class), timer);
+        } finally {
+            if (timer != null) {
+                RequestTimer.detach();
+            }
+        }
+    }
+
+    /**
+     * Performs the given request without reading the response body.
+     * The connection used for the request is released once the body stream is closed.
+     *
+     * @param request the request to perform.
+     * @return the streaming response given back to the performed request.
+     */
+    @Override
+    public StreamingRestResponse stream(RestRequest request) {
+        RequestTimer timer = startTimer();
+        Invocation.Builder invocationBuilder = generateInvocationBuilder(request, timer);
+        try {
+            return toStreamingRestResponse(request,
+                    invocationBuilder.method(request.getMethod().toValue(), toEntity(request), Response.class), timer);
+        } finally {
+            if (timer != null) {
+                RequestTimer.detach();
+            }
+        }
+    }
+
+    /**
+     * Performs the given request without blocking.
+     * The body of the response is read by the completion executor, if any, so that it is not read
+     * by the thread delivering the response. The connection used for the request is released
+     * once the body has been read, or as soon as the response is delivered if the future has been cancelled.
+     *
+     * @param request the request to perform.
+     * @return the future completed with the response given back to the performed request.
+     */
+    @Override
+    public CompletableFuture<RestResponse> executeAsync(RestRequest request) {
+        RequestTimer timer = startTimer();
+        Invocation.Builder invocationBuilder = generateInvocationBuilder(request, timer);
+        CompletableFuture<RestResponse> futureResponse = new CompletableFuture<>();
+        Future<Response> invocationFuture = invocationBuilder.async().method(
+                request.getMethod().toValue(), toEntity(request), new InvocationCallback<Response>() {
+                    @Override
+                    public void completed(Response response) {
+                        completeFutureRestResponse(futureResponse, request, response, timer);
+                    }
+
+                    @Override
+                    public void failed(Throwable throwable) {
+                        futureResponse.completeExceptionally(throwable);
+                    }
+                });
+        futureResponse.whenComplete((restResponse, throwable) -> {
+            if (futureResponse.isCancelled()) {
+                invocationFuture.cancel(true);
+            }
+        });
+        return futureResponse;
+    }
+
+    /**
+     * Closes the client and all the connections in its pool.
+     */
+    @Override
+    public void close() {
+        client.close();
+        connectionPool.close();
+    }
+
+    /**
+     * Provides the entity carrying the body of the given request, if any.
+     * The body is compressed if a compressor is given and the body is large enough,
+     * except upload bodies, which are streamed as they are with their own media type.
+     *
+     * @param request the request whose body is required.
+     * @return the entity carrying the body, or null if the request has no body.
+     */
+    private Entity<?> toEntity(RestRequest request) {
+        if (!request.getMethod().hasBody()) {
+            return null;
+        }
+        if (request.getBody() instanceof UploadBody) {
+            UploadBody upload = (UploadBody) request.getBody();
+            String mediaType = upload.getMediaType() != null ? upload.getMediaType() : request.getMediaType();
+            return Entity.entity(upload, mediaType);
+        }
+        byte[] compressed = compressor != null ? compress(request) : null;
+        if (compressed != null) {
+            return Entity.entity(compressed, new Variant(
+                    MediaType.valueOf(request.getMediaType()), (String) null, compressor.getContentEncoding()));
+        }
+        return Entity.entity(request.getBody(), request.getMediaType());
+    }
+
+    /**
+     * Compresses the body of the given request, if it is large enough.
+     * Strings and byte arrays are compressed as they are, while other objects are converted to JSON first
+     * if JSON is their media type. Otherwise they are left to the writer Jersey picks for their media type.
+     *
+     * @param request the request whose body has to be compressed.
+     * @return the compressed body, or null if the body has to be sent as it is.
+     */
+    private byte[] compress(RestRequest request) {
+        Object body = request.getBody();
+        if (body == null) {
+            return null;
+        }
+        if (body instanceof byte[]) {
+            return compressor.compress(request, (byte[]) body);
+        }
+        if (body instanceof String) {
+            return compressor.compress(request, ((String) body).getBytes(UTF_8));
+        }
+        if (!isJson(request.getMediaType())) {
+            return null;
+        }
+        try {
+            return compressor.compress(request, jsonMapper.write(body));
+        } catch (IOException e) {
+            throw new ProcessingException("Cannot convert request body", e);
+        }
+    }
+
+    /**
+     * Checks whether the given media type is JSON, including its structured syntax suffix.
+     *
+     * @param mediaType the media type of a request body.
+     * @return true if the media type is JSON, false otherwise.
+     */
+    private static boolean isJson(String mediaType) {
+        if (mediaType == null) {
+            return false;
+        }
+        MediaType type = MediaType.valueOf(mediaType);
+        String subtype = type.getSubtype().toLowerCase(Locale.ROOT);
+        return "application".equalsIgnoreCase(type.getType()) && ("json".equals(subtype) || subtype.endsWith("+json"));
+    }
+
+    /**
+     * Sets the headers for the REST request.
+     *
+     * @param invocationBuilder the invocation builder to which headers have to be associated to.
+     * @param entities headers and parameters for the request.
+     */
+    private void setHeaders(Invocation.Builder invocationBuilder, RestEntities entities) {
+        log.debug("Setting headers for request");
+        for (int i = 0; i < entities.getHeaderCount(); i++) {
+            invocationBuilder.header(entities.getHeaderName(i), entities.getHeaderValue(i));
+        }
+    }
+
+    /**
+     * Sets the query parameters for the REST request.
+     *
+     * @param webTarget the web target to which parameters have to be associated to.
+     * @param entities headers and parameters for the request.
+     * @return the web target with parameters associated to it.
+     */
+    private WebTarget setParameters(WebTarget webTarget, RestEntities entities) {
+        log.debug("Setting query parameters for request");
+        for (int i = 0; i < entities.getParameterCount(); i++) {
+            webTarget = webTarget.queryParam(entities.getParameterName(i), entities.getParameterValue(i));
+        }
+        return webTarget;
+    }
+
+    /**
+     * Reads the response given back by the called service and releases the connection used for it.
+     *
+     * @param request the performed request.
+     * @param response the response given back by the called service.
+     * @param timer the timer of the request, if it is timed.
+     * @return the response based on data given back by the called service.
+     */
+    private RestResponse toRestResponse(RestRequest request, Response response, RequestTimer timer) {
+        try {
+            String body = response.readEntity(String.class);
+            RequestTiming timing = null;
+            if (timer != null) {
+                timer.bodyRead();
+                timing = timer.complete(request, response.getStatus(), timingListener);
+            }
+            return new RestResponse(response.getStatus(), body, response.getStringHeaders(), jsonMapper, timing);
+        } finally {
+            response.close();
+        }
+    }
+
+    /**
+     * Completes the given future with the given response, reading its body with the completion executor if any.
+     *
+     * @param futureResponse the future to complete.
+     * @param request the performed request.
+     * @param response the response given back by the called service.
+     * @param timer the timer of the request, if it is timed.
+     */
+    private void completeFutureRestResponse(CompletableFuture<RestResponse> futureResponse, RestRequest request,
+                                            Response response, RequestTimer timer) {
+        if (completionExecutor == null) {
+            readFutureRestResponse(futureResponse, request, response, timer);
+            return;
+        }
+        try {
+            completionExecutor.execute(() -> readFutureRestResponse(futureResponse, request, response, timer));
+        } catch (RejectedExecutionException e) {
+            response.close();
+            futureResponse.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Reads the given response and completes the given future with it.
+     * The response is just closed if the future has already been completed, for example when it has been cancelled.
+     *
+     * @param futureResponse the future to complete.
+     * @param request the performed request.
+     * @param response the response given back by the called service.
+     * @param timer the timer of the request, if it is timed.
+     */
+    private void readFutureRestResponse(CompletableFuture<RestResponse> futureResponse, RestRequest request,
+                                        Response response, RequestTimer timer) {
+        if (futureResponse.isDone()) {
+            response.close();
+            return;
+        }
+        try {
+            futureResponse.complete(toRestResponse(request, response, timer));
+        } catch (RuntimeException e) {
+            futureResponse.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Provides the response given back by the called service with its body as a stream.
+     * The connection used for the request is released once the stream is closed.
+     * The timing of the request, if any, ends when the response headers are received.
+     *
+     * @param request the performed request.
+     * @param response the response given back by the called service.
+     * @param timer the timer of the request, if it is timed.
+     * @return the response based on data given back by the called service.
+     */
+    private StreamingRestResponse toStreamingRestResponse(RestRequest request, Response response,
+                                                          RequestTimer timer) {
+        MultivaluedMap<String, String> headers = response.getStringHeaders();
+        if (timer != null) {
+            timer.complete(request, response.getStatus(), timingListener);
+        }
+        if (!response.hasEntity()) {
+            response.close();
+            return new StreamingRestResponse(response.getStatus(), headers, new ByteArrayInputStream(new byte[0]),
+                    jsonMapper);
+        }
+        return new StreamingRestResponse(response.getStatus(), headers, response.readEntity(InputStream.class),
+                jsonMapper);
+    }
+
+    /**
+     * Starts timing a request, if requests are timed.
+     *
+     * @return the timer of the request, or null if requests are not timed.
+     */
+    private RequestTimer startTimer() {
+        return requestTiming ? new RequestTimer() : null;
+    }
+
+    /**
+     * Generates a new invocation builder to actually make REST requests.
+     * Timeouts are set as properties of the request, so that the pooled client can be shared among requests,
+     * and so is the timer of the request, if any.
+     *
+     * @param request the request to make.
+     * @param timer the timer of the request, if it is timed.
+     * @return the instantiated invocation builder.
+     */
+    private Invocation.Builder generateInvocationBuilder(RestRequest request, RequestTimer timer) {
+        RestEntities entities = RestEntities.of(request.getEntities());
+        WebTarget webTarget = generateWebTarget(request, entities);
+        Invocation.Builder invocationBuilder = webTarget.request()
+                .property(ClientProperties.CONNECT_TIMEOUT, request.getConnectionTimeout())
+                .property(ClientProperties.READ_TIMEOUT, request.getReadTimeout());
+        if (timer != null) {
+            invocationBuilder.property(TimingFilter.TIMER_PROPERTY, timer);
+        }
+        setHeaders(invocationBuilder, entities);
+        return invocationBuilder;
+    }
+
+    /**
+     * Generates a new web target to use for instantiating a new invocation build for REST requests.
+     * The target is built from the URI of the request if it has one, which skips parsing the endpoint,
+     * and it sets the query parameters for the request.
+     *
+     * @param request the request to make.
+     * @param entities it contains the query parameters to set for the request.
+     * @return the created web target.
+     */
+    private WebTarget generateWebTarget(RestRequest request, RestEntities entities) {
+        WebTarget webTarget = request.getUri() != null
+                ? client.target(request.getUri()) : client.target(request.getEndpoint());
+        if (entities.getParameterCount() > 0) {
+            webTarget = setParameters(webTarget, entities);
+        }
+        return webTarget;
+    }
+
+    /**
+     * Generates the client shared by all the REST requests.
+     * It is backed by the pool of connections, so that connections are kept alive and reused among requests,
+     * and it dispatches non-blocking requests with the given executor, if any.
+     * When requests are timed, a filter attaches their timer to the thread performing them.
+     * When a compressor is given, the decoding of the Apache client is disabled in favour of a filter using it.
+     *
+     * @param config the configuration of the engine.
+     * @return the created client.
+     */
+    private Client generateClient(RestEngineConfig config) {
+        log.debug("Generating client");
+        ClientConfig clientConfig = new ClientConfig()
+                .connectorProvider(new ApacheConnectorProvider())
+                .register(new ObjectMapperResolver(jsonMapper))
+                .register(new UploadBodyWriter())
+                .property(ApacheClientProperties.CONNECTION_MANAGER, connectionPool.getConnectionManager())
+                .property(ApacheClientProperties.CONNECTION_MANAGER_SHARED, true)
+                .property(ClientProperties.CONNECT_TIMEOUT, config.getConnectionTimeout())
+                .property(ClientProperties.READ_TIMEOUT, config.getReadTimeout());
+        if (config.isRequestTiming()) {
+            clientConfig.register(new TimingFilter());
+        }
+        if (compressor != null) {
+            clientConfig.register(new CompressionFilter(compressor))
+                    .property(ApacheClientProperties.REQUEST_CONFIG,
+                            RequestConfig.custom().setContentCompressionEnabled(false).build());
+        }
+        ClientBuilder clientBuilder = ClientBuilder.newBuilder().withConfig(clientConfig);
+        if (config.getAsyncExecutor() != null) {
+            clientBuilder.executorService(config.getAsyncExecutor());
+        }
+        Client client = clientBuilder.build();
+        log.debug("Client generated");
+        return client;
+    }
+
+    /**
+     * The mapper used to convert request and response bodies.
+     */
+    private final JsonMapper jsonMapper;
+
+    /**
+     * The executor reading the responses of non-blocking requests and completing them, if any.
+     */
+    private final Executor completionExecutor;
+
+    /**
+     * Whether the phases of each request are timed.
+     */
+    private final boolean requestTiming;
+
+    /**
+     * The listener notified of the timing of each request, if any.
+     */
+    private final RequestTimingListener timingListener;
+
+    /**
+     * The compressor of request bodies and decoder of response bodies, if any.
+     */
+    private final ContentCompressor compressor;
+
+    /**
+     * The pool of connections used by the client.
+     */
+    private final ConnectionPool connectionPool;
+
+    /**
+     * The client shared by all the requests.
+     */
+    private final Client client;
+}
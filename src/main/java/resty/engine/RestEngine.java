@@ -0,0 +1,46 @@
+package resty.engine;
+
+import resty.request.RestRequest;
+import resty.response.RestResponse;
+import resty.response.StreamingRestResponse;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Performs the requests of a REST client by means of an HTTP transport.
+ * Requests given to an engine always carry the timeouts to apply, since default values are resolved by the client.
+ */
+public interface RestEngine extends AutoCloseable {
+
+    /**
+     * Performs the given request and reads the whole response body.
+     *
+     * @param request the request to perform.
+     * @return the response given back to the performed request.
+     */
+    RestResponse execute(RestRequest request);
+
+    /**
+     * Performs the given request without reading the response body,
+     * which is provided as a stream to be read and closed by the caller.
+     *
+     * @param request the request to perform.
+     * @return the streaming response given back to the performed request.
+     */
+    StreamingRestResponse stream(RestRequest request);
+
+    /**
+     * Performs the given request without blocking.
+     * Cancelling the returned future aborts the request, if it is still in flight.
+     *
+     * @param request the request to perform.
+     * @return the future completed with the response given back to the performed request.
+     */
+    CompletableFuture<RestResponse> executeAsync(RestRequest request);
+
+    /**
+     * Releases the connections and the threads used by the engine.
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,91 @@
+package resty.engine;
+
+import lombok.Builder;
+import lombok.Getter;
+import resty.compression.ContentCompressor;
+import resty.json.JsonMapper;
+import resty.timing.RequestTimingListener;
+
+import javax.net.ssl.SSLContext;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Models the configuration given to an engine when it is created.
+ * Values are already resolved, so that engines do not need to apply any default.
+ * Settings that are meaningless for the transport of an engine are ignored by it.
+ */
+@Getter
+@Builder
+public class RestEngineConfig {
+
+    /**
+     * Whether the engine trusts all the certificates and hostnames, which is useful for development.
+     */
+    private final boolean activeDevMode;
+
+    /**
+     * The SSL context to use for secure connections.
+     */
+    private final SSLContext sslContext;
+
+    /**
+     * The maximum number of connections kept by the engine.
+     */
+    private final int maxConnections;
+
+    /**
+     * The maximum number of connections kept by the engine for each route.
+     */
+    private final int maxConnectionsPerRoute;
+
+    /**
+     * The time in milliseconds a connection can stay idle before being evicted.
+     */
+    private final long keepAliveTimeout;
+
+    /**
+     * The maximum lifetime in milliseconds of a connection, negative for no limit.
+     */
+    private final long connectionTimeToLive;
+
+    /**
+     * The default value for the connection timeout property.
+     */
+    private final int connectionTimeout;
+
+    /**
+     * The default value for the read timeout property.
+     */
+    private final int readTimeout;
+
+    /**
+     * The mapper used to convert request and response bodies.
+     */
+    private final JsonMapper jsonMapper;
+
+    /**
+     * The executor reading the responses of non-blocking requests and completing them, if any.
+     */
+    private final Executor completionExecutor;
+
+    /**
+     * The executor dispatching non-blocking requests, if any, otherwise the engine uses its own.
+     */
+    private final ExecutorService asyncExecutor;
+
+    /**
+     * Whether the engine times the phases of each request and attaches the timing to its response.
+     */
+    private final boolean requestTiming;
+
+    /**
+     * The listener notified of the timing of each request, if any.
+     */
+    private final RequestTimingListener timingListener;
+
+    /**
+     * The compressor of request bodies and decoder of response bodies, if any.
+     */
+    private final ContentCompressor compressor;
+}
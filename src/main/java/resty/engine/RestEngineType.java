@@ -0,0 +1,59 @@
+package resty.engine;
+
+import java.lang.reflect.InvocationTargetException;
+
+/**
+ * Possible engines performing the requests of a REST client.
+ * The JDK HTTP client engine requires Java 11 or later, and it is loaded only when it is selected.
+ */
+public enum RestEngineType {
+    JERSEY("resty.engine.JerseyEngine"),
+    JDK_HTTP_CLIENT("resty.engine.JdkHttpClientEngine");
+
+    /**
+     * Provides a type based on the name of the class implementing the engine.
+     *
+     * @param value the name of the class implementing the engine.
+     */
+    RestEngineType(String value) {
+        this.value = value;
+    }
+
+    /**
+     * Provides the name of the class implementing the engine.
+     *
+     * @return the name of the class implementing the engine.
+     */
+    public String toValue() {
+        return value;
+    }
+
+    /**
+     * Creates an engine of this type with the given configuration.
+     *
+     * @param config the configuration of the engine.
+     * @return the created engine.
+     */
+    public RestEngine newEngine(RestEngineConfig config) {
+        try {
+            return Class.forName(value)
+                    .asSubclass(RestEngine.class)
+                    .getConstructor(RestEngineConfig.class)
+                    .newInstance(config);
+        } catch (ClassNotFoundException | LinkageError e) {
+            throw new IllegalStateException("Engine " + name() + " is not available on this Java version", e);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Cannot create engine " + name(), e.getCause());
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot create engine " + name(), e);
+        }
+    }
+
+    /**
+     * Name of the class implementing the engine.
+     */
+    private final String value;
+}
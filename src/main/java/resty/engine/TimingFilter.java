@@ -0,0 +1,41 @@
+package resty.engine;
+
+import resty.timing.RequestTimer;
+
+import javax.ws.rs.client.ClientRequestContext;
+import javax.ws.rs.client.ClientRequestFilter;
+import javax.ws.rs.client.ClientResponseContext;
+import javax.ws.rs.client.ClientResponseFilter;
+
+/**
+ * Attaches the timer of a request, given as a property of the request, to the thread performing it,
+ * which for non-blocking requests is not the one invoking it, and detaches it once the response is received.
+ */
+class TimingFilter implements ClientRequestFilter, ClientResponseFilter {
+
+    /**
+     * Attaches the timer of the request to the current thread, if any.
+     *
+     * @param requestContext the context of the request.
+     */
+    @Override
+    public void filter(ClientRequestContext requestContext) {
+        Object timer = requestContext.getProperty(TIMER_PROPERTY);
+        if (timer instanceof RequestTimer) {
+            ((RequestTimer) timer).attach();
+        }
+    }
+
+    /**
+     * Detaches the timer of the request from the current thread.
+     *
+     * @param requestContext the context of the request.
+     * @param responseContext the context of the response.
+     */
+    @Override
+    public void filter(ClientRequestContext requestContext, ClientResponseContext responseContext) {
+        RequestTimer.detach();
+    }
+
+    static final String TIMER_PROPERTY = "resty.timer";
+}
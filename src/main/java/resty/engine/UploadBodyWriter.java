@@ -0,0 +1,66 @@
+package resty.engine;
+
+import resty.upload.UploadBody;
+
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.MessageBodyWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+
+/**
+ * Writes upload bodies to the connection as they are read from their source, without buffering them.
+ * Jersey sends them chunked, since its Apache connector does not give the length of streamed entities.
+ */
+class UploadBodyWriter implements MessageBodyWriter<UploadBody> {
+
+    /**
+     * Checks whether the given type is an upload body.
+     *
+     * @param type the class of the entity.
+     * @param genericType the type of the entity.
+     * @param annotations the annotations of the entity.
+     * @param mediaType the media type of the entity.
+     * @return true if the entity is an upload body, false otherwise.
+     */
+    @Override
+    public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return UploadBody.class.isAssignableFrom(type);
+    }
+
+    /**
+     * Provides no length for the body, which Jersey ignores anyway.
+     *
+     * @param body the body to write.
+     * @param type the class of the entity.
+     * @param genericType the type of the entity.
+     * @param annotations the annotations of the entity.
+     * @param mediaType the media type of the entity.
+     * @return -1, since the length is not given in advance.
+     */
+    @Override
+    public long getSize(UploadBody body, Class<?> type, Type genericType, Annotation[] annotations,
+                        MediaType mediaType) {
+        return -1;
+    }
+
+    /**
+     * Writes the body to the connection as it is read from its source.
+     *
+     * @param body the body to write.
+     * @param type the class of the entity.
+     * @param genericType the type of the entity.
+     * @param annotations the annotations of the entity.
+     * @param mediaType the media type of the entity.
+     * @param httpHeaders the headers of the request.
+     * @param entityStream the stream of the connection, which is not closed.
+     */
+    @Override
+    public void writeTo(UploadBody body, Class<?> type, Type genericType, Annotation[] annotations,
+                        MediaType mediaType, MultivaluedMap<String, Object> httpHeaders,
+                        OutputStream entityStream) throws IOException {
+        body.writeTo(entityStream);
+    }
+}
@@ -0,0 +1,416 @@
+package resty.entity;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static java.lang.String.valueOf;
+
+/**
+ * Models the headers and parameters of a request as a single flat array of names and values, headers first,
+ * so that they are split by type once, when they are added, instead of for every request.
+ * Being an entity made of entities, it is accepted wherever entities are, and it is read without splitting it again:
+ * <pre>{@code
+ * RestEntities entities = RestEntities.builder()
+ *         .header("Accept", "application/json")
+ *         .parameter("id", 42)
+ *         .build();
+ * resty.get(endpoint, entities);
+ * }</pre>
+ * Entities given one by one are turned into it by the engines, with no list nor stream involved.
+ * As a container, it has no type, name and value of its own.
+ */
+public final class RestEntities extends RestEntity {
+
+    /**
+     * Builds a container of the given names and values.
+     *
+     * @param entries the names and values of the headers, followed by the ones of the parameters.
+     * @param headerCount the number of headers.
+     * @param parameterCount the number of parameters.
+     */
+    private RestEntities(String[] entries, int headerCount, int parameterCount) {
+        super(null, null, null);
+        this.entries = entries;
+        this.headerCount = headerCount;
+        this.parameterCount = parameterCount;
+    }
+
+    /**
+     * Provides a builder of a container.
+     *
+     * @return the builder of a container.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Provides the given entities organized based on their type.
+     * A single container is given back as it is, otherwise containers among the entities are merged into the result.
+     *
+     * @param entities entities for the request, if any.
+     * @return the entities organized based on their type.
+     */
+    public static RestEntities of(RestEntity... entities) {
+        if (entities == null || entities.length == 0) {
+            return EMPTY;
+        }
+        if (entities.length == 1 && entities[0] instanceof RestEntities) {
+            return (RestEntities) entities[0];
+        }
+        int headers = 0;
+        int parameters = 0;
+        for (RestEntity entity : entities) {
+            if (entity instanceof RestEntities) {
+                headers += ((RestEntities) entity).headerCount;
+                parameters += ((RestEntities) entity).parameterCount;
+            } else if (entity != null) {
+                if (entity.getType() == RestEntityType.HEADER) {
+                    headers++;
+                } else {
+                    parameters++;
+                }
+            }
+        }
+        String[] entries = new String[2 * (headers + parameters)];
+        int header = 0;
+        int parameter = 2 * headers;
+        for (RestEntity entity : entities) {
+            if (entity instanceof RestEntities) {
+                RestEntities container = (RestEntities) entity;
+                System.arraycopy(container.entries, 0, entries, header, 2 * container.headerCount);
+                header += 2 * container.headerCount;
+                System.arraycopy(container.entries, 2 * container.headerCount,
+                        entries, parameter, 2 * container.parameterCount);
+                parameter += 2 * container.parameterCount;
+            } else if (entity != null) {
+                int index = entity.getType() == RestEntityType.HEADER ? header : parameter;
+                entries[index] = entity.getName();
+                entries[index + 1] = entity.getValue();
+                if (entity.getType() == RestEntityType.HEADER) {
+                    header += 2;
+                } else {
+                    parameter += 2;
+                }
+            }
+        }
+        return new RestEntities(entries, headers, parameters);
+    }
+
+    /**
+     * Provides the number of headers.
+     *
+     * @return the number of headers.
+     */
+    public int getHeaderCount() {
+        return headerCount;
+    }
+
+    /**
+     * Provides the name of the header at the given position.
+     *
+     * @param index the position of the header.
+     * @return the name of the header.
+     */
+    public String getHeaderName(int index) {
+        return entries[2 * index];
+    }
+
+    /**
+     * Provides the value of the header at the given position.
+     *
+     * @param index the position of the header.
+     * @return the value of the header.
+     */
+    public String getHeaderValue(int index) {
+        return entries[2 * index + 1];
+    }
+
+    /**
+     * Provides the value of the first header with the given name, ignoring its case.
+     *
+     * @param name the name of the header.
+     * @return the value of the header, or null if there's none.
+     */
+    public String getHeader(String name) {
+        for (int i = 0; i < headerCount; i++) {
+            if (entries[2 * i].equalsIgnoreCase(name)) {
+                return entries[2 * i + 1];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Provides the number of query parameters.
+     *
+     * @return the number of query parameters.
+     */
+    public int getParameterCount() {
+        return parameterCount;
+    }
+
+    /**
+     * Provides the name of the query parameter at the given position.
+     *
+     * @param index the position of the query parameter.
+     * @return the name of the query parameter.
+     */
+    public String getParameterName(int index) {
+        return entries[2 * (headerCount + index)];
+    }
+
+    /**
+     * Provides the value of the query parameter at the given position.
+     *
+     * @param index the position of the query parameter.
+     * @return the value of the query parameter.
+     */
+    public String getParameterValue(int index) {
+        return entries[2 * (headerCount + index) + 1];
+    }
+
+    /**
+     * Adds the entities of the given type to the given list, as separate entities.
+     *
+     * @param type the type of the entities to add.
+     * @param entities the list receiving the entities.
+     */
+    void addTo(RestEntityType type, List<RestEntity> entities) {
+        int first = type == RestEntityType.HEADER ? 0 : headerCount;
+        int count = type == RestEntityType.HEADER ? headerCount : parameterCount;
+        for (int i = first; i < first + count; i++) {
+            entities.add(new RestEntity(type, entries[2 * i], entries[2 * i + 1]));
+        }
+    }
+
+    /**
+     * Builds containers, adding their entities one at a time.
+     * It can be reset and reused to build other containers, since each container gets its own copy of the entities.
+     */
+    public static final class Builder {
+
+        /**
+         * Builds an empty builder.
+         */
+        private Builder() {
+            this.headers = new String[INITIAL_CAPACITY];
+            this.parameters = new String[INITIAL_CAPACITY];
+        }
+
+        /**
+         * Adds a header where the value is a string.
+         *
+         * @param name the name to use for the header.
+         * @param value the value to use for the header.
+         * @return the builder.
+         */
+        public Builder header(String name, String value) {
+            headers = append(headers, headerCount++, name, value);
+            return this;
+        }
+
+        /**
+         * Adds a header where the value is an integer.
+         *
+         * @param name the name to use for the header.
+         * @param value the value to use for the header.
+         * @return the builder.
+         */
+        public Builder header(String name, int value) {
+            return header(name, valueOf(value));
+        }
+
+        /**
+         * Adds a header where the value is a double.
+         *
+         * @param name the name to use for the header.
+         * @param value the value to use for the header.
+         * @return the builder.
+         */
+        public Builder header(String name, double value) {
+            return header(name, valueOf(value));
+        }
+
+        /**
+         * Adds a header where the value is a float.
+         *
+         * @param name the name to use for the header.
+         * @param value the value to use for the header.
+         * @return the builder.
+         */
+        public Builder header(String name, float value) {
+            return header(name, valueOf(value));
+        }
+
+        /**
+         * Adds a header where the value is boolean.
+         *
+         * @param name the name to use for the header.
+         * @param value the value to use for the header.
+         * @return the builder.
+         */
+        public Builder header(String name, boolean value) {
+            return header(name, valueOf(value));
+        }
+
+        /**
+         * Adds a query parameter where the value is a string.
+         *
+         * @param name the name to use for the parameter.
+         * @param value the value to use for the parameter.
+         * @return the builder.
+         */
+        public Builder parameter(String name, String value) {
+            parameters = append(parameters, parameterCount++, name, value);
+            return this;
+        }
+
+        /**
+         * Adds a query parameter where the value is an integer.
+         *
+         * @param name the name to use for the parameter.
+         * @param value the value to use for the parameter.
+         * @return the builder.
+         */
+        public Builder parameter(String name, int value) {
+            return parameter(name, valueOf(value));
+        }
+
+        /**
+         * Adds a query parameter where the value is a double.
+         *
+         * @param name the name to use for the parameter.
+         * @param value the value to use for the parameter.
+         * @return the builder.
+         */
+        public Builder parameter(String name, double value) {
+            return parameter(name, valueOf(value));
+        }
+
+        /**
+         * Adds a query parameter where the value is a float.
+         *
+         * @param name the name to use for the parameter.
+         * @param value the value to use for the parameter.
+         * @return the builder.
+         */
+        public Builder parameter(String name, float value) {
+            return parameter(name, valueOf(value));
+        }
+
+        /**
+         * Adds a query parameter where the value is boolean.
+         *
+         * @param name the name to use for the parameter.
+         * @param value the value to use for the parameter.
+         * @return the builder.
+         */
+        public Builder parameter(String name, boolean value) {
+            return parameter(name, valueOf(value));
+        }
+
+        /**
+         * Adds the given entities, keeping their type.
+         *
+         * @param entities the entities to add.
+         * @return the builder.
+         */
+        public Builder add(RestEntity... entities) {
+            RestEntities container = of(entities);
+            for (int i = 0; i < container.headerCount; i++) {
+                header(container.getHeaderName(i), container.getHeaderValue(i));
+            }
+            for (int i = 0; i < container.parameterCount; i++) {
+                parameter(container.getParameterName(i), container.getParameterValue(i));
+            }
+            return this;
+        }
+
+        /**
+         * Removes all the entities added so far, so that the builder can be reused.
+         *
+         * @return the builder.
+         */
+        public Builder reset() {
+            Arrays.fill(headers, 0, 2 * headerCount, null);
+            Arrays.fill(parameters, 0, 2 * parameterCount, null);
+            headerCount = 0;
+            parameterCount = 0;
+            return this;
+        }
+
+        /**
+         * Builds the container of the entities added so far, with a single array holding all of them.
+         *
+         * @return the built container.
+         */
+        public RestEntities build() {
+            if (headerCount == 0 && parameterCount == 0) {
+                return EMPTY;
+            }
+            String[] entries = new String[2 * (headerCount + parameterCount)];
+            System.arraycopy(headers, 0, entries, 0, 2 * headerCount);
+            System.arraycopy(parameters, 0, entries, 2 * headerCount, 2 * parameterCount);
+            return new RestEntities(entries, headerCount, parameterCount);
+        }
+
+        /**
+         * Appends a name and a value to the given array, growing it if it is full.
+         *
+         * @param entries the array of names and values.
+         * @param count the number of entries already in the array.
+         * @param name the name to append.
+         * @param value the value to append.
+         * @return the array holding the entries.
+         */
+        private static String[] append(String[] entries, int count, String name, String value) {
+            String[] target = 2 * count + 2 <= entries.length ? entries : Arrays.copyOf(entries, 2 * entries.length);
+            target[2 * count] = name;
+            target[2 * count + 1] = value;
+            return target;
+        }
+
+        /**
+         * The names and values of the headers added so far.
+         */
+        private String[] headers;
+
+        /**
+         * The names and values of the parameters added so far.
+         */
+        private String[] parameters;
+
+        /**
+         * The number of headers added so far.
+         */
+        private int headerCount;
+
+        /**
+         * The number of parameters added so far.
+         */
+        private int parameterCount;
+
+        private static final int INITIAL_CAPACITY = 8;
+    }
+
+    /**
+     * The names and values of the headers, followed by the ones of the parameters.
+     */
+    private final String[] entries;
+
+    /**
+     * The number of headers.
+     */
+    private final int headerCount;
+
+    /**
+     * The number of parameters.
+     */
+    private final int parameterCount;
+
+    /**
+     * The container without entities.
+     */
+    public static final RestEntities EMPTY = new RestEntities(new String[0], 0, 0);
+}
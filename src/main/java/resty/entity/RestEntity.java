@@ -3,9 +3,8 @@ package resty.entity;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 
-import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 import static java.lang.String.valueOf;
 import static resty.entity.RestEntityType.HEADER;
@@ -141,15 +140,22 @@ public class RestEntity {
 
     /**
      * Given a collection of entities, it provides only the entity with the given type.
+     * The entities held by containers among them are provided as separate entities.
      *
      * @param entities entities to filter based on their type.
      * @param type type for filtering the entities.
      * @return the filter entities.
      */
     public static List<RestEntity> getByType(RestEntity[] entities, RestEntityType type) {
-        return Arrays.stream(entities)
-                .filter(e -> e.getType().equals(type))
-                .collect(Collectors.toList());
+        List<RestEntity> byType = new ArrayList<>(entities.length);
+        for (RestEntity entity : entities) {
+            if (entity instanceof RestEntities) {
+                ((RestEntities) entity).addTo(type, byType);
+            } else if (entity.getType() == type) {
+                byType.add(entity);
+            }
+        }
+        return byType;
     }
 
     /**
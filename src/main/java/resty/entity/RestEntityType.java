@@ -32,7 +32,7 @@ public enum RestEntityType {
      * @return true if types are equals, false otherwise.
      */
     public boolean equals(RestEntityType type) {
-        return value.equals(type.toValue());
+        return this == type;
     }
 
     /**
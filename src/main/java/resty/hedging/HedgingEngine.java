@@ -0,0 +1,182 @@
+package resty.hedging;
+
+import lombok.extern.slf4j.Slf4j;
+import resty.concurrent.AsyncExecutors;
+import resty.engine.RestEngine;
+import resty.request.RestMethod;
+import resty.request.RestRequest;
+import resty.response.RestResponse;
+import resty.response.StreamingRestResponse;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hedges the GET requests performed by another engine: when a request has not completed after the delay given
+ * by a {@link RequestHedger}, an identical request is sent, the first response wins and the other request is cancelled,
+ * so that its connection is released once its response is read.
+ * A request fails only if both the first request and its hedge, if sent, fail. Other methods and streaming requests
+ * are never hedged, and blocking requests are performed as non-blocking ones so that they can be hedged.
+ */
+@Slf4j
+public class HedgingEngine implements RestEngine {
+
+    /**
+     * Builds an engine hedging the requests performed by the given one.
+     *
+     * @param delegate the engine actually performing the requests.
+     * @param hedger the hedger deciding when requests are hedged.
+     */
+    public HedgingEngine(RestEngine delegate, RequestHedger hedger) {
+        this.delegate = delegate;
+        this.hedger = hedger;
+    }
+
+    /**
+     * Performs the given request, hedging it if it is slow.
+     *
+     * @param request the request to perform.
+     * @return the response given back first.
+     */
+    @Override
+    public RestResponse execute(RestRequest request) {
+        if (request.getMethod() != RestMethod.GET) {
+            return delegate.execute(request);
+        }
+        try {
+            return executeAsync(request).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Performs the given request without reading the response body, which is never hedged.
+     *
+     * @param request the request to perform.
+     * @return the streaming response given back to the performed request.
+     */
+    @Override
+    public StreamingRestResponse stream(RestRequest request) {
+        return delegate.stream(request);
+    }
+
+    /**
+     * Performs the given request without blocking, hedging it if it is slow.
+     * Cancelling the returned future cancels both the request and its hedge.
+     *
+     * @param request the request to perform.
+     * @return the future completed with the response given back first.
+     */
+    @Override
+    public CompletableFuture<RestResponse> executeAsync(RestRequest request) {
+        if (request.getMethod() != RestMethod.GET) {
+            return delegate.executeAsync(request);
+        }
+        hedger.recordRequest();
+        long delay = hedger.delayFor(request.getEndpoint());
+        CompletableFuture<RestResponse> result = new CompletableFuture<>();
+        AtomicInteger pending = new AtomicInteger(1);
+        CompletableFuture<RestResponse> primary = attempt(request, result, pending, false);
+        result.whenComplete((response, throwable) -> primary.cancel(true));
+        if (delay < 0 || result.isDone()) {
+            return result;
+        }
+        try {
+            ScheduledFuture<?> scheduledHedge = scheduler().schedule(() -> {
+                if (!result.isDone() && hedger.tryHedge()) {
+                    log.debug("Hedging GET request for {} after {} ms", request.getEndpoint(), delay);
+                    pending.incrementAndGet();
+                    CompletableFuture<RestResponse> hedge = attempt(request, result, pending, true);
+                    result.whenComplete((response, throwable) -> hedge.cancel(true));
+                }
+            }, delay, TimeUnit.MILLISECONDS);
+            result.whenComplete((response, throwable) -> scheduledHedge.cancel(false));
+        } catch (RejectedExecutionException e) {
+            log.debug("Cannot hedge GET request for {} due to: {}", request.getEndpoint(), e.getMessage());
+        }
+        return result;
+    }
+
+    /**
+     * Closes the engine actually performing the requests and stops hedging.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (scheduler != null) {
+                scheduler.shutdownNow();
+            }
+        }
+        delegate.close();
+    }
+
+    /**
+     * Performs an attempt of the given request, completing the result with its response if it comes first.
+     * The result fails only when all the attempts started so far failed.
+     *
+     * @param request the request to perform.
+     * @param result the future to complete with the response given back first.
+     * @param pending the number of attempts in flight.
+     * @param hedge whether the attempt is the hedge.
+     * @return the future of the attempt.
+     */
+    private CompletableFuture<RestResponse> attempt(RestRequest request, CompletableFuture<RestResponse> result,
+                                                    AtomicInteger pending, boolean hedge) {
+        long start = System.nanoTime();
+        CompletableFuture<RestResponse> attempt;
+        try {
+            attempt = delegate.executeAsync(request);
+        } catch (RuntimeException e) {
+            attempt = new CompletableFuture<>();
+            attempt.completeExceptionally(e);
+        }
+        attempt.whenComplete((response, throwable) -> {
+            if (response != null) {
+                hedger.recordLatency(request.getEndpoint(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                if (result.complete(response) && hedge) {
+                    log.debug("Hedge of GET request for {} won", request.getEndpoint());
+                    hedger.recordWin();
+                }
+            } else if (pending.decrementAndGet() == 0) {
+                result.completeExceptionally(throwable);
+            }
+        });
+        return attempt;
+    }
+
+    /**
+     * Provides the executor scheduling the hedges, creating it on first use.
+     *
+     * @return the executor scheduling the hedges.
+     */
+    private synchronized ScheduledExecutorService scheduler() {
+        if (scheduler == null) {
+            scheduler = AsyncExecutors.scheduler();
+        }
+        return scheduler;
+    }
+
+    /**
+     * The engine actually performing the requests.
+     */
+    private final RestEngine delegate;
+
+    /**
+     * The hedger deciding when requests are hedged.
+     */
+    private final RequestHedger hedger;
+
+    /**
+     * The executor scheduling the hedges, if any request has been hedged.
+     */
+    private ScheduledExecutorService scheduler;
+}
@@ -0,0 +1,42 @@
+package resty.hedging;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Models when GET requests are hedged, that is when an identical request is sent while the first one is still
+ * in flight, so that a slow server does not delay the response.
+ * The delay before hedging is either fixed, or derived from the latencies observed for the endpoint,
+ * and the hedges are capped to a fraction of the requests.
+ */
+@Getter
+@ToString
+@Builder(toBuilder = true)
+public class HedgingPolicy {
+
+    /**
+     * The fixed time in milliseconds to wait before hedging a request.
+     * If not positive, the delay is the latency percentile observed for the endpoint of the request.
+     */
+    private final long delay;
+
+    /**
+     * The percentile of the latencies observed for an endpoint used as delay, when no fixed delay is given.
+     */
+    @Builder.Default
+    private final double percentile = 0.95;
+
+    /**
+     * The minimum number of latencies observed for an endpoint before hedging its requests,
+     * when no fixed delay is given.
+     */
+    @Builder.Default
+    private final int minSamples = 20;
+
+    /**
+     * The maximum number of hedges for each request, between 0 and 1.
+     */
+    @Builder.Default
+    private final double maxHedgeRatio = 0.1;
+}
@@ -0,0 +1,257 @@
+package resty.hedging;
+
+import resty.request.Endpoints;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decides when GET requests are hedged according to a {@link HedgingPolicy}, keeping the latencies observed
+ * for each host and path, regardless of the query, and counting the hedges sent and won. It can be shared
+ * by several clients. At most {@value #MAX_WINDOWS} paths are tracked, an arbitrary one being forgotten
+ * when a new one is seen, so that paths holding identifiers do not make the latencies grow without bound.
+ * <p>
+ * Hedges are capped by a token bucket: each request deposits a fraction of a hedge and each hedge withdraws
+ * a whole one, so that the hedges never exceed the given ratio of the requests, even when a server slows down.
+ */
+public class RequestHedger {
+
+    /**
+     * Builds a hedger following the given policy.
+     *
+     * @param policy the policy deciding when requests are hedged.
+     */
+    public RequestHedger(HedgingPolicy policy) {
+        if (policy.getMaxHedgeRatio() < 0 || policy.getMaxHedgeRatio() > 1) {
+            throw new IllegalArgumentException("Maximum hedge ratio must be between 0 and 1");
+        }
+        this.policy = policy;
+        this.latencies = new ConcurrentHashMap<>();
+        this.deposit = Math.round(policy.getMaxHedgeRatio() * TOKEN);
+        this.tokens = new AtomicLong(TOKEN);
+        this.requests = new LongAdder();
+        this.hedges = new LongAdder();
+        this.wins = new LongAdder();
+    }
+
+    /**
+     * Provides the number of requests that could have been hedged.
+     *
+     * @return the number of requests.
+     */
+    public long getRequestCount() {
+        return requests.sum();
+    }
+
+    /**
+     * Provides the number of hedges sent.
+     *
+     * @return the number of hedges.
+     */
+    public long getHedgeCount() {
+        return hedges.sum();
+    }
+
+    /**
+     * Provides the number of hedges whose response came before the one of the first request.
+     *
+     * @return the number of won hedges.
+     */
+    public long getWinCount() {
+        return wins.sum();
+    }
+
+    /**
+     * Provides the time to wait before hedging a request for the given endpoint.
+     *
+     * @param endpoint the endpoint of the request.
+     * @return the delay in milliseconds, or -1 if the request must not be hedged.
+     */
+    long delayFor(String endpoint) {
+        if (policy.getDelay() > 0) {
+            return policy.getDelay();
+        }
+        LatencyWindow window = latencies.get(keyOf(endpoint));
+        return window != null ? window.percentile(policy.getPercentile(), policy.getMinSamples()) : -1;
+    }
+
+    /**
+     * Records a request, depositing a fraction of a hedge.
+     */
+    void recordRequest() {
+        requests.increment();
+        tokens.accumulateAndGet(deposit, (current, added) -> Math.min(TOKEN, current + added));
+    }
+
+    /**
+     * Withdraws a hedge, if the cap allows it.
+     *
+     * @return true if the request can be hedged, false otherwise.
+     */
+    boolean tryHedge() {
+        long current;
+        do {
+            current = tokens.get();
+            if (current < TOKEN) {
+                return false;
+            }
+        } while (!tokens.compareAndSet(current, current - TOKEN));
+        hedges.increment();
+        return true;
+    }
+
+    /**
+     * Records a hedge whose response came first.
+     */
+    void recordWin() {
+        wins.increment();
+    }
+
+    /**
+     * Records the latency of a successful request for the given endpoint.
+     *
+     * @param endpoint the endpoint of the request.
+     * @param latency the latency in milliseconds.
+     */
+    void recordLatency(String endpoint, long latency) {
+        String key = keyOf(endpoint);
+        LatencyWindow window = latencies.get(key);
+        if (window == null) {
+            if (latencies.size() >= MAX_WINDOWS) {
+                Iterator<String> keys = latencies.keySet().iterator();
+                if (keys.hasNext()) {
+                    latencies.remove(keys.next());
+                }
+            }
+            window = latencies.computeIfAbsent(key, newKey -> new LatencyWindow());
+        }
+        window.record(latency);
+    }
+
+    /**
+     * Provides the number of paths whose latencies are kept.
+     *
+     * @return the number of tracked paths.
+     */
+    int getWindowCount() {
+        return latencies.size();
+    }
+
+    /**
+     * Provides the key of the latencies of the given endpoint, made of its host and path only.
+     *
+     * @param endpoint the endpoint of the request.
+     * @return the key of the latencies.
+     */
+    private static String keyOf(String endpoint) {
+        return Endpoints.hostOf(endpoint) + Endpoints.pathOf(endpoint);
+    }
+
+    /**
+     * Keeps the latest latencies observed for an endpoint and their percentile,
+     * which is computed again only after a few new latencies.
+     */
+    private static class LatencyWindow {
+
+        /**
+         * Records the given latency, replacing the oldest one if the window is full.
+         *
+         * @param latency the latency in milliseconds.
+         */
+        synchronized void record(long latency) {
+            samples[(int) (count % samples.length)] = latency;
+            count++;
+            if (count % REFRESH_INTERVAL == 0) {
+                cachedPercentile = Double.NaN;
+            }
+        }
+
+        /**
+         * Provides the given percentile of the latencies in the window.
+         *
+         * @param percentile the percentile, between 0 and 1.
+         * @param minSamples the minimum number of latencies needed.
+         * @return the percentile in milliseconds, or -1 if there are not enough latencies.
+         */
+        synchronized long percentile(double percentile, int minSamples) {
+            if (count < Math.max(1, minSamples)) {
+                return -1;
+            }
+            if (Double.isNaN(cachedPercentile) || percentile != cachedRank) {
+                int size = (int) Math.min(count, samples.length);
+                long[] sorted = Arrays.copyOf(samples, size);
+                Arrays.sort(sorted);
+                cachedPercentile = sorted[(int) Math.min(size - 1, Math.ceil(percentile * size) - 1)];
+                cachedRank = percentile;
+            }
+            return (long) cachedPercentile;
+        }
+
+        /**
+         * The latest latencies, as a ring.
+         */
+        private final long[] samples = new long[WINDOW_SIZE];
+
+        /**
+         * The number of latencies ever recorded.
+         */
+        private long count;
+
+        /**
+         * The last computed percentile, or NaN if it has to be computed again.
+         */
+        private double cachedPercentile = Double.NaN;
+
+        /**
+         * The percentile rank of the last computed percentile.
+         */
+        private double cachedRank;
+    }
+
+    /**
+     * The policy deciding when requests are hedged.
+     */
+    private final HedgingPolicy policy;
+
+    /**
+     * The latest latencies observed for each host and path.
+     */
+    private final ConcurrentMap<String, LatencyWindow> latencies;
+
+    /**
+     * The fraction of a hedge deposited by each request, in thousandths.
+     */
+    private final long deposit;
+
+    /**
+     * The hedges currently allowed, in thousandths, at most one.
+     */
+    private final AtomicLong tokens;
+
+    /**
+     * The number of requests that could have been hedged.
+     */
+    private final LongAdder requests;
+
+    /**
+     * The number of hedges sent.
+     */
+    private final LongAdder hedges;
+
+    /**
+     * The number of hedges that won.
+     */
+    private final LongAdder wins;
+
+    private static final long TOKEN = 1000;
+
+    private static final int WINDOW_SIZE = 128;
+
+    private static final int MAX_WINDOWS = 1024;
+
+    private static final int REFRESH_INTERVAL = 16;
+}
@@ -0,0 +1,177 @@
+package resty.json;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectReader;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reads the elements of a JSON body one at a time, as they are received, so that the memory used
+ * does not depend on the size of the body: only the element being converted and the buffer of the parser are held.
+ * The body is either a top-level JSON array or newline-delimited JSON values.
+ * The iterator closes the body once its last element is read, and it must be closed if it is left before.
+ * Failures to read or convert an element are thrown as an {@link UncheckedIOException}.
+ */
+@Slf4j
+public class JsonElementIterator<Element> implements Iterator<Element>, Closeable {
+
+    /**
+     * Builds an iterator over the elements read by the given parser.
+     *
+     * @param parser the parser of the body, which closes the body when it is closed.
+     * @param reader the reader converting each element.
+     * @param format the layout of the body.
+     */
+    JsonElementIterator(JsonParser parser, ObjectReader reader, JsonStreamFormat format) {
+        this.parser = parser;
+        this.reader = reader;
+        this.format = format;
+    }
+
+    /**
+     * Checks whether there is another element in the body, reading the body up to its start.
+     *
+     * @return true if there is another element, false otherwise.
+     */
+    @Override
+    public boolean hasNext() {
+        if (closed) {
+            return false;
+        }
+        try {
+            if (elements == null) {
+                elements = open();
+            }
+            if (elements != null && elements.hasNextValue()) {
+                return true;
+            }
+            close();
+            return false;
+        } catch (IOException e) {
+            closeQuietly();
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Reads and converts the next element of the body.
+     *
+     * @return the next element.
+     */
+    @Override
+    public Element next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        try {
+            Element element = elements.nextValue();
+            count++;
+            return element;
+        } catch (IOException e) {
+            closeQuietly();
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Provides the remaining elements as a sequential stream, which closes the body when it is closed.
+     *
+     * @return the stream of the remaining elements.
+     */
+    public Stream<Element> stream() {
+        Spliterator<Element> spliterator = Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED);
+        return StreamSupport.stream(spliterator, false).onClose(this::closeQuietly);
+    }
+
+    /**
+     * Provides the number of elements read so far.
+     *
+     * @return the number of elements read so far.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Closes the parser and the body it reads. Elements that have not been read are discarded.
+     */
+    @Override
+    public void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            parser.close();
+        }
+    }
+
+    /**
+     * Reads the body up to its first element and provides the iterator reading the elements one after the other,
+     * which shares the context of the conversion between them.
+     *
+     * @return the iterator reading the elements, or null if the body is an empty array.
+     */
+    private MappingIterator<Element> open() throws IOException {
+        if (format == JsonStreamFormat.ARRAY) {
+            JsonToken token = parser.nextToken();
+            if (token != null && token != JsonToken.START_ARRAY) {
+                throw new IOException("Expected a JSON array but the body starts with " + token);
+            }
+            // The iterator starts from the current token, so the first element is made current instead of the array
+            if (token != null && parser.nextToken() == JsonToken.END_ARRAY) {
+                return null;
+            }
+        }
+        return reader.readValues(parser);
+    }
+
+    /**
+     * Closes the parser and the body it reads, ignoring failures.
+     */
+    private void closeQuietly() {
+        try {
+            close();
+        } catch (IOException e) {
+            log.debug("Cannot close JSON body due to: " + e.getMessage());
+        }
+    }
+
+    /**
+     * The parser of the body.
+     */
+    private final JsonParser parser;
+
+    /**
+     * The reader converting each element.
+     */
+    private final ObjectReader reader;
+
+    /**
+     * The layout of the body.
+     */
+    private final JsonStreamFormat format;
+
+    /**
+     * The iterator reading the elements, once the body has been read up to its first element.
+     */
+    private MappingIterator<Element> elements;
+
+    /**
+     * Whether the parser has been closed.
+     */
+    private boolean closed;
+
+    /**
+     * The number of elements read so far.
+     */
+    private long count;
+}
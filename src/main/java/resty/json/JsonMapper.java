@@ -0,0 +1,130 @@
+package resty.json;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Type;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Converts JSON bodies of requests and responses.
+ * It wraps an object mapper that is shared by all the conversions, along with a cache of the readers
+ * for each target type, so that serializers and deserializers are built only once.
+ */
+public class JsonMapper {
+
+    /**
+     * Provides the mapper used when none is configured.
+     *
+     * @return the default mapper.
+     */
+    public static JsonMapper getDefault() {
+        return DefaultHolder.MAPPER;
+    }
+
+    /**
+     * Builds a mapper based on the given object mapper.
+     * The object mapper must not be reconfigured once it is used by the mapper.
+     *
+     * @param objectMapper the object mapper to use for conversions.
+     */
+    public JsonMapper(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.readers = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Provides the Java type for the given type.
+     *
+     * @param type the type to resolve.
+     * @return the resolved Java type.
+     */
+    public JavaType constructType(Type type) {
+        return objectMapper.getTypeFactory().constructType(type);
+    }
+
+    /**
+     * Provides the Java type for the given type reference.
+     *
+     * @param typeReference the type reference to resolve.
+     * @return the resolved Java type.
+     */
+    public JavaType constructType(TypeReference<?> typeReference) {
+        return objectMapper.getTypeFactory().constructType(typeReference);
+    }
+
+    /**
+     * Provides the reader for the given type, creating it the first time it is required.
+     *
+     * @param type the type to read.
+     * @return the reader for the type.
+     */
+    public ObjectReader readerFor(JavaType type) {
+        ObjectReader reader = readers.get(type);
+        if (reader == null) {
+            reader = readers.computeIfAbsent(type, objectMapper::readerFor);
+        }
+        return reader;
+    }
+
+    /**
+     * Converts the given JSON content to an instance of the given type.
+     *
+     * @param content the JSON content to convert.
+     * @param type the type to convert the content to.
+     * @return the converted content.
+     */
+    public <Body> Body read(String content, JavaType type) throws IOException {
+        return readerFor(type).readValue(content);
+    }
+
+    /**
+     * Provides an iterator converting the elements of the given JSON content one at a time, as they are read.
+     * The iterator closes the content once its last element is read.
+     *
+     * @param content the stream of the JSON content to convert.
+     * @param elementType the type to convert each element to.
+     * @param format the layout of the content.
+     * @return the iterator over the converted elements.
+     */
+    public <Element> JsonElementIterator<Element> iterate(InputStream content, JavaType elementType,
+                                                          JsonStreamFormat format) throws IOException {
+        ObjectReader reader = readerFor(elementType);
+        return new JsonElementIterator<>(objectMapper.getFactory().createParser(content), reader, format);
+    }
+
+    /**
+     * Converts the given value to JSON content.
+     *
+     * @param value the value to convert.
+     * @return the JSON content encoded as UTF-8.
+     */
+    public byte[] write(Object value) throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(value);
+    }
+
+    /**
+     * The object mapper used for conversions.
+     */
+    @Getter
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Readers for each of the types converted so far.
+     */
+    private final ConcurrentMap<JavaType, ObjectReader> readers;
+
+    /**
+     * Lazily creates the default mapper the first time it is required.
+     */
+    private static final class DefaultHolder {
+        private static final JsonMapper MAPPER = new JsonMapper(new ObjectMapper());
+    }
+}
@@ -0,0 +1,57 @@
+package resty.json;
+
+/**
+ * Possible layouts of a JSON body read one element at a time.
+ */
+public enum JsonStreamFormat {
+    ARRAY("array"),
+    NDJSON("ndjson");
+
+    /**
+     * Provides a format based on a string value.
+     *
+     * @param value the value for the format.
+     */
+    JsonStreamFormat(String value) {
+        this.value = value;
+    }
+
+    /**
+     * Provides the value of a format as a string.
+     *
+     * @return the value of a format as a string.
+     */
+    public String toValue() {
+        return value;
+    }
+
+    /**
+     * Provides the format of a body given by its Content-Type header.
+     * Newline-delimited JSON is recognized by its media types, any other body is expected to be a JSON array.
+     *
+     * @param contentType the value of the header, if any.
+     * @return the format of the body.
+     */
+    public static JsonStreamFormat fromContentType(String contentType) {
+        if (contentType == null) {
+            return ARRAY;
+        }
+        int parameters = contentType.indexOf(';');
+        String mediaType = (parameters < 0 ? contentType : contentType.substring(0, parameters)).trim();
+        for (String ndjson : NDJSON_MEDIA_TYPES) {
+            if (mediaType.equalsIgnoreCase(ndjson)) {
+                return NDJSON;
+            }
+        }
+        return ARRAY;
+    }
+
+    /**
+     * The value of the format.
+     */
+    private final String value;
+
+    private static final String[] NDJSON_MEDIA_TYPES = {
+            "application/x-ndjson", "application/ndjson", "application/jsonl", "application/x-jsonlines"
+    };
+}
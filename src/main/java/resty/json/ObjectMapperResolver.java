@@ -0,0 +1,31 @@
+package resty.json;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import javax.ws.rs.ext.ContextResolver;
+
+/**
+ * Provides the shared object mapper to the JSON provider of the client,
+ * so that request bodies are serialized with the same mapper used for response bodies.
+ */
+public class ObjectMapperResolver implements ContextResolver<ObjectMapper> {
+
+    /**
+     * Builds a resolver for the object mapper of the given mapper.
+     *
+     * @param jsonMapper the mapper to provide.
+     */
+    public ObjectMapperResolver(JsonMapper jsonMapper) {
+        this.objectMapper = jsonMapper.getObjectMapper();
+    }
+
+    @Override
+    public ObjectMapper getContext(Class<?> type) {
+        return objectMapper;
+    }
+
+    /**
+     * The object mapper to provide.
+     */
+    private final ObjectMapper objectMapper;
+}
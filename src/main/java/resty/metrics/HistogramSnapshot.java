@@ -0,0 +1,96 @@
+package resty.metrics;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+/**
+ * Provides the statistics of the latencies recorded by a {@link LatencyHistogram} at a given time.
+ * All the latencies are in microseconds, and percentiles are the largest latency of the bucket they fall in.
+ */
+@Getter
+public class HistogramSnapshot {
+
+    /**
+     * Builds a snapshot from the given bucket counts.
+     *
+     * @param counts the number of latencies recorded in each bucket.
+     * @param total the sum of the recorded latencies.
+     * @param max the largest recorded latency.
+     */
+    HistogramSnapshot(long[] counts, long total, long max) {
+        long sum = 0;
+        for (long count : counts) {
+            sum += count;
+        }
+        this.counts = counts;
+        this.count = sum;
+        this.max = max;
+        this.mean = sum > 0 ? (double) total / sum : 0;
+        this.median = getValueAtPercentile(50);
+        this.p90 = getValueAtPercentile(90);
+        this.p99 = getValueAtPercentile(99);
+        this.p999 = getValueAtPercentile(99.9);
+    }
+
+    /**
+     * Provides the latency below which the given percentage of the latencies fall.
+     *
+     * @param percentile the percentage, between 0 and 100.
+     * @return the latency at the percentile in microseconds, 0 if no latency has been recorded.
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(Math.min(100, percentile) / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(max, LatencyHistogram.highestValueOf(i));
+            }
+        }
+        return max;
+    }
+
+    /**
+     * The number of latencies recorded in each bucket.
+     */
+    @Getter(AccessLevel.NONE)
+    private final long[] counts;
+
+    /**
+     * The number of recorded latencies.
+     */
+    private final long count;
+
+    /**
+     * The largest recorded latency.
+     */
+    private final long max;
+
+    /**
+     * The mean of the recorded latencies.
+     */
+    private final double mean;
+
+    /**
+     * The median of the recorded latencies.
+     */
+    private final long median;
+
+    /**
+     * The 90th percentile of the recorded latencies.
+     */
+    private final long p90;
+
+    /**
+     * The 99th percentile of the recorded latencies.
+     */
+    private final long p99;
+
+    /**
+     * The 99.9th percentile of the recorded latencies.
+     */
+    private final long p999;
+}
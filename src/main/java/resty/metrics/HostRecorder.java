@@ -0,0 +1,88 @@
+package resty.metrics;
+
+import resty.request.RestMethod;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records the requests to a host, with a recorder for each HTTP method and status class created on first use,
+ * so that recording a request never allocates once the host is warm.
+ */
+final class HostRecorder {
+
+    /**
+     * Builds a recorder without requests.
+     *
+     * @param host the host of the requests, along with its port if any.
+     */
+    HostRecorder(String host) {
+        this.host = host;
+        this.inFlight = new LongAdder();
+        this.routes = new AtomicReferenceArray<>(METHODS.length * STATUS_CLASSES.length);
+    }
+
+    /**
+     * Records the start of a request.
+     */
+    void start() {
+        inFlight.increment();
+    }
+
+    /**
+     * Records the end of a request.
+     *
+     * @param method the HTTP method of the request.
+     * @param status the status of the response, or 0 if the request failed without a response.
+     * @param micros the latency of the request in microseconds.
+     * @param sent the number of bytes of the request body.
+     * @param received the number of bytes of the response body.
+     */
+    void complete(RestMethod method, int status, long micros, long sent, long received) {
+        inFlight.decrement();
+        int statusClass = status >= 100 && status < 600 ? status / 100 : 0;
+        int index = method.ordinal() * STATUS_CLASSES.length + statusClass;
+        RouteRecorder route = routes.get(index);
+        if (route == null) {
+            routes.compareAndSet(index, null, new RouteRecorder(method.toValue(), host, STATUS_CLASSES[statusClass]));
+            route = routes.get(index);
+        }
+        route.record(micros, sent, received);
+    }
+
+    /**
+     * Provides the number of requests in flight.
+     *
+     * @return the number of requests in flight.
+     */
+    long getInFlightCount() {
+        return inFlight.sum();
+    }
+
+    /**
+     * Provides the recorder of each HTTP method and status class.
+     *
+     * @return the recorders, null for the routes without requests.
+     */
+    AtomicReferenceArray<RouteRecorder> getRoutes() {
+        return routes;
+    }
+
+    /**
+     * The host of the requests, along with its port if any.
+     */
+    private final String host;
+
+    /**
+     * The number of requests in flight.
+     */
+    private final LongAdder inFlight;
+
+    /**
+     * The recorder of each HTTP method and status class.
+     */
+    private final AtomicReferenceArray<RouteRecorder> routes;
+
+    private static final RestMethod[] METHODS = RestMethod.values();
+    private static final String[] STATUS_CLASSES = {"error", "1xx", "2xx", "3xx", "4xx", "5xx"};
+}
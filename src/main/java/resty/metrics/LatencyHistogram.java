@@ -0,0 +1,103 @@
+package resty.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records latencies in buckets growing exponentially, each power of two being split into 128 linear sub-buckets,
+ * so that percentiles are accurate to less than 1% over the whole range with a fixed memory footprint.
+ * Recording a latency only increments counters, without any lock or allocation, so it can be done
+ * by many threads at once. Latencies are recorded in microseconds, up to about 71 minutes.
+ */
+public class LatencyHistogram {
+
+    /**
+     * Builds an empty histogram.
+     */
+    public LatencyHistogram() {
+        this.counts = new AtomicLongArray(BUCKET_COUNT);
+        this.total = new LongAdder();
+        this.max = new AtomicLong();
+    }
+
+    /**
+     * Records the given latency, larger ones being recorded as the largest trackable latency.
+     *
+     * @param micros the latency in microseconds.
+     */
+    public void record(long micros) {
+        long value = Math.max(0, Math.min(MAX_VALUE, micros));
+        counts.incrementAndGet(indexOf(value));
+        total.add(value);
+        long currentMax = max.get();
+        while (value > currentMax && !max.compareAndSet(currentMax, value)) {
+            currentMax = max.get();
+        }
+    }
+
+    /**
+     * Provides a snapshot of the latencies recorded so far. Latencies recorded while taking the snapshot
+     * may or may not be included.
+     *
+     * @return the snapshot of the histogram.
+     */
+    public HistogramSnapshot snapshot() {
+        long[] snapshotCounts = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            snapshotCounts[i] = counts.get(i);
+        }
+        return new HistogramSnapshot(snapshotCounts, total.sum(), max.get());
+    }
+
+    /**
+     * Provides the bucket of the given value.
+     *
+     * @param value the value, between 0 and the largest trackable value.
+     * @return the index of the bucket.
+     */
+    static int indexOf(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS + 1;
+        return SUB_BUCKET_COUNT + (shift - 1) * SUB_BUCKET_HALF + (int) (value >>> shift) - SUB_BUCKET_HALF;
+    }
+
+    /**
+     * Provides the largest value recorded in the given bucket.
+     *
+     * @param index the index of the bucket.
+     * @return the largest value of the bucket.
+     */
+    static long highestValueOf(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = (index - SUB_BUCKET_COUNT) / SUB_BUCKET_HALF + 1;
+        long subBucket = (index - SUB_BUCKET_COUNT) % SUB_BUCKET_HALF + SUB_BUCKET_HALF;
+        return (subBucket << shift) + (1L << shift) - 1;
+    }
+
+    /**
+     * The number of values recorded in each bucket.
+     */
+    private final AtomicLongArray counts;
+
+    /**
+     * The sum of the recorded values.
+     */
+    private final LongAdder total;
+
+    /**
+     * The largest recorded value.
+     */
+    private final AtomicLong max;
+
+    private static final int SUB_BUCKET_BITS = 8;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_HALF = SUB_BUCKET_COUNT / 2;
+    private static final int MAX_VALUE_BITS = 32;
+    private static final long MAX_VALUE = (1L << MAX_VALUE_BITS) - 1;
+    private static final int BUCKET_COUNT = indexOf(MAX_VALUE) + 1;
+}
@@ -0,0 +1,183 @@
+package resty.metrics;
+
+import resty.engine.RestEngine;
+import resty.request.Endpoints;
+import resty.request.RestRequest;
+import resty.response.RestResponse;
+import resty.response.StreamingRestResponse;
+import resty.upload.UploadBody;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Records the requests performed by another engine in {@link RequestMetrics}.
+ * The latency of a streaming request is the time until its response headers are received, and the bytes of
+ * request bodies are only counted for bodies given as strings or byte arrays, which are not serialized.
+ */
+public class MetricsEngine implements RestEngine {
+
+    /**
+     * Builds an engine recording the requests performed by the given one.
+     *
+     * @param delegate the engine actually performing the requests.
+     * @param metrics the metrics to record the requests in.
+     */
+    public MetricsEngine(RestEngine delegate, RequestMetrics metrics) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Performs the given request, recording its latency and outcome.
+     *
+     * @param request the request to perform.
+     * @return the response given back to the performed request.
+     */
+    @Override
+    public RestResponse execute(RestRequest request) {
+        HostRecorder recorder = metrics.start(Endpoints.hostOf(request.getEndpoint()));
+        long start = System.nanoTime();
+        RestResponse response;
+        try {
+            response = delegate.execute(request);
+        } catch (RuntimeException e) {
+            metrics.complete(recorder, request.getMethod(), 0, System.nanoTime() - start, bytesSent(request), 0);
+            throw e;
+        }
+        metrics.complete(recorder, request.getMethod(), response.getStatus(), System.nanoTime() - start,
+                bytesSent(request), bytesReceived(response));
+        return response;
+    }
+
+    /**
+     * Performs the given request without reading the response body, recording its latency and outcome.
+     *
+     * @param request the request to perform.
+     * @return the streaming response given back to the performed request.
+     */
+    @Override
+    public StreamingRestResponse stream(RestRequest request) {
+        HostRecorder recorder = metrics.start(Endpoints.hostOf(request.getEndpoint()));
+        long start = System.nanoTime();
+        StreamingRestResponse response;
+        try {
+            response = delegate.stream(request);
+        } catch (RuntimeException e) {
+            metrics.complete(recorder, request.getMethod(), 0, System.nanoTime() - start, bytesSent(request), 0);
+            throw e;
+        }
+        metrics.complete(recorder, request.getMethod(), response.getStatus(), System.nanoTime() - start,
+                bytesSent(request), parseLength(response.getHeader(CONTENT_LENGTH)));
+        return response;
+    }
+
+    /**
+     * Performs the given request without blocking, recording its latency and outcome once completed.
+     * Cancelled requests are recorded as failed.
+     *
+     * @param request the request to perform.
+     * @return the future completed with the response given back to the performed request.
+     */
+    @Override
+    public CompletableFuture<RestResponse> executeAsync(RestRequest request) {
+        HostRecorder recorder = metrics.start(Endpoints.hostOf(request.getEndpoint()));
+        long start = System.nanoTime();
+        CompletableFuture<RestResponse> futureResponse;
+        try {
+            futureResponse = delegate.executeAsync(request);
+        } catch (RuntimeException e) {
+            metrics.complete(recorder, request.getMethod(), 0, System.nanoTime() - start, bytesSent(request), 0);
+            throw e;
+        }
+        futureResponse.whenComplete((response, throwable) -> metrics.complete(recorder, request.getMethod(),
+                response != null ? response.getStatus() : 0, System.nanoTime() - start,
+                bytesSent(request), response != null ? bytesReceived(response) : 0));
+        return futureResponse;
+    }
+
+    /**
+     * Closes the engine actually performing the requests.
+     */
+    @Override
+    public void close() {
+        delegate.close();
+    }
+
+    /**
+     * Provides the number of bytes of the body of the given request, if known without serializing it.
+     *
+     * @param request the performed request.
+     * @return the number of bytes of the body, 0 if it has none, if its length is unknown
+     *         or if it is not a string, a byte array or an upload body.
+     */
+    private static long bytesSent(RestRequest request) {
+        Object body = request.getBody();
+        if (body instanceof byte[]) {
+            return ((byte[]) body).length;
+        }
+        if (body instanceof UploadBody) {
+            return Math.max(((UploadBody) body).getLength(), 0);
+        }
+        return body instanceof String ? utf8Length((String) body) : 0;
+    }
+
+    /**
+     * Provides the number of bytes of the body of the given response, as given by its Content-Length header
+     * or by the length of its body otherwise.
+     *
+     * @param response the received response.
+     * @return the number of bytes of the body.
+     */
+    private static long bytesReceived(RestResponse response) {
+        long length = parseLength(response.getHeader(CONTENT_LENGTH));
+        return length > 0 || response.getBody() == null ? length : utf8Length(response.getBody());
+    }
+
+    /**
+     * Parses the given Content-Length header.
+     *
+     * @param contentLength the value of the header, if any.
+     * @return the length, 0 if it is missing or invalid.
+     */
+    private static long parseLength(String contentLength) {
+        if (contentLength == null) {
+            return 0;
+        }
+        try {
+            return Math.max(0, Long.parseLong(contentLength.trim()));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Computes the number of bytes of the given text once encoded in UTF-8, without encoding it.
+     *
+     * @param text the text.
+     * @return the number of bytes of the encoded text.
+     */
+    private static long utf8Length(String text) {
+        long length = text.length();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= 0x800) {
+                length += Character.isSurrogate(c) ? 1 : 2;
+            } else if (c >= 0x80) {
+                length++;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * The engine actually performing the requests.
+     */
+    private final RestEngine delegate;
+
+    /**
+     * The metrics to record the requests in.
+     */
+    private final RequestMetrics metrics;
+
+    private static final String CONTENT_LENGTH = "Content-Length";
+}
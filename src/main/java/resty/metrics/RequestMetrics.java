@@ -0,0 +1,227 @@
+package resty.metrics;
+
+import lombok.extern.slf4j.Slf4j;
+import resty.request.RestMethod;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records the latency, the bytes and the outcome of the requests for each HTTP method, host and status class,
+ * along with the requests in flight for each host. Recording is lock-free and does not allocate once a route
+ * has been seen, and the metrics can be read at any time as a snapshot or through JMX.
+ * It can be shared by several clients, so that their requests are recorded together.
+ */
+@Slf4j
+public class RequestMetrics implements RequestMetricsMXBean {
+
+    /**
+     * Builds metrics without requests.
+     */
+    public RequestMetrics() {
+        this.hosts = new ConcurrentHashMap<>();
+        this.errors = new LongAdder();
+    }
+
+    /**
+     * Provides the number of completed requests.
+     *
+     * @return the number of completed requests.
+     */
+    @Override
+    public long getRequestCount() {
+        long count = 0;
+        for (RouteMetrics route : getRoutes()) {
+            count += route.getRequestCount();
+        }
+        return count;
+    }
+
+    /**
+     * Provides the number of requests that failed with an exception or a server error status.
+     *
+     * @return the number of failed requests.
+     */
+    @Override
+    public long getErrorCount() {
+        return errors.sum();
+    }
+
+    /**
+     * Provides the number of requests in flight.
+     *
+     * @return the number of requests in flight.
+     */
+    @Override
+    public long getInFlightCount() {
+        long count = 0;
+        for (HostRecorder host : hosts.values()) {
+            count += host.getInFlightCount();
+        }
+        return count;
+    }
+
+    /**
+     * Provides the number of requests in flight to the given host.
+     *
+     * @param host the host, along with its port if any.
+     * @return the number of requests in flight to the host.
+     */
+    public long getInFlightCount(String host) {
+        HostRecorder recorder = hosts.get(host);
+        return recorder != null ? recorder.getInFlightCount() : 0;
+    }
+
+    /**
+     * Provides the number of bytes of the request bodies.
+     *
+     * @return the number of bytes sent.
+     */
+    @Override
+    public long getBytesSent() {
+        long bytes = 0;
+        for (RouteMetrics route : getRoutes()) {
+            bytes += route.getBytesSent();
+        }
+        return bytes;
+    }
+
+    /**
+     * Provides the number of bytes of the response bodies.
+     *
+     * @return the number of bytes received.
+     */
+    @Override
+    public long getBytesReceived() {
+        long bytes = 0;
+        for (RouteMetrics route : getRoutes()) {
+            bytes += route.getBytesReceived();
+        }
+        return bytes;
+    }
+
+    /**
+     * Provides a snapshot of the metrics of each HTTP method, host and status class.
+     *
+     * @return the metrics of the routes with requests.
+     */
+    @Override
+    public List<RouteMetrics> getRoutes() {
+        List<RouteMetrics> snapshot = new ArrayList<>();
+        for (HostRecorder host : hosts.values()) {
+            AtomicReferenceArray<RouteRecorder> routes = host.getRoutes();
+            for (int i = 0; i < routes.length(); i++) {
+                RouteRecorder route = routes.get(i);
+                if (route != null) {
+                    snapshot.add(route.snapshot());
+                }
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Provides a snapshot of the metrics of the given route.
+     *
+     * @param method the HTTP method of the requests.
+     * @param host the host of the requests, along with its port if any.
+     * @param statusClass the status class of the responses, such as 2xx, or error.
+     * @return the metrics of the route, or null if it has no requests.
+     */
+    public RouteMetrics getRoute(RestMethod method, String host, String statusClass) {
+        for (RouteMetrics route : getRoutes()) {
+            if (route.getMethod().equals(method.toValue()) && route.getHost().equals(host)
+                    && route.getStatusClass().equals(statusClass)) {
+                return route;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Registers the metrics in the platform MBean server, under {@code resty:type=RequestMetrics,name=<name>}.
+     *
+     * @param name the name of the client.
+     * @return the name the metrics are registered under.
+     * @throws IllegalStateException if the metrics cannot be registered.
+     */
+    public ObjectName registerMBean(String name) {
+        try {
+            ObjectName objectName = new ObjectName(JMX_DOMAIN + ":type=RequestMetrics,name=" + ObjectName.quote(name));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+            log.debug("Registered request metrics as {}", objectName);
+            return objectName;
+        } catch (JMException e) {
+            throw new IllegalStateException("Cannot register request metrics as " + name, e);
+        }
+    }
+
+    /**
+     * Unregisters the metrics registered under the given name from the platform MBean server, if any.
+     *
+     * @param objectName the name the metrics are registered under.
+     */
+    public void unregisterMBean(ObjectName objectName) {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+        } catch (JMException e) {
+            log.debug("Cannot unregister request metrics due to: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Records the start of a request to the given host.
+     *
+     * @param host the host, along with its port if any.
+     * @return the recorder of the host, to complete the request with.
+     */
+    HostRecorder start(String host) {
+        HostRecorder recorder = hosts.get(host);
+        if (recorder == null) {
+            recorder = hosts.computeIfAbsent(host, HostRecorder::new);
+        }
+        recorder.start();
+        return recorder;
+    }
+
+    /**
+     * Records the end of a request.
+     *
+     * @param recorder the recorder of the host of the request.
+     * @param method the HTTP method of the request.
+     * @param status the status of the response, or 0 if the request failed without a response.
+     * @param nanos the latency of the request in nanoseconds.
+     * @param sent the number of bytes of the request body.
+     * @param received the number of bytes of the response body.
+     */
+    void complete(HostRecorder recorder, RestMethod method, int status, long nanos, long sent, long received) {
+        recorder.complete(method, status, nanos / 1000, sent, received);
+        if (status == 0 || status >= MIN_SERVER_ERROR) {
+            errors.increment();
+        }
+    }
+
+    /**
+     * The recorder of each host.
+     */
+    private final ConcurrentMap<String, HostRecorder> hosts;
+
+    /**
+     * The number of failed requests.
+     */
+    private final LongAdder errors;
+
+    private static final String JMX_DOMAIN = "resty";
+    private static final int MIN_SERVER_ERROR = 500;
+}
@@ -0,0 +1,51 @@
+package resty.metrics;
+
+import java.util.List;
+
+/**
+ * Exposes the metrics of a client through JMX.
+ */
+public interface RequestMetricsMXBean {
+
+    /**
+     * Provides the number of completed requests.
+     *
+     * @return the number of completed requests.
+     */
+    long getRequestCount();
+
+    /**
+     * Provides the number of requests that failed with an exception or a server error status.
+     *
+     * @return the number of failed requests.
+     */
+    long getErrorCount();
+
+    /**
+     * Provides the number of requests in flight.
+     *
+     * @return the number of requests in flight.
+     */
+    long getInFlightCount();
+
+    /**
+     * Provides the number of bytes of the request bodies.
+     *
+     * @return the number of bytes sent.
+     */
+    long getBytesSent();
+
+    /**
+     * Provides the number of bytes of the response bodies.
+     *
+     * @return the number of bytes received.
+     */
+    long getBytesReceived();
+
+    /**
+     * Provides the metrics of each HTTP method, host and status class.
+     *
+     * @return the metrics of the routes with requests.
+     */
+    List<RouteMetrics> getRoutes();
+}
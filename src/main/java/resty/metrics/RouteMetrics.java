@@ -0,0 +1,70 @@
+package resty.metrics;
+
+import lombok.Getter;
+
+/**
+ * Provides the metrics of the requests sharing an HTTP method, a host and a status class at a given time.
+ */
+@Getter
+public class RouteMetrics {
+
+    /**
+     * Builds the metrics of a route.
+     *
+     * @param method the HTTP method of the requests.
+     * @param host the host of the requests, along with its port if any.
+     * @param statusClass the status class of the responses, such as 2xx, or error for requests that failed
+     *                    without a response.
+     * @param bytesSent the number of bytes of the request bodies.
+     * @param bytesReceived the number of bytes of the response bodies.
+     * @param latency the latencies of the requests.
+     */
+    RouteMetrics(String method, String host, String statusClass, long bytesSent, long bytesReceived,
+                 HistogramSnapshot latency) {
+        this.method = method;
+        this.host = host;
+        this.statusClass = statusClass;
+        this.bytesSent = bytesSent;
+        this.bytesReceived = bytesReceived;
+        this.latency = latency;
+    }
+
+    /**
+     * Provides the number of requests.
+     *
+     * @return the number of requests.
+     */
+    public long getRequestCount() {
+        return latency.getCount();
+    }
+
+    /**
+     * The HTTP method of the requests.
+     */
+    private final String method;
+
+    /**
+     * The host of the requests, along with its port if any.
+     */
+    private final String host;
+
+    /**
+     * The status class of the responses, or error for requests that failed without a response.
+     */
+    private final String statusClass;
+
+    /**
+     * The number of bytes of the request bodies.
+     */
+    private final long bytesSent;
+
+    /**
+     * The number of bytes of the response bodies.
+     */
+    private final long bytesReceived;
+
+    /**
+     * The latencies of the requests.
+     */
+    private final HistogramSnapshot latency;
+}
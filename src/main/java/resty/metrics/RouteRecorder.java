@@ -0,0 +1,81 @@
+package resty.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records the requests sharing an HTTP method, a host and a status class.
+ */
+final class RouteRecorder {
+
+    /**
+     * Builds a recorder without requests.
+     *
+     * @param method the HTTP method of the requests.
+     * @param host the host of the requests, along with its port if any.
+     * @param statusClass the status class of the responses.
+     */
+    RouteRecorder(String method, String host, String statusClass) {
+        this.method = method;
+        this.host = host;
+        this.statusClass = statusClass;
+        this.latency = new LatencyHistogram();
+        this.bytesSent = new LongAdder();
+        this.bytesReceived = new LongAdder();
+    }
+
+    /**
+     * Records a request.
+     *
+     * @param micros the latency of the request in microseconds.
+     * @param sent the number of bytes of the request body.
+     * @param received the number of bytes of the response body.
+     */
+    void record(long micros, long sent, long received) {
+        latency.record(micros);
+        if (sent > 0) {
+            bytesSent.add(sent);
+        }
+        if (received > 0) {
+            bytesReceived.add(received);
+        }
+    }
+
+    /**
+     * Provides the metrics recorded so far.
+     *
+     * @return the metrics of the route.
+     */
+    RouteMetrics snapshot() {
+        return new RouteMetrics(method, host, statusClass, bytesSent.sum(), bytesReceived.sum(), latency.snapshot());
+    }
+
+    /**
+     * The HTTP method of the requests.
+     */
+    private final String method;
+
+    /**
+     * The host of the requests, along with its port if any.
+     */
+    private final String host;
+
+    /**
+     * The status class of the responses.
+     */
+    private final String statusClass;
+
+    /**
+     * The latencies of the requests.
+     */
+    private final LatencyHistogram latency;
+
+    /**
+     * The number of bytes of the request bodies.
+     */
+    private final LongAdder bytesSent;
+
+    /**
+     * The number of bytes of the response bodies.
+     */
+    private final LongAdder bytesReceived;
+}
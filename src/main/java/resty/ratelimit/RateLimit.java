@@ -0,0 +1,37 @@
+package resty.ratelimit;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Models the maximum rate of the requests matching a host and a path pattern.
+ * Without a host, each host has its own limit. Path patterns can contain {@code *}, matching any characters
+ * within a path segment, and {@code **}, matching any characters across segments.
+ */
+@Getter
+@ToString
+@Builder(toBuilder = true)
+public class RateLimit {
+
+    /**
+     * The host of the limited requests, along with its port if any, or null for each host.
+     */
+    private final String host;
+
+    /**
+     * The pattern of the paths of the limited requests, or null for all the paths.
+     */
+    private final String pathPattern;
+
+    /**
+     * The number of requests allowed each second.
+     */
+    private final double permitsPerSecond;
+
+    /**
+     * The number of requests allowed at once after a quiet period, at least 1.
+     */
+    @Builder.Default
+    private final int burst = 1;
+}
@@ -0,0 +1,34 @@
+package resty.ratelimit;
+
+import lombok.Getter;
+
+/**
+ * Signals that a request has not been performed because it exceeds a rate limit.
+ */
+@Getter
+public class RateLimitExceededException extends RuntimeException {
+
+    /**
+     * Builds the exception for the given endpoint.
+     *
+     * @param endpoint the endpoint of the rejected request.
+     * @param retryAfter the time in milliseconds after which the request would be allowed.
+     */
+    public RateLimitExceededException(String endpoint, long retryAfter) {
+        super("Rate limit exceeded for " + endpoint + ", retry after " + retryAfter + " ms");
+        this.endpoint = endpoint;
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * The endpoint of the rejected request.
+     */
+    private final String endpoint;
+
+    /**
+     * The time in milliseconds after which the request would be allowed.
+     */
+    private final long retryAfter;
+
+    private static final long serialVersionUID = 1L;
+}
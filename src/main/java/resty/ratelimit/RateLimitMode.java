@@ -0,0 +1,33 @@
+package resty.ratelimit;
+
+/**
+ * Possible behaviours of the rate limiter when a request exceeds its limit.
+ */
+public enum RateLimitMode {
+    BLOCK("block"),
+    DELAY("delay"),
+    REJECT("reject");
+
+    /**
+     * Provides a mode based on a string value.
+     *
+     * @param value the value for the mode.
+     */
+    RateLimitMode(String value) {
+        this.value = value;
+    }
+
+    /**
+     * Provides the value of a mode as a string.
+     *
+     * @return the value of a mode as a string.
+     */
+    public String toValue() {
+        return value;
+    }
+
+    /**
+     * Value of the mode as a string.
+     */
+    private final String value;
+}
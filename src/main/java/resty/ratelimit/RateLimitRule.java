@@ -0,0 +1,103 @@
+package resty.ratelimit;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Pattern;
+
+/**
+ * Matches the requests subject to a {@link RateLimit} and provides the bucket limiting them.
+ * A limit for a given host has a single bucket, while a limit for each host has a bucket for each of them,
+ * so that requests to different hosts never contend on the same bucket.
+ */
+final class RateLimitRule {
+
+    /**
+     * Builds the rule enforcing the given limit.
+     *
+     * @param limit the limit to enforce.
+     */
+    RateLimitRule(RateLimit limit) {
+        this.limit = limit;
+        this.pathPattern = limit.getPathPattern() != null ? compile(limit.getPathPattern()) : null;
+        this.sharedBucket = limit.getHost() != null ? newBucket() : null;
+        this.hostBuckets = limit.getHost() == null ? new ConcurrentHashMap<>() : null;
+    }
+
+    /**
+     * Provides the bucket limiting the requests to the given host and path.
+     *
+     * @param host the host of the request.
+     * @param path the path of the request.
+     * @return the bucket, or null if the request is not subject to the limit.
+     */
+    TokenBucket bucketFor(String host, String path) {
+        if (pathPattern != null && !pathPattern.matcher(path).matches()) {
+            return null;
+        }
+        if (sharedBucket != null) {
+            return limit.getHost().equalsIgnoreCase(host) ? sharedBucket : null;
+        }
+        TokenBucket bucket = hostBuckets.get(host);
+        return bucket != null ? bucket : hostBuckets.computeIfAbsent(host, key -> newBucket());
+    }
+
+    /**
+     * Builds a full bucket for the limit.
+     *
+     * @return the built bucket.
+     */
+    private TokenBucket newBucket() {
+        return new TokenBucket(limit.getPermitsPerSecond(), limit.getBurst());
+    }
+
+    /**
+     * Compiles the given path pattern, where {@code **} matches any characters and {@code *} matches
+     * any characters but slashes.
+     *
+     * @param pattern the pattern to compile.
+     * @return the compiled pattern.
+     */
+    private static Pattern compile(String pattern) {
+        StringBuilder regex = new StringBuilder();
+        int start = 0;
+        for (int i = 0; i < pattern.length(); i++) {
+            if (pattern.charAt(i) != '*') {
+                continue;
+            }
+            if (i > start) {
+                regex.append(Pattern.quote(pattern.substring(start, i)));
+            }
+            if (i + 1 < pattern.length() && pattern.charAt(i + 1) == '*') {
+                regex.append(".*");
+                i++;
+            } else {
+                regex.append("[^/]*");
+            }
+            start = i + 1;
+        }
+        if (start < pattern.length()) {
+            regex.append(Pattern.quote(pattern.substring(start)));
+        }
+        return Pattern.compile(regex.toString());
+    }
+
+    /**
+     * The enforced limit.
+     */
+    private final RateLimit limit;
+
+    /**
+     * The pattern of the paths subject to the limit, if any.
+     */
+    private final Pattern pathPattern;
+
+    /**
+     * The bucket of the host given by the limit, if any.
+     */
+    private final TokenBucket sharedBucket;
+
+    /**
+     * The bucket of each host, if the limit is not for a given host.
+     */
+    private final ConcurrentMap<String, TokenBucket> hostBuckets;
+}
@@ -0,0 +1,255 @@
+package resty.ratelimit;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import resty.request.Endpoints;
+import resty.request.RestRequest;
+
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limits the rate of requests according to a set of {@link RateLimit}s, each request taking a token from the bucket
+ * of every limit it matches. Buckets are lock-free and independent for each limit and each host, so that requests
+ * to different hosts or routes never contend with each other.
+ * When a server answers with a 429 status, or with a 503 status and a Retry-After header, the buckets of the request
+ * are emptied until the time asked by the server, so that the client slows down on its own.
+ * It can be shared by several clients, so that they are limited together.
+ */
+@Slf4j
+public class RateLimiter {
+
+    /**
+     * Builds a limiter enforcing the given limits, waiting at most {@value #DEFAULT_MAX_DELAY} ms for a token.
+     *
+     * @param mode how requests exceeding the limits are handled.
+     * @param limits the limits to enforce.
+     */
+    public RateLimiter(RateLimitMode mode, RateLimit... limits) {
+        this(mode, DEFAULT_MAX_DELAY, limits);
+    }
+
+    /**
+     * Builds a limiter enforcing the given limits.
+     *
+     * @param mode how requests exceeding the limits are handled.
+     * @param maxDelay the maximum time in milliseconds a request waits for a token before being rejected.
+     * @param limits the limits to enforce.
+     */
+    public RateLimiter(RateLimitMode mode, long maxDelay, RateLimit... limits) {
+        this.mode = mode != null ? mode : RateLimitMode.BLOCK;
+        this.maxDelay = mode == RateLimitMode.REJECT ? 0 : TimeUnit.MILLISECONDS.toNanos(Math.max(0, maxDelay));
+        this.rules = new ArrayList<>(limits.length);
+        for (RateLimit limit : limits) {
+            rules.add(new RateLimitRule(limit));
+        }
+        this.permits = new LongAdder();
+        this.delays = new LongAdder();
+        this.rejections = new LongAdder();
+        this.pauses = new LongAdder();
+    }
+
+    /**
+     * Provides the number of requests subject to the limits and allowed by them, including the delayed ones.
+     *
+     * @return the number of allowed requests.
+     */
+    public long getPermittedCount() {
+        return permits.sum();
+    }
+
+    /**
+     * Provides the number of requests that had to wait for a token.
+     *
+     * @return the number of delayed requests.
+     */
+    public long getDelayedCount() {
+        return delays.sum();
+    }
+
+    /**
+     * Provides the number of requests rejected because they exceeded the limits.
+     *
+     * @return the number of rejected requests.
+     */
+    public long getRejectedCount() {
+        return rejections.sum();
+    }
+
+    /**
+     * Provides the number of times the limits have been tightened following the answer of a server.
+     *
+     * @return the number of adaptations to the server.
+     */
+    public long getPausedCount() {
+        return pauses.sum();
+    }
+
+    /**
+     * Takes a token from the bucket of each limit matched by the given request.
+     * A token that is not available yet is reserved, unless the wait for it is longer than the maximum delay.
+     * A rejected request takes no token at all: the ones already taken from the other buckets are given back.
+     *
+     * @param request the request to perform.
+     * @return the time in nanoseconds to wait before performing the request, 0 if it can be performed right away.
+     * @throws RateLimitExceededException if the request is rejected.
+     */
+    long acquire(RestRequest request) {
+        String endpoint = request.getEndpoint();
+        String host = Endpoints.hostOf(endpoint);
+        String path = Endpoints.pathOf(endpoint);
+        long now = System.nanoTime();
+        long wait = 0;
+        boolean limited = false;
+        for (int i = 0; i < rules.size(); i++) {
+            TokenBucket bucket = rules.get(i).bucketFor(host, path);
+            if (bucket == null) {
+                continue;
+            }
+            limited = true;
+            long bucketWait = bucket.reserve(now, maxDelay);
+            if (bucketWait > maxDelay) {
+                release(host, path, i);
+                rejections.increment();
+                log.debug("Rejecting {} request for {} exceeding rate limit", request.getMethod(), endpoint);
+                throw new RateLimitExceededException(endpoint, TimeUnit.NANOSECONDS.toMillis(bucketWait));
+            }
+            wait = Math.max(wait, bucketWait);
+        }
+        if (!limited) {
+            return 0;
+        }
+        permits.increment();
+        if (wait > 0) {
+            delays.increment();
+        }
+        return wait;
+    }
+
+    /**
+     * Gives back the tokens taken by {@link #acquire} for the given request, when it is not performed after all.
+     *
+     * @param request the request that is not performed.
+     */
+    void release(RestRequest request) {
+        String endpoint = request.getEndpoint();
+        release(Endpoints.hostOf(endpoint), Endpoints.pathOf(endpoint), rules.size());
+    }
+
+    /**
+     * Gives back the tokens taken from the buckets of the first given rules matched by a request.
+     *
+     * @param host the host of the request.
+     * @param path the path of the request.
+     * @param count the number of rules whose tokens to give back.
+     */
+    private void release(String host, String path, int count) {
+        for (int i = 0; i < count; i++) {
+            TokenBucket bucket = rules.get(i).bucketFor(host, path);
+            if (bucket != null) {
+                bucket.release();
+            }
+        }
+    }
+
+    /**
+     * Adapts the limits of the given request to the answer of the server, emptying their buckets until the time
+     * asked by the Retry-After header, or for a second without it, when the server is overloaded.
+     *
+     * @param request the performed request.
+     * @param status the status of the response.
+     * @param retryAfter the value of the Retry-After header of the response, if any.
+     */
+    void onResponse(RestRequest request, int status, String retryAfter) {
+        if (status != TOO_MANY_REQUESTS && (status != SERVICE_UNAVAILABLE || retryAfter == null)) {
+            return;
+        }
+        String endpoint = request.getEndpoint();
+        String host = Endpoints.hostOf(endpoint);
+        String path = Endpoints.pathOf(endpoint);
+        long delay = TimeUnit.MILLISECONDS.toNanos(parseRetryAfter(retryAfter));
+        long now = System.nanoTime();
+        boolean paused = false;
+        for (RateLimitRule rule : rules) {
+            TokenBucket bucket = rule.bucketFor(host, path);
+            if (bucket != null) {
+                bucket.pause(now, delay);
+                paused = true;
+            }
+        }
+        if (paused) {
+            pauses.increment();
+            log.debug("Pausing rate limits of {} for {} ms after status {}",
+                    endpoint, TimeUnit.NANOSECONDS.toMillis(delay), status);
+        }
+    }
+
+    /**
+     * Parses the given Retry-After header, given either as a number of seconds or as a date.
+     *
+     * @param retryAfter the value of the header, if any.
+     * @return the time to wait in milliseconds, {@value #DEFAULT_PAUSE} ms if it is missing or invalid.
+     */
+    private static long parseRetryAfter(String retryAfter) {
+        if (retryAfter == null) {
+            return DEFAULT_PAUSE;
+        }
+        String value = retryAfter.trim();
+        try {
+            return Math.max(0, Long.parseLong(value) * 1000);
+        } catch (NumberFormatException e) {
+            try {
+                ZonedDateTime date = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME);
+                return Math.max(0, date.toInstant().toEpochMilli() - System.currentTimeMillis());
+            } catch (DateTimeParseException ex) {
+                return DEFAULT_PAUSE;
+            }
+        }
+    }
+
+    /**
+     * How requests exceeding the limits are handled.
+     */
+    @Getter
+    private final RateLimitMode mode;
+
+    /**
+     * The maximum time in nanoseconds a request waits for a token before being rejected.
+     */
+    private final long maxDelay;
+
+    /**
+     * The rules enforcing the limits.
+     */
+    private final List<RateLimitRule> rules;
+
+    /**
+     * The number of allowed requests.
+     */
+    private final LongAdder permits;
+
+    /**
+     * The number of delayed requests.
+     */
+    private final LongAdder delays;
+
+    /**
+     * The number of rejected requests.
+     */
+    private final LongAdder rejections;
+
+    /**
+     * The number of adaptations to the server.
+     */
+    private final LongAdder pauses;
+
+    private static final long DEFAULT_MAX_DELAY = 30000;
+    private static final long DEFAULT_PAUSE = 1000;
+    private static final int TOO_MANY_REQUESTS = 429;
+    private static final int SERVICE_UNAVAILABLE = 503;
+}
@@ -0,0 +1,214 @@
+package resty.ratelimit;
+
+import lombok.extern.slf4j.Slf4j;
+import resty.concurrent.AsyncExecutors;
+import resty.engine.RestEngine;
+import resty.request.RestRequest;
+import resty.response.RestResponse;
+import resty.response.StreamingRestResponse;
+
+import javax.ws.rs.ProcessingException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Limits the rate of the requests performed by another engine according to a {@link RateLimiter}.
+ * Requests waiting for a token block the calling thread, except non-blocking ones, which are scheduled for when
+ * their token is available without holding any thread whatever the mode, since they may be started from threads
+ * that must not block, such as the one scheduling retries and hedged requests.
+ * Requests waiting longer than the maximum delay, or any request exceeding the limits in {@link RateLimitMode#REJECT}
+ * mode, fail with a {@link RateLimitExceededException}.
+ */
+@Slf4j
+public class RateLimitingEngine implements RestEngine {
+
+    /**
+     * Builds an engine limiting the rate of the requests performed by the given one.
+     *
+     * @param delegate the engine actually performing the requests.
+     * @param limiter the limiter enforcing the limits.
+     */
+    public RateLimitingEngine(RestEngine delegate, RateLimiter limiter) {
+        this.delegate = delegate;
+        this.limiter = limiter;
+    }
+
+    /**
+     * Performs the given request once it is allowed by the limits.
+     *
+     * @param request the request to perform.
+     * @return the response given back to the performed request.
+     */
+    @Override
+    public RestResponse execute(RestRequest request) {
+        await(request, limiter.acquire(request));
+        RestResponse response = delegate.execute(request);
+        limiter.onResponse(request, response.getStatus(), response.getHeader(RETRY_AFTER));
+        return response;
+    }
+
+    /**
+     * Performs the given request without reading the response body once it is allowed by the limits.
+     *
+     * @param request the request to perform.
+     * @return the streaming response given back to the performed request.
+     */
+    @Override
+    public StreamingRestResponse stream(RestRequest request) {
+        await(request, limiter.acquire(request));
+        StreamingRestResponse response = delegate.stream(request);
+        limiter.onResponse(request, response.getStatus(), response.getHeader(RETRY_AFTER));
+        return response;
+    }
+
+    /**
+     * Performs the given request without blocking once it is allowed by the limits.
+     * Requests waiting for a token are scheduled for when it is available, so that the calling thread never waits.
+     * Requests rejected by the limits are given back as futures failed with a {@link RateLimitExceededException}.
+     * Cancelling the returned future of a delayed request cancels it before or after it is performed,
+     * giving back its token if it has not been performed yet.
+     *
+     * @param request the request to perform.
+     * @return the future completed with the response given back to the performed request.
+     */
+    @Override
+    public CompletableFuture<RestResponse> executeAsync(RestRequest request) {
+        long wait;
+        try {
+            wait = limiter.acquire(request);
+        } catch (RateLimitExceededException e) {
+            CompletableFuture<RestResponse> rejected = new CompletableFuture<>();
+            rejected.completeExceptionally(e);
+            return rejected;
+        }
+        if (wait == 0) {
+            return perform(request);
+        }
+        log.debug("Scheduling {} request for {} in {} ms to respect rate limit",
+                request.getMethod(), request.getEndpoint(), TimeUnit.NANOSECONDS.toMillis(wait));
+        CompletableFuture<RestResponse> result = new CompletableFuture<>();
+        AtomicReference<CompletableFuture<RestResponse>> inFlight = new AtomicReference<>();
+        AtomicBoolean started = new AtomicBoolean();
+        try {
+            ScheduledFuture<?> scheduled = scheduler().schedule(() -> {
+                if (!started.compareAndSet(false, true)) {
+                    return;
+                }
+                CompletableFuture<RestResponse> future;
+                try {
+                    future = perform(request);
+                } catch (RuntimeException e) {
+                    result.completeExceptionally(e);
+                    return;
+                }
+                inFlight.set(future);
+                future.whenComplete((response, throwable) -> {
+                    if (throwable != null) {
+                        result.completeExceptionally(throwable);
+                    } else {
+                        result.complete(response);
+                    }
+                });
+            }, wait, TimeUnit.NANOSECONDS);
+            result.whenComplete((response, throwable) -> {
+                scheduled.cancel(false);
+                if (started.compareAndSet(false, true)) {
+                    log.debug("Giving back token of {} request for {} completed before being performed",
+                            request.getMethod(), request.getEndpoint());
+                    limiter.release(request);
+                    return;
+                }
+                CompletableFuture<RestResponse> future = inFlight.get();
+                if (result.isCancelled() && future != null) {
+                    future.cancel(true);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            limiter.release(request);
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
+    /**
+     * Closes the engine actually performing the requests. Requests already delayed are still performed,
+     * so that their futures are completed.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (scheduler != null) {
+                scheduler.shutdown();
+            }
+        }
+        delegate.close();
+    }
+
+    /**
+     * Performs the given request without blocking, adapting the limits to its response.
+     *
+     * @param request the request to perform.
+     * @return the future completed with the response given back to the performed request.
+     */
+    private CompletableFuture<RestResponse> perform(RestRequest request) {
+        CompletableFuture<RestResponse> future = delegate.executeAsync(request);
+        future.thenAccept(response ->
+                limiter.onResponse(request, response.getStatus(), response.getHeader(RETRY_AFTER)));
+        return future;
+    }
+
+    /**
+     * Waits on the calling thread until the token of the given request is available.
+     *
+     * @param request the request to perform.
+     * @param wait the time to wait in nanoseconds.
+     * @throws ProcessingException if the thread is interrupted while waiting.
+     */
+    private static void await(RestRequest request, long wait) {
+        if (wait <= 0) {
+            return;
+        }
+        log.debug("Delaying {} request for {} by {} ms to respect rate limit",
+                request.getMethod(), request.getEndpoint(), TimeUnit.NANOSECONDS.toMillis(wait));
+        try {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ProcessingException("Interrupted while waiting for rate limit of " + request.getEndpoint());
+        }
+    }
+
+    /**
+     * Provides the executor scheduling the delayed non-blocking requests, creating it on first use.
+     *
+     * @return the executor scheduling the delayed requests.
+     */
+    private synchronized ScheduledExecutorService scheduler() {
+        if (scheduler == null) {
+            scheduler = AsyncExecutors.scheduler();
+        }
+        return scheduler;
+    }
+
+    /**
+     * The engine actually performing the requests.
+     */
+    private final RestEngine delegate;
+
+    /**
+     * The limiter enforcing the limits.
+     */
+    private final RateLimiter limiter;
+
+    /**
+     * The executor scheduling the delayed non-blocking requests, if any has been delayed.
+     */
+    private ScheduledExecutorService scheduler;
+
+    private static final String RETRY_AFTER = "Retry-After";
+}
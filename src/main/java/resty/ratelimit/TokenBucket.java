@@ -0,0 +1,87 @@
+package resty.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket kept as the time the next request would be allowed at if no burst was allowed,
+ * so that taking a token is a single compare-and-set without any lock or refill thread.
+ * Tokens can be reserved in advance, so that waiting requests are spread at the rate of the bucket.
+ */
+final class TokenBucket {
+
+    /**
+     * Builds a full bucket.
+     *
+     * @param permitsPerSecond the number of tokens added each second.
+     * @param burst the maximum number of tokens in the bucket.
+     */
+    TokenBucket(double permitsPerSecond, int burst) {
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("Permits per second must be positive");
+        }
+        this.interval = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+        this.tolerance = interval * Math.max(1, burst);
+        this.theoreticalArrival = new AtomicLong(Long.MIN_VALUE);
+    }
+
+    /**
+     * Takes a token, reserving it if the bucket is empty and the wait for it is not too long.
+     *
+     * @param now the current time in nanoseconds.
+     * @param maxWait the maximum time in nanoseconds to wait for a token.
+     * @return the time in nanoseconds to wait before using the token, 0 if it can be used right away.
+     * Greater than the maximum wait if no token has been taken.
+     */
+    long reserve(long now, long maxWait) {
+        while (true) {
+            long current = theoreticalArrival.get();
+            long next = Math.max(current, now) + interval;
+            long wait = next - tolerance - now;
+            if (wait > maxWait) {
+                return wait;
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                return Math.max(0, wait);
+            }
+        }
+    }
+
+    /**
+     * Gives back a token taken by {@link #reserve}, when the request it was taken for is not performed after all.
+     */
+    void release() {
+        theoreticalArrival.addAndGet(-interval);
+    }
+
+    /**
+     * Empties the bucket until the given time, after which tokens are added again at the rate of the bucket.
+     *
+     * @param now the current time in nanoseconds.
+     * @param delay the time in nanoseconds without tokens.
+     */
+    void pause(long now, long delay) {
+        long target = now + delay + tolerance - interval;
+        while (true) {
+            long current = theoreticalArrival.get();
+            if (current != Long.MIN_VALUE && current >= target || theoreticalArrival.compareAndSet(current, target)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * The time in nanoseconds between two tokens.
+     */
+    private final long interval;
+
+    /**
+     * The time in nanoseconds taken to fill the bucket.
+     */
+    private final long tolerance;
+
+    /**
+     * The time in nanoseconds the next request would be allowed at if no burst was allowed.
+     */
+    private final AtomicLong theoreticalArrival;
+}
@@ -0,0 +1,88 @@
+package resty.request;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Provides the parts of an endpoint without parsing it as a URI, since they are looked up for every request.
+ */
+public final class Endpoints {
+
+    private Endpoints() {
+    }
+
+    /**
+     * Provides the host of the given endpoint, along with its port if any.
+     *
+     * @param endpoint the endpoint of the service to which make the request.
+     * @return the host and port of the endpoint, or the whole endpoint if it has no scheme.
+     */
+    public static String hostOf(String endpoint) {
+        int start = authorityStart(endpoint);
+        if (start < 0) {
+            return endpoint;
+        }
+        return endpoint.substring(start, authorityEnd(endpoint, start));
+    }
+
+    /**
+     * Provides the path of the given endpoint, without query and fragment.
+     *
+     * @param endpoint the endpoint of the service to which make the request.
+     * @return the path of the endpoint, "/" if it has none.
+     */
+    public static String pathOf(String endpoint) {
+        int start = authorityStart(endpoint);
+        int pathStart = start < 0 ? 0 : authorityEnd(endpoint, start);
+        int pathEnd = pathStart;
+        while (pathEnd < endpoint.length() && endpoint.charAt(pathEnd) != '?' && endpoint.charAt(pathEnd) != '#') {
+            pathEnd++;
+        }
+        return pathEnd > pathStart ? endpoint.substring(pathStart, pathEnd) : "/";
+    }
+
+    /**
+     * Encodes the given value to be part of a path segment or of a query string.
+     * Spaces are encoded as %20, so that the value is encoded the same way in both.
+     *
+     * @param value the value to encode.
+     * @return the encoded value.
+     */
+    public static String encode(String value) {
+        try {
+            return URLEncoder.encode(value, UTF_8.name()).replace("+", "%20");
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Provides the position where the authority of the given endpoint starts.
+     *
+     * @param endpoint the endpoint to parse.
+     * @return the position after the scheme separator, or -1 if there's none.
+     */
+    private static int authorityStart(String endpoint) {
+        int separator = endpoint.indexOf(SCHEME_SEPARATOR);
+        return separator < 0 ? -1 : separator + SCHEME_SEPARATOR.length();
+    }
+
+    /**
+     * Provides the position where the authority of the given endpoint ends.
+     *
+     * @param endpoint the endpoint to parse.
+     * @param start the position where the authority starts.
+     * @return the position of the first character after the authority.
+     */
+    private static int authorityEnd(String endpoint, int start) {
+        int end = start;
+        while (end < endpoint.length() && "/?#".indexOf(endpoint.charAt(end)) < 0) {
+            end++;
+        }
+        return end;
+    }
+
+    private static final String SCHEME_SEPARATOR = "://";
+}
@@ -0,0 +1,63 @@
+package resty.request;
+
+import resty.entity.RestEntity;
+import resty.entity.TypedRestEntity;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+import static resty.entity.TypedRestEntity.buildFromEntities;
+
+/**
+ * Identifies requests that are equivalent, so that their responses can be shared.
+ * The order of parameters and headers does not matter, and names of headers are case-insensitive.
+ */
+public final class RequestKey {
+
+    private RequestKey() {
+    }
+
+    /**
+     * Provides the key identifying the given request, made of its endpoint, parameters and headers.
+     *
+     * @param request the request to identify.
+     * @return the key of the request.
+     */
+    public static String of(RestRequest request) {
+        TypedRestEntity typedRestEntity = buildFromEntities(request.getEntities());
+        StringBuilder key = new StringBuilder(request.getEndpoint());
+        appendSorted(key.append('?'), typedRestEntity.getParameters(), false);
+        appendSorted(key.append('#'), typedRestEntity.getHeaders(), true);
+        return key.toString();
+    }
+
+    /**
+     * Appends the given entities to the given key, sorted by name so that their order does not matter.
+     *
+     * @param key the key to append the entities to.
+     * @param entities the entities to append.
+     * @param caseInsensitive whether the names of the entities are case-insensitive.
+     */
+    private static void appendSorted(StringBuilder key, List<RestEntity> entities, boolean caseInsensitive) {
+        List<RestEntity> sorted = new ArrayList<>(entities);
+        sorted.sort(Comparator.comparing(entity -> nameOf(entity, caseInsensitive)));
+        for (RestEntity entity : sorted) {
+            String name = nameOf(entity, caseInsensitive);
+            key.append(name.length()).append(':').append(name).append('=')
+                    .append(entity.getValue().length()).append(':').append(entity.getValue()).append('&');
+        }
+    }
+
+    /**
+     * Provides the name of the given entity as part of a key.
+     *
+     * @param entity the entity to name.
+     * @param caseInsensitive whether the name of the entity is case-insensitive.
+     * @return the name of the entity, lower case if it is case-insensitive.
+     */
+    private static String nameOf(RestEntity entity, boolean caseInsensitive) {
+        return caseInsensitive ? entity.getName().toLowerCase(Locale.ROOT) : entity.getName();
+    }
+}
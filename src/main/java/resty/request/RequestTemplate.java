@@ -0,0 +1,345 @@
+package resty.request;
+
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+import resty.entity.RestEntities;
+import resty.entity.RestEntity;
+import resty.retry.RetryPolicy;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
+
+/**
+ * Models a request defined once and performed many times, with only its variable parts bound for each call.
+ * The URI template is parsed when the template is built, with path variables written as {@code {name}},
+ * and its static parameters are encoded into its query string once. Requests bound from the template
+ * carry their URI already built, along with the static headers only, in a container already split by type,
+ * so that the engines do not parse the endpoint, split the entities nor add the parameters one at a time.
+ * <pre>{@code
+ * RequestTemplate template = RequestTemplate.builder()
+ *         .method(RestMethod.GET)
+ *         .uri("https://api.example.com/users/{id}/orders")
+ *         .entities(withHeader("Accept", "application/json"), withParameter("limit", 20))
+ *         .build();
+ * RestResponse response = resty.execute(template.bind(42));
+ * }</pre>
+ */
+@Getter
+@ToString(onlyExplicitlyIncluded = true)
+public class RequestTemplate {
+
+    /**
+     * Builds a template, parsing its URI and encoding its static parameters.
+     *
+     * @param method the HTTP method of the requests, GET if none is given.
+     * @param uri the URI template of the requests, with path variables written as {name}.
+     * @param mediaType the media type of the bodies of the requests, JSON if none is given.
+     * @param connectionTimeout the value for the connection timeout property.
+     * @param readTimeout the value for the read timeout property.
+     * @param retryPolicy the policy retrying the requests instead of the one of the client, if any.
+     * @param entities the static headers and parameters of the requests.
+     * @throws IllegalArgumentException if the URI template is not valid.
+     */
+    @Builder
+    private RequestTemplate(RestMethod method, String uri, String mediaType, int connectionTimeout, int readTimeout,
+                            RetryPolicy retryPolicy, RestEntity... entities) {
+        if (uri == null) {
+            throw new IllegalArgumentException("The URI template is required");
+        }
+        this.method = method != null ? method : RestMethod.GET;
+        this.uri = uri;
+        this.mediaType = mediaType != null ? mediaType : APPLICATION_JSON;
+        this.connectionTimeout = connectionTimeout;
+        this.readTimeout = readTimeout;
+        this.retryPolicy = retryPolicy;
+        List<String> literalParts = new ArrayList<>();
+        List<String> variableNames = new ArrayList<>();
+        parse(uri, literalParts, variableNames);
+        this.literals = literalParts.toArray(new String[0]);
+        this.variableNames = variableNames.toArray(new String[0]);
+        this.variables = Collections.unmodifiableList(distinct(variableNames));
+        RestEntities staticEntities = RestEntities.of(entities);
+        RestEntities.Builder headersBuilder = RestEntities.builder();
+        for (int i = 0; i < staticEntities.getHeaderCount(); i++) {
+            headersBuilder.header(staticEntities.getHeaderName(i), staticEntities.getHeaderValue(i));
+        }
+        this.headers = new RestEntity[]{headersBuilder.build()};
+        StringBuilder query = new StringBuilder();
+        appendParameters(query, uri.indexOf('?') >= 0, staticEntities);
+        this.query = query.toString();
+    }
+
+    /**
+     * Binds the path variables of the template in order of appearance, without body nor additional entities.
+     * Variables are bound by name with {@link #bindNamed(Map)}.
+     *
+     * @param values the values of the path variables, in order of appearance.
+     * @return the request to perform.
+     * @throws IllegalArgumentException if the number of values does not match the number of variables,
+     * or if a value is a map.
+     */
+    public RestRequest bind(Object... values) {
+        return bindBody(null, values);
+    }
+
+    /**
+     * Binds the path variables of the template in order of appearance, along with the given body.
+     *
+     * @param body the body of the request, if any.
+     * @param values the values of the path variables, in order of appearance.
+     * @return the request to perform.
+     * @throws IllegalArgumentException if the number of values does not match the number of variables,
+     * or if a value is a map.
+     */
+    public RestRequest bindBody(Object body, Object... values) {
+        Object[] bound = values != null ? values : new Object[0];
+        for (Object value : bound) {
+            if (value instanceof Map) {
+                throw new IllegalArgumentException("Template " + uri + " is given a map as value of a variable, "
+                        + "variables are bound by name with bindNamed");
+            }
+        }
+        if (bound.length != variables.size()) {
+            throw new IllegalArgumentException(String.format(
+                    "Template %s has %d variables, %d values given", uri, variables.size(), bound.length));
+        }
+        StringBuilder endpoint = new StringBuilder(uri.length() + query.length() + EXTRA_LENGTH);
+        for (int i = 0; i < literals.length; i++) {
+            endpoint.append(literals[i]);
+            if (i < variableNames.length) {
+                endpoint.append(encodeValue(variableNames[i], bound[variables.indexOf(variableNames[i])]));
+            }
+        }
+        endpoint.append(query);
+        return toRestRequest(endpoint, body, headers);
+    }
+
+    /**
+     * Binds the path variables of the template by name, without body nor additional entities.
+     *
+     * @param values the values of the path variables by name.
+     * @return the request to perform.
+     * @throws IllegalArgumentException if a variable has no value.
+     */
+    public RestRequest bindNamed(Map<String, ?> values) {
+        return bindNamed(values, null);
+    }
+
+    /**
+     * Binds the path variables of the template by name, along with the given body and additional entities.
+     * The additional parameters are appended to the static ones, and the additional headers are sent
+     * along with the static ones.
+     *
+     * @param values the values of the path variables by name.
+     * @param body the body of the request, if any.
+     * @param entities the additional headers and parameters of the request.
+     * @return the request to perform.
+     * @throws IllegalArgumentException if a variable has no value.
+     */
+    public RestRequest bindNamed(Map<String, ?> values, Object body, RestEntity... entities) {
+        StringBuilder endpoint = new StringBuilder(uri.length() + query.length() + EXTRA_LENGTH);
+        for (int i = 0; i < literals.length; i++) {
+            endpoint.append(literals[i]);
+            if (i < variableNames.length) {
+                endpoint.append(encodeValue(variableNames[i], values.get(variableNames[i])));
+            }
+        }
+        endpoint.append(query);
+        if (entities == null || entities.length == 0) {
+            return toRestRequest(endpoint, body, headers);
+        }
+        RestEntities additional = RestEntities.of(entities);
+        appendParameters(endpoint, endpoint.indexOf("?") >= 0, additional);
+        if (additional.getHeaderCount() == 0) {
+            return toRestRequest(endpoint, body, headers);
+        }
+        RestEntities.Builder allHeaders = RestEntities.builder().add(headers);
+        for (int i = 0; i < additional.getHeaderCount(); i++) {
+            allHeaders.header(additional.getHeaderName(i), additional.getHeaderValue(i));
+        }
+        return toRestRequest(endpoint, body, new RestEntity[]{allHeaders.build()});
+    }
+
+    /**
+     * Builds the request for the given endpoint, whose URI is built right away.
+     *
+     * @param endpoint the endpoint with the variables bound and the query string.
+     * @param body the body of the request, if any.
+     * @param entities the headers of the request.
+     * @return the request to perform.
+     */
+    private RestRequest toRestRequest(StringBuilder endpoint, Object body, RestEntity[] entities) {
+        String boundEndpoint = endpoint.toString();
+        return RestRequest.builder()
+                .method(method)
+                .endpoint(boundEndpoint)
+                .uri(URI.create(boundEndpoint))
+                .body(body)
+                .mediaType(mediaType)
+                .connectionTimeout(connectionTimeout)
+                .readTimeout(readTimeout)
+                .entities(entities)
+                .retryPolicy(retryPolicy)
+                .build();
+    }
+
+    /**
+     * Encodes the value of the given variable.
+     *
+     * @param name the name of the variable.
+     * @param value the value of the variable.
+     * @return the encoded value.
+     * @throws IllegalArgumentException if the value is missing.
+     */
+    private String encodeValue(String name, Object value) {
+        if (value == null) {
+            throw new IllegalArgumentException(String.format("Variable %s of template %s has no value", name, uri));
+        }
+        return Endpoints.encode(value.toString());
+    }
+
+    /**
+     * Appends the parameters among the given entities to the given query string.
+     *
+     * @param query the query string to append to.
+     * @param hasQuery whether the query string already has its separator.
+     * @param entities the entities whose parameters have to be appended.
+     */
+    private static void appendParameters(StringBuilder query, boolean hasQuery, RestEntities entities) {
+        for (int i = 0; i < entities.getParameterCount(); i++) {
+            query.append(hasQuery || i > 0 ? '&' : '?')
+                    .append(Endpoints.encode(entities.getParameterName(i))).append('=')
+                    .append(Endpoints.encode(entities.getParameterValue(i)));
+        }
+    }
+
+    /**
+     * Parses the given URI template into the literal parts and the names of the variables between them.
+     *
+     * @param uri the URI template to parse.
+     * @param literals the list receiving the literal parts, one more than the variables.
+     * @param variables the list receiving the names of the variables, in order of appearance.
+     * @throws IllegalArgumentException if a variable is not closed or has no name.
+     */
+    private static void parse(String uri, List<String> literals, List<String> variables) {
+        int literalStart = 0;
+        int open = uri.indexOf('{');
+        while (open >= 0) {
+            int close = uri.indexOf('}', open);
+            if (close < 0 || close == open + 1 || uri.indexOf('{', open + 1) >= 0 && uri.indexOf('{', open + 1) < close) {
+                throw new IllegalArgumentException("Invalid URI template " + uri);
+            }
+            literals.add(uri.substring(literalStart, open));
+            variables.add(uri.substring(open + 1, close).trim());
+            literalStart = close + 1;
+            open = uri.indexOf('{', literalStart);
+        }
+        if (uri.indexOf('}', literalStart) >= 0) {
+            throw new IllegalArgumentException("Invalid URI template " + uri);
+        }
+        literals.add(uri.substring(literalStart));
+    }
+
+    /**
+     * Provides the given names without duplicates, in order of first appearance.
+     *
+     * @param names the names to deduplicate.
+     * @return the distinct names.
+     */
+    private static List<String> distinct(List<String> names) {
+        List<String> distinct = new ArrayList<>(names.size());
+        for (String name : names) {
+            if (!distinct.contains(name)) {
+                distinct.add(name);
+            }
+        }
+        return distinct;
+    }
+
+    /**
+     * Builds templates, accepting their static entities as variable arguments.
+     */
+    public static class RequestTemplateBuilder {
+
+        /**
+         * Sets the static headers and parameters of the requests.
+         *
+         * @param entities the static headers and parameters.
+         * @return the builder.
+         */
+        public RequestTemplateBuilder entities(RestEntity... entities) {
+            this.entities = entities;
+            return this;
+        }
+    }
+
+    /**
+     * HTTP method of the requests.
+     */
+    @ToString.Include
+    private final RestMethod method;
+
+    /**
+     * URI template of the requests.
+     */
+    @ToString.Include
+    private final String uri;
+
+    /**
+     * Media type of the bodies of the requests.
+     */
+    private final String mediaType;
+
+    /**
+     * Value for the connection timeout property.
+     */
+    private final int connectionTimeout;
+
+    /**
+     * Value for the read timeout property.
+     */
+    private final int readTimeout;
+
+    /**
+     * Policy retrying the requests instead of the one of the client performing them, if any.
+     */
+    private final RetryPolicy retryPolicy;
+
+    /**
+     * Names of the path variables, without duplicates, in order of appearance.
+     */
+    private final List<String> variables;
+
+    /**
+     * Literal parts of the URI template, around the variables.
+     */
+    @Getter(AccessLevel.NONE)
+    private final String[] literals;
+
+    /**
+     * Names of the variables between the literal parts, with duplicates.
+     */
+    @Getter(AccessLevel.NONE)
+    private final String[] variableNames;
+
+    /**
+     * Static headers of the requests, held by a single container.
+     */
+    @Getter(AccessLevel.NONE)
+    private final RestEntity[] headers;
+
+    /**
+     * Encoded query string of the static parameters, along with its separator, empty if there are none.
+     */
+    @Getter(AccessLevel.NONE)
+    private final String query;
+
+    private static final int EXTRA_LENGTH = 32;
+}
@@ -0,0 +1,68 @@
+package resty.request;
+
+/**
+ * Possible HTTP methods for a REST request.
+ */
+public enum RestMethod {
+    GET("GET", false, true),
+    POST("POST", true, false),
+    PUT("PUT", true, true),
+    PATCH("PATCH", true, false),
+    DELETE("DELETE", false, true);
+
+    /**
+     * Provides an HTTP method based on a string value.
+     *
+     * @param value the value for the HTTP method.
+     * @param body whether requests for the HTTP method carry a body.
+     * @param idempotent whether performing a request for the HTTP method more than once has the same effect as once.
+     */
+    RestMethod(String value, boolean body, boolean idempotent) {
+        this.value = value;
+        this.body = body;
+        this.idempotent = idempotent;
+    }
+
+    /**
+     * Provides the value of an HTTP method as a string.
+     *
+     * @return the value of an HTTP method as a string
+     */
+    public String toValue() {
+        return value;
+    }
+
+    /**
+     * Checks whether requests for the HTTP method carry a body.
+     *
+     * @return true if requests carry a body, false otherwise.
+     */
+    public boolean hasBody() {
+        return body;
+    }
+
+    /**
+     * Checks whether performing a request for the HTTP method more than once has the same effect as once,
+     * so that it can be safely retried.
+     *
+     * @return true if requests are idempotent, false otherwise.
+     */
+    public boolean isIdempotent() {
+        return idempotent;
+    }
+
+    /**
+     * Value of the HTTP method as a string.
+     */
+    private final String value;
+
+    /**
+     * Whether requests for the HTTP method carry a body.
+     */
+    private final boolean body;
+
+    /**
+     * Whether requests for the HTTP method are idempotent.
+     */
+    private final boolean idempotent;
+}
@@ -0,0 +1,154 @@
+package resty.request;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+import resty.entity.RestEntity;
+import resty.retry.RetryPolicy;
+
+import java.net.URI;
+
+import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
+
+/**
+ * Models a REST request to be performed later, for example as part of a batch.
+ * Timeouts that are not positive are replaced with the default values of the client performing the request.
+ */
+@Getter
+@ToString
+@Builder(toBuilder = true)
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class RestRequest {
+
+    /**
+     * Builds a request for the GET HTTP method.
+     *
+     * @param endpoint the endpoint of the service to which make the request.
+     * @param entities headers and parameters for the request.
+     * @return the built request.
+     */
+    public static RestRequest get(String endpoint, RestEntity... entities) {
+        return withoutBody(RestMethod.GET, endpoint, entities);
+    }
+
+    /**
+     * Builds a request for the POST HTTP method with a JSON body.
+     *
+     * @param endpoint the endpoint of the service to which make the request.
+     * @param body the body associated to the request.
+     * @param entities headers and parameters for the request.
+     * @return the built request.
+     */
+    public static RestRequest post(String endpoint, Object body, RestEntity... entities) {
+        return withBody(RestMethod.POST, endpoint, body, entities);
+    }
+
+    /**
+     * Builds a request for the PUT HTTP method with a JSON body.
+     *
+     * @param endpoint the endpoint of the service to which make the request.
+     * @param body the body associated to the request.
+     * @param entities headers and parameters for the request.
+     * @return the built request.
+     */
+    public static RestRequest put(String endpoint, Object body, RestEntity... entities) {
+        return withBody(RestMethod.PUT, endpoint, body, entities);
+    }
+
+    /**
+     * Builds a request for the PATCH HTTP method with a JSON body.
+     *
+     * @param endpoint the endpoint of the service to which make the request.
+     * @param body the body associated to the request.
+     * @param entities headers and parameters for the request.
+     * @return the built request.
+     */
+    public static RestRequest patch(String endpoint, Object body, RestEntity... entities) {
+        return withBody(RestMethod.PATCH, endpoint, body, entities);
+    }
+
+    /**
+     * Builds a request for the DELETE HTTP method.
+     *
+     * @param endpoint the endpoint of the service to which make the request.
+     * @param entities headers and parameters for the request.
+     * @return the built request.
+     */
+    public static RestRequest delete(String endpoint, RestEntity... entities) {
+        return withoutBody(RestMethod.DELETE, endpoint, entities);
+    }
+
+    /**
+     * Builds a request without body.
+     *
+     * @param method the HTTP method of the request.
+     * @param endpoint the endpoint of the service to which make the request.
+     * @param entities headers and parameters for the request.
+     * @return the built request.
+     */
+    private static RestRequest withoutBody(RestMethod method, String endpoint, RestEntity[] entities) {
+        return builder().method(method).endpoint(endpoint).entities(entities).build();
+    }
+
+    /**
+     * Builds a request with a JSON body.
+     *
+     * @param method the HTTP method of the request.
+     * @param endpoint the endpoint of the service to which make the request.
+     * @param body the body associated to the request.
+     * @param entities headers and parameters for the request.
+     * @return the built request.
+     */
+    private static RestRequest withBody(RestMethod method, String endpoint, Object body, RestEntity[] entities) {
+        return builder().method(method).endpoint(endpoint).body(body).entities(entities).build();
+    }
+
+    /**
+     * HTTP method of the request.
+     */
+    private final RestMethod method;
+
+    /**
+     * Endpoint of the service to which make the request.
+     */
+    private final String endpoint;
+
+    /**
+     * URI of the endpoint, used instead of parsing the endpoint when given, as done by request templates.
+     * It must match the endpoint, which is still used to identify the host and the path of the request.
+     */
+    private final URI uri;
+
+    /**
+     * Body associated to the request, if any.
+     */
+    private final Object body;
+
+    /**
+     * Media type of the body.
+     */
+    @Builder.Default
+    private final String mediaType = APPLICATION_JSON;
+
+    /**
+     * Value for the connection timeout property.
+     */
+    private final int connectionTimeout;
+
+    /**
+     * Value for the read timeout property.
+     */
+    private final int readTimeout;
+
+    /**
+     * Headers and parameters for the request.
+     */
+    private final RestEntity[] entities;
+
+    /**
+     * Policy retrying the request instead of the one of the client performing it, if any.
+     */
+    private final RetryPolicy retryPolicy;
+}
@@ -1,12 +1,17 @@
 package resty.response;
 
+import lombok.AllArgsConstructor;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
+import resty.json.JsonMapper;
 
-import javax.ws.rs.client.Client;
 import javax.ws.rs.core.Response;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Models an async response for a REST request.
@@ -18,11 +23,28 @@ public class AsyncRestResponse {
     /**
      * Builds an async response for a REST request.
      *
-     * @param client is the client used for the request.
      * @param futureResponse is the future to manage the response.
      */
-    public AsyncRestResponse(Client client, Future<Response> futureResponse) {
-        this.client = client;
+    public AsyncRestResponse(Future<Response> futureResponse) {
+        this(futureResponse, JsonMapper.getDefault());
+    }
+
+    /**
+     * Builds an async response for a REST request.
+     *
+     * @param futureResponse is the future to manage the response.
+     * @param jsonMapper is the mapper used to convert the response body.
+     */
+    public AsyncRestResponse(Future<Response> futureResponse, JsonMapper jsonMapper) {
+        this.futureResponse = new ReadingFuture(futureResponse, jsonMapper);
+    }
+
+    /**
+     * Builds an async response for a REST request whose response is read as soon as it is given back.
+     *
+     * @param futureResponse is the future completed with the response.
+     */
+    public AsyncRestResponse(CompletableFuture<RestResponse> futureResponse) {
         this.futureResponse = futureResponse;
     }
 
@@ -32,9 +54,7 @@ public class AsyncRestResponse {
      * @return the response based on data given back by the called service.
      */
     public RestResponse waitForResponse() throws ExecutionException, InterruptedException {
-        Response response = futureResponse.get();
-        restResponse = new RestResponse(response.getStatus(), response.readEntity(String.class));
-        close();
+        restResponse = futureResponse.get();
         return restResponse;
     }
 
@@ -48,24 +68,88 @@ public class AsyncRestResponse {
     }
     
     /**
-     * Closes the client used for the request.
+     * Releases the connection used for the request.
+     * The request is cancelled if it has not completed yet.
      */
     public void close() {
-        client.close();
+        if (restResponse != null || futureResponse.cancel(true)) {
+            return;
+        }
+        try {
+            futureResponse.get();
+        } catch (ExecutionException | CancellationException e) {
+            // nothing to release, the request did not complete
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
     }
 
-    /**
-     * The client used for the request.
-     */
-    private Client client;
-
     /**
      * The future to manage the response.
      */
-    private Future<Response> futureResponse;
+    private Future<RestResponse> futureResponse;
 
     /**
      * The response given back by the called service.
      */
     private RestResponse restResponse;
+
+    /**
+     * Reads the response of a future of the client once it has been given back,
+     * releasing the connection used for the request.
+     */
+    @AllArgsConstructor
+    private static class ReadingFuture implements Future<RestResponse> {
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            return futureResponse.cancel(mayInterruptIfRunning);
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return futureResponse.isCancelled();
+        }
+
+        @Override
+        public boolean isDone() {
+            return futureResponse.isDone();
+        }
+
+        @Override
+        public RestResponse get() throws InterruptedException, ExecutionException {
+            return read(futureResponse.get());
+        }
+
+        @Override
+        public RestResponse get(long timeout, TimeUnit unit)
+                throws InterruptedException, ExecutionException, TimeoutException {
+            return read(futureResponse.get(timeout, unit));
+        }
+
+        /**
+         * Reads the given response and releases the connection used for it.
+         *
+         * @param response the response given back by the called service.
+         * @return the response based on data given back by the called service.
+         */
+        private RestResponse read(Response response) {
+            try {
+                return new RestResponse(
+                        response.getStatus(), response.readEntity(String.class), response.getStringHeaders(), jsonMapper);
+            } finally {
+                response.close();
+            }
+        }
+
+        /**
+         * The future of the client to manage the response.
+         */
+        private final Future<Response> futureResponse;
+
+        /**
+         * The mapper used to convert the response body.
+         */
+        private final JsonMapper jsonMapper;
+    }
 }
@@ -1,10 +1,19 @@
 package resty.response;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JavaType;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.ToString;
+import resty.json.JsonMapper;
+import resty.timing.RequestTiming;
 
 import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 /**
  * Models a response for a REST request.
@@ -20,9 +29,71 @@ public class RestResponse {
      * @param body is the response body.
      */
     public RestResponse(int status, String body) {
+        this(status, body, JsonMapper.getDefault());
+    }
+
+    /**
+     * Builds a response based on data given back by the called service.
+     *
+     * @param status is the response status.
+     * @param body is the response body.
+     * @param jsonMapper is the mapper used to convert the response body.
+     */
+    public RestResponse(int status, String body, JsonMapper jsonMapper) {
+        this(status, body, Collections.emptyMap(), jsonMapper);
+    }
+
+    /**
+     * Builds a response based on data given back by the called service.
+     *
+     * @param status is the response status.
+     * @param body is the response body.
+     * @param headers is the response headers.
+     * @param jsonMapper is the mapper used to convert the response body.
+     */
+    public RestResponse(int status, String body, Map<String, List<String>> headers, JsonMapper jsonMapper) {
+        this(status, body, headers, jsonMapper, null);
+    }
+
+    /**
+     * Builds a response based on data given back by the called service.
+     *
+     * @param status is the response status.
+     * @param body is the response body.
+     * @param headers is the response headers.
+     * @param jsonMapper is the mapper used to convert the response body.
+     * @param timing is the timing of the request, if it has been timed.
+     */
+    public RestResponse(int status, String body, Map<String, List<String>> headers, JsonMapper jsonMapper,
+                        RequestTiming timing) {
         this.status = status;
         this.body = body;
+        this.headers = Collections.unmodifiableMap(caseInsensitive(headers));
         this.success = verifyStatus(MIN_SUCCESS_CODE, MAX_SUCCESS_CODE);
+        this.jsonMapper = jsonMapper;
+        this.timing = timing;
+    }
+
+    /**
+     * Provides the first value of the given response header.
+     * Returns null if the header is not part of the response.
+     *
+     * @param name the name of the header.
+     * @return the first value of the header.
+     */
+    public String getHeader(String name) {
+        List<String> values = headers.get(name);
+        return values == null || values.isEmpty() ? null : values.get(0);
+    }
+
+    /**
+     * Provides a copy of the response, sharing its status, headers, body and timing but not its converted body,
+     * so that it can be given to another caller without the objects converted by each of them being shared.
+     *
+     * @return the copy of the response.
+     */
+    public RestResponse copy() {
+        return new RestResponse(status, body, headers, jsonMapper, timing);
     }
 
     /**
@@ -44,14 +115,57 @@ public class RestResponse {
      * @return the response body as an instance of the given class.
      */
     public <Body> Body getBody(Class<Body> bodyClass) {
+        return getBody(jsonMapper.constructType(bodyClass));
+    }
+
+    /**
+     * Provides the response body as an object based on the given type reference,
+     * which allows to convert the body to generic types.
+     * Returns null if the response body cannot be converted to the given type.
+     *
+     * @param bodyType the type reference for the response body.
+     * @return the response body as an instance of the given type.
+     */
+    public <Body> Body getBody(TypeReference<Body> bodyType) {
+        return getBody(jsonMapper.constructType(bodyType));
+    }
+
+    /**
+     * Provides the response body as an object based on the given type.
+     * The converted body is kept, so that it is not converted again when it is required for the same type.
+     * Returns null if the response body cannot be converted to the given type.
+     *
+     * @param bodyType the type for the response body.
+     * @return the response body as an instance of the given type.
+     */
+    @SuppressWarnings("unchecked")
+    public <Body> Body getBody(JavaType bodyType) {
+        ConvertedBody converted = convertedBody;
+        if (converted != null && converted.getType().equals(bodyType)) {
+            return (Body) converted.getValue();
+        }
         try {
-            return new ObjectMapper().readValue(body, bodyClass);
+            Body value = jsonMapper.read(body, bodyType);
+            convertedBody = new ConvertedBody(bodyType, value);
+            return value;
         } catch (IOException e) {
             e.printStackTrace();
             return null;
         }
     }
 
+    /**
+     * Provides a copy of the given headers whose names are case-insensitive.
+     *
+     * @param headers the headers to copy.
+     * @return the copied headers.
+     */
+    static Map<String, List<String>> caseInsensitive(Map<String, List<String>> headers) {
+        Map<String, List<String>> copy = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        copy.putAll(headers);
+        return copy;
+    }
+
     /**
      * Response status.
      */
@@ -67,6 +181,31 @@ public class RestResponse {
      */
     private final String body;
 
+    /**
+     * Response headers.
+     */
+    @ToString.Exclude
+    private final Map<String, List<String>> headers;
+
+    /**
+     * Timing of the request, if it has been timed.
+     */
+    private final RequestTiming timing;
+
+    /**
+     * Mapper used to convert the response body.
+     */
+    @Getter(AccessLevel.NONE)
+    @ToString.Exclude
+    private final JsonMapper jsonMapper;
+
+    /**
+     * Response body as converted by the last call to {@link #getBody(JavaType)}.
+     */
+    @Getter(AccessLevel.NONE)
+    @ToString.Exclude
+    private volatile ConvertedBody convertedBody;
+
     /**
      * Maximum value for a positive status.
      */
@@ -76,4 +215,22 @@ public class RestResponse {
      * Minimum value for a positive status.
      */
     public static final int MIN_SUCCESS_CODE = 200;
+
+    /**
+     * Models the response body converted to a given type.
+     */
+    @Getter
+    @AllArgsConstructor
+    private static class ConvertedBody {
+
+        /**
+         * Type the body has been converted to.
+         */
+        private final JavaType type;
+
+        /**
+         * Converted body.
+         */
+        private final Object value;
+    }
 }
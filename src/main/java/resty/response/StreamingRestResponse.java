@@ -0,0 +1,195 @@
+package resty.response;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JavaType;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.ToString;
+import resty.json.JsonElementIterator;
+import resty.json.JsonMapper;
+import resty.json.JsonStreamFormat;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static resty.response.RestResponse.MAX_SUCCESS_CODE;
+import static resty.response.RestResponse.MIN_SUCCESS_CODE;
+import static resty.response.RestResponse.caseInsensitive;
+
+/**
+ * Models a response for a REST request whose body is read as a stream,
+ * so that it can be processed incrementally instead of being held in memory.
+ * A JSON array or newline-delimited JSON body can be converted one element at a time, as it is received.
+ * The response must be closed to release the connection used for the request.
+ */
+@Getter
+@ToString
+public class StreamingRestResponse implements Closeable {
+
+    /**
+     * Builds a streaming response based on data given back by the called service.
+     *
+     * @param status is the response status.
+     * @param headers is the response headers.
+     * @param inputStream is the stream of the response body.
+     */
+    public StreamingRestResponse(int status, Map<String, List<String>> headers, InputStream inputStream) {
+        this(status, headers, inputStream, JsonMapper.getDefault());
+    }
+
+    /**
+     * Builds a streaming response based on data given back by the called service.
+     *
+     * @param status is the response status.
+     * @param headers is the response headers.
+     * @param inputStream is the stream of the response body.
+     * @param jsonMapper is the mapper used to convert the elements of the response body.
+     */
+    public StreamingRestResponse(int status, Map<String, List<String>> headers, InputStream inputStream,
+                                 JsonMapper jsonMapper) {
+        this.status = status;
+        this.headers = Collections.unmodifiableMap(caseInsensitive(headers));
+        this.inputStream = inputStream;
+        this.success = status >= MIN_SUCCESS_CODE && status < MAX_SUCCESS_CODE;
+        this.jsonMapper = jsonMapper;
+    }
+
+    /**
+     * Provides the first value of the given response header.
+     * Returns null if the header is not part of the response.
+     *
+     * @param name the name of the header.
+     * @return the first value of the header.
+     */
+    public String getHeader(String name) {
+        List<String> values = headers.get(name);
+        return values == null || values.isEmpty() ? null : values.get(0);
+    }
+
+    /**
+     * Provides the response body as a channel.
+     *
+     * @return the channel to read the response body.
+     */
+    public ReadableByteChannel getChannel() {
+        return Channels.newChannel(inputStream);
+    }
+
+    /**
+     * Provides the elements of the response body, converted to the given class one at a time as they are read.
+     * The body is newline-delimited JSON if its Content-Type says so, otherwise it is a JSON array.
+     *
+     * @param elementClass the class for each element.
+     * @return the iterator over the elements, which closes the body once the last one is read.
+     */
+    public <Element> JsonElementIterator<Element> getElements(Class<Element> elementClass) {
+        return getElements(jsonMapper.constructType(elementClass), getFormat());
+    }
+
+    /**
+     * Provides the elements of the response body, converted to the given type reference one at a time as they are read,
+     * which allows to convert the elements to generic types.
+     * The body is newline-delimited JSON if its Content-Type says so, otherwise it is a JSON array.
+     *
+     * @param elementType the type reference for each element.
+     * @return the iterator over the elements, which closes the body once the last one is read.
+     */
+    public <Element> JsonElementIterator<Element> getElements(TypeReference<Element> elementType) {
+        return getElements(jsonMapper.constructType(elementType), getFormat());
+    }
+
+    /**
+     * Provides the elements of the response body, converted to the given type one at a time as they are read.
+     * Only the element being converted is held in memory, whatever the size of the body.
+     * The body can be read only once, either as elements or as a stream.
+     *
+     * @param elementType the type for each element.
+     * @param format the layout of the body.
+     * @return the iterator over the elements, which closes the body once the last one is read.
+     */
+    public <Element> JsonElementIterator<Element> getElements(JavaType elementType, JsonStreamFormat format) {
+        try {
+            return jsonMapper.iterate(inputStream, elementType, format);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Provides the elements of the response body as a sequential stream, converted to the given class
+     * one at a time as they are consumed. The body is closed when the stream is closed.
+     *
+     * @param elementClass the class for each element.
+     * @return the stream of the elements.
+     */
+    public <Element> Stream<Element> getElementStream(Class<Element> elementClass) {
+        return getElements(elementClass).stream();
+    }
+
+    /**
+     * Provides the elements of the response body as a sequential stream, converted to the given type reference
+     * one at a time as they are consumed. The body is closed when the stream is closed.
+     *
+     * @param elementType the type reference for each element.
+     * @return the stream of the elements.
+     */
+    public <Element> Stream<Element> getElementStream(TypeReference<Element> elementType) {
+        return getElements(elementType).stream();
+    }
+
+    /**
+     * Provides the layout of the response body given by its Content-Type header.
+     *
+     * @return newline-delimited JSON if the Content-Type says so, otherwise a JSON array.
+     */
+    public JsonStreamFormat getFormat() {
+        return JsonStreamFormat.fromContentType(getHeader(CONTENT_TYPE));
+    }
+
+    /**
+     * Closes the stream of the response body and releases the connection used for the request.
+     * The connection is kept alive only if the body has been fully read.
+     */
+    @Override
+    public void close() throws IOException {
+        inputStream.close();
+    }
+
+    /**
+     * Response status.
+     */
+    private final int status;
+
+    /**
+     * Whether the response succeeded or failed.
+     */
+    private final boolean success;
+
+    /**
+     * Response headers.
+     */
+    private final Map<String, List<String>> headers;
+
+    /**
+     * Stream of the response body.
+     */
+    @ToString.Exclude
+    private final InputStream inputStream;
+
+    /**
+     * Mapper used to convert the elements of the response body.
+     */
+    @Getter(AccessLevel.NONE)
+    @ToString.Exclude
+    private final JsonMapper jsonMapper;
+
+    private static final String CONTENT_TYPE = "Content-Type";
+}
@@ -0,0 +1,113 @@
+package resty.retry;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caps the retries to a fraction of the requests, so that retries never amplify an outage.
+ * It works as a token bucket: each request deposits a fraction of a token and each retry withdraws a whole one,
+ * so that once the bucket is empty failed requests are no longer retried until enough requests have been made.
+ * The bucket starts full, so that a few retries are allowed even with little traffic.
+ * It can be shared by several clients, so that they are capped together.
+ */
+public class RetryBudget {
+
+    /**
+     * Builds a budget allowing the given fraction of the requests to be retried.
+     *
+     * @param ratio the number of retries allowed for each request, between 0 and 1.
+     * @param maxRetries the maximum number of retries saved up, which are also allowed at first.
+     */
+    public RetryBudget(double ratio, int maxRetries) {
+        if (ratio < 0 || ratio > 1) {
+            throw new IllegalArgumentException("Ratio must be between 0 and 1");
+        }
+        if (maxRetries < 0) {
+            throw new IllegalArgumentException("Maximum retries must not be negative");
+        }
+        this.deposit = Math.round(ratio * TOKEN);
+        this.capacity = maxRetries * TOKEN;
+        this.tokens = new AtomicLong(capacity);
+        this.retries = new LongAdder();
+        this.rejections = new LongAdder();
+    }
+
+    /**
+     * Provides the number of retries currently allowed.
+     *
+     * @return the number of allowed retries.
+     */
+    public long getAvailableRetries() {
+        return tokens.get() / TOKEN;
+    }
+
+    /**
+     * Provides the number of retries allowed by the budget.
+     *
+     * @return the number of retries.
+     */
+    public long getRetryCount() {
+        return retries.sum();
+    }
+
+    /**
+     * Provides the number of retries denied because the budget was exhausted.
+     *
+     * @return the number of denied retries.
+     */
+    public long getRejectedCount() {
+        return rejections.sum();
+    }
+
+    /**
+     * Records a request, depositing a fraction of a retry in the budget.
+     */
+    void recordRequest() {
+        tokens.accumulateAndGet(deposit, (current, added) -> Math.min(capacity, current + added));
+    }
+
+    /**
+     * Withdraws a retry from the budget, if any is left.
+     *
+     * @return true if the retry is allowed, false otherwise.
+     */
+    boolean tryRetry() {
+        long current;
+        do {
+            current = tokens.get();
+            if (current < TOKEN) {
+                rejections.increment();
+                return false;
+            }
+        } while (!tokens.compareAndSet(current, current - TOKEN));
+        retries.increment();
+        return true;
+    }
+
+    /**
+     * The fraction of a retry deposited by each request, in thousandths.
+     */
+    private final long deposit;
+
+    /**
+     * The maximum number of retries saved up, in thousandths.
+     */
+    private final long capacity;
+
+    /**
+     * The retries currently allowed, in thousandths.
+     */
+    private final AtomicLong tokens;
+
+    /**
+     * The number of allowed retries.
+     */
+    private final LongAdder retries;
+
+    /**
+     * The number of denied retries.
+     */
+    private final LongAdder rejections;
+
+    private static final long TOKEN = 1000;
+}
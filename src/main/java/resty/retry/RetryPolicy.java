@@ -0,0 +1,174 @@
+package resty.retry;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+import resty.request.RestRequest;
+import resty.upload.UploadBody;
+
+import javax.ws.rs.ProcessingException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Models when and how failed requests are retried.
+ * Requests are retried when the server answers with a retryable status or when they fail with a retryable exception,
+ * waiting for an exponential backoff with jitter between the attempts, or for the time asked by a Retry-After header.
+ * Only idempotent requests are retried, unless non-idempotent ones are explicitly allowed, and retries can be capped
+ * to a fraction of the requests by a {@link RetryBudget}.
+ */
+@Getter
+@ToString
+@Builder(toBuilder = true)
+public class RetryPolicy {
+
+    /**
+     * Provides a policy never retrying requests, which can be given to a request to disable the retries of the client.
+     *
+     * @return the policy without retries.
+     */
+    public static RetryPolicy none() {
+        return builder().maxAttempts(1).build();
+    }
+
+    /**
+     * Checks whether the given response is worth retrying, without considering how many attempts are left.
+     *
+     * @param status the status of the response.
+     * @return true if the status is retryable, false otherwise.
+     */
+    boolean isRetryable(int status) {
+        return retryableStatuses.contains(status);
+    }
+
+    /**
+     * Checks whether the given failure is worth retrying, without considering how many attempts are left.
+     * The failure is retryable if it, or any of its causes, is an instance of a retryable exception.
+     *
+     * @param failure the failure of the request.
+     * @return true if the failure is retryable, false otherwise.
+     */
+    boolean isRetryable(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            for (Class<? extends Throwable> retryableException : retryableExceptions) {
+                if (retryableException.isInstance(cause)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether the given request can be attempted again, withdrawing a retry from the budget if so.
+     *
+     * @param request the failed request.
+     * @param attempt the number of the failed attempt, starting from 1.
+     * @return true if the request can be retried, false otherwise.
+     */
+    boolean allowsRetry(RestRequest request, int attempt) {
+        return attempt < maxAttempts
+                && (request.getMethod().isIdempotent() || retryNonIdempotent)
+                && isRepeatable(request)
+                && (budget == null || budget.tryRetry());
+    }
+
+    /**
+     * Checks whether the body of the given request can be sent again, which is not the case of streamed uploads.
+     *
+     * @param request the failed request.
+     * @return true if the body can be sent again, false otherwise.
+     */
+    private static boolean isRepeatable(RestRequest request) {
+        return !(request.getBody() instanceof UploadBody) || ((UploadBody) request.getBody()).isRepeatable();
+    }
+
+    /**
+     * Records a request in the budget, if any.
+     */
+    void recordRequest() {
+        if (budget != null) {
+            budget.recordRequest();
+        }
+    }
+
+    /**
+     * Provides the time to wait before the next attempt. The exponential backoff is randomized by the jitter,
+     * and replaced with the time asked by the server if it is longer, up to the maximum backoff.
+     *
+     * @param attempt the number of the failed attempt, starting from 1.
+     * @param retryAfter the value of the Retry-After header of the response, if any.
+     * @return the time to wait in milliseconds.
+     */
+    long backoff(int attempt, String retryAfter) {
+        double exponential = Math.min(maxBackoff, initialBackoff * Math.pow(multiplier, attempt - 1));
+        double randomized = exponential * (1 - jitter * ThreadLocalRandom.current().nextDouble());
+        long delay = Math.round(randomized);
+        if (retryAfter != null) {
+            try {
+                delay = Math.max(delay, Long.parseLong(retryAfter.trim()) * 1000);
+            } catch (NumberFormatException e) {
+                // Retry-After given as a date is ignored
+            }
+        }
+        return Math.min(maxBackoff, Math.max(0, delay));
+    }
+
+    /**
+     * The maximum number of attempts for each request, including the first one.
+     */
+    @Builder.Default
+    private final int maxAttempts = 3;
+
+    /**
+     * The time in milliseconds to wait before the first retry.
+     */
+    @Builder.Default
+    private final long initialBackoff = 100;
+
+    /**
+     * The maximum time in milliseconds to wait before a retry.
+     */
+    @Builder.Default
+    private final long maxBackoff = 10000;
+
+    /**
+     * The factor the backoff is multiplied by after each retry.
+     */
+    @Builder.Default
+    private final double multiplier = 2;
+
+    /**
+     * The fraction of each backoff that is randomized, between 0 for none and 1 for full jitter.
+     */
+    @Builder.Default
+    private final double jitter = 1;
+
+    /**
+     * The response statuses worth retrying.
+     */
+    @Builder.Default
+    private final Set<Integer> retryableStatuses =
+            Collections.unmodifiableSet(new HashSet<>(Arrays.asList(429, 502, 503, 504)));
+
+    /**
+     * The exceptions worth retrying, such as failures to connect or read.
+     */
+    @Builder.Default
+    private final Set<Class<? extends Throwable>> retryableExceptions =
+            Collections.singleton(ProcessingException.class);
+
+    /**
+     * Whether requests that are not idempotent, such as POST and PATCH, are retried too.
+     */
+    private final boolean retryNonIdempotent;
+
+    /**
+     * The budget capping the retries, if any.
+     */
+    @ToString.Exclude
+    private final RetryBudget budget;
+}
@@ -0,0 +1,273 @@
+package resty.retry;
+
+import lombok.extern.slf4j.Slf4j;
+import resty.concurrent.AsyncExecutors;
+import resty.engine.RestEngine;
+import resty.request.RestRequest;
+import resty.response.RestResponse;
+import resty.response.StreamingRestResponse;
+
+import javax.ws.rs.ProcessingException;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Retries the requests performed by another engine according to a {@link RetryPolicy},
+ * which is the one of the request if it has its own, or the one of the engine otherwise.
+ * Blocking requests wait for the backoff on the calling thread, while non-blocking ones are scheduled again
+ * after the backoff without holding any thread. Once no retry is allowed, the last response or failure is given back.
+ */
+@Slf4j
+public class RetryingEngine implements RestEngine {
+
+    /**
+     * Builds an engine retrying the requests performed by the given one.
+     *
+     * @param delegate the engine actually performing the requests.
+     * @param retryPolicy the policy for the requests without their own, which may be null to retry only those.
+     */
+    public RetryingEngine(RestEngine delegate, RetryPolicy retryPolicy) {
+        this.delegate = delegate;
+        this.retryPolicy = retryPolicy != null ? retryPolicy : RetryPolicy.none();
+    }
+
+    /**
+     * Performs the given request, retrying it until it succeeds or no retry is allowed.
+     *
+     * @param request the request to perform.
+     * @return the response given back to the last attempt.
+     */
+    @Override
+    public RestResponse execute(RestRequest request) {
+        RetryPolicy policy = policyOf(request);
+        if (policy.getMaxAttempts() <= 1) {
+            return delegate.execute(request);
+        }
+        policy.recordRequest();
+        for (int attempt = 1; ; attempt++) {
+            RestResponse response;
+            try {
+                response = delegate.execute(request);
+            } catch (RuntimeException e) {
+                if (!policy.isRetryable(e) || !policy.allowsRetry(request, attempt)
+                        || !sleep(request, attempt, policy.backoff(attempt, null), e.toString())) {
+                    throw e;
+                }
+                continue;
+            }
+            if (!policy.isRetryable(response.getStatus()) || !policy.allowsRetry(request, attempt)
+                    || !sleep(request, attempt, policy.backoff(attempt, response.getHeader(RETRY_AFTER)),
+                    "status " + response.getStatus())) {
+                return response;
+            }
+        }
+    }
+
+    /**
+     * Performs the given request without reading the response body, retrying it until it succeeds or no retry
+     * is allowed. The responses of the failed attempts are closed.
+     *
+     * @param request the request to perform.
+     * @return the streaming response given back to the last attempt.
+     */
+    @Override
+    public StreamingRestResponse stream(RestRequest request) {
+        RetryPolicy policy = policyOf(request);
+        if (policy.getMaxAttempts() <= 1) {
+            return delegate.stream(request);
+        }
+        policy.recordRequest();
+        for (int attempt = 1; ; attempt++) {
+            StreamingRestResponse response;
+            try {
+                response = delegate.stream(request);
+            } catch (RuntimeException e) {
+                if (!policy.isRetryable(e) || !policy.allowsRetry(request, attempt)
+                        || !sleep(request, attempt, policy.backoff(attempt, null), e.toString())) {
+                    throw e;
+                }
+                continue;
+            }
+            if (!policy.isRetryable(response.getStatus()) || !policy.allowsRetry(request, attempt)) {
+                return response;
+            }
+            long backoff = policy.backoff(attempt, response.getHeader(RETRY_AFTER));
+            closeQuietly(response);
+            if (!sleep(request, attempt, backoff, "status " + response.getStatus())) {
+                throw new ProcessingException("Interrupted while waiting to retry " + request.getEndpoint());
+            }
+        }
+    }
+
+    /**
+     * Performs the given request without blocking, retrying it until it succeeds or no retry is allowed.
+     * Cancelling the returned future cancels the attempt in flight and the following ones.
+     *
+     * @param request the request to perform.
+     * @return the future completed with the response given back to the last attempt.
+     */
+    @Override
+    public CompletableFuture<RestResponse> executeAsync(RestRequest request) {
+        RetryPolicy policy = policyOf(request);
+        if (policy.getMaxAttempts() <= 1) {
+            return delegate.executeAsync(request);
+        }
+        policy.recordRequest();
+        CompletableFuture<RestResponse> result = new CompletableFuture<>();
+        AtomicReference<CompletableFuture<RestResponse>> inFlight = new AtomicReference<>();
+        result.whenComplete((response, throwable) -> {
+            CompletableFuture<RestResponse> attempt = inFlight.get();
+            if (result.isCancelled() && attempt != null) {
+                attempt.cancel(true);
+            }
+        });
+        attemptAsync(request, policy, 1, result, inFlight);
+        return result;
+    }
+
+    /**
+     * Closes the engine actually performing the requests. Retries already scheduled are still attempted,
+     * so that their futures are completed, while no new retry is scheduled.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (scheduler != null) {
+                scheduler.shutdown();
+            }
+        }
+        delegate.close();
+    }
+
+    /**
+     * Performs an attempt of the given request without blocking, scheduling the next one if it fails.
+     *
+     * @param request the request to perform.
+     * @param policy the policy retrying the request.
+     * @param attempt the number of the attempt, starting from 1.
+     * @param result the future to complete with the response given back to the last attempt.
+     * @param inFlight the attempt in flight, cancelled along with the result.
+     */
+    private void attemptAsync(RestRequest request, RetryPolicy policy, int attempt,
+                              CompletableFuture<RestResponse> result,
+                              AtomicReference<CompletableFuture<RestResponse>> inFlight) {
+        if (result.isDone()) {
+            return;
+        }
+        CompletableFuture<RestResponse> future;
+        try {
+            future = delegate.executeAsync(request);
+        } catch (RuntimeException e) {
+            result.completeExceptionally(e);
+            return;
+        }
+        inFlight.set(future);
+        future.whenComplete((response, throwable) -> {
+            long backoff;
+            String reason;
+            if (throwable != null) {
+                if (!policy.isRetryable(throwable) || !policy.allowsRetry(request, attempt)) {
+                    result.completeExceptionally(throwable);
+                    return;
+                }
+                backoff = policy.backoff(attempt, null);
+                reason = throwable.toString();
+            } else {
+                if (!policy.isRetryable(response.getStatus()) || !policy.allowsRetry(request, attempt)) {
+                    result.complete(response);
+                    return;
+                }
+                backoff = policy.backoff(attempt, response.getHeader(RETRY_AFTER));
+                reason = "status " + response.getStatus();
+            }
+            log.debug("Retrying {} request for {} in {} ms after attempt {} failed with {}",
+                    request.getMethod(), request.getEndpoint(), backoff, attempt, reason);
+            try {
+                scheduler().schedule(() -> attemptAsync(request, policy, attempt + 1, result, inFlight),
+                        backoff, TimeUnit.MILLISECONDS);
+            } catch (RuntimeException e) {
+                if (throwable != null) {
+                    result.completeExceptionally(throwable);
+                } else {
+                    result.complete(response);
+                }
+            }
+        });
+    }
+
+    /**
+     * Waits before the next attempt of the given request.
+     *
+     * @param request the failed request.
+     * @param attempt the number of the failed attempt, starting from 1.
+     * @param backoff the time to wait in milliseconds.
+     * @param reason the reason of the failure.
+     * @return true if the request can be retried, false if the thread has been interrupted.
+     */
+    private static boolean sleep(RestRequest request, int attempt, long backoff, String reason) {
+        log.debug("Retrying {} request for {} in {} ms after attempt {} failed with {}",
+                request.getMethod(), request.getEndpoint(), backoff, attempt, reason);
+        try {
+            Thread.sleep(backoff);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Closes the given response of a failed attempt.
+     *
+     * @param response the response to close.
+     */
+    private static void closeQuietly(StreamingRestResponse response) {
+        try {
+            response.close();
+        } catch (IOException e) {
+            log.debug("Cannot close response due to: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Provides the policy retrying the given request.
+     *
+     * @param request the request to perform.
+     * @return the policy of the request, or the one of the engine if it has none.
+     */
+    private RetryPolicy policyOf(RestRequest request) {
+        return request.getRetryPolicy() != null ? request.getRetryPolicy() : retryPolicy;
+    }
+
+    /**
+     * Provides the executor scheduling the retries of non-blocking requests, creating it on first use.
+     *
+     * @return the executor scheduling the retries.
+     */
+    private synchronized ScheduledExecutorService scheduler() {
+        if (scheduler == null) {
+            scheduler = AsyncExecutors.scheduler();
+        }
+        return scheduler;
+    }
+
+    /**
+     * The engine actually performing the requests.
+     */
+    private final RestEngine delegate;
+
+    /**
+     * The policy for the requests without their own.
+     */
+    private final RetryPolicy retryPolicy;
+
+    /**
+     * The executor scheduling the retries of non-blocking requests, if any has been retried.
+     */
+    private ScheduledExecutorService scheduler;
+
+    private static final String RETRY_AFTER = "Retry-After";
+}
@@ -0,0 +1,248 @@
+package resty.timing;
+
+import lombok.extern.slf4j.Slf4j;
+import resty.request.RestRequest;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the time of each phase of a request while it is performed by an engine.
+ * The timer is attached to the thread performing the exchange, so that the hooks of the transport, which know
+ * nothing about the request, can find it. Each phase keeps its first start and its last end, so that retries
+ * of the transport are accounted for as a whole.
+ */
+@Slf4j
+public final class RequestTimer {
+
+    /**
+     * Builds a timer for a request starting now.
+     */
+    public RequestTimer() {
+        this.start = System.nanoTime();
+    }
+
+    /**
+     * Provides the timer attached to the current thread, if any.
+     *
+     * @return the timer of the request performed by the current thread, or null if there is none.
+     */
+    public static RequestTimer current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Attaches the timer to the current thread, until it is detached.
+     */
+    public void attach() {
+        CURRENT.set(this);
+    }
+
+    /**
+     * Detaches any timer from the current thread.
+     */
+    public static void detach() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Marks the start of the resolution of the host.
+     */
+    public void dnsStarted() {
+        dnsStart = firstOf(dnsStart);
+    }
+
+    /**
+     * Marks the end of the resolution of the host.
+     */
+    public void dnsEnded() {
+        dnsEnd = System.nanoTime();
+    }
+
+    /**
+     * Marks the start of the opening of a connection.
+     */
+    public void connectStarted() {
+        connectStart = firstOf(connectStart);
+    }
+
+    /**
+     * Marks the end of the opening of a connection.
+     */
+    public void connectEnded() {
+        connectEnd = System.nanoTime();
+    }
+
+    /**
+     * Marks the start of the TLS handshake.
+     */
+    public void tlsStarted() {
+        tlsStart = firstOf(tlsStart);
+    }
+
+    /**
+     * Marks the end of the TLS handshake.
+     */
+    public void tlsEnded() {
+        tlsEnd = System.nanoTime();
+    }
+
+    /**
+     * Marks the start of the writing of the request.
+     */
+    public void writeStarted() {
+        writeStart = firstOf(writeStart);
+    }
+
+    /**
+     * Marks the end of the writing of the request, right before its last bytes are flushed to the connection.
+     * It is marked again by each flush of the request, such as when the body is sent after an interim response,
+     * so that the last one counts.
+     */
+    public void writeEnded() {
+        writeEnd = System.nanoTime();
+    }
+
+    /**
+     * Marks the reception of the response headers.
+     */
+    public void headersReceived() {
+        headers = System.nanoTime();
+    }
+
+    /**
+     * Marks the end of the reading of the response body.
+     */
+    public void bodyRead() {
+        body = System.nanoTime();
+    }
+
+    /**
+     * Ends the request now and notifies the given listener of its timing.
+     * Failures of the listener are logged, so that they do not fail the request.
+     *
+     * @param request the performed request.
+     * @param status the status of the response.
+     * @param listener the listener to notify, if any.
+     * @return the timing of the request.
+     */
+    public RequestTiming complete(RestRequest request, int status, RequestTimingListener listener) {
+        RequestTiming timing = toTiming();
+        if (listener != null) {
+            try {
+                listener.onTiming(request, status, timing);
+            } catch (RuntimeException e) {
+                log.debug("Timing listener failed due to: " + e.getMessage());
+            }
+        }
+        return timing;
+    }
+
+    /**
+     * Provides the timing recorded so far, ending the request now.
+     * The time before the request is written that is not spent on the connection is accounted for as queueing.
+     *
+     * @return the timing of the request.
+     */
+    private RequestTiming toTiming() {
+        long end = System.nanoTime();
+        long dns = between(dnsStart, dnsEnd);
+        long connect = between(connectStart, connectEnd);
+        long tls = between(tlsStart, tlsEnd);
+        long queue = -1;
+        if (writeStart != 0) {
+            queue = Math.max(0, writeStart - start - Math.max(0, dns) - Math.max(0, connect) - Math.max(0, tls));
+        }
+        long timeToFirstByte = between(writeEnd != 0 ? writeEnd : start, headers);
+        return new RequestTiming(micros(queue), micros(dns), micros(connect), micros(tls),
+                micros(between(writeStart, writeEnd)), micros(timeToFirstByte), micros(between(headers, body)),
+                micros(end - start));
+    }
+
+    /**
+     * Provides the current time, unless a time has already been marked.
+     *
+     * @param marked the time already marked, 0 if none.
+     * @return the time to keep.
+     */
+    private static long firstOf(long marked) {
+        return marked != 0 ? marked : System.nanoTime();
+    }
+
+    /**
+     * Provides the time between two marks.
+     *
+     * @param from the first mark, 0 if not marked.
+     * @param to the second mark, 0 if not marked.
+     * @return the time between the marks in nanoseconds, -1 if any of them is missing.
+     */
+    private static long between(long from, long to) {
+        return from != 0 && to != 0 ? Math.max(0, to - from) : -1;
+    }
+
+    /**
+     * Converts the given duration to microseconds.
+     *
+     * @param nanos the duration in nanoseconds, -1 if missing.
+     * @return the duration in microseconds, -1 if missing.
+     */
+    private static long micros(long nanos) {
+        return nanos < 0 ? -1 : TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+
+    /**
+     * The time the request started at.
+     */
+    private final long start;
+
+    /**
+     * The time the resolution of the host started at, 0 if it did not happen.
+     */
+    private long dnsStart;
+
+    /**
+     * The time the resolution of the host ended at, 0 if it did not happen.
+     */
+    private long dnsEnd;
+
+    /**
+     * The time the opening of a connection started at, 0 if it did not happen.
+     */
+    private long connectStart;
+
+    /**
+     * The time the opening of a connection ended at, 0 if it did not happen.
+     */
+    private long connectEnd;
+
+    /**
+     * The time the TLS handshake started at, 0 if it did not happen.
+     */
+    private long tlsStart;
+
+    /**
+     * The time the TLS handshake ended at, 0 if it did not happen.
+     */
+    private long tlsEnd;
+
+    /**
+     * The time the writing of the request started at, 0 if unknown.
+     */
+    private long writeStart;
+
+    /**
+     * The time the writing of the request ended at, 0 if unknown.
+     */
+    private long writeEnd;
+
+    /**
+     * The time the response headers were received at, 0 if unknown.
+     */
+    private long headers;
+
+    /**
+     * The time the reading of the response body ended at, 0 if unknown.
+     */
+    private long body;
+
+    private static final ThreadLocal<RequestTimer> CURRENT = new ThreadLocal<>();
+}
@@ -0,0 +1,88 @@
+package resty.timing;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Models where the time of a request went, split in the phases of its exchange with the server.
+ * Durations are in microseconds, and phases that did not happen, such as connecting when a pooled connection
+ * is reused, or that cannot be measured by the engine, are -1.
+ */
+@Getter
+@ToString
+public class RequestTiming {
+
+    /**
+     * Builds the timing of a request.
+     *
+     * @param queue the time waiting to be dispatched and for a connection from the pool.
+     * @param dns the time resolving the host.
+     * @param connect the time opening the connection.
+     * @param tls the time of the TLS handshake.
+     * @param requestWrite the time writing the request.
+     * @param timeToFirstByte the time between the request being written and the response headers being received.
+     * @param bodyRead the time reading the response body.
+     * @param total the time of the whole request.
+     */
+    RequestTiming(long queue, long dns, long connect, long tls, long requestWrite, long timeToFirstByte,
+                  long bodyRead, long total) {
+        this.queue = queue;
+        this.dns = dns;
+        this.connect = connect;
+        this.tls = tls;
+        this.requestWrite = requestWrite;
+        this.timeToFirstByte = timeToFirstByte;
+        this.bodyRead = bodyRead;
+        this.total = total;
+    }
+
+    /**
+     * Checks whether the request reused a pooled connection, which is assumed when no connection has been opened.
+     *
+     * @return true if the connection has been reused, false otherwise.
+     */
+    public boolean isConnectionReused() {
+        return connect < 0;
+    }
+
+    /**
+     * The time waiting to be dispatched and for a connection from the pool.
+     */
+    private final long queue;
+
+    /**
+     * The time resolving the host.
+     */
+    private final long dns;
+
+    /**
+     * The time opening the connection.
+     */
+    private final long connect;
+
+    /**
+     * The time of the TLS handshake.
+     */
+    private final long tls;
+
+    /**
+     * The time writing the request.
+     */
+    private final long requestWrite;
+
+    /**
+     * The time between the request being written and the response headers being received,
+     * which is mostly the time taken by the server.
+     */
+    private final long timeToFirstByte;
+
+    /**
+     * The time reading the response body.
+     */
+    private final long bodyRead;
+
+    /**
+     * The time of the whole request.
+     */
+    private final long total;
+}
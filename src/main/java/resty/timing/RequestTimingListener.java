@@ -0,0 +1,20 @@
+package resty.timing;
+
+import resty.request.RestRequest;
+
+/**
+ * Listens to the timing of the requests, once their response has been received.
+ * Listeners are called by the thread completing the request, so they must be fast and thread safe.
+ */
+@FunctionalInterface
+public interface RequestTimingListener {
+
+    /**
+     * Called when the response of a request has been received.
+     *
+     * @param request the performed request.
+     * @param status the status of the response.
+     * @param timing the timing of the request.
+     */
+    void onTiming(RestRequest request, int status, RequestTiming timing);
+}
@@ -0,0 +1,351 @@
+package resty.upload;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static javax.ws.rs.core.MediaType.APPLICATION_OCTET_STREAM;
+
+/**
+ * Models a multipart/form-data body made of fields and files, which is streamed part after part:
+ * each part is opened only when the previous one has been sent, so that only one source is open at a time
+ * and no part is held in memory. Its length is known when the length of all its parts is.
+ * <pre>{@code
+ * MultipartBody body = MultipartBody.builder()
+ *         .field("version", "1.2.0")
+ *         .file("artifact", Paths.get("build/artifact.jar"), "application/java-archive")
+ *         .build();
+ * resty.upload(endpoint, body);
+ * }</pre>
+ */
+public final class MultipartBody extends UploadBody {
+
+    /**
+     * Builds a multipart body of the given parts.
+     *
+     * @param boundary the boundary separating the parts.
+     * @param parts the parts of the body.
+     * @param segments the headers of the parts and their bodies, in the order they are sent.
+     * @param length the number of bytes of the body, or -1 if it is unknown.
+     * @param repeatable whether all the parts can be sent more than once.
+     */
+    private MultipartBody(String boundary, List<Part> parts, List<UploadBody> segments, long length,
+                          boolean repeatable) {
+        super(MULTIPART_FORM_DATA + "; boundary=" + boundary, length, repeatable);
+        this.boundary = boundary;
+        this.parts = parts;
+        this.segments = segments;
+    }
+
+    /**
+     * Provides a builder of a multipart body.
+     *
+     * @return the builder of a multipart body.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Opens a stream reading the parts one after the other.
+     *
+     * @return the stream of the body, which must be closed once read.
+     */
+    @Override
+    public InputStream openStream() {
+        return new SegmentsInputStream(segments);
+    }
+
+    /**
+     * Provides the boundary separating the parts.
+     *
+     * @return the boundary separating the parts.
+     */
+    public String getBoundary() {
+        return boundary;
+    }
+
+    /**
+     * Provides the parts of the body.
+     *
+     * @return the parts of the body, in the order they are sent.
+     */
+    public List<Part> getParts() {
+        return parts;
+    }
+
+    /**
+     * The boundary separating the parts.
+     */
+    private final String boundary;
+
+    /**
+     * The parts of the body.
+     */
+    private final List<Part> parts;
+
+    /**
+     * The headers of the parts and their bodies, in the order they are sent.
+     */
+    private final List<UploadBody> segments;
+
+    private static final String MULTIPART_FORM_DATA = "multipart/form-data";
+
+    private static final String CRLF = "\r\n";
+
+    /**
+     * Models a part of a multipart body.
+     */
+    public static final class Part {
+
+        /**
+         * Builds a part.
+         *
+         * @param name the name of the form field.
+         * @param fileName the name of the file, null for a plain field.
+         * @param body the content of the part.
+         */
+        private Part(String name, String fileName, UploadBody body) {
+            this.name = name;
+            this.fileName = fileName;
+            this.body = body;
+        }
+
+        /**
+         * Provides the name of the form field.
+         *
+         * @return the name of the form field.
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Provides the name of the file.
+         *
+         * @return the name of the file, null for a plain field.
+         */
+        public String getFileName() {
+            return fileName;
+        }
+
+        /**
+         * Provides the content of the part.
+         *
+         * @return the content of the part.
+         */
+        public UploadBody getBody() {
+            return body;
+        }
+
+        /**
+         * Provides the headers of the part, preceded by the boundary.
+         *
+         * @param boundary the boundary separating the parts.
+         * @return the headers of the part.
+         */
+        private byte[] headers(String boundary) {
+            StringBuilder headers = new StringBuilder("--").append(boundary).append(CRLF)
+                    .append("Content-Disposition: form-data; name=\"").append(escape(name)).append('"');
+            if (fileName != null) {
+                headers.append("; filename=\"").append(escape(fileName)).append('"');
+            }
+            headers.append(CRLF);
+            if (body.getMediaType() != null) {
+                headers.append("Content-Type: ").append(body.getMediaType()).append(CRLF);
+            }
+            return headers.append(CRLF).toString().getBytes(UTF_8);
+        }
+
+        /**
+         * Escapes the quotes and line breaks of the given name, as browsers do.
+         *
+         * @param name the name to escape.
+         * @return the escaped name.
+         */
+        private static String escape(String name) {
+            return name.replace("\"", "%22").replace("\r", "%0D").replace("\n", "%0A");
+        }
+
+        /**
+         * The name of the form field.
+         */
+        private final String name;
+
+        /**
+         * The name of the file, null for a plain field.
+         */
+        private final String fileName;
+
+        /**
+         * The content of the part.
+         */
+        private final UploadBody body;
+    }
+
+    /**
+     * Builds multipart bodies, adding their parts one at a time.
+     */
+    public static final class Builder {
+
+        /**
+         * Builds an empty builder.
+         */
+        private Builder() {
+            this.parts = new ArrayList<>();
+        }
+
+        /**
+         * Adds a plain field.
+         *
+         * @param name the name of the field.
+         * @param value the value of the field.
+         * @return the builder.
+         */
+        public Builder field(String name, String value) {
+            parts.add(new Part(name, null, UploadBody.of(value.getBytes(UTF_8), null)));
+            return this;
+        }
+
+        /**
+         * Adds a file of unspecified media type, named after the file.
+         *
+         * @param name the name of the field.
+         * @param file the file to send.
+         * @return the builder.
+         */
+        public Builder file(String name, Path file) {
+            return file(name, file, APPLICATION_OCTET_STREAM);
+        }
+
+        /**
+         * Adds a file, named after the file.
+         *
+         * @param name the name of the field.
+         * @param file the file to send.
+         * @param mediaType the media type of the file.
+         * @return the builder.
+         */
+        public Builder file(String name, Path file, String mediaType) {
+            return part(name, file.getFileName().toString(), UploadBody.of(file, mediaType));
+        }
+
+        /**
+         * Adds a part read from the given body, such as a stream.
+         *
+         * @param name the name of the field.
+         * @param fileName the name of the file.
+         * @param body the content of the part.
+         * @return the builder.
+         */
+        public Builder part(String name, String fileName, UploadBody body) {
+            parts.add(new Part(name, fileName, body));
+            return this;
+        }
+
+        /**
+         * Builds the multipart body of the parts added so far, with a random boundary.
+         *
+         * @return the built body.
+         */
+        public MultipartBody build() {
+            String boundary = "resty-" + Long.toHexString(ThreadLocalRandom.current().nextLong())
+                    + Long.toHexString(ThreadLocalRandom.current().nextLong());
+            List<UploadBody> segments = new ArrayList<>(3 * parts.size() + 1);
+            long length = 0;
+            boolean repeatable = true;
+            byte[] separator = CRLF.getBytes(UTF_8);
+            for (Part part : parts) {
+                UploadBody headers = UploadBody.of(part.headers(boundary), null);
+                segments.add(headers);
+                segments.add(part.getBody());
+                segments.add(UploadBody.of(separator, null));
+                length = length < 0 || part.getBody().isChunked()
+                        ? -1 : length + headers.getLength() + part.getBody().getLength() + separator.length;
+                repeatable &= part.getBody().isRepeatable();
+            }
+            UploadBody closing = UploadBody.of(("--" + boundary + "--" + CRLF).getBytes(UTF_8), null);
+            segments.add(closing);
+            length = length < 0 ? -1 : length + closing.getLength();
+            return new MultipartBody(boundary, Collections.unmodifiableList(new ArrayList<>(parts)),
+                    segments, length, repeatable);
+        }
+
+        /**
+         * The parts added so far.
+         */
+        private final List<Part> parts;
+    }
+
+    /**
+     * Reads the segments of a body one after the other, opening each of them only once the previous one is read
+     * and closing it right after.
+     */
+    private static final class SegmentsInputStream extends InputStream {
+
+        /**
+         * Builds a stream reading the given segments.
+         *
+         * @param segments the segments to read.
+         */
+        private SegmentsInputStream(List<UploadBody> segments) {
+            this.segments = segments;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            return read(single, 0, 1) < 0 ? -1 : single[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            while (true) {
+                if (current == null) {
+                    if (next == segments.size()) {
+                        return -1;
+                    }
+                    current = segments.get(next++).openStream();
+                }
+                int read = current.read(buffer, offset, length);
+                if (read >= 0) {
+                    return read;
+                }
+                current.close();
+                current = null;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (current != null) {
+                current.close();
+                current = null;
+            }
+            next = segments.size();
+        }
+
+        /**
+         * The segments to read.
+         */
+        private final List<UploadBody> segments;
+
+        /**
+         * The position of the next segment to open.
+         */
+        private int next;
+
+        /**
+         * The stream of the segment being read, if any.
+         */
+        private InputStream current;
+    }
+}
@@ -0,0 +1,267 @@
+package resty.upload;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import javax.ws.rs.ProcessingException;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static javax.ws.rs.core.MediaType.APPLICATION_OCTET_STREAM;
+
+/**
+ * Models a request body read from its source while it is sent, so that it is never held in memory whatever its size.
+ * It is given as the body of a request, and it is sent as it is, with its own media type.
+ * A body of known length is sent with a Content-Length header when the engine allows it, otherwise it is chunked.
+ * Files and byte arrays can be sent again, such as when a request is retried, while streams and channels
+ * can be sent only once.
+ */
+@Getter
+@ToString
+public abstract class UploadBody {
+
+    /**
+     * Builds a body of the given media type and length.
+     *
+     * @param mediaType the media type of the body.
+     * @param length the number of bytes of the body, or -1 if it is unknown.
+     * @param repeatable whether the body can be sent more than once.
+     */
+    UploadBody(String mediaType, long length, boolean repeatable) {
+        this.mediaType = mediaType;
+        this.length = length;
+        this.repeatable = repeatable;
+    }
+
+    /**
+     * Provides a body read from the given file, of unspecified media type.
+     *
+     * @param file the file to send.
+     * @return the body of the file.
+     */
+    public static UploadBody of(Path file) {
+        return of(file, APPLICATION_OCTET_STREAM);
+    }
+
+    /**
+     * Provides a body read from the given file, whose length is known.
+     *
+     * @param file the file to send.
+     * @param mediaType the media type of the file.
+     * @return the body of the file.
+     */
+    public static UploadBody of(Path file, String mediaType) {
+        try {
+            return new FileBody(file, mediaType, Files.size(file));
+        } catch (IOException e) {
+            throw new ProcessingException("Cannot read size of " + file, e);
+        }
+    }
+
+    /**
+     * Provides a body read from the given stream, of unknown length and unspecified media type.
+     *
+     * @param inputStream the stream to send, which is closed once it is sent.
+     * @return the body of the stream.
+     */
+    public static UploadBody of(InputStream inputStream) {
+        return of(inputStream, -1, APPLICATION_OCTET_STREAM);
+    }
+
+    /**
+     * Provides a body read from the given stream.
+     *
+     * @param inputStream the stream to send, which is closed once it is sent.
+     * @param length the number of bytes of the stream, or -1 if it is unknown.
+     * @param mediaType the media type of the stream.
+     * @return the body of the stream.
+     */
+    public static UploadBody of(InputStream inputStream, long length, String mediaType) {
+        return new StreamBody(inputStream, mediaType, length);
+    }
+
+    /**
+     * Provides a body read from the given channel.
+     *
+     * @param channel the channel to send, which is closed once it is sent.
+     * @param length the number of bytes of the channel, or -1 if it is unknown.
+     * @param mediaType the media type of the channel.
+     * @return the body of the channel.
+     */
+    public static UploadBody of(ReadableByteChannel channel, long length, String mediaType) {
+        return new StreamBody(Channels.newInputStream(channel), mediaType, length);
+    }
+
+    /**
+     * Provides a body made of the given bytes.
+     *
+     * @param bytes the bytes to send.
+     * @param mediaType the media type of the bytes, null for none.
+     * @return the body of the bytes.
+     */
+    public static UploadBody of(byte[] bytes, String mediaType) {
+        return new BytesBody(bytes, mediaType);
+    }
+
+    /**
+     * Opens a stream reading the body from its source.
+     *
+     * @return the stream of the body, which must be closed once read.
+     * @throws IllegalStateException if the body can be sent only once and it has already been opened.
+     */
+    public abstract InputStream openStream() throws IOException;
+
+    /**
+     * Provides the file the body is read from, so that engines can send it straight from the file.
+     *
+     * @return the file of the body, or null if the body is not read from a file.
+     */
+    public Path getFile() {
+        return null;
+    }
+
+    /**
+     * Checks whether the length of the body is unknown, in which case it is sent chunked.
+     *
+     * @return true if the length of the body is unknown, false otherwise.
+     */
+    public boolean isChunked() {
+        return length < 0;
+    }
+
+    /**
+     * Writes the body to the given stream as it is read from its source.
+     *
+     * @param out the stream receiving the body, which is not closed.
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        try (InputStream in = openStream()) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+        }
+    }
+
+    /**
+     * The media type of the body.
+     */
+    private final String mediaType;
+
+    /**
+     * The number of bytes of the body, or -1 if it is unknown.
+     */
+    private final long length;
+
+    /**
+     * Whether the body can be sent more than once.
+     */
+    private final boolean repeatable;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Models a body read from a file, which is opened again each time it is sent.
+     */
+    private static final class FileBody extends UploadBody {
+
+        /**
+         * Builds a body read from the given file.
+         *
+         * @param file the file to send.
+         * @param mediaType the media type of the file.
+         * @param length the number of bytes of the file.
+         */
+        private FileBody(Path file, String mediaType, long length) {
+            super(mediaType, length, true);
+            this.file = file;
+        }
+
+        @Override
+        public InputStream openStream() throws IOException {
+            return Files.newInputStream(file);
+        }
+
+        @Override
+        public Path getFile() {
+            return file;
+        }
+
+        /**
+         * The file to send.
+         */
+        private final Path file;
+    }
+
+    /**
+     * Models a body read from a stream, which can be opened only once.
+     */
+    private static final class StreamBody extends UploadBody {
+
+        /**
+         * Builds a body read from the given stream.
+         *
+         * @param inputStream the stream to send.
+         * @param mediaType the media type of the stream.
+         * @param length the number of bytes of the stream, or -1 if it is unknown.
+         */
+        private StreamBody(InputStream inputStream, String mediaType, long length) {
+            super(mediaType, length, false);
+            this.inputStream = inputStream;
+            this.opened = new AtomicBoolean();
+        }
+
+        @Override
+        public InputStream openStream() {
+            if (!opened.compareAndSet(false, true)) {
+                throw new IllegalStateException("The body of a stream can be sent only once");
+            }
+            return inputStream;
+        }
+
+        /**
+         * The stream to send.
+         */
+        private final InputStream inputStream;
+
+        /**
+         * Whether the stream has already been opened.
+         */
+        private final AtomicBoolean opened;
+    }
+
+    /**
+     * Models a body made of bytes already in memory, such as a field of a multipart body.
+     */
+    private static final class BytesBody extends UploadBody {
+
+        /**
+         * Builds a body made of the given bytes.
+         *
+         * @param bytes the bytes to send.
+         * @param mediaType the media type of the bytes, null for none.
+         */
+        private BytesBody(byte[] bytes, String mediaType) {
+            super(mediaType, bytes.length, true);
+            this.bytes = bytes;
+        }
+
+        @Override
+        public InputStream openStream() {
+            return new ByteArrayInputStream(bytes);
+        }
+
+        /**
+         * The bytes to send.
+         */
+        private final byte[] bytes;
+    }
+}
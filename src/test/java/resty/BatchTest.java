@@ -0,0 +1,93 @@
+package resty;
+
+import org.junit.jupiter.api.Test;
+import resty.batch.BatchExecution;
+import resty.batch.BatchItem;
+import resty.batch.BatchResponse;
+import resty.request.RestRequest;
+import resty.response.RestResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BatchTest {
+
+    @Test
+    public void getAll() throws Exception {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        try (StubServer server = StubServer.start(exchange -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            sleep(50);
+            inFlight.decrementAndGet();
+            StubServer.respond(exchange, 200, exchange.getRequestURI().getPath());
+        }); Resty resty = Resty.builder().build()) {
+            List<String> endpoints = new ArrayList<>();
+            for (int i = 0; i < 12; i++) {
+                endpoints.add(server.url("/shard/" + i));
+            }
+            BatchResponse response = resty.getAll(endpoints, 3);
+            assertTrue(response.isSuccess());
+            for (int i = 0; i < 12; i++) {
+                assertEquals("/shard/" + i, response.getItems().get(i).getResponse().getBody());
+            }
+            assertTrue(maxInFlight.get() <= 3);
+        }
+    }
+
+    @Test
+    public void executeAllWithFailuresAndDeadline() throws Exception {
+        try (StubServer server = StubServer.start(exchange -> {
+            if (exchange.getRequestURI().getPath().equals("/slow")) {
+                sleep(2000);
+            }
+            StubServer.respond(exchange, 200, "");
+        }); Resty resty = Resty.builder().build()) {
+            List<BatchItem> completed = new CopyOnWriteArrayList<>();
+            BatchResponse response = resty.executeAll(asList(
+                    RestRequest.get(server.url("/fast")),
+                    RestRequest.get("http://localhost:1/unreachable"),
+                    RestRequest.get(server.url("/slow")),
+                    RestRequest.post(server.url("/fast"), "{}")), 4, 500, completed::add);
+            List<BatchItem> items = response.getItems();
+            assertFalse(response.isSuccess());
+            assertTrue(items.get(0).isSuccess());
+            assertTrue(items.get(1).isFailed());
+            assertTrue(items.get(2).getFailure() instanceof TimeoutException);
+            assertTrue(items.get(3).isSuccess());
+            assertEquals(2, response.getFailures().size());
+            assertEquals(4, completed.size());
+        }
+    }
+
+    @Test
+    public void executeManyCompletedSynchronously() throws Exception {
+        List<RestRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 20000; i++) {
+            requests.add(RestRequest.get("http://localhost/cached/" + i));
+        }
+        BatchResponse response = new BatchExecution(requests, 4,
+                request -> CompletableFuture.completedFuture(new RestResponse(200, request.getEndpoint())), null)
+                .execute(10000);
+        assertTrue(response.isSuccess());
+        assertEquals(20000, response.getItems().size());
+        assertEquals("http://localhost/cached/19999", response.getItems().get(19999).getResponse().getBody());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
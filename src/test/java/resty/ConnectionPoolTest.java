@@ -0,0 +1,81 @@
+package resty;
+
+import org.junit.jupiter.api.Test;
+import resty.connection.SslContexts;
+import resty.response.RestResponse;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSessionContext;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static resty.entity.RestEntity.withHeader;
+import static resty.entity.RestEntity.withParameter;
+
+public class ConnectionPoolTest {
+
+    @Test
+    public void reuseConnection() throws Exception {
+        try (StubServer server = StubServer.start(200, "{}");
+             Resty resty = Resty.builder().maxConnectionsPerRoute(1).build()) {
+            for (int i = 0; i < 5; i++) {
+                RestResponse response = resty.get(server.url("/retrieve"),
+                        withHeader("X-Request", i), withParameter("page", i));
+                assertTrue(response.isSuccess());
+            }
+            RestResponse response = resty.patch(server.url("/update"), "{}", APPLICATION_JSON, 1000, 1000);
+            assertTrue(response.isSuccess());
+            assertEquals(1, server.getRemoteAddresses().stream().distinct().count());
+        }
+    }
+
+    @Test
+    public void headersLoggedWithoutTiming() throws Exception {
+        List<String> logged = new CopyOnWriteArrayList<>();
+        Handler handler = new Handler() {
+            @Override
+            public void publish(LogRecord record) {
+                logged.add(record.getMessage());
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        Logger logger = Logger.getLogger("org.apache.http.headers");
+        Level level = logger.getLevel();
+        logger.setLevel(Level.FINE);
+        logger.addHandler(handler);
+        try (StubServer server = StubServer.start(200, "{}");
+             Resty resty = Resty.builder().build()) {
+            assertTrue(resty.get(server.url("/retrieve")).isSuccess());
+        } finally {
+            logger.removeHandler(handler);
+            logger.setLevel(level);
+        }
+        assertTrue(logged.stream().anyMatch(line -> line.contains("GET /retrieve")), logged.toString());
+    }
+
+    @Test
+    public void sharedSslContextsUntouched() throws Exception {
+        SSLSessionContext defaultSessions = SSLContext.getDefault().getClientSessionContext();
+        SSLSessionContext trustAllSessions = SslContexts.trustAllContext().getClientSessionContext();
+        int defaultCacheSize = defaultSessions.getSessionCacheSize();
+        int trustAllTimeout = trustAllSessions.getSessionTimeout();
+        Resty.builder().tlsSessionCacheSize(defaultCacheSize + 7).build().close();
+        Resty.builder().activeDevMode(true).tlsSessionTimeout(trustAllTimeout + 7).build().close();
+        assertEquals(defaultCacheSize, defaultSessions.getSessionCacheSize());
+        assertEquals(trustAllTimeout, trustAllSessions.getSessionTimeout());
+    }
+}
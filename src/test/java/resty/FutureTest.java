@@ -0,0 +1,109 @@
+package resty;
+
+import org.junit.jupiter.api.Test;
+import resty.concurrent.AsyncExecutors;
+import resty.response.RestResponse;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FutureTest {
+
+    @Test
+    public void futureGet() throws Exception {
+        ExecutorService completionExecutor = Executors.newSingleThreadExecutor(r -> new Thread(r, "completion"));
+        try (StubServer server = StubServer.start(200, "{\"name\":\"resty\"}");
+             Resty resty = Resty.builder().completionExecutor(completionExecutor).build()) {
+            List<CompletableFuture<String>> futures = IntStream.range(0, 20)
+                    .mapToObj(i -> resty.futureGet(server.url("/retrieve"))
+                            .thenApply(response -> Thread.currentThread().getName() + ":" + response.getBody()))
+                    .collect(Collectors.toList());
+            for (CompletableFuture<String> future : futures) {
+                assertEquals("completion:{\"name\":\"resty\"}", future.get());
+            }
+        } finally {
+            completionExecutor.shutdown();
+        }
+    }
+
+    @Test
+    public void asyncExecutor() throws Exception {
+        ExecutorService asyncExecutor = Executors.newFixedThreadPool(4, r -> new Thread(r, "dispatch"));
+        try (StubServer server = StubServer.start(exchange -> {
+            sleep(100);
+            StubServer.respond(exchange, 200, "ok");
+        }); Resty resty = Resty.builder().asyncExecutor(asyncExecutor).build()) {
+            CompletableFuture<String> future = resty.futureGet(server.url("/retrieve"))
+                    .thenApply(response -> Thread.currentThread().getName() + ":" + response.getBody());
+            assertEquals("dispatch:ok", future.get());
+            assertEquals("ok", resty.asyncGet(server.url("/retrieve")).waitForResponse().getBody());
+        } finally {
+            asyncExecutor.shutdown();
+        }
+    }
+
+    @Test
+    public void virtualThreads() throws Exception {
+        try (StubServer server = StubServer.start(200, "ok");
+             Resty resty = Resty.builder().virtualThreads(true).build()) {
+            List<CompletableFuture<Thread>> futures = IntStream.range(0, 50)
+                    .mapToObj(i -> resty.futureGet(server.url("/retrieve")).thenApply(response -> {
+                        assertEquals("ok", response.getBody());
+                        return Thread.currentThread();
+                    }))
+                    .collect(Collectors.toList());
+            boolean virtualThreadsAvailable = virtualThreadsAvailable();
+            for (CompletableFuture<Thread> future : futures) {
+                Thread thread = future.get();
+                if (virtualThreadsAvailable) {
+                    assertTrue((Boolean) Thread.class.getMethod("isVirtual").invoke(thread));
+                } else {
+                    assertTrue(thread.getName().startsWith(AsyncExecutors.THREAD_NAME_PREFIX));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void futurePost() throws Exception {
+        try (StubServer server = StubServer.start(201, "");
+             Resty resty = Resty.builder().build()) {
+            RestResponse response = resty.futurePost(server.url("/save"), "{}").get();
+            assertTrue(response.isSuccess());
+        }
+    }
+
+    @Test
+    public void futureFailure() throws Exception {
+        try (Resty resty = Resty.builder().build()) {
+            CompletableFuture<RestResponse> future = resty.futureGet("http://localhost:1/unreachable");
+            assertThrows(ExecutionException.class, future::get);
+        }
+    }
+
+    private static boolean virtualThreadsAvailable() {
+        try {
+            ((ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null)).shutdown();
+            return true;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return false;
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package resty;
+
+import org.junit.jupiter.api.Test;
+import resty.engine.RestEngineType;
+import resty.entity.RestEntity;
+import resty.response.RestResponse;
+import resty.response.StreamingRestResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class JdkHttpClientEngineTest {
+
+    @Test
+    public void getWithEntities() throws Exception {
+        try (StubServer server = StubServer.start(exchange -> StubServer.respond(exchange, 200,
+                exchange.getRequestURI().getRawQuery() + "|" + exchange.getRequestHeaders().getFirst("X-Trace")));
+             Resty resty = jdkResty()) {
+            RestResponse response = resty.get(server.url("/search"),
+                    RestEntity.withParameter("q", "rest client"),
+                    RestEntity.withHeader("X-Trace", "abc"));
+            assertEquals("q=rest%20client|abc", response.getBody());
+        }
+    }
+
+    @Test
+    public void patchWithJsonBody() throws Exception {
+        try (StubServer server = StubServer.start(exchange -> StubServer.respond(exchange, 200,
+                exchange.getRequestMethod() + " " + exchange.getRequestHeaders().getFirst("Content-Type")
+                        + " " + read(exchange.getRequestBody())));
+             Resty resty = jdkResty()) {
+            RestResponse response = resty.patch(server.url("/update"), Collections.singletonMap("name", "resty"));
+            assertEquals("PATCH " + APPLICATION_JSON + " {\"name\":\"resty\"}", response.getBody());
+        }
+    }
+
+    @Test
+    public void concurrentFutures() throws Exception {
+        try (StubServer server = StubServer.start(200, "{\"name\":\"resty\"}");
+             Resty resty = jdkResty()) {
+            List<CompletableFuture<RestResponse>> futures = IntStream.range(0, 20)
+                    .mapToObj(i -> resty.futureGet(server.url("/retrieve")))
+                    .collect(Collectors.toList());
+            for (CompletableFuture<RestResponse> future : futures) {
+                assertEquals("resty", future.get().getBody(Map.class).get("name"));
+            }
+        }
+    }
+
+    @Test
+    public void streamDelete() throws Exception {
+        try (StubServer server = StubServer.start(200, "deleted");
+             Resty resty = jdkResty();
+             StreamingRestResponse response = resty.streamDelete(server.url("/remove"))) {
+            assertEquals(200, response.getStatus());
+            assertEquals("7", response.getHeader("content-length"));
+            assertEquals("deleted", read(response.getInputStream()));
+        }
+    }
+
+    @Test
+    public void failure() {
+        try (Resty resty = jdkResty()) {
+            assertThrows(RuntimeException.class, () -> resty.get("http://localhost:1/unreachable"));
+        }
+    }
+
+    private static Resty jdkResty() {
+        return Resty.builder().engineType(RestEngineType.JDK_HTTP_CLIENT).build();
+    }
+
+    private static String read(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        for (int n; (n = in.read(buffer)) != -1; ) {
+            out.write(buffer, 0, n);
+        }
+        return new String(out.toByteArray(), UTF_8);
+    }
+}
@@ -0,0 +1,137 @@
+package resty;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import org.junit.jupiter.api.Test;
+import resty.engine.RestEngineType;
+import resty.json.JsonElementIterator;
+import resty.json.JsonStreamFormat;
+import resty.response.StreamingRestResponse;
+
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class StreamingTest {
+
+    @Test
+    public void streamGet() throws Exception {
+        String body = new String(new char[1 << 20]).replace('\0', 'x');
+        try (StubServer server = StubServer.start(200, body);
+             Resty resty = Resty.builder().maxConnectionsPerRoute(1).build()) {
+            for (int i = 0; i < 2; i++) {
+                try (StreamingRestResponse response = resty.streamGet(server.url("/download"))) {
+                    assertTrue(response.isSuccess());
+                    assertEquals(String.valueOf(body.length()), response.getHeader("content-length"));
+                    assertEquals(body.length(), count(response.getInputStream()));
+                }
+            }
+            assertEquals(1, server.getRemoteAddresses().stream().distinct().count());
+        }
+    }
+
+    @Test
+    public void streamDelete() throws Exception {
+        try (StubServer server = StubServer.start(204, "");
+             Resty resty = Resty.builder().build();
+             StreamingRestResponse response = resty.streamDelete(server.url("/remove"))) {
+            assertEquals(204, response.getStatus());
+            ReadableByteChannel channel = response.getChannel();
+            assertEquals(-1, channel.read(ByteBuffer.allocate(16)));
+        }
+    }
+
+    @Test
+    public void streamJsonArray() throws Exception {
+        StringBuilder body = new StringBuilder("[");
+        for (int i = 0; i < ELEMENTS; i++) {
+            body.append(i == 0 ? "" : ",").append("{\"id\":").append(i)
+                    .append(",\"name\":\"item-").append(i).append("\"}");
+        }
+        try (StubServer server = StubServer.start(200, body.append("]").toString())) {
+            for (RestEngineType engineType : RestEngineType.values()) {
+                try (Resty resty = Resty.builder().engineType(engineType).maxConnectionsPerRoute(1).build()) {
+                    for (int i = 0; i < 2; i++) {
+                        try (StreamingRestResponse response = resty.streamGet(server.url("/records"));
+                             Stream<Item> items = response.getElementStream(Item.class)) {
+                            assertEquals(JsonStreamFormat.ARRAY, response.getFormat());
+                            assertEquals((long) ELEMENTS * (ELEMENTS - 1) / 2, items.mapToLong(item -> item.id).sum());
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void streamNdjson() throws Exception {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < ELEMENTS; i++) {
+            body.append("{\"id\":").append(i).append("}\n");
+        }
+        try (StubServer server = StubServer.start(exchange -> {
+            exchange.getResponseHeaders().add("Content-Type", "application/x-ndjson; charset=utf-8");
+            StubServer.respond(exchange, 200, body.toString());
+        });
+             Resty resty = Resty.builder().maxConnectionsPerRoute(1).build()) {
+            try (StreamingRestResponse response = resty.streamGet(server.url("/events"));
+                 JsonElementIterator<Map<String, Integer>> events =
+                         response.getElements(new TypeReference<Map<String, Integer>>() {})) {
+                assertEquals(JsonStreamFormat.NDJSON, response.getFormat());
+                for (int i = 0; i < 3; i++) {
+                    assertEquals(i, events.next().get("id"));
+                }
+                assertEquals(3, events.getCount());
+            }
+            try (StreamingRestResponse response = resty.streamGet(server.url("/events"));
+                 JsonElementIterator<Map<String, Integer>> events =
+                         response.getElements(new TypeReference<Map<String, Integer>>() {})) {
+                while (events.hasNext()) {
+                    events.next();
+                }
+                assertEquals(ELEMENTS, events.getCount());
+                assertFalse(events.hasNext());
+            }
+        }
+    }
+
+    @Test
+    public void streamMalformedOrEmptyJson() throws Exception {
+        try (StubServer server = StubServer.start(200, "{\"id\":1}");
+             Resty resty = Resty.builder().build();
+             StreamingRestResponse response = resty.streamGet(server.url("/records"))) {
+            JsonElementIterator<Item> items = response.getElements(Item.class);
+            assertThrows(UncheckedIOException.class, items::hasNext);
+            assertFalse(items.hasNext());
+        }
+        try (StubServer server = StubServer.start(200, " [ ] ");
+             Resty resty = Resty.builder().build();
+             StreamingRestResponse response = resty.streamGet(server.url("/records"))) {
+            assertEquals(0, response.getElementStream(Item.class).count());
+        }
+    }
+
+    private static long count(InputStream inputStream) throws Exception {
+        byte[] buffer = new byte[8192];
+        long count = 0;
+        int read;
+        while ((read = inputStream.read(buffer)) != -1) {
+            count += read;
+        }
+        return count;
+    }
+
+    private static final int ELEMENTS = 20000;
+
+    public static class Item {
+        public long id;
+        public String name;
+    }
+}
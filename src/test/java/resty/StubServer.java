@@ -0,0 +1,105 @@
+package resty;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Local HTTP server answering requests made by tests, so that they do not depend on remote services.
+ */
+public class StubServer implements AutoCloseable {
+
+    /**
+     * Starts a server on a random port that answers every request with the given status and body.
+     *
+     * @param status the status of the responses.
+     * @param body the body of the responses.
+     * @return the started server.
+     */
+    public static StubServer start(int status, String body) throws IOException {
+        return start(exchange -> respond(exchange, status, body));
+    }
+
+    /**
+     * Starts a server on a random port that answers every request with the given handler.
+     *
+     * @param handler the handler answering the requests.
+     * @return the started server.
+     */
+    public static StubServer start(HttpHandler handler) throws IOException {
+        return new StubServer(handler);
+    }
+
+    /**
+     * Sends a response for the given exchange.
+     *
+     * @param exchange the exchange to answer.
+     * @param status the status of the response.
+     * @param body the body of the response.
+     */
+    public static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(UTF_8);
+        // An empty body is sent chunked, since the server closes the connection after a response without length
+        long length = bytes.length > 0 ? bytes.length : status == NO_CONTENT || status == NOT_MODIFIED ? -1 : 0;
+        exchange.sendResponseHeaders(status, length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private StubServer(HttpHandler handler) throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            remoteAddresses.add(exchange.getRemoteAddress());
+            handler.handle(exchange);
+        });
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    /**
+     * Provides the URL of the given path on the server.
+     *
+     * @param path the path to resolve.
+     * @return the URL of the path.
+     */
+    public String url(String path) {
+        return format("http://localhost:%d%s", server.getAddress().getPort(), path);
+    }
+
+    /**
+     * Provides the remote addresses of the requests received so far, in order of arrival.
+     *
+     * @return the remote addresses of the requests.
+     */
+    public List<InetSocketAddress> getRemoteAddresses() {
+        return remoteAddresses;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private static final int NO_CONTENT = 204;
+
+    private static final int NOT_MODIFIED = 304;
+
+    private final HttpServer server;
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    private final List<InetSocketAddress> remoteAddresses = new CopyOnWriteArrayList<>();
+}
@@ -0,0 +1,133 @@
+package resty.cache;
+
+import com.sun.net.httpserver.HttpExchange;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import resty.Resty;
+import resty.StubServer;
+import resty.json.JsonMapper;
+import resty.response.RestResponse;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DiskCacheStoreTest {
+
+    @Test
+    public void survivesRestart(@TempDir Path directory) throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+        try (StubServer server = StubServer.start(exchange -> {
+            requests.incrementAndGet();
+            respond(exchange, "max-age=3600", "{\"version\":1}");
+        })) {
+            try (DiskCacheStore store = new DiskCacheStore(directory, STORE_SIZE);
+                 Resty resty = Resty.builder().responseCache(new ResponseCache(1 << 20, store)).build()) {
+                resty.get(server.url("/reference"));
+            }
+            try (DiskCacheStore store = new DiskCacheStore(directory, STORE_SIZE);
+                 Resty resty = Resty.builder().responseCache(new ResponseCache(1 << 20, store)).build()) {
+                RestResponse response = resty.get(server.url("/reference"));
+                assertEquals("{\"version\":1}", response.getBody());
+                assertEquals("max-age=3600", response.getHeader("cache-control"));
+                assertEquals(1, requests.get());
+                assertEquals(1, store.getHitCount());
+            }
+        }
+    }
+
+    @Test
+    public void revalidationAfterRestart(@TempDir Path directory) throws Exception {
+        List<String> conditions = new CopyOnWriteArrayList<>();
+        try (StubServer server = StubServer.start(exchange -> {
+            String condition = exchange.getRequestHeaders().getFirst("If-None-Match");
+            conditions.add(String.valueOf(condition));
+            exchange.getResponseHeaders().add("ETag", "\"v1\"");
+            respond(exchange, "no-cache", condition != null ? null : "{\"version\":1}");
+        })) {
+            try (DiskCacheStore store = new DiskCacheStore(directory, STORE_SIZE);
+                 Resty resty = Resty.builder().responseCache(new ResponseCache(1 << 20, store)).build()) {
+                resty.get(server.url("/reference"));
+            }
+            try (DiskCacheStore store = new DiskCacheStore(directory, STORE_SIZE);
+                 Resty resty = Resty.builder().responseCache(new ResponseCache(1 << 20, store)).build()) {
+                RestResponse response = resty.get(server.url("/reference"));
+                assertEquals(200, response.getStatus());
+                assertEquals("{\"version\":1}", response.getBody());
+                assertEquals("[null, \"v1\"]", conditions.toString());
+            }
+        }
+    }
+
+    @Test
+    public void evictionAndInvalidation(@TempDir Path directory) throws Exception {
+        try (DiskCacheStore store = new DiskCacheStore(directory, STORE_SIZE)) {
+            for (int i = 0; i < 40; i++) {
+                store.put("key-" + i, entry("/item/" + i, 20_000));
+            }
+            assertTrue(store.getEvictionCount() > 0);
+            assertTrue(store.getSize() <= STORE_SIZE);
+            assertNull(store.get("key-0"));
+            assertEquals(20_000 + 2, store.get("key-39").getResponse().getBody().length());
+
+            store.invalidate("/item/39");
+            assertNull(store.get("key-39"));
+        }
+        try (DiskCacheStore store = new DiskCacheStore(directory, STORE_SIZE)) {
+            assertNull(store.get("key-39"));
+            assertEquals("/item/38", store.get("key-38").getEndpoint());
+        }
+    }
+
+    @Test
+    public void concurrentReaders(@TempDir Path directory) throws Exception {
+        ExecutorService readers = Executors.newFixedThreadPool(8);
+        try (DiskCacheStore store = new DiskCacheStore(directory, STORE_SIZE)) {
+            store.put("key", entry("/item", 1000));
+            List<Future<?>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(readers.submit(() -> {
+                    for (int j = 0; j < 500; j++) {
+                        CacheEntry entry = store.get("key");
+                        assertEquals("/item", entry.getEndpoint());
+                        assertEquals(1000 + 2, entry.getResponse().getBody().length());
+                    }
+                }));
+            }
+            for (int i = 0; i < 200; i++) {
+                store.put("key", entry("/item", 1000));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } finally {
+            readers.shutdown();
+        }
+    }
+
+    private static CacheEntry entry(String endpoint, int size) {
+        String body = "\"" + String.join("", Collections.nCopies(size, "x")) + "\"";
+        RestResponse response = new RestResponse(200, body,
+                Collections.singletonMap("Cache-Control", Collections.singletonList("max-age=60")),
+                JsonMapper.getDefault());
+        return CacheEntry.of(endpoint, response, System.currentTimeMillis());
+    }
+
+    private static void respond(HttpExchange exchange, String cacheControl, String body) throws IOException {
+        exchange.getResponseHeaders().add("Cache-Control", cacheControl);
+        StubServer.respond(exchange, body != null ? 200 : 304, body != null ? body : "");
+    }
+
+    private static final long STORE_SIZE = 4 * 64 * 1024;
+}
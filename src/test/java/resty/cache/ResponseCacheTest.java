@@ -0,0 +1,140 @@
+package resty.cache;
+
+import com.sun.net.httpserver.HttpExchange;
+import org.junit.jupiter.api.Test;
+import resty.Resty;
+import resty.StubServer;
+import resty.entity.RestEntity;
+import resty.response.RestResponse;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ResponseCacheTest {
+
+    @Test
+    public void freshResponse() throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+        ResponseCache cache = new ResponseCache(1 << 20, clock);
+        try (StubServer server = StubServer.start(exchange -> {
+            requests.incrementAndGet();
+            respond(exchange, "max-age=60", null, "{\"version\":1}");
+        }); Resty resty = Resty.builder().responseCache(cache).build()) {
+            assertEquals("{\"version\":1}", resty.get(server.url("/reference")).getBody());
+            assertEquals("{\"version\":1}", resty.get(server.url("/reference")).getBody());
+            assertEquals("{\"version\":1}", resty.futureGet(server.url("/reference")).get().getBody());
+            resty.get(server.url("/reference"), RestEntity.withParameter("page", 2));
+            assertEquals(2, requests.get());
+            assertEquals(2, cache.getHitCount());
+            assertEquals(2, cache.getMissCount());
+            assertEquals(2, cache.getEntryCount());
+
+            time.addAndGet(61_000);
+            resty.get(server.url("/reference"));
+            assertEquals(3, requests.get());
+        }
+    }
+
+    @Test
+    public void revalidation() throws Exception {
+        List<String> conditions = new CopyOnWriteArrayList<>();
+        ResponseCache cache = new ResponseCache(1 << 20, clock);
+        try (StubServer server = StubServer.start(exchange -> {
+            String condition = exchange.getRequestHeaders().getFirst("If-None-Match");
+            conditions.add(String.valueOf(condition));
+            if ("\"v1\"".equals(condition)) {
+                respond(exchange, "no-cache", "\"v1\"", null);
+            } else {
+                respond(exchange, "no-cache", "\"v1\"", "{\"version\":1}");
+            }
+        }); Resty resty = Resty.builder().responseCache(cache).build()) {
+            resty.get(server.url("/reference"));
+            RestResponse response = resty.get(server.url("/reference"));
+            assertEquals(200, response.getStatus());
+            assertEquals("{\"version\":1}", response.getBody());
+            assertEquals("[null, \"v1\"]", conditions.toString());
+            assertEquals(1, cache.getRevalidationCount());
+        }
+    }
+
+    @Test
+    public void staleWhileRevalidate() throws Exception {
+        AtomicInteger version = new AtomicInteger();
+        ResponseCache cache = new ResponseCache(1 << 20, clock);
+        try (StubServer server = StubServer.start(exchange ->
+                respond(exchange, "max-age=1, stale-while-revalidate=60", null, "" + version.incrementAndGet()));
+             Resty resty = Resty.builder().responseCache(cache).build()) {
+            assertEquals("1", resty.get(server.url("/reference")).getBody());
+            time.addAndGet(2_000);
+            assertEquals("1", resty.get(server.url("/reference")).getBody());
+            String body = "1";
+            for (int i = 0; i < 50 && "1".equals(body); i++) {
+                Thread.sleep(20);
+                body = resty.get(server.url("/reference")).getBody();
+            }
+            assertEquals("2", body);
+            assertEquals(2, version.get());
+            assertEquals(1, cache.getMissCount());
+            assertEquals(0, cache.getRevalidationCount());
+            assertEquals((double) cache.getHitCount() / (cache.getHitCount() + 1), cache.getHitRatio());
+        }
+    }
+
+    @Test
+    public void evictionAndInvalidation() throws Exception {
+        ResponseCache cache = new ResponseCache(4096, clock);
+        try (StubServer server = StubServer.start(exchange ->
+                respond(exchange, "max-age=60", null, new String(new char[600]).replace('\0', 'x')));
+             Resty resty = Resty.builder().responseCache(cache).build()) {
+            for (int i = 0; i < 10; i++) {
+                resty.get(server.url("/item/" + i));
+            }
+            assertTrue(cache.getSize() <= 4096);
+            assertTrue(cache.getEvictionCount() > 0);
+            resty.get(server.url("/item/9"));
+            assertEquals(1, cache.getHitCount());
+
+            resty.put(server.url("/item/9"), "{}");
+            resty.get(server.url("/item/9"));
+            assertEquals(1, cache.getHitCount());
+        }
+    }
+
+    private static void respond(HttpExchange exchange, String cacheControl, String etag, String body)
+            throws IOException {
+        exchange.getResponseHeaders().add("Cache-Control", cacheControl);
+        if (etag != null) {
+            exchange.getResponseHeaders().add("ETag", etag);
+        }
+        StubServer.respond(exchange, body != null ? 200 : 304, body != null ? body : "");
+    }
+
+    private final AtomicLong time = new AtomicLong(1_000_000);
+
+    private final Clock clock = new Clock() {
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(time.get());
+        }
+    };
+}
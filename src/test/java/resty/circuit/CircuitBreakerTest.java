@@ -0,0 +1,124 @@
+package resty.circuit;
+
+import org.junit.jupiter.api.Test;
+import resty.Resty;
+import resty.StubServer;
+import resty.request.Endpoints;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CircuitBreakerTest {
+
+    @Test
+    public void failuresAndProbing() throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+        AtomicInteger status = new AtomicInteger(500);
+        List<String> transitions = new CopyOnWriteArrayList<>();
+        CircuitBreakerRegistry registry = new CircuitBreakerRegistry(config().build());
+        registry.addListener((host, from, to) -> transitions.add(from.toValue() + ">" + to.toValue()));
+        try (StubServer server = StubServer.start(exchange -> {
+            requests.incrementAndGet();
+            StubServer.respond(exchange, status.get(), "{}");
+        }); Resty resty = Resty.builder().circuitBreakers(registry).build()) {
+            String host = Endpoints.hostOf(server.url("/reference"));
+            for (int i = 0; i < 5; i++) {
+                assertEquals(500, resty.get(server.url("/reference")).getStatus());
+            }
+            assertEquals(CircuitState.OPEN, registry.getState(host));
+            CircuitOpenException exception =
+                    assertThrows(CircuitOpenException.class, () -> resty.get(server.url("/reference")));
+            assertEquals(host, exception.getHost());
+            ExecutionException futureException =
+                    assertThrows(ExecutionException.class, () -> resty.futureGet(server.url("/other")).get());
+            assertTrue(futureException.getCause() instanceof CircuitOpenException);
+            assertEquals(5, requests.get());
+            assertEquals(2, registry.getRejectedCount());
+
+            status.set(200);
+            Thread.sleep(250);
+            assertEquals(200, resty.get(server.url("/reference")).getStatus());
+            assertEquals(CircuitState.HALF_OPEN, registry.getState(host));
+            assertEquals(200, resty.futureGet(server.url("/reference")).get().getStatus());
+            assertEquals(CircuitState.CLOSED, registry.getState(host));
+            assertEquals("[closed>open, open>half-open, half-open>closed]", transitions.toString());
+        }
+    }
+
+    @Test
+    public void failedProbing() throws Exception {
+        CircuitBreakerRegistry registry = new CircuitBreakerRegistry(config().build());
+        try (StubServer server = StubServer.start(500, "{}");
+             Resty resty = Resty.builder().circuitBreakers(registry).build()) {
+            String host = Endpoints.hostOf(server.url("/reference"));
+            for (int i = 0; i < 5; i++) {
+                resty.get(server.url("/reference"));
+            }
+            Thread.sleep(250);
+            resty.get(server.url("/reference"));
+            resty.get(server.url("/reference"));
+            assertEquals(CircuitState.OPEN, registry.getState(host));
+            assertThrows(CircuitOpenException.class, () -> resty.get(server.url("/reference")));
+        }
+    }
+
+    @Test
+    public void slowCalls() throws Exception {
+        CircuitBreakerRegistry registry = new CircuitBreakerRegistry(config()
+                .slowCallDuration(50)
+                .slowCallRateThreshold(0.5)
+                .build());
+        try (StubServer server = StubServer.start(exchange -> {
+            try {
+                Thread.sleep(80);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            StubServer.respond(exchange, 200, "{}");
+        }); Resty resty = Resty.builder().circuitBreakers(registry).build()) {
+            for (int i = 0; i < 5; i++) {
+                assertEquals(200, resty.get(server.url("/reference")).getStatus());
+            }
+            assertEquals(CircuitState.OPEN, registry.getState(Endpoints.hostOf(server.url("/reference"))));
+        }
+    }
+
+    @Test
+    public void rejectedAndCancelledProbing() {
+        CircuitBreakerConfig config = config().windowSize(4).minCalls(2).build();
+        CircuitBreaker breaker = new CircuitBreaker("localhost", config, new CircuitBreakerRegistry(config));
+        CircuitBreaker.Phase closed = breaker.tryAcquire(0);
+        breaker.onComplete(closed, true, false, 0);
+        breaker.onComplete(closed, true, false, 0);
+        assertEquals(CircuitState.OPEN, breaker.getState());
+
+        long now = TimeUnit.MILLISECONDS.toNanos(config.getOpenDuration());
+        CircuitBreaker.Phase first = breaker.tryAcquire(now);
+        CircuitBreaker.Phase second = breaker.tryAcquire(now);
+        assertEquals(CircuitState.HALF_OPEN, breaker.getState());
+        assertNull(breaker.tryAcquire(now));
+        breaker.onCancel(second);
+        CircuitBreaker.Phase retried = breaker.tryAcquire(now);
+        assertNotNull(retried);
+        breaker.onComplete(first, false, false, now);
+        breaker.onComplete(retried, false, false, now);
+        assertEquals(CircuitState.CLOSED, breaker.getState());
+    }
+
+    private static CircuitBreakerConfig.CircuitBreakerConfigBuilder config() {
+        return CircuitBreakerConfig.builder()
+                .windowSize(10)
+                .minCalls(5)
+                .openDuration(200)
+                .halfOpenCalls(2);
+    }
+}
@@ -0,0 +1,116 @@
+package resty.coalescing;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import org.junit.jupiter.api.Test;
+import resty.Resty;
+import resty.StubServer;
+import resty.entity.RestEntity;
+import resty.response.RestResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.Collections.singletonList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class RequestCoalescingTest {
+
+    @Test
+    public void identicalRequests() throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+        RequestCoalescer coalescer = new RequestCoalescer();
+        ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+        try (StubServer server = StubServer.start(exchange -> {
+            requests.incrementAndGet();
+            awaitCollapsed(coalescer, CALLERS - 1);
+            StubServer.respond(exchange, 200, "{\"version\":[1]}");
+        }); Resty resty = Resty.builder().requestCoalescer(coalescer).build()) {
+            List<Future<RestResponse>> responses = new ArrayList<>();
+            for (int i = 0; i < CALLERS; i++) {
+                responses.add(callers.submit(() ->
+                        resty.get(server.url("/reference"), RestEntity.withParameter("page", 1))));
+            }
+            RestResponse first = responses.get(0).get();
+            first.getBody(VERSIONS).get("version").add(2);
+            for (Future<RestResponse> response : responses.subList(1, CALLERS)) {
+                assertNotSame(first, response.get());
+                assertSame(first.getBody(), response.get().getBody());
+                assertEquals(singletonList(1), response.get().getBody(VERSIONS).get("version"));
+            }
+            assertEquals("{\"version\":[1]}", first.getBody());
+            assertEquals(1, requests.get());
+            assertEquals(1, coalescer.getExecutedCount());
+            assertEquals(CALLERS - 1, coalescer.getCollapsedCount());
+            assertEquals(0, coalescer.getInFlightCount());
+
+            resty.get(server.url("/reference"), RestEntity.withParameter("page", 1));
+            assertEquals(2, requests.get());
+        } finally {
+            callers.shutdown();
+        }
+    }
+
+    @Test
+    public void futureRequests() throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+        RequestCoalescer coalescer = new RequestCoalescer();
+        try (StubServer server = StubServer.start(exchange -> {
+            requests.incrementAndGet();
+            awaitCollapsed(coalescer, 2);
+            StubServer.respond(exchange, 200, "{}");
+        }); Resty resty = Resty.builder().requestCoalescer(coalescer).build()) {
+            CompletableFuture<RestResponse> first = resty.futureGet(server.url("/reference"));
+            CompletableFuture<RestResponse> cancelled = resty.futureGet(server.url("/reference"));
+            CompletableFuture<RestResponse> second = resty.futureGet(server.url("/reference"));
+            cancelled.cancel(true);
+            assertEquals("{}", first.get().getBody());
+            assertEquals("{}", second.get().getBody());
+            assertEquals(1, requests.get());
+        }
+    }
+
+    @Test
+    public void distinctRequests() throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+        RequestCoalescer coalescer = new RequestCoalescer();
+        try (StubServer server = StubServer.start(exchange -> {
+            requests.incrementAndGet();
+            StubServer.respond(exchange, 200, "{}");
+        }); Resty resty = Resty.builder().requestCoalescer(coalescer).build()) {
+            CompletableFuture.allOf(
+                    resty.futureGet(server.url("/reference"), RestEntity.withParameter("page", 1)),
+                    resty.futureGet(server.url("/reference"), RestEntity.withParameter("page", 2)),
+                    resty.futureGet(server.url("/reference"), RestEntity.withHeader("Accept-Language", "it")),
+                    resty.futurePost(server.url("/reference"), "{}"),
+                    resty.futurePost(server.url("/reference"), "{}")).get();
+            assertEquals(5, requests.get());
+            assertEquals(3, coalescer.getExecutedCount());
+            assertEquals(0, coalescer.getCollapsedCount());
+        }
+    }
+
+    private static void awaitCollapsed(RequestCoalescer coalescer, long count) {
+        for (int i = 0; i < 250 && coalescer.getCollapsedCount() < count; i++) {
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private static final int CALLERS = 20;
+
+    private static final TypeReference<Map<String, List<Integer>>> VERSIONS =
+            new TypeReference<Map<String, List<Integer>>>() {
+            };
+}
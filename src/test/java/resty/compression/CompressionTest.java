@@ -0,0 +1,159 @@
+package resty.compression;
+
+import com.sun.net.httpserver.HttpExchange;
+import org.junit.jupiter.api.Test;
+import resty.Resty;
+import resty.StubServer;
+import resty.engine.RestEngineType;
+import resty.response.RestResponse;
+import resty.response.StreamingRestResponse;
+
+import javax.ws.rs.core.Form;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URLEncoder;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static javax.ws.rs.core.MediaType.APPLICATION_FORM_URLENCODED;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static resty.entity.RestEntity.withHeader;
+
+public class CompressionTest {
+
+    @Test
+    public void jersey() throws Exception {
+        exchange(RestEngineType.JERSEY);
+    }
+
+    @Test
+    public void jdkHttpClient() throws Exception {
+        exchange(RestEngineType.JDK_HTTP_CLIENT);
+    }
+
+    @Test
+    public void deflateAndStreaming() throws Exception {
+        ContentCompressor compressor = new ContentCompressor();
+        for (RestEngineType engineType : RestEngineType.values()) {
+            try (StubServer server = StubServer.start(exchange -> respond(exchange, "deflate", PAYLOAD));
+                 Resty resty = Resty.builder().engineType(engineType).contentCompressor(compressor).build()) {
+                assertEquals(PAYLOAD, resty.get(server.url("/deflate")).getBody());
+                try (StreamingRestResponse response = resty.streamGet(server.url("/deflate"))) {
+                    assertNull(response.getHeader("Content-Encoding"));
+                    assertEquals(PAYLOAD, new String(readAll(response.getInputStream()), UTF_8));
+                }
+            }
+        }
+        assertEquals(4, compressor.getDecompressedResponseCount());
+        assertTrue(compressor.getResponseCompressionRatio() > 10);
+    }
+
+    @Test
+    public void smallAndEncodedBodies() throws Exception {
+        List<String> encodings = new CopyOnWriteArrayList<>();
+        ContentCompressor compressor = new ContentCompressor(CompressionPolicy.builder().minSize(100).build());
+        try (StubServer server = StubServer.start(exchange -> {
+            encodings.add(String.valueOf(exchange.getRequestHeaders().getFirst("Content-Encoding")));
+            StubServer.respond(exchange, 200, "{}");
+        });
+             Resty resty = Resty.builder()
+                     .engineType(RestEngineType.JDK_HTTP_CLIENT).contentCompressor(compressor).build()) {
+            resty.post(server.url("/small"), "{\"small\":true}");
+            resty.post(server.url("/encoded"), PAYLOAD, withHeader("Content-Encoding", "br"));
+        }
+        assertEquals("null", encodings.get(0));
+        assertEquals("br", encodings.get(1));
+        assertEquals(0, compressor.getCompressedRequestCount());
+    }
+
+    @Test
+    public void disabled() throws Exception {
+        List<String> acceptEncodings = new CopyOnWriteArrayList<>();
+        try (StubServer server = StubServer.start(exchange -> {
+            acceptEncodings.add(String.valueOf(exchange.getRequestHeaders().getFirst("Accept-Encoding")));
+            StubServer.respond(exchange, 200, "{}");
+        });
+             Resty resty = Resty.builder().engineType(RestEngineType.JDK_HTTP_CLIENT).build()) {
+            resty.post(server.url("/plain"), PAYLOAD);
+        }
+        assertEquals("null", acceptEncodings.get(0));
+    }
+
+    @Test
+    public void formBody() throws Exception {
+        List<String> received = new CopyOnWriteArrayList<>();
+        ContentCompressor compressor = new ContentCompressor(CompressionPolicy.builder().minSize(100).build());
+        String value = String.join(" ", Collections.nCopies(100, "resty"));
+        try (StubServer server = StubServer.start(exchange -> {
+            received.add(String.valueOf(exchange.getRequestHeaders().getFirst("Content-Encoding")));
+            received.add(new String(readAll(exchange.getRequestBody()), UTF_8));
+            StubServer.respond(exchange, 200, "{}");
+        });
+             Resty resty = Resty.builder().engineType(RestEngineType.JERSEY).contentCompressor(compressor).build()) {
+            resty.post(server.url("/form"), new Form("name", value), APPLICATION_FORM_URLENCODED, 1000, 1000);
+        }
+        assertEquals("null", received.get(0));
+        assertEquals("name=" + URLEncoder.encode(value, "UTF-8"), received.get(1));
+        assertEquals(0, compressor.getCompressedRequestCount());
+    }
+
+    private static void exchange(RestEngineType engineType) throws Exception {
+        List<String> received = new CopyOnWriteArrayList<>();
+        ContentCompressor compressor = new ContentCompressor();
+        try (StubServer server = StubServer.start(exchange -> {
+            received.add(exchange.getRequestHeaders().getFirst("Accept-Encoding"));
+            if ("gzip".equals(exchange.getRequestHeaders().getFirst("Content-Encoding"))) {
+                received.add(new String(readAll(new GZIPInputStream(exchange.getRequestBody())), UTF_8));
+            }
+            respond(exchange, "gzip", PAYLOAD);
+        });
+             Resty resty = Resty.builder().engineType(engineType).contentCompressor(compressor).build()) {
+            RestResponse response = resty.post(server.url("/gzip"), PAYLOAD);
+            assertEquals(200, response.getStatus());
+            assertEquals(PAYLOAD, response.getBody());
+            assertNull(response.getHeader("Content-Encoding"));
+            assertEquals(PAYLOAD, resty.futureGet(server.url("/gzip")).get().getBody());
+        }
+        assertEquals("gzip, deflate", received.get(0));
+        assertEquals(PAYLOAD, received.get(1));
+        assertEquals(1, compressor.getCompressedRequestCount());
+        assertEquals(2, compressor.getDecompressedResponseCount());
+        assertTrue(compressor.getRequestCompressionRatio() > 10);
+        assertTrue(compressor.getResponseCompressionRatio() > 10);
+        assertTrue(compressor.getSavedBytes() > 2 * PAYLOAD.length());
+    }
+
+    private static void respond(HttpExchange exchange, String coding, String body) throws IOException {
+        ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+        try (OutputStream out = "gzip".equals(coding)
+                ? new GZIPOutputStream(encoded) : new DeflaterOutputStream(encoded)) {
+            out.write(body.getBytes(UTF_8));
+        }
+        exchange.getResponseHeaders().set("Content-Encoding", coding);
+        exchange.sendResponseHeaders(200, encoded.size());
+        try (OutputStream out = exchange.getResponseBody()) {
+            encoded.writeTo(out);
+        }
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        for (int read = in.read(buffer); read >= 0; read = in.read(buffer)) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+
+    private static final String PAYLOAD = "[" + String.join(",",
+            Collections.nCopies(200, "{\"name\":\"resty\",\"compressible\":true}")) + "]";
+}
@@ -0,0 +1,43 @@
+package resty.connection;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.net.ssl.KeyManager;
+import javax.net.ssl.X509KeyManager;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class SslContextsTest {
+
+    @Test
+    public void keyStoreOfSystemProperties(@TempDir Path directory) throws Exception {
+        assertNull(SslContexts.defaultKeyManagers());
+        Path keyStore = directory.resolve("client.p12");
+        Process keytool = new ProcessBuilder(
+                Paths.get(System.getProperty("java.home"), "bin", "keytool").toString(),
+                "-genkeypair", "-alias", "client", "-keyalg", "RSA", "-dname", "CN=client", "-storetype", "PKCS12",
+                "-keystore", keyStore.toString(), "-storepass", "changeit", "-keypass", "changeit")
+                .inheritIO()
+                .start();
+        assertEquals(0, keytool.waitFor());
+        System.setProperty("javax.net.ssl.keyStore", keyStore.toString());
+        System.setProperty("javax.net.ssl.keyStoreType", "PKCS12");
+        System.setProperty("javax.net.ssl.keyStorePassword", "changeit");
+        try {
+            KeyManager[] keyManagers = SslContexts.defaultKeyManagers();
+            assertNotNull(keyManagers);
+            assertArrayEquals(new String[]{"client"}, ((X509KeyManager) keyManagers[0]).getClientAliases("RSA", null));
+            assertNotNull(SslContexts.newDefaultContext());
+        } finally {
+            System.clearProperty("javax.net.ssl.keyStore");
+            System.clearProperty("javax.net.ssl.keyStoreType");
+            System.clearProperty("javax.net.ssl.keyStorePassword");
+        }
+    }
+}
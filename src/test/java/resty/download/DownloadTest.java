@@ -0,0 +1,109 @@
+package resty.download;
+
+import com.sun.net.httpserver.HttpExchange;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import resty.Resty;
+import resty.StubServer;
+import resty.engine.RestEngineType;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DownloadTest {
+
+    @Test
+    public void downloadWithProgressAndChecksum(@TempDir Path directory) throws Exception {
+        byte[] body = new byte[3 * BUFFER_SIZE + 123];
+        new Random(42).nextBytes(body);
+        String checksum = digest("SHA-256", body);
+        try (StubServer server = StubServer.start(exchange -> respond(exchange, body))) {
+            for (RestEngineType engineType : RestEngineType.values()) {
+                Path target = directory.resolve(engineType.name()).resolve("snapshot.bin");
+                List<Long> progress = new CopyOnWriteArrayList<>();
+                try (Resty resty = Resty.builder().engineType(engineType).build()) {
+                    DownloadResult result = resty.download(server.url("/snapshot"), target, DownloadPolicy.builder()
+                            .bufferSize(BUFFER_SIZE)
+                            .expectedChecksum(checksum.toUpperCase())
+                            .listener((transferred, total) -> {
+                                assertEquals(body.length, total);
+                                progress.add(transferred);
+                            })
+                            .build());
+                    assertTrue(result.isSuccess());
+                    assertEquals(body.length, result.getSize());
+                    assertEquals(checksum, result.getChecksum());
+                }
+                assertArrayEquals(body, Files.readAllBytes(target));
+                assertEquals(4, progress.size());
+                assertEquals(body.length, (long) progress.get(progress.size() - 1));
+                assertEquals(1, count(target.getParent()));
+            }
+        }
+    }
+
+    @Test
+    public void checksumMismatch(@TempDir Path directory) throws Exception {
+        Path target = directory.resolve("report.csv");
+        Files.write(target, "previous".getBytes(UTF_8));
+        try (StubServer server = StubServer.start(200, "id,name\n1,report\n");
+             Resty resty = Resty.builder().build()) {
+            DownloadPolicy policy = DownloadPolicy.builder().checksumAlgorithm("MD5").expectedChecksum("00").build();
+            ChecksumMismatchException e = assertThrows(ChecksumMismatchException.class,
+                    () -> resty.download(server.url("/report"), target, policy));
+            assertEquals(digest("MD5", "id,name\n1,report\n".getBytes(UTF_8)), e.getActual());
+        }
+        assertEquals("previous", new String(Files.readAllBytes(target), UTF_8));
+        assertEquals(1, count(directory));
+    }
+
+    @Test
+    public void failedResponse(@TempDir Path directory) throws Exception {
+        Path target = directory.resolve("missing.bin");
+        try (StubServer server = StubServer.start(404, "not found");
+             Resty resty = Resty.builder().build()) {
+            DownloadResult result = resty.download(server.url("/missing"), target);
+            assertFalse(result.isSuccess());
+            assertEquals(404, result.getStatus());
+        }
+        assertFalse(Files.exists(target));
+        assertEquals(0, count(directory));
+    }
+
+    private static void respond(HttpExchange exchange, byte[] body) throws IOException {
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static String digest(String algorithm, byte[] bytes) throws Exception {
+        StringBuilder hex = new StringBuilder();
+        for (byte b : MessageDigest.getInstance(algorithm).digest(bytes)) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+
+    private static long count(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+}
@@ -0,0 +1,79 @@
+package resty.entity;
+
+import org.junit.jupiter.api.Test;
+import resty.Resty;
+import resty.StubServer;
+import resty.engine.RestEngineType;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static resty.entity.RestEntity.withHeader;
+import static resty.entity.RestEntity.withParameter;
+
+public class RestEntitiesTest {
+
+    @Test
+    public void split() {
+        RestEntities entities = RestEntities.of(
+                withParameter("id", 42),
+                withHeader("Accept", "application/json"),
+                RestEntities.builder().parameter("lang", "en").header("X-Trace", true).build(),
+                withParameter("expand", 0.5));
+        assertEquals(2, entities.getHeaderCount());
+        assertEquals("Accept", entities.getHeaderName(0));
+        assertEquals("true", entities.getHeaderValue(1));
+        assertEquals("true", entities.getHeader("x-trace"));
+        assertNull(entities.getHeader("Authorization"));
+        assertEquals(3, entities.getParameterCount());
+        assertEquals("42", entities.getParameterValue(0));
+        assertEquals("lang", entities.getParameterName(1));
+        assertEquals("0.5", entities.getParameterValue(2));
+
+        assertSame(entities, RestEntities.of(entities));
+        assertSame(RestEntities.EMPTY, RestEntities.of((RestEntity[]) null));
+
+        TypedRestEntity typed = TypedRestEntity.buildFromEntities(new RestEntity[]{entities, withHeader("A", "b")});
+        assertEquals(3, typed.getHeaders().size());
+        assertEquals(RestEntityType.HEADER, typed.getHeaders().get(1).getType());
+        assertEquals(3, typed.getParameters().size());
+    }
+
+    @Test
+    public void reuse() {
+        RestEntities.Builder builder = RestEntities.builder();
+        for (int i = 0; i < 20; i++) {
+            builder.header("H" + i, i);
+        }
+        RestEntities first = builder.build();
+        RestEntities second = builder.reset().parameter("page", 2).build();
+        assertEquals(20, first.getHeaderCount());
+        assertEquals("19", first.getHeaderValue(19));
+        assertEquals(0, second.getHeaderCount());
+        assertEquals("2", second.getParameterValue(0));
+    }
+
+    @Test
+    public void request() throws Exception {
+        List<String> received = new CopyOnWriteArrayList<>();
+        RestEntities entities = RestEntities.builder().header("X-Client", "resty").parameter("id", 7).build();
+        try (StubServer server = StubServer.start(exchange -> {
+            received.add(exchange.getRequestURI() + " " + exchange.getRequestHeaders().getFirst("X-Client"));
+            StubServer.respond(exchange, 200, "{}");
+        })) {
+            for (RestEngineType engineType : RestEngineType.values()) {
+                try (Resty resty = Resty.builder().engineType(engineType).build()) {
+                    assertEquals(200, resty.get(server.url("/items"), entities).getStatus());
+                    assertEquals(200, resty.post(server.url("/items"), "{}", entities, withParameter("a", 1))
+                            .getStatus());
+                }
+            }
+        }
+        assertEquals("/items?id=7 resty", received.get(0));
+        assertEquals("/items?id=7&a=1 resty", received.get(1));
+        assertEquals(received.subList(0, 2), received.subList(2, 4));
+    }
+}
@@ -0,0 +1,101 @@
+package resty.hedging;
+
+import org.junit.jupiter.api.Test;
+import resty.Resty;
+import resty.StubServer;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class HedgingTest {
+
+    @Test
+    public void slowRequest() throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+        RequestHedger hedger = new RequestHedger(HedgingPolicy.builder().delay(50).maxHedgeRatio(1).build());
+        try (StubServer server = StubServer.start(exchange -> {
+            int request = requests.incrementAndGet();
+            sleep(request == 1 ? 1000 : 0);
+            StubServer.respond(exchange, 200, "{\"request\":" + request + "}");
+        }); Resty resty = Resty.builder().requestHedger(hedger).build()) {
+            long start = System.nanoTime();
+            assertEquals("{\"request\":2}", resty.get(server.url("/reference")).getBody());
+            assertTrue(System.nanoTime() - start < 900_000_000L);
+            assertEquals(1, hedger.getHedgeCount());
+            assertEquals(1, awaitWins(hedger, 1));
+
+            assertEquals("{\"request\":3}", resty.futureGet(server.url("/reference")).get().getBody());
+            assertEquals(1, hedger.getHedgeCount());
+            assertEquals(2, hedger.getRequestCount());
+        }
+    }
+
+    @Test
+    public void hedgeRatio() throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+        RequestHedger hedger = new RequestHedger(HedgingPolicy.builder().delay(10).maxHedgeRatio(0.25).build());
+        try (StubServer server = StubServer.start(exchange -> {
+            requests.incrementAndGet();
+            sleep(100);
+            StubServer.respond(exchange, 200, "{}");
+        }); Resty resty = Resty.builder().requestHedger(hedger).build()) {
+            for (int i = 0; i < 8; i++) {
+                resty.get(server.url("/reference"));
+            }
+            assertEquals(8, hedger.getRequestCount());
+            assertEquals(2, hedger.getHedgeCount());
+            assertEquals(8 + 2, requests.get());
+        }
+    }
+
+    @Test
+    public void observedLatency() throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+        RequestHedger hedger = new RequestHedger(HedgingPolicy.builder().minSamples(10).maxHedgeRatio(1).build());
+        try (StubServer server = StubServer.start(exchange -> {
+            sleep(requests.incrementAndGet() == 11 ? 2000 : 20);
+            StubServer.respond(exchange, 200, "{}");
+        }); Resty resty = Resty.builder().requestHedger(hedger).build()) {
+            for (int i = 0; i < 10; i++) {
+                resty.get(server.url("/reference"));
+            }
+            assertEquals(0, hedger.getHedgeCount());
+
+            long start = System.nanoTime();
+            resty.get(server.url("/reference"));
+            assertTrue(System.nanoTime() - start < 1_500_000_000L);
+            assertEquals(1, hedger.getHedgeCount());
+            assertEquals(1, awaitWins(hedger, 1));
+        }
+    }
+
+    @Test
+    public void boundedLatencies() {
+        RequestHedger hedger = new RequestHedger(HedgingPolicy.builder().minSamples(2).build());
+        hedger.recordLatency("http://host/items?page=1", 10);
+        hedger.recordLatency("http://host/items?page=2", 30);
+        assertEquals(30, hedger.delayFor("http://host/items?page=3"));
+        for (int i = 0; i < 5000; i++) {
+            hedger.recordLatency("http://host/items/" + i, 10);
+        }
+        assertTrue(hedger.getWindowCount() <= 1024);
+    }
+
+    private static long awaitWins(RequestHedger hedger, long wins) {
+        // Wins are recorded right after the response is given back
+        for (int i = 0; i < 50 && hedger.getWinCount() < wins; i++) {
+            sleep(10);
+        }
+        return hedger.getWinCount();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package resty.metrics;
+
+import org.junit.jupiter.api.Test;
+import resty.Resty;
+import resty.StubServer;
+import resty.request.Endpoints;
+import resty.request.RestMethod;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RequestMetricsTest {
+
+    @Test
+    public void percentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 10000; i++) {
+            histogram.record(i);
+        }
+        HistogramSnapshot snapshot = histogram.snapshot();
+        assertEquals(10000, snapshot.getCount());
+        assertEquals(10000, snapshot.getMax());
+        assertEquals(5000.5, snapshot.getMean());
+        assertEquals(5000, snapshot.getMedian(), 50);
+        assertEquals(9000, snapshot.getP90(), 90);
+        assertEquals(9900, snapshot.getP99(), 99);
+        assertEquals(1, snapshot.getValueAtPercentile(0));
+        assertEquals(10000, snapshot.getValueAtPercentile(100));
+        for (int i = 0; i < 100000; i++) {
+            assertTrue(LatencyHistogram.highestValueOf(LatencyHistogram.indexOf(i)) >= i);
+        }
+    }
+
+    @Test
+    public void recording() throws Exception {
+        RequestMetrics metrics = new RequestMetrics();
+        try (StubServer server = StubServer.start(exchange -> {
+            int status = exchange.getRequestURI().getPath().equals("/fail") ? 500 : 200;
+            StubServer.respond(exchange, status, "{\"key\":\"value\"}");
+        }); Resty resty = Resty.builder().requestMetrics(metrics).build()) {
+            String host = Endpoints.hostOf(server.url("/reference"));
+            resty.get(server.url("/reference"));
+            resty.futureGet(server.url("/reference")).get();
+            resty.get(server.url("/fail"));
+            resty.post(server.url("/reference"), "{\"é\":1}");
+
+            RouteMetrics success = metrics.getRoute(RestMethod.GET, host, "2xx");
+            assertEquals(2, success.getRequestCount());
+            assertEquals(30, success.getBytesReceived());
+            assertTrue(success.getLatency().getMax() > 0);
+            assertEquals(1, metrics.getRoute(RestMethod.GET, host, "5xx").getRequestCount());
+            assertEquals(8, metrics.getRoute(RestMethod.POST, host, "2xx").getBytesSent());
+            assertNull(metrics.getRoute(RestMethod.DELETE, host, "2xx"));
+            assertEquals(4, metrics.getRequestCount());
+            assertEquals(1, metrics.getErrorCount());
+            assertEquals(0, metrics.getInFlightCount(host));
+        }
+    }
+
+    @Test
+    public void jmx() throws Exception {
+        RequestMetrics metrics = new RequestMetrics();
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = metrics.registerMBean("test");
+        try (StubServer stub = StubServer.start(200, "{}");
+             Resty resty = Resty.builder().requestMetrics(metrics).build()) {
+            resty.get(stub.url("/reference"));
+            assertEquals(1L, server.getAttribute(name, "RequestCount"));
+            CompositeData[] routes = (CompositeData[]) server.getAttribute(name, "Routes");
+            assertEquals(1, routes.length);
+            assertEquals("2xx", routes[0].get("statusClass"));
+            assertEquals(1L, ((CompositeData) routes[0].get("latency")).get("count"));
+        } finally {
+            metrics.unregisterMBean(name);
+        }
+        assertFalse(server.isRegistered(name));
+    }
+}
@@ -0,0 +1,168 @@
+package resty.ratelimit;
+
+import org.junit.jupiter.api.Test;
+import resty.Resty;
+import resty.StubServer;
+import resty.response.RestResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RateLimitTest {
+
+    @Test
+    public void rejection() throws Exception {
+        RateLimiter limiter = new RateLimiter(RateLimitMode.REJECT,
+                RateLimit.builder().pathPattern("/api/**").permitsPerSecond(1).burst(2).build());
+        try (StubServer server = StubServer.start(200, "{}");
+             Resty resty = Resty.builder().rateLimiter(limiter).build()) {
+            assertEquals(200, resty.get(server.url("/api/v1/reference")).getStatus());
+            assertEquals(200, resty.get(server.url("/api/v2/reference")).getStatus());
+            RateLimitExceededException exception =
+                    assertThrows(RateLimitExceededException.class, () -> resty.get(server.url("/api/reference")));
+            assertTrue(exception.getRetryAfter() > 0);
+            ExecutionException futureException =
+                    assertThrows(ExecutionException.class, () -> resty.futureGet(server.url("/api/reference")).get());
+            assertTrue(futureException.getCause() instanceof RateLimitExceededException);
+            assertEquals(200, resty.get(server.url("/other")).getStatus());
+            assertEquals(2, limiter.getPermittedCount());
+            assertEquals(2, limiter.getRejectedCount());
+        }
+    }
+
+    @Test
+    public void blocking() throws Exception {
+        // Each request must complete within an interval of the limit for the next one to be delayed
+        RateLimiter limiter = new RateLimiter(RateLimitMode.BLOCK,
+                RateLimit.builder().pathPattern("/*").permitsPerSecond(10).build());
+        try (StubServer server = StubServer.start(200, "{}");
+             Resty resty = Resty.builder().rateLimiter(limiter).build()) {
+            assertEquals(200, resty.get(server.url("/nested/reference")).getStatus());
+            long start = System.nanoTime();
+            for (int i = 0; i < 4; i++) {
+                assertEquals(200, resty.get(server.url("/reference")).getStatus());
+            }
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 270);
+            assertEquals(4, limiter.getPermittedCount());
+            assertEquals(3, limiter.getDelayedCount());
+        }
+    }
+
+    @Test
+    public void asyncDelay() throws Exception {
+        RateLimiter limiter = new RateLimiter(RateLimitMode.DELAY, 150,
+                RateLimit.builder().pathPattern("/reference").permitsPerSecond(20).build());
+        try (StubServer server = StubServer.start(200, "{}");
+             Resty resty = Resty.builder().rateLimiter(limiter).build()) {
+            assertEquals(200, resty.futureGet(server.url("/warmup")).get().getStatus());
+            long start = System.nanoTime();
+            List<CompletableFuture<RestResponse>> futures = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                futures.add(resty.futureGet(server.url("/reference")));
+            }
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 50);
+            for (CompletableFuture<RestResponse> future : futures) {
+                assertEquals(200, future.get().getStatus());
+            }
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 80);
+            assertEquals(2, limiter.getDelayedCount());
+            futures.clear();
+            for (int i = 0; i < 5; i++) {
+                futures.add(resty.futureGet(server.url("/reference")));
+            }
+            ExecutionException exception = assertThrows(ExecutionException.class, () -> futures.get(4).get());
+            assertTrue(exception.getCause() instanceof RateLimitExceededException);
+            assertEquals(200, futures.get(0).get().getStatus());
+        }
+    }
+
+    @Test
+    public void asyncNeverBlocks() throws Exception {
+        RateLimiter limiter = new RateLimiter(RateLimitMode.BLOCK,
+                RateLimit.builder().pathPattern("/reference").permitsPerSecond(10).build());
+        try (StubServer server = StubServer.start(200, "{}");
+             Resty resty = Resty.builder().rateLimiter(limiter).build()) {
+            long start = System.nanoTime();
+            List<CompletableFuture<RestResponse>> futures = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                futures.add(resty.futureGet(server.url("/reference")));
+            }
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 100);
+            for (CompletableFuture<RestResponse> future : futures) {
+                assertEquals(200, future.get().getStatus());
+            }
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 180);
+            assertEquals(2, limiter.getDelayedCount());
+        }
+    }
+
+    @Test
+    public void rejectionTakesNoToken() throws Exception {
+        RateLimiter limiter = new RateLimiter(RateLimitMode.REJECT,
+                RateLimit.builder().permitsPerSecond(1).burst(3).build(),
+                RateLimit.builder().pathPattern("/api/**").permitsPerSecond(1).burst(1).build());
+        try (StubServer server = StubServer.start(200, "{}");
+             Resty resty = Resty.builder().rateLimiter(limiter).build()) {
+            assertEquals(200, resty.get(server.url("/api/first")).getStatus());
+            assertThrows(RateLimitExceededException.class, () -> resty.get(server.url("/api/second")));
+            assertThrows(RateLimitExceededException.class, () -> resty.get(server.url("/api/third")));
+            assertEquals(200, resty.get(server.url("/other")).getStatus());
+            assertEquals(200, resty.get(server.url("/other")).getStatus());
+            assertEquals(3, limiter.getPermittedCount());
+            assertEquals(2, limiter.getRejectedCount());
+        }
+    }
+
+    @Test
+    public void cancellationGivesTokenBack() throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+        RateLimiter limiter = new RateLimiter(RateLimitMode.DELAY, 1500,
+                RateLimit.builder().permitsPerSecond(1).build());
+        try (StubServer server = StubServer.start(exchange -> {
+            requests.incrementAndGet();
+            StubServer.respond(exchange, 200, "{}");
+        }); Resty resty = Resty.builder().rateLimiter(limiter).build()) {
+            assertEquals(200, resty.futureGet(server.url("/reference")).get().getStatus());
+            for (int i = 0; i < 3; i++) {
+                CompletableFuture<RestResponse> delayed = resty.futureGet(server.url("/reference"));
+                assertFalse(delayed.isDone());
+                assertTrue(delayed.cancel(true));
+            }
+            assertEquals(3, limiter.getDelayedCount());
+            assertEquals(0, limiter.getRejectedCount());
+            Thread.sleep(1200);
+            assertEquals(1, requests.get());
+        }
+    }
+
+    @Test
+    public void adaptationToServer() throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+        RateLimiter limiter = new RateLimiter(RateLimitMode.REJECT,
+                RateLimit.builder().permitsPerSecond(100).burst(10).build());
+        try (StubServer server = StubServer.start(exchange -> {
+            if (requests.incrementAndGet() == 1) {
+                exchange.getResponseHeaders().add("Retry-After", "1");
+                StubServer.respond(exchange, 429, "{}");
+            } else {
+                StubServer.respond(exchange, 200, "{}");
+            }
+        }); Resty resty = Resty.builder().rateLimiter(limiter).build()) {
+            assertEquals(429, resty.get(server.url("/reference")).getStatus());
+            RateLimitExceededException exception =
+                    assertThrows(RateLimitExceededException.class, () -> resty.get(server.url("/reference")));
+            assertTrue(exception.getRetryAfter() > 500);
+            assertEquals(1, requests.get());
+            assertEquals(1, limiter.getPausedCount());
+        }
+    }
+}
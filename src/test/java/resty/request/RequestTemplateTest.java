@@ -0,0 +1,97 @@
+package resty.request;
+
+import org.junit.jupiter.api.Test;
+import resty.Resty;
+import resty.StubServer;
+import resty.engine.RestEngineType;
+import resty.entity.RestEntities;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static resty.entity.RestEntity.withHeader;
+import static resty.entity.RestEntity.withParameter;
+
+public class RequestTemplateTest {
+
+    @Test
+    public void bind() {
+        RequestTemplate template = RequestTemplate.builder()
+                .uri("https://api.example.com/users/{user}/orders/{order}")
+                .entities(withHeader("Accept", "application/json"), withParameter("expand", "items lines"))
+                .readTimeout(2000)
+                .build();
+        assertEquals(Arrays.asList("user", "order"), template.getVariables());
+
+        RestRequest request = template.bind("john doe", 42);
+        assertEquals(RestMethod.GET, request.getMethod());
+        assertEquals("https://api.example.com/users/john%20doe/orders/42?expand=items%20lines", request.getEndpoint());
+        assertEquals(request.getEndpoint(), request.getUri().toString());
+        RestEntities entities = RestEntities.of(request.getEntities());
+        assertEquals(1, entities.getHeaderCount());
+        assertEquals(0, entities.getParameterCount());
+        assertEquals("Accept", entities.getHeaderName(0));
+        assertEquals(2000, request.getReadTimeout());
+
+        Map<String, Object> values = new HashMap<>();
+        values.put("user", "a/b");
+        values.put("order", 7);
+        RestRequest named = template.bindNamed(values, "{}", withParameter("page", 2), withHeader("X-Trace", "t"));
+        assertEquals("https://api.example.com/users/a%2Fb/orders/7?expand=items%20lines&page=2", named.getEndpoint());
+        assertEquals(2, RestEntities.of(named.getEntities()).getHeaderCount());
+        assertEquals("{}", named.getBody());
+    }
+
+    @Test
+    public void invalid() {
+        assertThrows(IllegalArgumentException.class, () -> RequestTemplate.builder().uri("http://host/{id").build());
+        assertThrows(IllegalArgumentException.class, () -> RequestTemplate.builder().uri("http://host/{}").build());
+        assertThrows(IllegalArgumentException.class, () -> RequestTemplate.builder().uri("http://host/id}").build());
+        RequestTemplate template = RequestTemplate.builder().uri("http://host/{id}/{id}/{other}").build();
+        assertEquals("http://host/1/1/2", template.bind(1, 2).getEndpoint());
+        assertThrows(IllegalArgumentException.class, () -> template.bind(1));
+        assertThrows(IllegalArgumentException.class, () -> template.bindNamed(Collections.singletonMap("id", 1), null));
+        RequestTemplate single = RequestTemplate.builder().uri("http://host/{id}").build();
+        assertThrows(IllegalArgumentException.class, () -> single.bind(Collections.singletonMap("id", 1)));
+        assertEquals("http://host/1", single.bindNamed(Collections.singletonMap("id", 1)).getEndpoint());
+    }
+
+    @Test
+    public void execute() throws Exception {
+        List<String> received = new CopyOnWriteArrayList<>();
+        try (StubServer server = StubServer.start(exchange -> {
+            received.add(exchange.getRequestMethod() + " " + exchange.getRequestURI() + " "
+                    + exchange.getRequestHeaders().getFirst("X-Client"));
+            StubServer.respond(exchange, 200, "{}");
+        })) {
+            RequestTemplate template = RequestTemplate.builder()
+                    .method(RestMethod.POST)
+                    .uri(server.url("/items/{id}"))
+                    .entities(withHeader("X-Client", "resty"), withParameter("lang", "en"))
+                    .build();
+            for (RestEngineType engineType : RestEngineType.values()) {
+                try (Resty resty = Resty.builder().engineType(engineType).build()) {
+                    assertEquals(200, resty.execute(template.bindBody("{\"name\":\"x\"}", 5)).getStatus());
+                    assertEquals(200, resty.execute(template.bindNamed(
+                            Collections.singletonMap("id", 6), null, withParameter("page", 1))).getStatus());
+                }
+            }
+        }
+        assertEquals(4, received.size());
+        assertEquals("POST /items/5?lang=en resty", received.get(0));
+        assertEquals("POST /items/6?lang=en&page=1 resty", received.get(1));
+        assertEquals(received.subList(0, 2), received.subList(2, 4));
+    }
+
+    @Test
+    public void plainRequestsHaveNoUri() {
+        assertNull(RestRequest.get("http://host/path").getUri());
+    }
+}
@@ -0,0 +1,36 @@
+package resty.response;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class RestResponseTest {
+
+    @Test
+    public void getBody() {
+        RestResponse response = new RestResponse(200, "{\"name\":\"resty\"}");
+        Map<?, ?> body = response.getBody(Map.class);
+        assertEquals("resty", body.get("name"));
+        assertSame(body, response.getBody(Map.class));
+    }
+
+    @Test
+    public void getGenericBody() {
+        RestResponse response = new RestResponse(200, "[1,2,3]");
+        List<Integer> body = response.getBody(new TypeReference<List<Integer>>() {});
+        assertEquals(asList(1, 2, 3), body);
+    }
+
+    @Test
+    public void getInvalidBody() {
+        RestResponse response = new RestResponse(200, "not json");
+        assertNull(response.getBody(Map.class));
+    }
+}
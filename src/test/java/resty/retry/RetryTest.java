@@ -0,0 +1,134 @@
+package resty.retry;
+
+import org.junit.jupiter.api.Test;
+import resty.Resty;
+import resty.StubServer;
+import resty.engine.RestEngineType;
+import resty.request.RestRequest;
+
+import javax.ws.rs.ProcessingException;
+import java.util.Collections;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RetryTest {
+
+    @Test
+    public void retryableStatus() throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+        try (StubServer server = StubServer.start(exchange ->
+                StubServer.respond(exchange, requests.incrementAndGet() < 3 ? 503 : 200, "{}"));
+             Resty resty = Resty.builder().retryPolicy(fastPolicy().build()).build()) {
+            assertEquals(200, resty.get(server.url("/reference")).getStatus());
+            assertEquals(3, requests.get());
+
+            requests.set(0);
+            assertEquals(200, resty.futureGet(server.url("/reference")).get().getStatus());
+            assertEquals(3, requests.get());
+        }
+    }
+
+    @Test
+    public void exhaustedAttempts() throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+        try (StubServer server = StubServer.start(exchange -> {
+            requests.incrementAndGet();
+            StubServer.respond(exchange, 503, "{}");
+        }); Resty resty = Resty.builder().retryPolicy(fastPolicy().build()).build()) {
+            assertEquals(503, resty.get(server.url("/reference")).getStatus());
+            assertEquals(3, requests.get());
+
+            requests.set(0);
+            assertEquals(503, resty.execute(RestRequest.get(server.url("/reference")).toBuilder()
+                    .retryPolicy(fastPolicy().retryableStatuses(Collections.singleton(500)).build())
+                    .build()).getStatus());
+            assertEquals(1, requests.get());
+        }
+    }
+
+    @Test
+    public void nonIdempotentRequests() throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+        try (StubServer server = StubServer.start(exchange -> {
+            requests.incrementAndGet();
+            StubServer.respond(exchange, 503, "{}");
+        }); Resty resty = Resty.builder().retryPolicy(fastPolicy().build()).build()) {
+            resty.post(server.url("/reference"), "{}");
+            assertEquals(1, requests.get());
+
+            requests.set(0);
+            resty.execute(RestRequest.post(server.url("/reference"), "{}").toBuilder()
+                    .retryPolicy(fastPolicy().retryNonIdempotent(true).build())
+                    .build());
+            assertEquals(3, requests.get());
+
+            requests.set(0);
+            resty.execute(RestRequest.put(server.url("/reference"), "{}").toBuilder()
+                    .retryPolicy(RetryPolicy.none())
+                    .build());
+            assertEquals(1, requests.get());
+        }
+    }
+
+    @Test
+    public void retryBudget() throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+        RetryBudget budget = new RetryBudget(0.1, 2);
+        try (StubServer server = StubServer.start(exchange -> {
+            requests.incrementAndGet();
+            StubServer.respond(exchange, 503, "{}");
+        }); Resty resty = Resty.builder().retryPolicy(fastPolicy().budget(budget).build()).build()) {
+            for (int i = 0; i < 5; i++) {
+                resty.get(server.url("/reference"));
+            }
+            assertEquals(5 + 2, requests.get());
+            assertEquals(2, budget.getRetryCount());
+            assertTrue(budget.getRejectedCount() >= 3);
+            assertEquals(0, budget.getAvailableRetries());
+        }
+    }
+
+    @Test
+    public void connectionFailure() throws Exception {
+        String endpoint;
+        try (StubServer server = StubServer.start(200, "{}")) {
+            endpoint = server.url("/reference");
+        }
+        RetryBudget budget = new RetryBudget(0, 10);
+        try (Resty resty = Resty.builder().retryPolicy(fastPolicy().budget(budget).build()).build()) {
+            try {
+                resty.get(endpoint);
+            } catch (RuntimeException e) {
+                assertEquals(2, budget.getRetryCount());
+                return;
+            }
+        }
+        throw new AssertionError("Request to a closed server succeeded");
+    }
+
+    @Test
+    public void asyncConnectionFailure() throws Exception {
+        String endpoint;
+        try (StubServer server = StubServer.start(200, "{}")) {
+            endpoint = server.url("/reference");
+        }
+        for (RestEngineType engineType : RestEngineType.values()) {
+            RetryBudget budget = new RetryBudget(0, 10);
+            try (Resty resty = Resty.builder().engineType(engineType)
+                    .retryPolicy(fastPolicy().budget(budget).build()).build()) {
+                ExecutionException exception =
+                        assertThrows(ExecutionException.class, () -> resty.futureGet(endpoint).get());
+                assertTrue(exception.getCause() instanceof ProcessingException, engineType.toString());
+                assertEquals(2, budget.getRetryCount(), engineType.toString());
+            }
+        }
+    }
+
+    private static RetryPolicy.RetryPolicyBuilder fastPolicy() {
+        return RetryPolicy.builder().initialBackoff(5).maxBackoff(20);
+    }
+}
@@ -0,0 +1,76 @@
+package resty.timing;
+
+import org.junit.jupiter.api.Test;
+import resty.Resty;
+import resty.StubServer;
+import resty.engine.RestEngineType;
+import resty.response.RestResponse;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RequestTimingTest {
+
+    @Test
+    public void phases() throws Exception {
+        List<RequestTiming> timings = new CopyOnWriteArrayList<>();
+        try (StubServer server = slowServer();
+             Resty resty = Resty.builder().timingListener((request, status, timing) -> timings.add(timing)).build()) {
+            RequestTiming first = resty.get(server.url("/reference")).getTiming();
+            assertFalse(first.isConnectionReused());
+            assertTrue(first.getDns() >= 0);
+            assertTrue(first.getConnect() >= 0);
+            assertEquals(-1, first.getTls());
+            assertTrue(first.getQueue() >= 0);
+            assertTrue(first.getRequestWrite() >= 0);
+            assertTrue(first.getTimeToFirstByte() >= SERVER_DELAY * 1000);
+            assertTrue(first.getBodyRead() >= 0);
+            assertTrue(first.getTotal() >= first.getTimeToFirstByte());
+
+            RequestTiming second = resty.futureGet(server.url("/reference")).get().getTiming();
+            assertTrue(second.isConnectionReused());
+            assertEquals(-1, second.getDns());
+            assertTrue(second.getTimeToFirstByte() >= SERVER_DELAY * 1000);
+            assertEquals(2, timings.size());
+        }
+    }
+
+    @Test
+    public void jdkHttpClient() throws Exception {
+        try (StubServer server = slowServer();
+             Resty resty = Resty.builder().engineType(RestEngineType.JDK_HTTP_CLIENT).requestTiming(true).build()) {
+            RequestTiming timing = resty.get(server.url("/reference")).getTiming();
+            assertEquals(-1, timing.getDns());
+            assertEquals(-1, timing.getQueue());
+            assertTrue(timing.getTimeToFirstByte() >= SERVER_DELAY * 1000);
+            assertTrue(timing.getBodyRead() >= 0);
+        }
+    }
+
+    @Test
+    public void disabled() throws Exception {
+        try (StubServer server = StubServer.start(200, "{}"); Resty resty = Resty.builder().build()) {
+            RestResponse response = resty.get(server.url("/reference"));
+            assertEquals(200, response.getStatus());
+            assertNull(response.getTiming());
+        }
+    }
+
+    private static StubServer slowServer() throws Exception {
+        return StubServer.start(exchange -> {
+            try {
+                Thread.sleep(SERVER_DELAY);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            StubServer.respond(exchange, 200, "{}");
+        });
+    }
+
+    private static final long SERVER_DELAY = 50;
+}
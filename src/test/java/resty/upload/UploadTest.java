@@ -0,0 +1,142 @@
+package resty.upload;
+
+import com.sun.net.httpserver.HttpExchange;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import resty.Resty;
+import resty.StubServer;
+import resty.engine.RestEngineType;
+import resty.request.RestMethod;
+import resty.response.RestResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class UploadTest {
+
+    @Test
+    public void uploadFile(@TempDir Path directory) throws Exception {
+        byte[] content = new byte[3 * 64 * 1024 + 123];
+        new Random(42).nextBytes(content);
+        Path file = Files.write(directory.resolve("artifact.bin"), content);
+        Map<String, String> received = new ConcurrentHashMap<>();
+        try (StubServer server = StubServer.start(exchange -> record(exchange, received))) {
+            for (RestEngineType engineType : RestEngineType.values()) {
+                received.clear();
+                try (Resty resty = Resty.builder().engineType(engineType).build()) {
+                    RestResponse response = resty.upload(RestMethod.PUT, server.url("/artifact"), UploadBody.of(file));
+                    assertTrue(response.isSuccess());
+                }
+                assertEquals("PUT", received.get("method"));
+                assertEquals("application/octet-stream", received.get("contentType"));
+                assertArrayEquals(content, received.get("body").getBytes(ISO_8859_1));
+                if (engineType == RestEngineType.JDK_HTTP_CLIENT) {
+                    assertEquals(String.valueOf(content.length), received.get("contentLength"));
+                } else {
+                    assertEquals("chunked", received.get("transferEncoding"));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void uploadStreamOfUnknownLength() throws Exception {
+        Map<String, String> received = new ConcurrentHashMap<>();
+        try (StubServer server = StubServer.start(exchange -> record(exchange, received))) {
+            for (RestEngineType engineType : RestEngineType.values()) {
+                received.clear();
+                InputStream stream = new ByteArrayInputStream("line 1\nline 2\n".getBytes(UTF_8));
+                try (Resty resty = Resty.builder().engineType(engineType).build()) {
+                    assertTrue(resty.upload(server.url("/logs"), UploadBody.of(stream)).isSuccess());
+                }
+                assertEquals("POST", received.get("method"));
+                assertEquals("chunked", received.get("transferEncoding"));
+                assertNull(received.get("contentLength"));
+                assertEquals("line 1\nline 2\n", received.get("body"));
+            }
+        }
+    }
+
+    @Test
+    public void uploadMultipart(@TempDir Path directory) throws Exception {
+        Path file = Files.write(directory.resolve("notes.txt"), "release notes".getBytes(UTF_8));
+        MultipartBody body = MultipartBody.builder()
+                .field("version", "1.2.0")
+                .file("notes", file, "text/plain")
+                .build();
+        String boundary = body.getBoundary();
+        String expected = "--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"version\"\r\n\r\n"
+                + "1.2.0\r\n"
+                + "--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"notes\"; filename=\"notes.txt\"\r\n"
+                + "Content-Type: text/plain\r\n\r\n"
+                + "release notes\r\n"
+                + "--" + boundary + "--\r\n";
+        assertEquals(expected.length(), body.getLength());
+        assertTrue(body.isRepeatable());
+        Map<String, String> received = new ConcurrentHashMap<>();
+        try (StubServer server = StubServer.start(exchange -> record(exchange, received))) {
+            for (RestEngineType engineType : RestEngineType.values()) {
+                received.clear();
+                try (Resty resty = Resty.builder().engineType(engineType).build()) {
+                    assertTrue(resty.upload(server.url("/release"), body).isSuccess());
+                }
+                assertEquals("multipart/form-data;boundary=" + boundary, received.get("contentType").replace(" ", ""));
+                assertEquals(expected, received.get("body"));
+            }
+        }
+    }
+
+    @Test
+    public void streamSentOnlyOnce() throws Exception {
+        UploadBody body = UploadBody.of(new ByteArrayInputStream(new byte[]{1, 2, 3}), 3, "application/octet-stream");
+        assertFalse(body.isRepeatable());
+        assertFalse(body.isChunked());
+        body.writeTo(new ByteArrayOutputStream());
+        assertThrows(IllegalStateException.class, () -> body.writeTo(new ByteArrayOutputStream()));
+        try (Resty resty = Resty.builder().build()) {
+            assertThrows(IllegalArgumentException.class,
+                    () -> resty.upload(RestMethod.GET, "http://localhost/", UploadBody.of(new byte[0], null)));
+        }
+    }
+
+    private static void record(HttpExchange exchange, Map<String, String> received) throws IOException {
+        received.put("method", exchange.getRequestMethod());
+        putIfPresent(received, "contentType", exchange.getRequestHeaders().getFirst("Content-Type"));
+        putIfPresent(received, "contentLength", exchange.getRequestHeaders().getFirst("Content-Length"));
+        putIfPresent(received, "transferEncoding", exchange.getRequestHeaders().getFirst("Transfer-Encoding"));
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                body.write(buffer, 0, read);
+            }
+        }
+        received.put("body", new String(body.toByteArray(), ISO_8859_1));
+        StubServer.respond(exchange, 200, "{}");
+    }
+
+    private static void putIfPresent(Map<String, String> received, String key, String value) {
+        if (value != null) {
+            received.put(key, value);
+        }
+    }
+}